@@ -0,0 +1,182 @@
+package org.fogbowcloud.blowout.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
+import org.fogbowcloud.blowout.core.constants.FogbowConstants;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.core.model.resource.ResourceState;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.core.monitor.TaskMonitor;
+import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
+import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
+import org.fogbowcloud.blowout.infrastructure.monitor.ResourceMonitor;
+import org.fogbowcloud.blowout.infrastructure.provider.InfrastructureProvider;
+import org.fogbowcloud.blowout.pool.BlowoutPool;
+import org.fogbowcloud.blowout.scheduler.Scheduler;
+
+/**
+ * Synthetic data and no-op collaborators shared by the benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+	public static final String REQUIREMENTS = "Glue2vCPU >= 1 && Glue2RAM >= 1024";
+
+	public static final String UUID = "benchmark-uuid";
+	private static final String PUBLIC_KEY = "public-key";
+
+	private BenchmarkFixtures() {
+	}
+
+	public static List<Specification> createSpecifications(int amount) {
+		List<Specification> specifications = new ArrayList<>(amount);
+		for (int i = 0; i < amount; i++) {
+			Specification specification = new Specification("cloud-" + i, "image-" + i, "user", PUBLIC_KEY,
+					"private-key-path");
+			specification.addRequirement(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS, REQUIREMENTS);
+			specifications.add(specification);
+		}
+		return specifications;
+	}
+
+	/**
+	 * Creates tasks spread round robin over the given specifications.
+	 */
+	public static List<Task> createTasks(int amount, List<Specification> specifications) {
+		List<Task> tasks = new ArrayList<>(amount);
+		for (int i = 0; i < amount; i++) {
+			Specification specification = specifications.get(i % specifications.size());
+			tasks.add(new TaskImpl("task-" + i, specification, UUID));
+		}
+		return tasks;
+	}
+
+	/**
+	 * Creates idle resources spread round robin over the given specifications,
+	 * with metadata that satisfies their requirements.
+	 */
+	public static List<AbstractResource> createResources(int amount, List<Specification> specifications) {
+		List<AbstractResource> resources = new ArrayList<>(amount);
+		for (int i = 0; i < amount; i++) {
+			Specification specification = specifications.get(i % specifications.size());
+			FogbowResource resource = new FogbowResource("resource-" + i, "order-" + i, specification);
+			resource.putMetadata(BlowoutConstants.METADATA_IMAGE_NAME, specification.getImageName());
+			resource.putMetadata(BlowoutConstants.METADATA_PUBLIC_KEY, PUBLIC_KEY);
+			resource.putMetadata(BlowoutConstants.METADATA_VCPU, "2");
+			resource.putMetadata(BlowoutConstants.METADATA_MEM_SIZE, "2048");
+			resource.setState(ResourceState.IDLE);
+			resources.add(resource);
+		}
+		return resources;
+	}
+
+	public static class NoOpInfrastructureManager implements InfrastructureManager {
+
+		@Override
+		public void act(List<AbstractResource> resources, List<Task> tasks) {
+		}
+	}
+
+	public static class NoOpScheduler implements Scheduler {
+
+		@Override
+		public void act(List<Task> tasks, List<AbstractResource> resources) {
+		}
+
+		@Override
+		public void actOnResources(List<Task> tasks, List<AbstractResource> resources) {
+		}
+
+		@Override
+		public void runTask(Task task, AbstractResource resource) {
+		}
+
+		@Override
+		public void stopTask(Task task) {
+		}
+
+		@Override
+		public void stopTasks(List<Task> tasks) {
+		}
+
+		@Override
+		public List<Task> getRunningTasks() {
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Provider that hands out resource ids without contacting any cloud.
+	 */
+	public static class StubInfrastructureProvider implements InfrastructureProvider {
+
+		private final AtomicLong requests = new AtomicLong();
+
+		@Override
+		public String requestResource(Specification specification) {
+			return "requested-" + requests.incrementAndGet();
+		}
+
+		@Override
+		public List<AbstractResource> getAllResources() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public AbstractResource getResource(String resourceId) {
+			return null;
+		}
+
+		@Override
+		public Map<String, AbstractResource> getResources(Collection<String> resourceIds) {
+			return Collections.emptyMap();
+		}
+
+		@Override
+		public void deleteResource(String resourceId) {
+		}
+	}
+
+	/**
+	 * Resource monitor that does not keep pending resources, so every act of the
+	 * infrastructure manager sees the same demand.
+	 */
+	public static class StatelessResourceMonitor extends ResourceMonitor {
+
+		public StatelessResourceMonitor(InfrastructureProvider infraProvider, BlowoutPool blowoutPool) {
+			super(infraProvider, blowoutPool, new Properties());
+		}
+
+		@Override
+		public void addPendingResource(String resourceId, Specification spec) {
+		}
+
+		@Override
+		public Map<Specification, Integer> getPendingRequests() {
+			return Collections.emptyMap();
+		}
+	}
+
+	/**
+	 * Task monitor that does not execute tasks, so the scheduler cost is measured
+	 * without forking processes.
+	 */
+	public static class NoOpTaskMonitor extends TaskMonitor {
+
+		public NoOpTaskMonitor(BlowoutPool blowoutPool) {
+			super(blowoutPool, 0);
+		}
+
+		@Override
+		public void runTask(Task task, AbstractResource resource) {
+		}
+	}
+}
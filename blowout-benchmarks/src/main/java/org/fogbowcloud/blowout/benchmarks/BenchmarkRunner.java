@@ -0,0 +1,28 @@
+package org.fogbowcloud.blowout.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the usual JMH command line options and
+ * always writes the results as JSON, so they can be compared across commits.
+ * The output file defaults to jmh-result.json and can be set with the
+ * blowout.benchmarks.result system property.
+ */
+public class BenchmarkRunner {
+
+	private static final String RESULT_FILE_PROPERTY = "blowout.benchmarks.result";
+	private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.resultFormat(ResultFormatType.JSON)
+				.result(System.getProperty(RESULT_FILE_PROPERTY, DEFAULT_RESULT_FILE))
+				.build();
+		new Runner(options).run();
+	}
+}
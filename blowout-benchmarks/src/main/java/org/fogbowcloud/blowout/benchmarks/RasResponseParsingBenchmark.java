@@ -0,0 +1,70 @@
+package org.fogbowcloud.blowout.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+import org.fogbowcloud.blowout.infrastructure.model.ComputeInstance;
+import org.fogbowcloud.blowout.infrastructure.model.PublicIpInstance;
+import org.fogbowcloud.blowout.infrastructure.provider.fogbow.RASResponseParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the decoding of the RAS responses read on every resource poll: a
+ * compute instance and its public IP instance. The nashorn benchmark keeps the
+ * former script engine based decoding as a baseline; it needs a JDK that still
+ * ships Nashorn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RasResponseParsingBenchmark {
+
+	private static final String COMPUTE_RESPONSE = "{\"id\": \"a1b2c3\", \"cloudName\": \"cloud\","
+			+ " \"disk\": 20, \"imageId\": \"f943ca3f-d9f3-407a-af26-e4c85f649af2\", \"memory\": 2048,"
+			+ " \"name\": \"blowout-compute\", \"provider\": \"member\", \"publicKey\": \"ssh-rsa AAAAB3Nza\","
+			+ " \"state\": \"READY\", \"vCPU\": 2, \"ipAddresses\": [\"10.11.4.94\"]}";
+
+	private static final String PUBLIC_IP_RESPONSE = "{\"cloudName\": \"cloud\", \"computeId\": \"a1b2c3\","
+			+ " \"computeName\": \"blowout-compute\", \"id\": \"d4e5f6\", \"ip\": \"150.165.15.81\","
+			+ " \"provider\": \"member\", \"state\": \"READY\"}";
+
+	@Benchmark
+	public void streamingParser(Blackhole blackhole) throws Exception {
+		ComputeInstance computeInstance = RASResponseParser.parseComputeInstance(COMPUTE_RESPONSE);
+		PublicIpInstance publicIpInstance = RASResponseParser.parsePublicIpInstance(PUBLIC_IP_RESPONSE);
+		blackhole.consume(computeInstance);
+		blackhole.consume(publicIpInstance);
+	}
+
+	@Benchmark
+	public void nashorn(Blackhole blackhole) throws Exception {
+		blackhole.consume(parseWithScriptEngine(COMPUTE_RESPONSE));
+		blackhole.consume(parseWithScriptEngine(PUBLIC_IP_RESPONSE));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> parseWithScriptEngine(String response) throws Exception {
+		ScriptEngine engine = new ScriptEngineManager().getEngineByName("javascript");
+		if (engine == null) {
+			throw new IllegalStateException("No JavaScript engine available in this JDK");
+		}
+		Object result = engine.eval("Java.asJSONCompatible(" + response + ")");
+		return new HashMap<>((Map<String, Object>) result);
+	}
+}
@@ -0,0 +1,50 @@
+package org.fogbowcloud.blowout.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
+import org.fogbowcloud.blowout.infrastructure.provider.fogbow.FogbowRequirementsHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a single match of Fogbow requirements against a resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequirementsMatchBenchmark {
+
+	@Param({ "Glue2vCPU >= 1",
+			"Glue2vCPU >= 1 && Glue2RAM >= 1024",
+			"Glue2vCPU >= 1 && Glue2RAM >= 1024 && Glue2disk <= 20 && Glue2CloudComputeManagerID == \"cloud\"" })
+	public String requirements;
+
+	private FogbowResource resource;
+
+	@Setup
+	public void createResource() {
+		Specification specification = BenchmarkFixtures.createSpecifications(1).get(0);
+		this.resource = (FogbowResource) BenchmarkFixtures.createResources(1,
+				Collections.singletonList(specification)).get(0);
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return FogbowRequirementsHelper.matches(resource, requirements);
+	}
+}
@@ -0,0 +1,139 @@
+package org.fogbowcloud.blowout.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.core.model.resource.ResourceState;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.infrastructure.manager.DefaultInfrastructureManager;
+import org.fogbowcloud.blowout.infrastructure.provider.InfrastructureProvider;
+import org.fogbowcloud.blowout.pool.DefaultBlowoutPool;
+import org.fogbowcloud.blowout.scheduler.DefaultScheduler;
+import org.fogbowcloud.blowout.scheduler.FairScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one pass of the scheduling hot path over synthetic bags: the full
+ * pool act, the scheduler act and the infrastructure manager act. Every
+ * iteration starts from fresh state, since acting assigns tasks to resources.
+ * The full parameter matrix takes long; narrow it with -p, e.g.
+ * {@code -p tasks=100000 -p resources=1000 -p specifications=10}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SchedulingBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000" })
+	public int tasks;
+
+	@Param({ "10", "100", "1000", "10000" })
+	public int resources;
+
+	@Param({ "1", "10", "100", "500" })
+	public int specifications;
+
+	@Param({ "DefaultScheduler", "FairScheduler" })
+	public String schedulerClass;
+
+	private List<Task> bag;
+	private List<AbstractResource> resourceList;
+
+	private ExecutorService idleActExecutor;
+	private ActingBlowoutPool blowoutPool;
+	private DefaultScheduler scheduler;
+	private DefaultInfrastructureManager infraManager;
+
+	@Setup(Level.Trial)
+	public void createWorkload() {
+		List<Specification> specs = BenchmarkFixtures.createSpecifications(specifications);
+		this.bag = BenchmarkFixtures.createTasks(tasks, specs);
+		this.resourceList = BenchmarkFixtures.createResources(resources, specs);
+		this.idleActExecutor = Executors.newSingleThreadExecutor();
+	}
+
+	@Setup(Level.Iteration)
+	public void createComponents() {
+		for (AbstractResource resource : resourceList) {
+			resource.setState(ResourceState.IDLE);
+		}
+		InfrastructureProvider infraProvider = new BenchmarkFixtures.StubInfrastructureProvider();
+		this.blowoutPool = new ActingBlowoutPool(idleActExecutor);
+		BenchmarkFixtures.NoOpTaskMonitor taskMonitor = new BenchmarkFixtures.NoOpTaskMonitor(blowoutPool);
+		if ("FairScheduler".equals(schedulerClass)) {
+			this.scheduler = new FairScheduler(taskMonitor);
+		} else {
+			this.scheduler = new DefaultScheduler(taskMonitor);
+		}
+		// resources are provisioned on the calling thread, so the benchmark measures the whole act
+		this.infraManager = new DefaultInfrastructureManager(infraProvider,
+				new BenchmarkFixtures.StatelessResourceMonitor(infraProvider, blowoutPool), Runnable::run);
+		this.blowoutPool.start(infraManager, scheduler);
+		this.blowoutPool.load(bag, resourceList);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopExecutor() {
+		this.idleActExecutor.shutdownNow();
+	}
+
+	@Benchmark
+	public void poolCallAct() {
+		blowoutPool.act();
+	}
+
+	@Benchmark
+	public void schedulerAct() {
+		scheduler.act(bag, resourceList);
+	}
+
+	@Benchmark
+	public void infrastructureManagerAct() throws Exception {
+		infraManager.act(resourceList, bag);
+	}
+
+	/**
+	 * Exposes the act of the pool and loads a workload without going through
+	 * the scheduling loop.
+	 */
+	static class ActingBlowoutPool extends DefaultBlowoutPool {
+
+		ActingBlowoutPool(ExecutorService actExecutor) {
+			super(actExecutor);
+		}
+
+		void load(List<Task> tasks, List<AbstractResource> resources) {
+			Map<String, AbstractResource> resourcePool = new ConcurrentHashMap<>();
+			for (AbstractResource resource : resources) {
+				resourcePool.put(resource.getId(), resource);
+			}
+			setResourcePool(resourcePool);
+			setTaskPool(tasks);
+		}
+
+		void act() {
+			callAct();
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package org.fogbowcloud.blowout.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.database.TaskJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Task state transitions written to the task journal per second, counting a
+ * transition only once it is on disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TaskJournalBenchmark {
+
+	private static final int TRANSITIONS = 10000;
+	private static final TaskState[] STATES = { TaskState.RUNNING, TaskState.READY };
+
+	private File journalDirectory;
+	private TaskJournal taskJournal;
+	private List<Task> tasks;
+
+	@Setup(Level.Trial)
+	public void openJournal() throws IOException {
+		this.journalDirectory = Files.createTempDirectory("task-journal-benchmark").toFile();
+		this.taskJournal = new TaskJournal(this.journalDirectory, Integer.MAX_VALUE);
+		this.taskJournal.recover();
+		this.tasks = BenchmarkFixtures.createTasks(1000, BenchmarkFixtures.createSpecifications(1));
+		this.taskJournal.submitted(this.tasks);
+	}
+
+	@TearDown(Level.Trial)
+	public void closeJournal() {
+		this.taskJournal.close();
+		for (File file : this.journalDirectory.listFiles()) {
+			file.delete();
+		}
+		this.journalDirectory.delete();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TRANSITIONS)
+	public void durableTransitions() throws InterruptedException {
+		for (int i = 0; i < TRANSITIONS; i++) {
+			this.taskJournal.stateChanged(this.tasks.get(i % this.tasks.size()), STATES[i & 1]);
+		}
+		this.taskJournal.sync();
+	}
+}
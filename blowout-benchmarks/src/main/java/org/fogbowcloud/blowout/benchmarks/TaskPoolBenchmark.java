@@ -0,0 +1,90 @@
+package org.fogbowcloud.blowout.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.pool.BlowoutPool;
+import org.fogbowcloud.blowout.pool.CompactBlowoutPool;
+import org.fogbowcloud.blowout.pool.DefaultBlowoutPool;
+import org.fogbowcloud.blowout.pool.SegmentedBlowoutPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the task storage of the pool implementations when a bag is
+ * submitted one task at a time, removed in bulk and looked up by id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TaskPoolBenchmark {
+
+	@Param({ "DefaultBlowoutPool", "SegmentedBlowoutPool", "CompactBlowoutPool" })
+	public String pool;
+
+	@Param({ "1000", "10000", "100000" })
+	public int tasks;
+
+	private List<Task> bag;
+	private BlowoutPool blowoutPool;
+
+	@Setup(Level.Trial)
+	public void createBag() {
+		this.bag = BenchmarkFixtures.createTasks(tasks, BenchmarkFixtures.createSpecifications(1));
+	}
+
+	@Setup(Level.Iteration)
+	public void startPool() {
+		if ("SegmentedBlowoutPool".equals(pool)) {
+			this.blowoutPool = new SegmentedBlowoutPool();
+		} else if ("CompactBlowoutPool".equals(pool)) {
+			this.blowoutPool = new CompactBlowoutPool();
+		} else {
+			this.blowoutPool = new DefaultBlowoutPool();
+		}
+		this.blowoutPool.start(new BenchmarkFixtures.NoOpInfrastructureManager(),
+				new BenchmarkFixtures.NoOpScheduler());
+	}
+
+	@TearDown(Level.Iteration)
+	public void stopPool() {
+		this.blowoutPool.stop();
+	}
+
+	@Benchmark
+	public void addTasksOneByOne() {
+		for (Task task : bag) {
+			blowoutPool.addTask(task);
+		}
+	}
+
+	@Benchmark
+	public void addThenRemoveTasks() {
+		blowoutPool.addTasks(bag);
+		blowoutPool.removeTasks(bag);
+	}
+
+	@Benchmark
+	public void addThenLookupById(Blackhole blackhole) {
+		blowoutPool.addTasks(bag);
+		for (Task task : bag) {
+			blackhole.consume(blowoutPool.getTaskById(task.getId()));
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package org.fogbowcloud.blowout.benchmarks;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.infrastructure.manager.DefaultInfrastructureManager;
+import org.fogbowcloud.blowout.infrastructure.monitor.ResourceMonitor;
+import org.fogbowcloud.blowout.infrastructure.provider.InfrastructureProvider;
+import org.fogbowcloud.blowout.pool.BlowoutPool;
+import org.fogbowcloud.blowout.pool.CompactBlowoutPool;
+import org.fogbowcloud.blowout.pool.DefaultBlowoutPool;
+import org.fogbowcloud.blowout.pool.SegmentedBlowoutPool;
+import org.fogbowcloud.blowout.pool.TaskStreamSubmitter;
+import org.fogbowcloud.blowout.scheduler.DefaultScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tasks per second ingested by {@link TaskStreamSubmitter} from a stream that
+ * creates each task as it is read, with the default submission limits and the
+ * scheduling loop of the pool running on the added chunks: the infrastructure
+ * manager computes the demand of the pool on each of them, and resources are
+ * requested from a provider that contacts no cloud. Tasks are not run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TaskSubmissionBenchmark {
+
+	private static final int TASKS = 100000;
+
+	@Param({ "DefaultBlowoutPool", "SegmentedBlowoutPool", "CompactBlowoutPool" })
+	public String pool;
+
+	@Param({ "100", "1000", "10000" })
+	public int chunkSize;
+
+	private Specification specification;
+	private BlowoutPool blowoutPool;
+	private TaskStreamSubmitter submitter;
+
+	@Setup(Level.Trial)
+	public void createSpecification() {
+		this.specification = BenchmarkFixtures.createSpecifications(1).get(0);
+	}
+
+	@Setup(Level.Invocation)
+	public void startPool() {
+		if ("SegmentedBlowoutPool".equals(pool)) {
+			this.blowoutPool = new SegmentedBlowoutPool();
+		} else if ("CompactBlowoutPool".equals(pool)) {
+			this.blowoutPool = new CompactBlowoutPool();
+		} else {
+			this.blowoutPool = new DefaultBlowoutPool();
+		}
+		InfrastructureProvider infraProvider = new BenchmarkFixtures.StubInfrastructureProvider();
+		ResourceMonitor resourceMonitor = new ResourceMonitor(infraProvider, this.blowoutPool, new Properties());
+		this.blowoutPool.start(new DefaultInfrastructureManager(infraProvider, resourceMonitor),
+				new DefaultScheduler(new BenchmarkFixtures.NoOpTaskMonitor(this.blowoutPool)));
+		Properties properties = new Properties();
+		properties.setProperty(AppPropertiesConstants.TASK_SUBMISSION_CHUNK_SIZE, String.valueOf(chunkSize));
+		this.submitter = new TaskStreamSubmitter(this.blowoutPool, properties);
+	}
+
+	@TearDown(Level.Invocation)
+	public void stopPool() {
+		this.blowoutPool.stop();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public long submitStream() throws InterruptedException {
+		return this.submitter.submit(new TaskStream(TASKS, this.specification));
+	}
+
+	private static class TaskStream implements Iterator<Task> {
+
+		private final int size;
+		private final Specification specification;
+		private int next;
+
+		private TaskStream(int size, Specification specification) {
+			this.size = size;
+			this.specification = specification;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.next < this.size;
+		}
+
+		@Override
+		public Task next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return new TaskImpl("task-" + this.next++, this.specification, BenchmarkFixtures.UUID);
+		}
+	}
+}
@@ -1,30 +1,44 @@
 package org.fogbowcloud.blowout.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.exception.BlowoutException;
 import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskGenerator;
 import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.core.monitor.TaskExecutors;
 import org.fogbowcloud.blowout.core.monitor.TaskMonitor;
+import org.fogbowcloud.blowout.core.ssh.SshConnectionPool;
 import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+import org.fogbowcloud.blowout.database.TaskJournal;
 import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
 import org.fogbowcloud.blowout.infrastructure.monitor.ResourceMonitor;
 import org.fogbowcloud.blowout.infrastructure.provider.InfrastructureProvider;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
 import org.fogbowcloud.blowout.pool.BlowoutPool;
+import org.fogbowcloud.blowout.pool.JournaledBlowoutPool;
+import org.fogbowcloud.blowout.pool.TaskStreamSubmitter;
 import org.fogbowcloud.blowout.scheduler.Scheduler;
 
 public class BlowoutController {
 
 	private static final Logger LOGGER = Logger.getLogger(BlowoutController.class);
+	private static final long DEFAULT_TASK_MONITOR_PERIOD = 30000;
+	private static final int DEFAULT_TASK_GENERATOR_WINDOW = 1000;
 
 	private Scheduler scheduler;
 	private TaskMonitor taskMonitor;
 	private Properties properties;
+	private TaskJournal taskJournal;
+	private TaskStreamSubmitter taskStreamSubmitter;
 
 	protected BlowoutPool blowoutPool;
 	protected InfrastructureProvider infraProvider;
@@ -56,9 +70,15 @@ public class BlowoutController {
 		for (AbstractResource resource : blowoutPool.getAllResources()) {
 			infraProvider.deleteResource(resource.getId());
 		}
+		infraProvider.stop();
 
 		taskMonitor.stop();
 		resourceMonitor.stop();
+		blowoutPool.stop();
+		SshConnectionPool.getInstance().closeAll();
+		if (taskJournal != null) {
+			taskJournal.close();
+		}
 
 		started = false;
 	}
@@ -79,6 +99,40 @@ public class BlowoutController {
 		blowoutPool.addTasks(tasks);
 	}
 
+	/**
+	 * Submits a stream of tasks, reading it a chunk at a time and waiting
+	 * before each chunk while the pool is full, so the whole bag never needs
+	 * to be in memory.
+	 *
+	 * @return the number of tasks submitted.
+	 */
+	public long submit(Iterator<? extends Task> tasks) throws BlowoutException {
+		if (!started) {
+			throw new BlowoutException("Blowout hasn't been started yet");
+		}
+		try {
+			return taskStreamSubmitter.submit(tasks);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BlowoutException("Interrupted while submitting a stream of tasks.", e);
+		}
+	}
+
+	/**
+	 * Submits the tasks of a generator, such as a {@code TaskTemplate}, without
+	 * creating them: the pool generates them a window at a time, as they are
+	 * about to be scheduled, and forgets them once they finish.
+	 */
+	public void addTaskGenerator(TaskGenerator generator) throws BlowoutException {
+		if (!started) {
+			throw new BlowoutException("Blowout hasn't been started yet");
+		}
+		int window = Integer.parseInt(this.properties.getProperty(AppPropertiesConstants.TASK_GENERATOR_WINDOW,
+				String.valueOf(DEFAULT_TASK_GENERATOR_WINDOW)));
+		LOGGER.debug("Task generator " + generator.getId() + " submitted to the Pool.");
+		blowoutPool.addTaskGenerator(generator, window);
+	}
+
 	public void cleanTask(Task task) {
 		blowoutPool.removeTask(task);
 	}
@@ -88,19 +142,23 @@ public class BlowoutController {
 	}
 
 	public TaskState getTaskState(String taskId) {
-		Task task = null;
-		for (Task t : blowoutPool.getAllTasks()) {
-			if (t.getId().equals(taskId)) {
-				task = t;
-			}
-		}
+		Task task = blowoutPool.getTaskById(taskId);
 		if (task == null) {
-			return TaskState.NOT_CREATED;
+			TaskState generatedTaskState = blowoutPool.getGeneratedTaskState(taskId);
+			return generatedTaskState == null ? TaskState.NOT_CREATED : generatedTaskState;
 		} else {
 			return taskMonitor.getTaskState(task);
 		}
 	}
 
+	public Map<String, TaskState> getTaskStates(Collection<String> taskIds) {
+		Map<String, TaskState> taskStates = new LinkedHashMap<>();
+		for (String taskId : taskIds) {
+			taskStates.put(taskId, getTaskState(taskId));
+		}
+		return taskStates;
+	}
+
 	public BlowoutPool createBlowoutInstance() throws Exception {
 		String providerClassName = this.properties.getProperty(AppPropertiesConstants.POOL_PLUGIN,
 				BlowoutConstants.DEFAULT_IMPLEMENTATION_BLOWOUT_POOL);
@@ -146,11 +204,20 @@ public class BlowoutController {
 	}
 
 	private void createEntitiesInstances(boolean removePreviousResources) throws Exception {
-		final long timeout = 30000;
+		final long timeout = Long.parseLong(this.properties.getProperty(AppPropertiesConstants.TASK_MONITOR_PERIOD,
+				String.valueOf(DEFAULT_TASK_MONITOR_PERIOD)));
+		SshConnectionPool.configure(this.properties);
 		this.blowoutPool = createBlowoutInstance();
+		this.taskJournal = TaskJournal.create(this.properties);
+		if (this.taskJournal != null) {
+			List<Task> recoveredTasks = this.taskJournal.recover();
+			this.blowoutPool = new JournaledBlowoutPool(this.blowoutPool, this.taskJournal, recoveredTasks);
+		}
+		this.taskStreamSubmitter = new TaskStreamSubmitter(this.blowoutPool, this.properties);
 		this.infraProvider = createInfraProviderInstance(removePreviousResources);
 
-		this.taskMonitor = new TaskMonitor(this.blowoutPool, timeout);
+		this.taskMonitor = new TaskMonitor(this.blowoutPool, timeout, TaskExecutors.create(this.properties));
+		this.taskMonitor.setTaskJournal(this.taskJournal);
 		this.taskMonitor.start();
 
 		this.resourceMonitor = new ResourceMonitor(this.infraProvider, this.blowoutPool, this.properties);
@@ -192,6 +259,10 @@ public class BlowoutController {
 		this.scheduler = scheduler;
 	}
 
+	public TaskJournal getTaskJournal() {
+		return taskJournal;
+	}
+
 	public InfrastructureProvider getInfraProvider() {
 		return infraProvider;
 	}
@@ -225,12 +296,7 @@ public class BlowoutController {
 	}
 
 	public int getTaskRetries(String taskId) {
-		Task task = null;
-		for (Task t : blowoutPool.getAllTasks()) {
-			if (t.getId().equals(taskId)) {
-				task = t;
-			}
-		}
+		Task task = blowoutPool.getTaskById(taskId);
 		if (task == null) {
 			return 0;
 		} else {
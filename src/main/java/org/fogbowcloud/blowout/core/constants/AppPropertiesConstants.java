@@ -7,13 +7,29 @@ public class AppPropertiesConstants {
 	public static final String INFRA_MANAGER_PLUGIN = "blowout_infra_manager_plugin";
 	public static final String INFRA_PROVIDER_PLUGIN = "blowout_infra_provider_plugin";
 	public static final String TOKEN_UPDATE_PLUGIN = "blowout_token_update_plugin";
+	public static final String ELASTICITY_POLICY_PLUGIN = "blowout_elasticity_policy_plugin";
 
 	public static final String INFRA_IS_ELASTIC = "infra_is_elastic";
 	public static final String INFRA_RESOURCE_CONNECTION_TIMEOUT = "infra_resource_connection_timeout";
 	public static final String INFRA_RESOURCE_IDLE_LIFETIME = "infra_resource_idle_lifetime";
+	public static final String INFRA_SCALE_DOWN_DELAY = "infra_scale_down_delay";
+	public static final String INFRA_WARM_POOL_SIZE = "infra_warm_pool_size";
+	public static final String INFRA_MAX_RESOURCES = "infra_max_resources";
 	public static final String INFRA_RESOURCE_REUSE_TIMES = "max_resource_reuse";
 	public static final String INFRA_RESOURCE_CONNECTION_RETRY = "max_resource_connection_retry";
 	public static final String RESOURCE_MONITOR_SLEEP_PERIOD = "resource_monitor_sleep_period";
+	public static final String RESOURCE_MONITOR_PENDING_MIN_PERIOD = "resource_monitor_pending_min_period";
+	public static final String INFRA_RESOURCE_POLL_THREADS = "infra_resource_poll_threads";
+	public static final String TASK_MONITOR_PERIOD = "task_monitor_period";
+	public static final String TASK_EXECUTOR = "task_executor";
+	public static final String TASK_EXECUTOR_MAX_THREADS = "task_executor_max_threads";
+	public static final String TASK_EXECUTOR_QUEUE_SIZE = "task_executor_queue_size";
+	public static final String TASK_JOURNAL_DIR = "task_journal_dir";
+	public static final String TASK_JOURNAL_SNAPSHOT_RECORDS = "task_journal_snapshot_records";
+	public static final String TASK_GENERATOR_WINDOW = "task_generator_window";
+	public static final String TASK_SUBMISSION_CHUNK_SIZE = "task_submission_chunk_size";
+	public static final String TASK_SUBMISSION_MAX_UNFINISHED_TASKS = "task_submission_max_unfinished_tasks";
+	public static final String TASK_SUBMISSION_MAX_HEAP_USAGE = "task_submission_max_heap_usage";
 	public static final String DEFAULT_CLOUD_NAME = "default-cloud-name";
 
 	public static final String AS_TOKEN_PREFIX = "as_token_";
@@ -27,9 +43,22 @@ public class AppPropertiesConstants {
 
 	public static final String RAS_BASE_URL = "ras_base_url";
 	public static final String RAS_MEMBER_ID = "ras_member_id";
+	public static final String RAS_IMAGE_CACHE_TIME_TO_LIVE = "ras_image_cache_time_to_live";
 
 	public static final String TOKEN_UPDATE_TIME = "ras_token_update_time";
 	public static final String TOKEN_UPDATE_TIME_UNIT = "ras_token_update_time_unit";
 
+	public static final String HTTP_CONNECT_TIMEOUT = "http_connect_timeout";
+	public static final String HTTP_READ_TIMEOUT = "http_read_timeout";
+	public static final String HTTP_CONNECTION_REQUEST_TIMEOUT = "http_connection_request_timeout";
+	public static final String HTTP_MAX_CONNECTIONS = "http_max_connections";
+	public static final String HTTP_MAX_CONNECTIONS_PER_ROUTE = "http_max_connections_per_route";
+	public static final String HTTP_KEEP_ALIVE = "http_keep_alive";
+	public static final String HTTP_IDLE_CONNECTION_TIMEOUT = "http_idle_connection_timeout";
+
+	public static final String SSH_CONTROL_PERSIST = "ssh_control_persist";
+
 	public static final String DB_DATASTORE_URL = "blowout_datastore_url";
+	public static final String DB_DATASTORE_FLUSH_PERIOD = "blowout_datastore_flush_period";
+	public static final String DB_DATASTORE_FLUSH_BATCH = "blowout_datastore_flush_batch";
 }
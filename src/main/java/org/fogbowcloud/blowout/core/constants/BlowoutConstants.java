@@ -5,6 +5,7 @@ public class BlowoutConstants {
     public static final String DEFAULT_IMPLEMENTATION_SCHEDULER = "org.fogbowcloud.blowout.scheduler.DefaultScheduler";
     public static final String DEFAULT_IMPLEMENTATION_INFRA_MANAGER = "org.fogbowcloud.blowout.infrastructure.manager.DefaultInfrastructureManager";
     public static final String DEFAULT_IMPLEMENTATION_INFRA_PROVIDER = "org.fogbowcloud.blowout.infrastructure.provider.fogbow.FogbowInfrastructureProvider";
+    public static final String DEFAULT_IMPLEMENTATION_ELASTICITY_POLICY = "org.fogbowcloud.blowout.infrastructure.manager.DefaultElasticityPolicy";
 
     public static final String FOGBOW_REQUIREMENTS_EXAMPLE = "e.g: [Glue2vCPU >= 1 && Glue2RAM >= " +
             "1024 && Glue2disk >= 20 &&" + " Glue2CloudComputeManagerID ==\"servers.your.domain\"]";
@@ -29,4 +30,6 @@ public class BlowoutConstants {
     public static final String METADATA_LOCATION = "metadataLocation";
 
     public static final String METADATA_REQUEST_TYPE = "metadataRequestType";
+
+    public static final String REQUIREMENT_SLOTS = "slots";
 }
@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.constants.FogbowConstants;
 import org.fogbowcloud.blowout.core.util.AppUtil;
 import org.json.JSONException;
@@ -213,6 +214,33 @@ public class Specification implements Serializable {
 		return getFogbowRequirement(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2disk);
 	}
 
+	/**
+	 * @return how many tasks a resource of this specification is expected to
+	 *         run at the same time: the slots requirement if there is one,
+	 *         else the vCPU requirement, else one.
+	 */
+	public int getSlotsPerResource() {
+		int slots = parseSlots(getRequirementValue(BlowoutConstants.REQUIREMENT_SLOTS));
+		if (slots == 0) {
+			slots = parseSlots(getvCPU());
+		}
+		return slots == 0 ? 1 : slots;
+	}
+
+	/**
+	 * @return the positive slot count of a value, or zero if it has none.
+	 */
+	public static int parseSlots(Object value) {
+		if (value == null) {
+			return 0;
+		}
+		try {
+			return Math.max(0, Integer.parseInt(value.toString().trim()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
 	private String getFogbowRequirement(String fogbowRequirementKey) {
 		String fogbowRequirements = getRequirementValue(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS);
 
@@ -1,9 +1,11 @@
 package org.fogbowcloud.blowout.core.model.resource;
 
+import java.net.InetSocketAddress;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.model.Specification;
 
 public abstract class AbstractResource {
@@ -13,6 +15,8 @@ public abstract class AbstractResource {
 	private int connectionFailTries = 0;
 	private Specification requestedSpec;
 	private ResourceState state;
+	private int usedSlots = 0;
+	private boolean draining = false;
 	
 	public AbstractResource(String id, Specification requestedSpec) {
 		this.metadata = new HashMap<>();
@@ -27,11 +31,39 @@ public abstract class AbstractResource {
 	
 	public boolean checkConnectivity(){
 		
-		boolean success = this.internalCheckConnectivity();
+		return this.recordConnectivity(this.internalCheckConnectivity());
+	}
+
+	/**
+	 * Checks the connectivity of this resource with the given probe, so the
+	 * check waits as long as the probe was configured to. Resources without a
+	 * connectivity address are checked by {@link #checkConnectivity()}.
+	 */
+	public boolean checkConnectivity(ConnectivityProbe connectivityProbe) {
+		InetSocketAddress address = getConnectivityAddress();
+		if (address == null) {
+			return checkConnectivity();
+		}
+		return this.recordConnectivity(connectivityProbe.probe(address));
+	}
+
+	/**
+	 * Records the result of a connectivity check made outside of the
+	 * resource, such as a batch of probes of the resource monitor.
+	 */
+	public boolean recordConnectivity(boolean success) {
 		connectionFailTries = success ? 0 : connectionFailTries+1;
 		return success;
 	}
 
+	/**
+	 * @return the address probed to check the connectivity of this resource,
+	 *         or null if it can only be checked by {@link #checkConnectivity()}.
+	 */
+	public InetSocketAddress getConnectivityAddress() {
+		return null;
+	}
+
 	public void putMetadata(String attributeName, Object value) {
 		metadata.put(attributeName, value);
 	}
@@ -79,6 +111,100 @@ public abstract class AbstractResource {
 		this.state = state;
 	}
 
+	/**
+	 * @return how many tasks this resource runs at the same time: the slots
+	 *         requirement of its specification if there is one, else its
+	 *         number of vCPUs, else the slots expected from its specification.
+	 */
+	public int getSlots() {
+		int slots = requestedSpec == null ? 0
+				: Specification.parseSlots(requestedSpec.getRequirementValue(BlowoutConstants.REQUIREMENT_SLOTS));
+		if (slots == 0) {
+			slots = Specification.parseSlots(metadata.get(BlowoutConstants.METADATA_VCPU));
+		}
+		if (slots == 0) {
+			slots = requestedSpec == null ? 1 : requestedSpec.getSlotsPerResource();
+		}
+		return Math.max(1, slots);
+	}
+
+	public synchronized int getUsedSlots() {
+		return usedSlots;
+	}
+
+	public synchronized int getFreeSlots() {
+		return Math.max(0, getSlots() - usedSlots);
+	}
+
+	/**
+	 * Takes a slot for a task starting on this resource, unless it is being
+	 * removed or drained.
+	 *
+	 * @return the slots left free, or -1 if the resource is being removed or
+	 *         drained and no slot was taken.
+	 */
+	public synchronized int occupySlot() {
+		if (draining || ResourceState.TO_REMOVE.equals(state)) {
+			return -1;
+		}
+		usedSlots++;
+		return getFreeSlots();
+	}
+
+	/**
+	 * Marks this resource to be removed if it is idle with no slot taken.
+	 * Taking a slot and marking the resource exclude each other, so no task
+	 * starts on a resource marked here.
+	 *
+	 * @return true if the resource was marked.
+	 */
+	public synchronized boolean markToRemoveIfIdle() {
+		if (!ResourceState.IDLE.equals(state) || usedSlots > 0) {
+			return false;
+		}
+		state = ResourceState.TO_REMOVE;
+		return true;
+	}
+
+	/**
+	 * Gives back the slot of a task that ended on this resource.
+	 *
+	 * @return true if the resource is drained and no task runs on it anymore,
+	 *         so it can be reported failed.
+	 */
+	public synchronized boolean freeSlot() {
+		return freeSlot(false);
+	}
+
+	/**
+	 * Gives back the slot of a task that ended on this resource. A failed
+	 * task drains the resource: it takes no more tasks, and is reported
+	 * failed only once the other tasks running on it end, so they are not
+	 * taken down with it.
+	 *
+	 * @return true if the resource is drained and no task runs on it anymore,
+	 *         so it can be reported failed.
+	 */
+	public synchronized boolean freeSlot(boolean taskFailed) {
+		if (usedSlots > 0) {
+			usedSlots--;
+		}
+		draining = draining || taskFailed;
+		if (draining && usedSlots == 0) {
+			draining = false;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if a task failed on this resource while others still run
+	 *         on it.
+	 */
+	public synchronized boolean isDraining() {
+		return draining;
+	}
+
 	public Specification getRequestedSpec() {
 		return requestedSpec;
 	}
@@ -0,0 +1,12 @@
+package org.fogbowcloud.blowout.core.model.resource;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Checks whether an address accepts connections, used to check the
+ * connectivity of the resources that expose one.
+ */
+public interface ConnectivityProbe {
+
+	boolean probe(InetSocketAddress address);
+}
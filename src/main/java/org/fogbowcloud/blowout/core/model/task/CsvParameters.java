@@ -0,0 +1,127 @@
+package org.fogbowcloud.blowout.core.model.task;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parameters read from a CSV file whose first line holds their names and
+ * each following line the values of one task. Fields are separated by
+ * commas and trimmed; quoted fields are not supported and blank lines are
+ * skipped. Only the position of each line is kept in memory, a line is read
+ * when its task is generated.
+ */
+public class CsvParameters implements TaskParameters, Closeable {
+
+	private static final String SEPARATOR = ",";
+
+	private final RandomAccessFile file;
+	private final String[] names;
+	private long[] lineBounds;
+	private int lines;
+
+	public CsvParameters(File csvFile) throws IOException {
+		this.lineBounds = new long[2048];
+		this.names = indexLines(csvFile);
+		this.file = new RandomAccessFile(csvFile, "r");
+	}
+
+	/**
+	 * Records where each line that is not blank starts and ends.
+	 *
+	 * @return the names in the header line.
+	 */
+	private String[] indexLines(File csvFile) throws IOException {
+		try (InputStream input = new BufferedInputStream(new FileInputStream(csvFile))) {
+			ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+			long position = 0;
+			int read;
+			while ((read = input.read()) >= 0 && read != '\n') {
+				headerBytes.write(read);
+				position++;
+			}
+			String header = new String(headerBytes.toByteArray(), StandardCharsets.UTF_8);
+			if (header.trim().isEmpty()) {
+				throw new IOException("CSV file " + csvFile + " has no header.");
+			}
+
+			long lineStart = ++position;
+			boolean blank = true;
+			while ((read = input.read()) >= 0) {
+				if (read == '\n') {
+					if (!blank) {
+						addLine(lineStart, position);
+					}
+					lineStart = position + 1;
+					blank = true;
+				} else if (!Character.isWhitespace(read)) {
+					blank = false;
+				}
+				position++;
+			}
+			if (!blank) {
+				addLine(lineStart, position);
+			}
+
+			String[] names = header.split(SEPARATOR, -1);
+			for (int i = 0; i < names.length; i++) {
+				names[i] = names[i].trim();
+			}
+			return names;
+		}
+	}
+
+	private void addLine(long start, long end) {
+		if (2 * this.lines == this.lineBounds.length) {
+			this.lineBounds = Arrays.copyOf(this.lineBounds, this.lineBounds.length * 2);
+		}
+		this.lineBounds[2 * this.lines] = start;
+		this.lineBounds[2 * this.lines + 1] = end;
+		this.lines++;
+	}
+
+	@Override
+	public int size() {
+		return this.lines;
+	}
+
+	@Override
+	public synchronized Map<String, String> get(int index) {
+		if (index < 0 || index >= this.lines) {
+			throw new IndexOutOfBoundsException("Line " + index + " of a CSV file with " + this.lines + " lines.");
+		}
+		long start = this.lineBounds[2 * index];
+		byte[] bytes = new byte[(int) (this.lineBounds[2 * index + 1] - start)];
+		try {
+			this.file.seek(start);
+			this.file.readFully(bytes);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not read line " + index + " of the CSV file.", e);
+		}
+
+		String[] fields = new String(bytes, StandardCharsets.UTF_8).split(SEPARATOR, -1);
+		if (fields.length != this.names.length) {
+			throw new IllegalStateException("Line " + index + " of the CSV file has " + fields.length
+					+ " fields instead of " + this.names.length + ".");
+		}
+		Map<String, String> values = new LinkedHashMap<>();
+		for (int i = 0; i < fields.length; i++) {
+			values.put(this.names[i], fields[i].trim());
+		}
+		return values;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.file.close();
+	}
+}
@@ -0,0 +1,102 @@
+package org.fogbowcloud.blowout.core.model.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every combination of the values of some parameters, each given as an
+ * integer range or a list of values. The last parameter added varies the
+ * fastest. The values of a combination are computed from its index, so only
+ * the ranges are kept in memory.
+ */
+public class ParameterRanges implements TaskParameters {
+
+	private final List<Dimension> dimensions = new ArrayList<>();
+
+	/**
+	 * Adds the integers from first to last, both included.
+	 */
+	public ParameterRanges addRange(String name, long first, long last) {
+		return addRange(name, first, last, 1);
+	}
+
+	public ParameterRanges addRange(String name, long first, long last, long step) {
+		if (step <= 0 || last < first) {
+			throw new IllegalArgumentException("Invalid range of parameter " + name + ": " + first + " to "
+					+ last + " by " + step + ".");
+		}
+		return add(new Dimension(name, first, step, (last - first) / step + 1, null));
+	}
+
+	public ParameterRanges addValues(String name, String... values) {
+		if (values.length == 0) {
+			throw new IllegalArgumentException("Parameter " + name + " has no values.");
+		}
+		return add(new Dimension(name, 0, 0, values.length, Arrays.asList(values)));
+	}
+
+	private ParameterRanges add(Dimension dimension) {
+		this.dimensions.add(dimension);
+		long size = 1;
+		for (Dimension each : this.dimensions) {
+			size *= each.count;
+			if (size > Integer.MAX_VALUE) {
+				this.dimensions.remove(dimension);
+				throw new IllegalArgumentException("Parameter " + dimension.name + " makes more than "
+						+ Integer.MAX_VALUE + " combinations.");
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public int size() {
+		if (this.dimensions.isEmpty()) {
+			return 0;
+		}
+		int size = 1;
+		for (Dimension dimension : this.dimensions) {
+			size *= dimension.count;
+		}
+		return size;
+	}
+
+	@Override
+	public Map<String, String> get(int index) {
+		Map<String, String> values = new LinkedHashMap<>();
+		long remainder = index;
+		for (int i = this.dimensions.size() - 1; i >= 0; i--) {
+			Dimension dimension = this.dimensions.get(i);
+			values.put(dimension.name, dimension.valueAt(remainder % dimension.count));
+			remainder /= dimension.count;
+		}
+		return values;
+	}
+
+	private static class Dimension {
+
+		private final String name;
+		private final long first;
+		private final long step;
+		private final long count;
+		private final List<String> values;
+
+		private Dimension(String name, long first, long step, long count, List<String> values) {
+			this.name = name;
+			this.first = first;
+			this.step = step;
+			this.count = count;
+			this.values = values;
+		}
+
+		private String valueAt(long position) {
+			if (this.values != null) {
+				return this.values.get((int) position);
+			}
+			return String.valueOf(this.first + position * this.step);
+		}
+	}
+}
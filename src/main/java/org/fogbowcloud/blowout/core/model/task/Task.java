@@ -35,6 +35,10 @@ public interface Task extends Serializable{
 	
 	void startedRunning();
 
+	void recordEvent(TaskTimestamps.Event event);
+
+	TaskTimestamps getTimestamps();
+
 	void putMetadata(String attributeName, String value);
 
 	String getMetadata(String attributeName);
@@ -8,6 +8,8 @@ public class TaskExecutionResult {
 	
 	private boolean taskFinished;
 	private int exitValue;
+	private String output;
+	private String errorOutput;
 
 	public TaskExecutionResult() {
 		this.taskFinished = false;
@@ -22,11 +24,33 @@ public class TaskExecutionResult {
 		return this.taskFinished;
 	}
 
+	/**
+	 * @return the standard output of the command, truncated to its last
+	 *         bytes, or null if it was not captured.
+	 */
+	public String getOutput() {
+		return output;
+	}
+
+	/**
+	 * @return the standard error of the command, truncated to its last bytes,
+	 *         or null if it was not captured.
+	 */
+	public String getErrorOutput() {
+		return errorOutput;
+	}
+
 	public void finish(int exitValue) {
 		this.taskFinished = true;
 		this.exitValue = exitValue;
 	}
 
+	public void finish(int exitValue, String output, String errorOutput) {
+		this.finish(exitValue);
+		this.output = output;
+		this.errorOutput = errorOutput;
+	}
+
 	public String toString() {
 		return "taskFinished=" + taskFinished + ", exitValue=" + exitValue;
 	}
@@ -0,0 +1,19 @@
+package org.fogbowcloud.blowout.core.model.task;
+
+import org.fogbowcloud.blowout.core.model.Specification;
+
+/**
+ * Source of a bag of tasks that are created only when they are about to be
+ * scheduled. The task of index i must always be the same and have the id
+ * {@link #getId()} followed by a dash and i.
+ */
+public interface TaskGenerator {
+
+	String getId();
+
+	Specification getSpecification();
+
+	int size();
+
+	Task generate(int index);
+}
@@ -31,6 +31,9 @@ public class TaskImpl implements Task {
 	public static final String METADATA_RESOURCE_ID = "resource_id";
 	public static final String METADATA_TASK_TIMEOUT = "task_timeout";
 	public static final String METADATA_MAX_RESOURCE_CONN_RETRIES = "max_conn_retries";
+	public static final String METADATA_JOB_ID = "job_id";
+	public static final String METADATA_JOB_WEIGHT = "job_weight";
+	public static final String METADATA_TASK_PRIORITY = "task_priority";
 
 	private String id;
 	private String uuid;
@@ -43,6 +46,7 @@ public class TaskImpl implements Task {
 	private boolean isFinished;
 	private int retries;
 	private long startedRunningAt;
+	private final TaskTimestamps timestamps;
 
 	public TaskImpl(String id, Specification specification, String uuid) {
 		this.commands = new ArrayList<>();
@@ -56,6 +60,7 @@ public class TaskImpl implements Task {
 		this.state = TaskState.READY;
 		this.uuid = uuid;
 		this.startedRunningAt = Long.MAX_VALUE;
+		this.timestamps = new TaskTimestamps();
 	}
 	
 	@Override
@@ -164,6 +169,16 @@ public class TaskImpl implements Task {
 		this.retries++;
 	}
 
+	@Override
+	public void recordEvent(TaskTimestamps.Event event) {
+		this.timestamps.record(event);
+	}
+
+	@Override
+	public TaskTimestamps getTimestamps() {
+		return this.timestamps;
+	}
+
 	@Override
 	public boolean mayRetry() {
 		if (getMetadata(METADATA_MAX_RESOURCE_CONN_RETRIES) != null) {
@@ -0,0 +1,14 @@
+package org.fogbowcloud.blowout.core.model.task;
+
+import java.util.Map;
+
+/**
+ * Values of the parameters of a {@link TaskTemplate}, one set of values per
+ * task, computed or read when the task is generated.
+ */
+public interface TaskParameters {
+
+	int size();
+
+	Map<String, String> get(int index);
+}
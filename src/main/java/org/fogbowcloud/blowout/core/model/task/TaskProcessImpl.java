@@ -10,12 +10,16 @@ import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.model.Command;
 import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.ssh.SshConnectionPool;
+import org.fogbowcloud.blowout.core.util.StreamCapture;
 import org.fogbowcloud.blowout.core.util.AppUtil;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
 
 public class TaskProcessImpl implements TaskProcess {
     private static final Logger LOGGER = Logger.getLogger(TaskProcessImpl.class);
 
+    private static final long STREAM_DRAIN_TIMEOUT = 10000;
+
     private final String taskId;
     private final List<Command> commandList;
     private final Specification specification;
@@ -23,6 +27,7 @@ public class TaskProcessImpl implements TaskProcess {
     private final String uuid;
     private TaskState taskState;
     private AbstractResource resource;
+    private SshConnectionPool sshConnectionPool;
 
     public TaskProcessImpl(String taskId, List<Command> commandList, Specification specification, String uuid) {
         this.processId = AppUtil.generateIdentifier();
@@ -88,6 +93,17 @@ public class TaskProcessImpl implements TaskProcess {
         this.resource = resource;
     }
 
+    protected void setSshConnectionPool(SshConnectionPool sshConnectionPool) {
+        this.sshConnectionPool = sshConnectionPool;
+    }
+
+    private SshConnectionPool getSshConnectionPool() {
+        if (this.sshConnectionPool == null) {
+            this.sshConnectionPool = SshConnectionPool.getInstance();
+        }
+        return this.sshConnectionPool;
+    }
+
     private String getExecutableCommandString(Command command) {
         return command.getCommand();
     }
@@ -97,40 +113,43 @@ public class TaskProcessImpl implements TaskProcess {
 
         TaskExecutionResult taskExecutionResult = new TaskExecutionResult();
         int returnValue;
+        String output = null;
+        String errorOutput = null;
 
         Map<String, String> additionalVariables = getAdditionalEnvVariables(resource);
         try {
+            Process process;
             if (type.equals(Command.Type.LOCAL)) {
-                Process localProc = startLocalProcess(commandString, additionalVariables);
-                returnValue = localProc.waitFor();
-
+                process = startLocalProcess(commandString, additionalVariables);
             } else {
-                Process remoteProc = startRemoteProcess(commandString, additionalVariables);
-                returnValue = remoteProc.waitFor();
+                process = startRemoteProcess(commandString, additionalVariables, resource);
             }
+
+            process.getOutputStream().close();
+            StreamCapture errorCapture = StreamCapture.start(process.getErrorStream(),
+                    "blowout-stderr-" + this.processId);
+            StreamCapture outputCapture = new StreamCapture(process.getInputStream(), StreamCapture.DEFAULT_MAX_BYTES);
+            outputCapture.run();
+            returnValue = process.waitFor();
+            output = outputCapture.getOutput();
+            errorOutput = errorCapture.await(STREAM_DRAIN_TIMEOUT);
         } catch (Exception e) {
             LOGGER.error("Failed to execute command in resource of id " + resource.getId());
             e.printStackTrace();
             returnValue = TaskExecutionResult.NOK;
         }
 
-        taskExecutionResult.finish(returnValue);
+        taskExecutionResult.finish(returnValue, output, errorOutput);
         return taskExecutionResult;
     }
 
-    private Process startRemoteProcess(String commandString, Map<String, String> additionalVariables)
-            throws IOException {
-        ProcessBuilder builder = new ProcessBuilder("/bin/bash", "-c",
-                "ssh -o UserKnownHostsFile=/dev/null -o StrictHostKeyChecking=no -i "
-                        + additionalVariables.get(BlowoutConstants.ENV_PRIVATE_KEY_FILE) + " " +
-                        additionalVariables.get(BlowoutConstants.ENV_SSH_USER)
-                        + "@" + additionalVariables.get(BlowoutConstants.ENV_HOST)
-                        + " " + parseEnvironVariable(commandString, additionalVariables));
-        LOGGER.info("Running: ssh -o UserKnownHostsFile=/dev/null -o StrictHostKeyChecking=no -i "
-                + additionalVariables.get(BlowoutConstants.ENV_PRIVATE_KEY_FILE) + " "
-                + additionalVariables.get(BlowoutConstants.ENV_SSH_USER) + "@"
-                + additionalVariables.get(BlowoutConstants.ENV_HOST) + " " + parseEnvironVariable(commandString, additionalVariables));
-        return builder.start();
+    private Process startRemoteProcess(String commandString, Map<String, String> additionalVariables,
+                                       AbstractResource resource) throws IOException {
+        return getSshConnectionPool().start(resource.getId(),
+                additionalVariables.get(BlowoutConstants.ENV_SSH_USER),
+                additionalVariables.get(BlowoutConstants.ENV_HOST),
+                additionalVariables.get(BlowoutConstants.ENV_PRIVATE_KEY_FILE),
+                parseEnvironVariable(commandString, additionalVariables));
     }
 
     private Process startLocalProcess(String command, Map<String, String> additionalEnvVariables) throws IOException {
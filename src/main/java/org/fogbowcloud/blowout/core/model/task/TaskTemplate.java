@@ -0,0 +1,108 @@
+package org.fogbowcloud.blowout.core.model.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.fogbowcloud.blowout.core.model.Command;
+import org.fogbowcloud.blowout.core.model.Specification;
+
+/**
+ * Generates the tasks of a parameter sweep from commands and metadata in
+ * which every <code>${name}</code> is replaced by the value of the parameter
+ * with that name. Besides the given parameters, <code>${index}</code> is the
+ * index of the task. Placeholders of unknown parameters are kept as they are.
+ */
+public class TaskTemplate implements TaskGenerator {
+
+	public static final String INDEX_PARAMETER = "index";
+
+	private final String id;
+	private final Specification specification;
+	private final String uuid;
+	private final TaskParameters parameters;
+	private final List<Command> commands;
+	private final Map<String, String> metadata;
+
+	public TaskTemplate(String id, Specification specification, String uuid, TaskParameters parameters) {
+		this.id = id;
+		this.specification = specification;
+		this.uuid = uuid;
+		this.parameters = parameters;
+		this.commands = new ArrayList<>();
+		this.metadata = new LinkedHashMap<>();
+	}
+
+	public void addCommand(Command command) {
+		this.commands.add(command);
+	}
+
+	public void putMetadata(String attributeName, String value) {
+		this.metadata.put(attributeName, value);
+	}
+
+	@Override
+	public String getId() {
+		return this.id;
+	}
+
+	@Override
+	public Specification getSpecification() {
+		return this.specification;
+	}
+
+	public String getUUID() {
+		return this.uuid;
+	}
+
+	@Override
+	public int size() {
+		return this.parameters.size();
+	}
+
+	@Override
+	public Task generate(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Task " + index + " of a template with " + size() + " tasks.");
+		}
+		Map<String, String> values = new HashMap<>(this.parameters.get(index));
+		values.put(INDEX_PARAMETER, String.valueOf(index));
+
+		Task task = new TaskImpl(this.id + "-" + index, this.specification, this.uuid);
+		for (Command command : this.commands) {
+			task.addCommand(new Command(fill(command.getCommand(), values), command.getType()));
+		}
+		for (Entry<String, String> entry : this.metadata.entrySet()) {
+			task.putMetadata(entry.getKey(), fill(entry.getValue(), values));
+		}
+		return task;
+	}
+
+	protected static String fill(String template, Map<String, String> values) {
+		if (template == null || template.indexOf("${") < 0) {
+			return template;
+		}
+		StringBuilder filled = new StringBuilder(template.length() + 16);
+		int position = 0;
+		int start;
+		while ((start = template.indexOf("${", position)) >= 0) {
+			int end = template.indexOf('}', start + 2);
+			if (end < 0) {
+				break;
+			}
+			String value = values.get(template.substring(start + 2, end));
+			filled.append(template, position, start);
+			if (value == null) {
+				filled.append(template, start, end + 1);
+			} else {
+				filled.append(value);
+			}
+			position = end + 1;
+		}
+		filled.append(template, position, template.length());
+		return filled.toString();
+	}
+}
@@ -0,0 +1,77 @@
+package org.fogbowcloud.blowout.core.model.task;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Times, in milliseconds since the epoch, at which a task went through each
+ * step of its life in Blowout. A step not reached yet has time zero.
+ */
+public class TaskTimestamps implements Serializable {
+
+	private static final long serialVersionUID = 3412760286930945173L;
+
+	public enum Event {
+		/** The task was added to the pool. */
+		SUBMITTED,
+		/** The scheduler picked a resource for the task. */
+		ASSIGNED,
+		/** A task executor thread took the task. */
+		DISPATCHED,
+		/** The resource was found reachable and the first command started. */
+		STARTED,
+		/** The task process finished, successfully or not. */
+		FINISHED
+	}
+
+	private final AtomicLongArray times = new AtomicLongArray(Event.values().length);
+
+	public void record(Event event) {
+		record(event, System.currentTimeMillis());
+	}
+
+	public void record(Event event, long time) {
+		this.times.set(event.ordinal(), time);
+	}
+
+	public long get(Event event) {
+		return this.times.get(event.ordinal());
+	}
+
+	/**
+	 * @return the milliseconds between two steps, or -1 if any of them was
+	 *         not reached yet.
+	 */
+	public long between(Event from, Event to) {
+		long fromTime = get(from);
+		long toTime = get(to);
+		if (fromTime == 0 || toTime == 0) {
+			return -1;
+		}
+		return toTime - fromTime;
+	}
+
+	public long getQueueingLatency() {
+		return between(Event.SUBMITTED, Event.ASSIGNED);
+	}
+
+	public long getDispatchLatency() {
+		return between(Event.ASSIGNED, Event.STARTED);
+	}
+
+	public long getExecutionTime() {
+		return between(Event.STARTED, Event.FINISHED);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("TaskTimestamps [");
+		for (Event event : Event.values()) {
+			if (event.ordinal() > 0) {
+				builder.append(", ");
+			}
+			builder.append(event.name().toLowerCase()).append('=').append(get(event));
+		}
+		return builder.append(']').toString();
+	}
+}
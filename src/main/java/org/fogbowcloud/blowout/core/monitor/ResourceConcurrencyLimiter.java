@@ -0,0 +1,48 @@
+package org.fogbowcloud.blowout.core.monitor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+
+/**
+ * Limits how many task processes run at the same time on each resource to
+ * its number of slots.
+ */
+public class ResourceConcurrencyLimiter {
+
+	private final Map<String, Integer> runningByResource = new HashMap<>();
+
+	/**
+	 * Waits until the resource can run one more task process and counts it.
+	 */
+	public synchronized void acquire(AbstractResource resource) throws InterruptedException {
+		int limit = limitOf(resource);
+		while (getRunningCount(resource.getId()) >= limit) {
+			wait();
+		}
+		this.runningByResource.merge(resource.getId(), 1, Integer::sum);
+	}
+
+	public synchronized void release(AbstractResource resource) {
+		Integer running = this.runningByResource.get(resource.getId());
+		if (running == null) {
+			return;
+		}
+		if (running <= 1) {
+			this.runningByResource.remove(resource.getId());
+		} else {
+			this.runningByResource.put(resource.getId(), running - 1);
+		}
+		notifyAll();
+	}
+
+	public synchronized int getRunningCount(String resourceId) {
+		Integer running = this.runningByResource.get(resourceId);
+		return running == null ? 0 : running;
+	}
+
+	public int limitOf(AbstractResource resource) {
+		return Math.max(1, resource.getSlots());
+	}
+}
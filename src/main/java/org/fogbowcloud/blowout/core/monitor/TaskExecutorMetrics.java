@@ -0,0 +1,61 @@
+package org.fogbowcloud.blowout.core.monitor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the task processes handed to the executor of the
+ * {@link TaskMonitor}, kept by the monitor itself so that they mean the
+ * same whatever the executor is.
+ */
+public class TaskExecutorMetrics {
+
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicInteger maxActive = new AtomicInteger();
+	private final AtomicLong completed = new AtomicLong();
+
+	void submitted() {
+		this.queued.incrementAndGet();
+	}
+
+	void started() {
+		this.queued.decrementAndGet();
+		int activeNow = this.active.incrementAndGet();
+		this.maxActive.accumulateAndGet(activeNow, Math::max);
+	}
+
+	void ended() {
+		this.active.decrementAndGet();
+		this.completed.incrementAndGet();
+	}
+
+	/**
+	 * @return the task processes submitted but not started by the executor.
+	 */
+	public int getQueueDepth() {
+		return this.queued.get();
+	}
+
+	/**
+	 * @return the task processes running on an executor thread, including
+	 *         the ones waiting for their resource.
+	 */
+	public int getActiveCount() {
+		return this.active.get();
+	}
+
+	public int getMaxActiveCount() {
+		return this.maxActive.get();
+	}
+
+	public long getCompletedCount() {
+		return this.completed.get();
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutorMetrics [queueDepth=" + getQueueDepth() + ", active=" + getActiveCount() + ", maxActive="
+				+ getMaxActiveCount() + ", completed=" + getCompletedCount() + "]";
+	}
+}
@@ -0,0 +1,112 @@
+package org.fogbowcloud.blowout.core.monitor;
+
+import java.lang.reflect.Method;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+
+/**
+ * Creates the executor that runs the task processes of the
+ * {@link TaskMonitor}, as set by the task executor properties:
+ * <ul>
+ * <li>{@value #TYPE_BOUNDED}: a pool with a maximum number of threads and a
+ * bounded queue. The scheduler hands it no task while the queue is full
+ * (see {@link TaskMonitor#isSaturated()}), so the scheduling loop never
+ * waits for room in it.</li>
+ * <li>{@value #TYPE_VIRTUAL}: a virtual thread per task, on JVMs that have
+ * them (Java 21 and later), falling back to the bounded pool otherwise.</li>
+ * </ul>
+ */
+public class TaskExecutors {
+
+	private static final Logger LOGGER = Logger.getLogger(TaskExecutors.class);
+
+	public static final String TYPE_BOUNDED = "bounded";
+	public static final String TYPE_VIRTUAL = "virtual";
+
+	protected static final int DEFAULT_MAX_THREADS = 512;
+	protected static final int DEFAULT_QUEUE_SIZE = 1024;
+	private static final long THREAD_KEEP_ALIVE = 60;
+
+	private TaskExecutors() {
+	}
+
+	public static ExecutorService create(Properties properties) {
+		String type = properties.getProperty(AppPropertiesConstants.TASK_EXECUTOR, TYPE_BOUNDED).trim();
+		int maxThreads = Integer.parseInt(properties.getProperty(AppPropertiesConstants.TASK_EXECUTOR_MAX_THREADS,
+				String.valueOf(DEFAULT_MAX_THREADS)));
+		int queueSize = Integer.parseInt(properties.getProperty(AppPropertiesConstants.TASK_EXECUTOR_QUEUE_SIZE,
+				String.valueOf(DEFAULT_QUEUE_SIZE)));
+
+		if (TYPE_VIRTUAL.equalsIgnoreCase(type)) {
+			ExecutorService executor = newVirtualThreadExecutor();
+			if (executor != null) {
+				LOGGER.info("Running task processes on virtual threads.");
+				return executor;
+			}
+			LOGGER.warn("Virtual threads are not available in this JVM, using a bounded pool of " + maxThreads
+					+ " threads.");
+		} else if (!TYPE_BOUNDED.equalsIgnoreCase(type)) {
+			LOGGER.warn("Unknown task executor [" + type + "], using a bounded pool of " + maxThreads + " threads.");
+		}
+		return newBoundedExecutor(maxThreads, queueSize);
+	}
+
+	public static ThreadPoolExecutor newBoundedExecutor(int maxThreads, int queueSize) {
+		if (maxThreads <= 0 || queueSize <= 0) {
+			throw new IllegalArgumentException("Task executor threads and queue size must be positive.");
+		}
+		final AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, THREAD_KEEP_ALIVE,
+				TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+			Thread thread = new Thread(runnable, "blowout-task-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}, new WaitForRoomPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * @return an executor starting a virtual thread per task, or null if the
+	 *         JVM has no virtual threads.
+	 */
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Makes the submitting thread wait for room in the queue, instead of
+	 * rejecting the task, while the pool is running. The scheduler checks for
+	 * room before submitting, so only other submitters can wait here.
+	 */
+	private static class WaitForRoomPolicy implements RejectedExecutionHandler {
+
+		@Override
+		public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+			if (executor.isShutdown()) {
+				throw new RejectedExecutionException("Task executor is shut down.");
+			}
+			try {
+				executor.getQueue().put(runnable);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RejectedExecutionException("Interrupted while waiting for room in the task executor.", e);
+			}
+		}
+	}
+}
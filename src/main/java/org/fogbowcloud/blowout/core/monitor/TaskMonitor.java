@@ -1,41 +1,67 @@
 package org.fogbowcloud.blowout.core.monitor;
 
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.model.task.Task;
 import org.fogbowcloud.blowout.core.model.task.TaskProcess;
 import org.fogbowcloud.blowout.core.model.task.TaskProcessImpl;
 import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.core.model.task.TaskTimestamps;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.database.TaskJournal;
+import org.fogbowcloud.blowout.infrastructure.monitor.ConnectivityProber;
 import org.fogbowcloud.blowout.pool.BlowoutPool;
 
-import static java.lang.Thread.sleep;
-
 public class TaskMonitor implements Runnable {
 
 	private static final Logger LOGGER = Logger.getLogger(TaskMonitor.class);
 
+	private static final long DEFAULT_READINESS_TIMEOUT = 60000;
+	private static final long READINESS_PROBE_TIMEOUT = 5000;
+	private static final long READINESS_RETRY_PERIOD = 1000;
+
 	private Map<Task, TaskProcess> runningTasks;
-	private ThreadPoolExecutor taskExecutor;
+	private Map<String, Task> runningTasksById;
+	private Map<String, AbstractResource> runningTaskResources;
+	private ExecutorService taskExecutor;
+	private TaskExecutorMetrics executorMetrics;
+	private ResourceConcurrencyLimiter resourceLimiter;
 	private Thread monitoringServiceRunner;
 	private BlowoutPool blowoutPool;
 	private long timeout;
 	private boolean isActive;
+	private ConnectivityProber readinessProber;
+	private long readinessTimeout;
+	private TaskJournal taskJournal;
+	private final AtomicBoolean schedulingHeldBack;
 
 	public TaskMonitor(BlowoutPool blowoutPool, long timeout) {
+		this(blowoutPool, timeout, TaskExecutors.newBoundedExecutor(TaskExecutors.DEFAULT_MAX_THREADS,
+				TaskExecutors.DEFAULT_QUEUE_SIZE));
+	}
+
+	public TaskMonitor(BlowoutPool blowoutPool, long timeout, ExecutorService taskExecutor) {
 		this.blowoutPool = blowoutPool;
 		this.timeout = timeout;
-		this.runningTasks = new HashMap<>();
-		this.taskExecutor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+		this.runningTasks = new ConcurrentHashMap<>();
+		this.runningTasksById = new ConcurrentHashMap<>();
+		this.runningTaskResources = new ConcurrentHashMap<>();
+		this.taskExecutor = taskExecutor;
+		this.executorMetrics = new TaskExecutorMetrics();
+		this.resourceLimiter = new ResourceConcurrencyLimiter();
         this.isActive = false;
+		this.readinessProber = new ConnectivityProber(READINESS_PROBE_TIMEOUT);
+		this.readinessTimeout = DEFAULT_READINESS_TIMEOUT;
+		this.schedulingHeldBack = new AtomicBoolean(false);
 	}
 
 	public void start() {
@@ -65,28 +91,72 @@ public class TaskMonitor implements Runnable {
 		}
 	}
 
+	/**
+	 * Completes the tasks whose processes ended without being handled yet. The
+	 * executor threads complete their tasks as soon as they end, so this pass
+	 * is only a safety net.
+	 */
 	public void processMonitor() {
 	    LOGGER.debug("Task Monitor process");
 	    LOGGER.debug(listTaskProcess());
+	    LOGGER.debug(this.executorMetrics);
 		for (TaskProcess taskProcess : getRunningProcesses()) {
-		    TaskState taskProcessState = taskProcess.getTaskState();
-            AbstractResource taskProcessResource = taskProcess.getResource();
-			if (taskProcessState.equals(TaskState.FAILED)) {
-			    removeRunningTask(getTaskById(taskProcess.getTaskId()));
-
-				if (taskProcessResource != null) {
-					blowoutPool.updateResource(taskProcessResource, ResourceState.FAILED);
-				}
-			}
-			if (taskProcessState.equals(TaskState.FINISHED)) {
-				Task task = getTaskById(taskProcess.getTaskId());
-				task.finish();
-                removeRunningTask(task);
-
-				if (taskProcessResource != null) {
-					blowoutPool.updateResource(taskProcessResource, ResourceState.IDLE);
-				}
-			}
+			completeTask(getTaskById(taskProcess.getTaskId()), taskProcess, taskProcess.getResource(),
+					taskProcess.getTaskState());
+		}
+	}
+
+	/**
+	 * Removes an ended task from the running tasks and releases its slot to
+	 * the pool, which lets the scheduler use it right away. A failed task
+	 * drains its resource, which is marked FAILED once no task runs on it. A task is completed only once,
+	 * by whichever of its executor thread, the monitor pass or a stop removes
+	 * it first.
+	 *
+	 * @return true if the task was completed by this call.
+	 */
+	protected boolean completeTask(Task task, TaskProcess taskProcess, AbstractResource resource, TaskState state) {
+		boolean finished = TaskState.FINISHED.equals(state);
+		if (task == null || !(finished || TaskState.FAILED.equals(state))) {
+			return false;
+		}
+		if (!getRunningTasks().remove(task, taskProcess)) {
+			return false;
+		}
+		this.runningTasksById.remove(task.getId(), task);
+		AbstractResource taskResource = this.runningTaskResources.remove(task.getId());
+		if (resource == null) {
+			resource = taskResource;
+		}
+
+		task.recordEvent(TaskTimestamps.Event.FINISHED);
+		if (finished) {
+			task.finish();
+		}
+		if (this.taskJournal != null) {
+			this.taskJournal.stateChanged(task, finished ? TaskState.COMPLETED : TaskState.FAILED);
+		}
+		if (resource != null) {
+			releaseSlotOf(resource, !finished);
+		}
+		return true;
+	}
+
+	/**
+	 * Frees the slot of an ended task and makes its resource available to the
+	 * scheduler again, unless it failed or is being removed. A resource where
+	 * a task failed is kept busy until its other tasks end, and is only then
+	 * marked FAILED.
+	 */
+	private void releaseSlotOf(AbstractResource resource, boolean taskFailed) {
+		if (resource.freeSlot(taskFailed)) {
+			blowoutPool.updateResource(resource, ResourceState.FAILED);
+			return;
+		}
+		ResourceState state = resource.getState();
+		if (!ResourceState.FAILED.equals(state) && !ResourceState.TO_REMOVE.equals(state)) {
+			blowoutPool.updateResource(resource,
+					resource.isDraining() ? ResourceState.BUSY : ResourceState.IDLE);
 		}
 	}
 
@@ -98,9 +168,6 @@ public class TaskMonitor implements Runnable {
 		return output;
 	}
 
-    private void removeRunningTask(Task task) {
-        this.runningTasks.remove(task);
-    }
 
 	public Map<Task, TaskProcess> getRunningTasks(){
 		return this.runningTasks;
@@ -108,6 +175,18 @@ public class TaskMonitor implements Runnable {
 
 	public void setRunningTasks(Map<Task, TaskProcess> runningTasks){
 		this.runningTasks = runningTasks;
+		this.runningTasksById.clear();
+		this.runningTaskResources.clear();
+		for (Task task : runningTasks.keySet()) {
+			this.runningTasksById.put(task.getId(), task);
+		}
+	}
+
+	/**
+	 * Sets the journal where task starts and completions are recorded.
+	 */
+	public void setTaskJournal(TaskJournal taskJournal) {
+		this.taskJournal = taskJournal;
 	}
 
 	public List<TaskProcess> getRunningProcesses(){
@@ -116,37 +195,142 @@ public class TaskMonitor implements Runnable {
 		return processes;
 	}
 
-	public void runTask(Task task, final AbstractResource resource) {
+	public void runTask(final Task task, final AbstractResource resource) {
         if (!runningTaskContains(task)) {
+            int freeSlots = resource.occupySlot();
+            if (freeSlots < 0) {
+                LOGGER.warn("Resource " + resource.getId() + " is being removed or drained, task "
+                        + task.getId() + " was not started on it.");
+                return;
+            }
 
             final TaskProcess taskProcess = createProcess(task);
             putTaskToRunningTasks(task, taskProcess);
+            this.runningTaskResources.put(task.getId(), resource);
             LOGGER.debug("Starting to run task of id " + task.getId() + " on resource " + resource.getId());
             task.startedRunning();
+            task.recordEvent(TaskTimestamps.Event.ASSIGNED);
+            if (this.taskJournal != null) {
+                this.taskJournal.stateChanged(task, TaskState.RUNNING);
+            }
 
-            LOGGER.debug("Setting state of resource [id: " + resource.getId() + "] to busy.");
-            blowoutPool.updateResource(resource, ResourceState.BUSY);
+            if (freeSlots == 0) {
+                LOGGER.debug("Setting state of resource [id: " + resource.getId() + "] to busy.");
+                blowoutPool.updateResource(resource, ResourceState.BUSY);
+            }
 
+            this.executorMetrics.submitted();
             getExecutorService().submit(() -> {
-				final long sleepTimeInMillis = 5000;
-
-				try {
-					Thread.sleep(sleepTimeInMillis);
-					LOGGER.info("Thread " + Thread.currentThread().getName() + " was sleeping.");
-				} catch (InterruptedException e) {
-					LOGGER.info("Thread " + Thread.currentThread().getName() + " was interrupted.");
-				}
-				taskProcess.executeTask(resource);
+                this.executorMetrics.started();
+                resumeHeldBackScheduling();
+                try {
+                    dispatch(task, taskProcess, resource);
+                } finally {
+                    this.executorMetrics.ended();
+                }
             });
         }
 	}
 
+	/**
+	 * Tells whether the queue of the task executor is full, in which case the
+	 * scheduler must not hand it more tasks: submitting one would block the
+	 * scheduling loop until a queued task starts. When it is, the pool is asked
+	 * to schedule again as soon as a queued task starts.
+	 */
+	public boolean isSaturated() {
+		ExecutorService executor = getExecutorService();
+		if (!(executor instanceof ThreadPoolExecutor)) {
+			return false;
+		}
+		if (((ThreadPoolExecutor) executor).getQueue().remainingCapacity() > 0) {
+			return false;
+		}
+		this.schedulingHeldBack.set(true);
+		return true;
+	}
+
+	private void resumeHeldBackScheduling() {
+		if (this.schedulingHeldBack.compareAndSet(true, false)) {
+			LOGGER.debug("Task executor has room again, resuming scheduling.");
+			blowoutPool.resumeScheduling();
+		}
+	}
+
+	/**
+	 * Runs a task process once its resource accepts connections, instead of
+	 * after a fixed delay, and completes the task as soon as the process ends.
+	 * Each resource runs at most as many task processes at once as the
+	 * {@link ResourceConcurrencyLimiter} allows.
+	 */
+	protected void dispatch(Task task, TaskProcess taskProcess, AbstractResource resource) {
+		task.recordEvent(TaskTimestamps.Event.DISPATCHED);
+		if (!awaitResourceReady(resource)) {
+			LOGGER.warn("Resource " + resource.getId() + " is not reachable, task " + task.getId()
+					+ " could not be started.");
+			taskProcess.setTaskState(TaskState.FAILED);
+			completeTask(task, taskProcess, resource, TaskState.FAILED);
+			return;
+		}
+		try {
+			this.resourceLimiter.acquire(resource);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Interrupted while waiting to run task " + task.getId() + " on resource "
+					+ resource.getId() + ".");
+			taskProcess.setTaskState(TaskState.FAILED);
+			completeTask(task, taskProcess, resource, TaskState.FAILED);
+			return;
+		}
+		try {
+			task.recordEvent(TaskTimestamps.Event.STARTED);
+			taskProcess.executeTask(resource);
+		} finally {
+			this.resourceLimiter.release(resource);
+		}
+		completeTask(task, taskProcess, resource, taskProcess.getTaskState());
+	}
+
+	/**
+	 * Waits until the connectivity address of the resource accepts a
+	 * connection, probing it again while the readiness timeout lasts.
+	 * Resources without such an address are ready only if their own
+	 * connectivity check passes, so a resource that has no public IP yet is
+	 * not taken as ready.
+	 */
+	protected boolean awaitResourceReady(AbstractResource resource) {
+		InetSocketAddress address = resource.getConnectivityAddress();
+		if (address == null) {
+			return resource.checkConnectivity();
+		}
+		long deadline = System.currentTimeMillis() + this.readinessTimeout;
+		while (!this.readinessProber.probe(address)) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				return false;
+			}
+			try {
+				Thread.sleep(Math.min(READINESS_RETRY_PERIOD, remaining));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected void setReadinessProbe(ConnectivityProber readinessProber, long readinessTimeout) {
+		this.readinessProber = readinessProber;
+		this.readinessTimeout = readinessTimeout;
+	}
+
 	private boolean runningTaskContains(Task task) {
 	    return this.runningTasks.containsKey(task);
     }
 
     private void putTaskToRunningTasks(Task task, TaskProcess taskProcess) {
         this.runningTasks.put(task, taskProcess);
+        this.runningTasksById.put(task.getId(), task);
     }
 
 	public TaskState getTaskState(Task task){
@@ -165,13 +349,16 @@ public class TaskMonitor implements Runnable {
 		return this.taskExecutor;
 	}
 
+	public TaskExecutorMetrics getExecutorMetrics() {
+		return this.executorMetrics;
+	}
+
+	public ResourceConcurrencyLimiter getResourceLimiter() {
+		return this.resourceLimiter;
+	}
+
 	public Task getTaskById(String taskId) {
-		for (Task task : runningTasks.keySet()) {
-			if (task.getId().equals(taskId)) {
-				return task;
-			}
-		}
-		return null;
+		return runningTasksById.get(taskId);
 	}
 
 	protected TaskProcess createProcess(Task task) {
@@ -185,19 +372,19 @@ public class TaskMonitor implements Runnable {
     }
 
 	public void stopTask(Task task) {
-		TaskProcess processToHalt = getRunningTasks().get(task);
 		LOGGER.debug("Removing task " + task.getId());
-		removeRunningTask(task);
+		TaskProcess processToHalt = getRunningTasks().remove(task);
+		this.runningTasksById.remove(task.getId(), task);
+		AbstractResource resource = this.runningTaskResources.remove(task.getId());
 
 		if (processToHalt != null) {
 			LOGGER.debug("TaskProcess of Task " + task.getId() + " was found.");
-			LOGGER.info("Removing TaskProcess of ExecutorService.");
-			this.taskExecutor.remove(() -> {
-				processToHalt.executeTask(processToHalt.getResource());
-			});
-			if (processToHalt.getResource() != null) {
-				blowoutPool.updateResource(processToHalt.getResource(), ResourceState.IDLE);
-				LOGGER.debug("Resource " + processToHalt.getResource().getId() + " was stopped.");
+			if (resource == null) {
+				resource = processToHalt.getResource();
+			}
+			if (resource != null) {
+				releaseSlotOf(resource, false);
+				LOGGER.debug("Resource " + resource.getId() + " was stopped.");
 			}
 		} else {
 			LOGGER.debug("Process To Halt not found.");
@@ -0,0 +1,232 @@
+package org.fogbowcloud.blowout.core.ssh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+
+/**
+ * Persistent SSH connections to the resources, one per resource. The first
+ * remote command on a resource opens an OpenSSH master connection that stays
+ * in the background; every later command, of any task, runs as a new channel
+ * multiplexed on it, skipping the key exchange and authentication. Commands
+ * fall back to a connection of their own while there is no master, and a
+ * master found dead on a periodic check is opened again.
+ */
+public class SshConnectionPool {
+
+	private static final Logger LOGGER = Logger.getLogger(SshConnectionPool.class);
+
+	protected static final String DEFAULT_SSH_COMMAND = "ssh";
+	protected static final long DEFAULT_CONTROL_PERSIST = 600;
+	protected static final long MASTER_START_TIMEOUT = 60000;
+	protected static final long MASTER_CHECK_PERIOD = 30000;
+	protected static final String COMMON_SSH_OPTIONS = "-o UserKnownHostsFile=/dev/null -o StrictHostKeyChecking=no";
+
+	private static SshConnectionPool instance;
+
+	private final String sshCommand;
+	private final long controlPersist;
+	private final File controlDirectory;
+	private final Map<String, Connection> connections;
+	private final AtomicLong connectionCount;
+
+	public SshConnectionPool(String sshCommand, long controlPersist, File controlDirectory) {
+		this.sshCommand = sshCommand;
+		this.controlPersist = controlPersist;
+		this.controlDirectory = controlDirectory;
+		this.connections = new ConcurrentHashMap<>();
+		this.connectionCount = new AtomicLong();
+	}
+
+	public static synchronized SshConnectionPool getInstance() {
+		if (instance == null) {
+			instance = new SshConnectionPool(DEFAULT_SSH_COMMAND, DEFAULT_CONTROL_PERSIST, createControlDirectory());
+		}
+		return instance;
+	}
+
+	/**
+	 * Applies the SSH properties to the shared pool, closing the connections
+	 * of the previous one when they change.
+	 */
+	public static synchronized void configure(Properties properties) {
+		long controlPersist = Long.parseLong(properties.getProperty(AppPropertiesConstants.SSH_CONTROL_PERSIST,
+				String.valueOf(DEFAULT_CONTROL_PERSIST)));
+		if (instance != null && instance.controlPersist == controlPersist) {
+			return;
+		}
+		if (instance != null) {
+			instance.closeAll();
+		}
+		instance = new SshConnectionPool(DEFAULT_SSH_COMMAND, controlPersist, createControlDirectory());
+	}
+
+	/**
+	 * Starts a remote command on a resource, through its master connection.
+	 * The command line is interpreted by a local shell, as with a plain ssh
+	 * invocation.
+	 */
+	public Process start(String resourceId, String user, String host, String privateKeyFile, String command)
+			throws IOException {
+		Connection connection = getConnection(resourceId, user, host, privateKeyFile);
+		ensureMaster(connection);
+
+		String commandLine = this.sshCommand + " -o ControlMaster=no -o ControlPath=" + connection.controlPath
+				+ " " + COMMON_SSH_OPTIONS + " -i " + privateKeyFile + " " + connection.target + " " + command;
+		LOGGER.info("Running: " + commandLine);
+		return new ProcessBuilder("/bin/bash", "-c", commandLine).start();
+	}
+
+	/**
+	 * Closes the master connection of a resource, if there is one.
+	 */
+	public void close(String resourceId) {
+		Connection connection = this.connections.remove(resourceId);
+		if (connection != null) {
+			exitMaster(connection);
+		}
+	}
+
+	public void closeAll() {
+		for (String resourceId : new ArrayList<>(this.connections.keySet())) {
+			close(resourceId);
+		}
+	}
+
+	public boolean hasConnection(String resourceId) {
+		return this.connections.containsKey(resourceId);
+	}
+
+	private Connection getConnection(String resourceId, String user, String host, String privateKeyFile) {
+		final String target = user + "@" + host;
+		final String keyFile = String.valueOf(privateKeyFile);
+		while (true) {
+			Connection current = this.connections.get(resourceId);
+			if (current != null && current.target.equals(target) && current.privateKeyFile.equals(keyFile)) {
+				return current;
+			}
+
+			String controlPath = new File(this.controlDirectory, "c" + this.connectionCount.incrementAndGet())
+					.getAbsolutePath();
+			Connection connection = new Connection(target, keyFile, controlPath);
+			boolean stored = current == null
+					? this.connections.putIfAbsent(resourceId, connection) == null
+					: this.connections.replace(resourceId, current, connection);
+			if (stored) {
+				if (current != null) {
+					exitMaster(current);
+				}
+				return connection;
+			}
+		}
+	}
+
+	private void ensureMaster(Connection connection) {
+		synchronized (connection) {
+			long now = System.currentTimeMillis();
+			if (connection.masterCheckedAt != 0 && now - connection.masterCheckedAt < MASTER_CHECK_PERIOD) {
+				return;
+			}
+			connection.masterCheckedAt = now;
+			if (connection.masterStarted) {
+				if (runControlCommand(connection, "check") == 0) {
+					return;
+				}
+				LOGGER.info("Master SSH connection to " + connection.target + " is gone, opening it again.");
+			}
+			connection.masterStarted = startMaster(connection);
+		}
+	}
+
+	private boolean startMaster(Connection connection) {
+		List<String> command = new ArrayList<>(Arrays.asList(this.sshCommand, "-M", "-N", "-f",
+				"-o", "ControlPath=" + connection.controlPath,
+				"-o", "ControlPersist=" + this.controlPersist,
+				"-o", "BatchMode=yes",
+				"-o", "UserKnownHostsFile=/dev/null",
+				"-o", "StrictHostKeyChecking=no",
+				"-i", connection.privateKeyFile, connection.target));
+		int exitValue = runQuietly(command, MASTER_START_TIMEOUT);
+		if (exitValue != 0) {
+			LOGGER.warn("Could not open the master SSH connection to " + connection.target + ", exit value "
+					+ exitValue + "; commands will connect on their own.");
+			return false;
+		}
+		LOGGER.info("Master SSH connection to " + connection.target + " opened.");
+		return true;
+	}
+
+	private void exitMaster(Connection connection) {
+		synchronized (connection) {
+			if (connection.masterStarted) {
+				runControlCommand(connection, "exit");
+				connection.masterStarted = false;
+				LOGGER.info("Master SSH connection to " + connection.target + " closed.");
+			}
+		}
+	}
+
+	private int runControlCommand(Connection connection, String controlCommand) {
+		return runQuietly(Arrays.asList(this.sshCommand, "-O", controlCommand,
+				"-o", "ControlPath=" + connection.controlPath, connection.target), MASTER_START_TIMEOUT);
+	}
+
+	private static int runQuietly(List<String> command, long timeoutMillis) {
+		Process process = null;
+		try {
+			process = new ProcessBuilder(command).redirectErrorStream(true)
+					.redirectOutput(ProcessBuilder.Redirect.appendTo(new File("/dev/null"))).start();
+			if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+				LOGGER.warn("Timeout while running " + command + ".");
+				return -1;
+			}
+			return process.exitValue();
+		} catch (IOException e) {
+			LOGGER.warn("Could not run " + command + ": " + e.getMessage());
+			return -1;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return -1;
+		} finally {
+			if (process != null && process.isAlive()) {
+				process.destroy();
+			}
+		}
+	}
+
+	private static File createControlDirectory() {
+		try {
+			return Files.createTempDirectory("blowout-ssh",
+					PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"))).toFile();
+		} catch (IOException | UnsupportedOperationException e) {
+			throw new IllegalStateException("Could not create the SSH control directory.", e);
+		}
+	}
+
+	private static class Connection {
+
+		private final String target;
+		private final String privateKeyFile;
+		private final String controlPath;
+		private boolean masterStarted;
+		private long masterCheckedAt;
+
+		private Connection(String target, String privateKeyFile, String controlPath) {
+			this.target = target;
+			this.privateKeyFile = privateKeyFile;
+			this.controlPath = controlPath;
+		}
+	}
+}
@@ -2,9 +2,6 @@ package org.fogbowcloud.blowout.core.util;
 
 import org.json.JSONObject;
 
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -37,19 +34,6 @@ public class AppUtil {
         return newMap;
     }
 
-    public static Map<String, Object> parseJSONStringToMap(String response) throws ScriptException {
-        ScriptEngine engine;
-        ScriptEngineManager sem = new ScriptEngineManager();
-        engine = sem.getEngineByName("javascript");
-
-        final String script = "Java.asJSONCompatible(" + response + ")";
-        Object result = engine.eval(script);
-
-        final Map<String, Object> contents = (Map<String, Object>) result;
-
-        return new HashMap<>(contents);
-    }
-
     public static String getValueFromJsonStr(String key, String jsonStr) {
         JSONObject json = new JSONObject(jsonStr);
         String value = json.getString(key);
@@ -0,0 +1,99 @@
+package org.fogbowcloud.blowout.core.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Drains an output stream of a process on its own daemon thread, keeping only
+ * the last bytes written, so that a chatty command neither blocks on a full
+ * pipe nor fills the memory.
+ */
+public class StreamCapture implements Runnable {
+
+	private static final Logger LOGGER = Logger.getLogger(StreamCapture.class);
+
+	public static final int DEFAULT_MAX_BYTES = 64 * 1024;
+
+	private final InputStream stream;
+	private final int maxBytes;
+	private final byte[] tail;
+	private int tailStart;
+	private int tailLength;
+	private long totalBytes;
+	private Thread thread;
+
+	public StreamCapture(InputStream stream, int maxBytes) {
+		this.stream = stream;
+		this.maxBytes = maxBytes;
+		this.tail = new byte[maxBytes];
+	}
+
+	public static StreamCapture start(InputStream stream, String threadName) {
+		StreamCapture capture = new StreamCapture(stream, DEFAULT_MAX_BYTES);
+		capture.thread = new Thread(capture, threadName);
+		capture.thread.setDaemon(true);
+		capture.thread.start();
+		return capture;
+	}
+
+	@Override
+	public void run() {
+		byte[] buffer = new byte[4096];
+		try {
+			int read;
+			while ((read = this.stream.read(buffer)) != -1) {
+				append(buffer, read);
+			}
+		} catch (IOException e) {
+			LOGGER.debug("Stream capture stopped: " + e.getMessage());
+		} finally {
+			try {
+				this.stream.close();
+			} catch (IOException e) {
+				LOGGER.debug("Error while closing a captured stream.", e);
+			}
+		}
+	}
+
+	/**
+	 * Waits until the stream is drained, for at most the given time.
+	 *
+	 * @return the captured output, truncated to its last bytes.
+	 */
+	public String await(long timeoutMillis) throws InterruptedException {
+		if (this.thread != null) {
+			this.thread.join(timeoutMillis);
+		}
+		return getOutput();
+	}
+
+	public synchronized String getOutput() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream(this.tailLength);
+		int firstPart = Math.min(this.tailLength, this.maxBytes - this.tailStart);
+		output.write(this.tail, this.tailStart, firstPart);
+		output.write(this.tail, 0, this.tailLength - firstPart);
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	public synchronized long getTotalBytes() {
+		return this.totalBytes;
+	}
+
+	private synchronized void append(byte[] buffer, int length) {
+		this.totalBytes += length;
+		int offset = Math.max(0, length - this.maxBytes);
+		for (int i = offset; i < length; i++) {
+			int position = (this.tailStart + this.tailLength) % this.maxBytes;
+			this.tail[position] = buffer[i];
+			if (this.tailLength < this.maxBytes) {
+				this.tailLength++;
+			} else {
+				this.tailStart = (this.tailStart + 1) % this.maxBytes;
+			}
+		}
+	}
+}
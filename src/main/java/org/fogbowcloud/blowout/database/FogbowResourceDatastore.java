@@ -8,8 +8,13 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.model.Specification;
@@ -18,6 +23,21 @@ import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+/**
+ * Stores the requested resources in SQLite, so that they can be recovered
+ * after a restart. All statements go through a single connection in WAL
+ * mode. Additions, updates and deletions are queued and written behind by a
+ * background thread, which commits them together every flush period, or as
+ * soon as a flush batch of them is queued, so that the threads changing
+ * resources never wait for the disk. Reads write the queued changes first.
+ * <p>
+ * The changes return once queued: true means the change will be written, not
+ * that it was, and a change that fails when written, such as an update of a
+ * resource that is not stored, is only logged. Changes that cannot be
+ * committed, as when the database cannot be opened, stay queued and are
+ * written again on the next flush. Call {@link #flush()} to wait for the
+ * queued changes, and {@link #close()} before exiting so none is lost.
+ */
 public class FogbowResourceDatastore {
 
 	private static final Logger LOGGER = Logger.getLogger(FogbowResourceDatastore.class);
@@ -31,6 +51,9 @@ public class FogbowResourceDatastore {
 
 	protected static final String MANAGER_DATASTORE_SQLITE_DRIVER = "org.sqlite.JDBC";
 
+	protected static final long DEFAULT_FLUSH_PERIOD = 200;
+	protected static final int DEFAULT_FLUSH_BATCH = 100;
+
 	private static final String INSERT_FOGBOW_RESOURCE_SQL = "INSERT INTO " + FOGBOW_RESOURCE_TABLE_NAME
 			+ " VALUES(?,?,?,?)";
 	private static final String UPDATE_FOGBOW_RESOURCE = "UPDATE " + FOGBOW_RESOURCE_TABLE_NAME + " SET " + ORDER_ID
@@ -40,43 +63,78 @@ public class FogbowResourceDatastore {
 	private static final String DELETE_BY_RESOURCE_ID_SQL = DELETE_ALL_CONTENT_SQL + " WHERE " + RESOURCE_ID + "=? ";
 
 	private final String dataStoreURL;
+	private final long flushPeriod;
+	private final int flushBatch;
+	private final Object connectionLock;
+	private final Object writeSignal;
+	private final BlockingDeque<PendingWrite> pendingWrites;
+	private Connection connection;
+	private final AtomicBoolean closed;
 
 	public FogbowResourceDatastore(Properties properties) {
 		this.dataStoreURL = properties.getProperty(AppPropertiesConstants.DB_DATASTORE_URL);
+		this.flushPeriod = Long.parseLong(properties.getProperty(AppPropertiesConstants.DB_DATASTORE_FLUSH_PERIOD,
+				String.valueOf(DEFAULT_FLUSH_PERIOD)));
+		this.flushBatch = Integer.parseInt(properties.getProperty(AppPropertiesConstants.DB_DATASTORE_FLUSH_BATCH,
+				String.valueOf(DEFAULT_FLUSH_BATCH)));
+		this.connectionLock = new Object();
+		this.writeSignal = new Object();
+		this.pendingWrites = new LinkedBlockingDeque<>();
+		this.closed = new AtomicBoolean();
 
 		Statement statement = null;
-		Connection connection = null;
 		try {
 			LOGGER.debug("DatastoreURL: " + dataStoreURL);
 
 			Class.forName(MANAGER_DATASTORE_SQLITE_DRIVER);
 
-			connection = getConnection();
-			connection.setAutoCommit(false);
-			statement = connection.createStatement();
-			statement.execute("CREATE TABLE IF NOT EXISTS " + FOGBOW_RESOURCE_TABLE_NAME + "(" + RESOURCE_ID
-					+ " VARCHAR(255) PRIMARY KEY," + ORDER_ID + " VARCHAR(255)," + INSTANCE_ID + " VARCHAR(255)," + SPEC
-					+ " TEXT " + ")");
-			statement.close();
-			connection.commit();
-
+			synchronized (this.connectionLock) {
+				Connection connection = getConnection();
+				statement = connection.createStatement();
+				statement.execute("CREATE TABLE IF NOT EXISTS " + FOGBOW_RESOURCE_TABLE_NAME + "(" + RESOURCE_ID
+						+ " VARCHAR(255) PRIMARY KEY," + ORDER_ID + " VARCHAR(255)," + INSTANCE_ID + " VARCHAR(255),"
+						+ SPEC + " TEXT " + ")");
+				statement.close();
+				connection.commit();
+			}
 		} catch (Exception e) {
 			LOGGER.error("Error while initializing the DataStore.", e);
 		} finally {
-			close(statement, connection);
+			close(statement);
 		}
+
+		Thread writer = new Thread(this::writeBehind, "blowout-datastore-writer");
+		writer.setDaemon(true);
+		writer.start();
 	}
 
-	public Connection getConnection() throws SQLException {
+	/**
+	 * @return the connection of the datastore, opened on first use. Callers
+	 *         must hold the connection lock.
+	 */
+	protected Connection getConnection() throws SQLException {
+		if (this.connection != null && !this.connection.isClosed()) {
+			return this.connection;
+		}
 		try {
-			return DriverManager.getConnection(this.dataStoreURL);
+			Connection newConnection = DriverManager.getConnection(this.dataStoreURL);
+			Statement pragmas = newConnection.createStatement();
+			try {
+				pragmas.execute("PRAGMA journal_mode=WAL");
+				pragmas.execute("PRAGMA synchronous=NORMAL");
+			} finally {
+				pragmas.close();
+			}
+			newConnection.setAutoCommit(false);
+			this.connection = newConnection;
+			return newConnection;
 		} catch (SQLException e) {
-			LOGGER.error("Error while getting a new connection from the connection pool.", e);
+			LOGGER.error("Error while opening the datastore connection.", e);
 			throw e;
 		}
 	}
 
-	private void close(Statement statement, Connection conn) {
+	private void close(Statement statement) {
 		if (statement != null) {
 			try {
 				if (!statement.isClosed()) {
@@ -86,99 +144,152 @@ public class FogbowResourceDatastore {
 				LOGGER.error("Couldn't close statement");
 			}
 		}
+	}
 
-		if (conn != null) {
-			try {
-				if (!conn.isClosed()) {
-					conn.close();
+	/**
+	 * Writes the queued changes and closes the connection. Changes made after
+	 * closing are not stored.
+	 */
+	public void close() {
+		this.closed.set(true);
+		synchronized (this.writeSignal) {
+			this.writeSignal.notifyAll();
+		}
+		if (!flush()) {
+			LOGGER.error(this.pendingWrites.size() + " resource changes could not be stored.");
+		}
+		synchronized (this.connectionLock) {
+			if (this.connection != null) {
+				try {
+					this.connection.close();
+				} catch (SQLException e) {
+					LOGGER.error("Couldn't close connection");
 				}
-			} catch (SQLException e) {
-				LOGGER.error("Couldn't close connection");
 			}
 		}
 	}
 
+	/**
+	 * @return true if the addition was queued, false if the datastore is
+	 *         closed.
+	 */
 	public boolean addFogbowResource(FogbowResource fogbowResource) {
 		LOGGER.debug("Adding resource id: " + fogbowResource.getId());
-		PreparedStatement insertResourceStatement = null;
-		Connection connection = null;
-		try {
-			connection = getConnection();
-			connection.setAutoCommit(false);
-
-			insertResourceStatement = prepare(connection, INSERT_FOGBOW_RESOURCE_SQL);
-
-			setResourcers(insertResourceStatement, fogbowResource);
-
-			boolean result = insertResourceStatement.execute();
-			connection.commit();
-			return result;
-		} catch (SQLException e) {
-			LOGGER.error("Couldn't store the current resource id", e);
-			try {
-				if (connection != null) {
-					connection.rollback();
-				}
-			} catch (SQLException e1) {
-				LOGGER.error("Couldn't rollback transaction.", e1);
-			}
-			return false;
-		} finally {
-			close(insertResourceStatement, connection);
-		}
+		return enqueue(insertOf(fogbowResource));
 	}
 
+	/**
+	 * @return true if every addition was queued.
+	 */
 	public boolean addResourceIds(List<FogbowResource> fogbowResources) {
 		LOGGER.debug("Adding resource ids");
-		PreparedStatement insertResourcesStatement = null;
-		Connection connection = null;
-		try {
-			connection = getConnection();
-			connection.setAutoCommit(false);
-
-			insertResourcesStatement = prepare(connection, INSERT_FOGBOW_RESOURCE_SQL);
+		boolean queued = true;
+		for (FogbowResource fogbowResource : fogbowResources) {
+			queued &= enqueue(insertOf(fogbowResource));
+		}
+		return queued;
+	}
 
-			for (FogbowResource fogbowResource : fogbowResources) {
+	/**
+	 * @return true if the update was queued, even if no stored resource has
+	 *         the id of the given one.
+	 */
+	public boolean updateFogbowResource(FogbowResource fogbowResource) {
+		LOGGER.debug("Updating resource id: " + fogbowResource.getId());
+		return enqueue(new PendingWrite(UPDATE_FOGBOW_RESOURCE, fogbowResource.getComputeOrderId(),
+				fogbowResource.getInstanceId(), fogbowResource.getId()));
+	}
 
-				setResourcers(insertResourcesStatement, fogbowResource);
+	/**
+	 * @return true if the deletion was queued.
+	 */
+	public boolean deleteFogbowResourceById(FogbowResource fogbowResource) {
+		LOGGER.debug("Deleting resource id: " + fogbowResource.getId());
+		return enqueue(new PendingWrite(DELETE_BY_RESOURCE_ID_SQL, fogbowResource.getId()));
+	}
 
-				insertResourcesStatement.addBatch();
-				connection.rollback();
+	private boolean enqueue(PendingWrite pendingWrite) {
+		if (this.closed.get()) {
+			LOGGER.error("Datastore is closed, the change will not be stored.");
+			return false;
+		}
+		this.pendingWrites.add(pendingWrite);
+		if (this.pendingWrites.size() >= this.flushBatch) {
+			synchronized (this.writeSignal) {
+				this.writeSignal.notifyAll();
 			}
+		}
+		return true;
+	}
 
-			if (hasBatchExecutionError(insertResourcesStatement.executeBatch())) {
-				return false;
+	/**
+	 * Flushes the queued changes every flush period, or as soon as a flush
+	 * batch of them is queued. After a failed flush it waits a flush period
+	 * before trying again, however many changes are queued.
+	 */
+	private void writeBehind() {
+		boolean written = true;
+		while (!this.closed.get()) {
+			try {
+				synchronized (this.writeSignal) {
+					if (!this.closed.get() && (!written || this.pendingWrites.size() < this.flushBatch)) {
+						this.writeSignal.wait(this.flushPeriod);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
 			}
-			connection.commit();
-			return true;
-		} catch (SQLException e) {
-			dealWithSQLException(connection, "Couldn't store the current resource id", e);
-			return false;
-		} finally {
-			close(insertResourcesStatement, connection);
+			written = flush();
 		}
 	}
 
-	public boolean updateFogbowResource(FogbowResource fogbowResource) {
-		LOGGER.debug("Updating resource id: " + fogbowResource.getId());
-		PreparedStatement updateFogbowResourceStatment = null;
-		Connection connection = null;
-		try {
-			connection = getConnection();
-			connection.setAutoCommit(false);
-
-			updateFogbowResourceStatment = prepare(connection, UPDATE_FOGBOW_RESOURCE);
-			updateFogbowResourceStatment.setString(1, fogbowResource.getComputeOrderId());
-			updateFogbowResourceStatment.setString(2, fogbowResource.getInstanceId());
-			updateFogbowResourceStatment.setString(3, fogbowResource.getId());
-			boolean result = updateFogbowResourceStatment.executeUpdate() > 0;
-			connection.commit();
-			return result;
-		} catch (SQLException e) {
-			dealWithSQLException(connection, "Couldn't update fogbow resource " + fogbowResource.getId(), e);
-			return false;
-		} finally {
-			close(updateFogbowResourceStatment, connection);
+	/**
+	 * Writes the queued changes, in the order they were made, and commits
+	 * them all at once. If they cannot be committed, they are queued again
+	 * ahead of the changes made meanwhile, to be written on the next flush.
+	 *
+	 * @return true if no change is left queued by this flush.
+	 */
+	public boolean flush() {
+		synchronized (this.connectionLock) {
+			if (this.pendingWrites.isEmpty()) {
+				return true;
+			}
+			List<PendingWrite> writes = new ArrayList<>();
+			this.pendingWrites.drainTo(writes);
+
+			Map<String, PreparedStatement> statements = new HashMap<>();
+			Connection connection = null;
+			try {
+				connection = getConnection();
+				for (PendingWrite write : writes) {
+					PreparedStatement statement = statements.get(write.sql);
+					if (statement == null) {
+						statement = prepare(connection, write.sql);
+						statements.put(write.sql, statement);
+					}
+					try {
+						write.execute(statement);
+					} catch (SQLException e) {
+						LOGGER.error("Couldn't store a change of the resources: " + e.getMessage());
+					}
+				}
+				connection.commit();
+				LOGGER.debug("Committed " + writes.size() + " resource changes.");
+				return true;
+			} catch (SQLException e) {
+				dealWithSQLException(connection, "Couldn't commit " + writes.size()
+						+ " resource changes, they will be written again", e);
+				for (int i = writes.size() - 1; i >= 0; i--) {
+					this.pendingWrites.addFirst(writes.get(i));
+				}
+				return false;
+			} finally {
+				for (PreparedStatement statement : statements.values()) {
+					close(statement);
+				}
+			}
 		}
 	}
 
@@ -187,48 +298,29 @@ public class FogbowResourceDatastore {
 	}
 
 	public List<FogbowResource> getAllFogbowResources() {
+		flush();
 		List<FogbowResource> fogbowResources = new ArrayList<FogbowResource>();
 		Statement getRequestIdStatement = null;
-		Connection connection = null;
-		try {
-			connection = getConnection();
-			getRequestIdStatement = connection.createStatement();
-			getRequestIdStatement.execute(SELECT_REQUEST_ID);
-			ResultSet result = getRequestIdStatement.getResultSet();
-
-			while (result.next()) {
-				FogbowResource fogbowresource = createFogbowResource(result);
-				fogbowResources.add(fogbowresource);
-			}
-
-			return fogbowResources;
+		synchronized (this.connectionLock) {
+			try {
+				Connection connection = getConnection();
+				getRequestIdStatement = connection.createStatement();
+				getRequestIdStatement.execute(SELECT_REQUEST_ID);
+				ResultSet result = getRequestIdStatement.getResultSet();
+
+				while (result.next()) {
+					FogbowResource fogbowresource = createFogbowResource(result);
+					fogbowResources.add(fogbowresource);
+				}
 
-		} catch (Exception e) {
-			LOGGER.error("Couldn't recover request Ids from DB", e);
-			return null;
-		} finally {
-			close(getRequestIdStatement, connection);
-		}
-	}
+				return fogbowResources;
 
-	public boolean deleteFogbowResourceById(FogbowResource fogbowResource) {
-		LOGGER.debug("Deleting resource id: " + fogbowResource.getId());
-		PreparedStatement deleteResourceId = null;
-		Connection connection = null;
-		try {
-			connection = getConnection();
-			connection.setAutoCommit(false);
-
-			deleteResourceId = prepare(connection, DELETE_BY_RESOURCE_ID_SQL);
-			deleteResourceId.setString(1, fogbowResource.getId());
-			boolean result = deleteResourceId.execute();
-			connection.commit();
-			return result;
-		} catch (SQLException e) {
-			dealWithSQLException(connection,"Couldn't delete the resource " + fogbowResource.getId(), e);
-			return false;
-		} finally {
-			close(deleteResourceId, connection);
+			} catch (Exception e) {
+				LOGGER.error("Couldn't recover request Ids from DB", e);
+				return null;
+			} finally {
+				close(getRequestIdStatement);
+			}
 		}
 	}
 
@@ -236,22 +328,24 @@ public class FogbowResourceDatastore {
 		LOGGER.debug("Deleting all resources");
 		PreparedStatement deleteOldContent = null;
 		Connection connection = null;
-		try {
-			connection = getConnection();
-			connection.setAutoCommit(false);
-			deleteOldContent = connection.prepareStatement(DELETE_ALL_CONTENT_SQL);
-			deleteOldContent.executeUpdate();
-			connection.commit();
-			return true;
-		} catch (SQLException e) {
-			dealWithSQLException(connection, "Couldn't delete all resource ids", e);
-			return false;
-		} finally {
-			close(deleteOldContent, connection);
+		synchronized (this.connectionLock) {
+			this.pendingWrites.clear();
+			try {
+				connection = getConnection();
+				deleteOldContent = connection.prepareStatement(DELETE_ALL_CONTENT_SQL);
+				deleteOldContent.executeUpdate();
+				connection.commit();
+				return true;
+			} catch (SQLException e) {
+				dealWithSQLException(connection, "Couldn't delete all resource ids", e);
+				return false;
+			} finally {
+				close(deleteOldContent);
+			}
 		}
 	}
 
-	private void setResourcers(PreparedStatement preparedStatement, FogbowResource fogbowResource) throws SQLException {
+	private PendingWrite insertOf(FogbowResource fogbowResource) {
 
 		String specification = null;
 
@@ -260,15 +354,8 @@ public class FogbowResourceDatastore {
 			specification = json.toString();
 		}
 
-		preparedStatement.setString(1, fogbowResource.getId());
-		preparedStatement.setString(2, fogbowResource.getComputeOrderId());
-		preparedStatement.setString(3, fogbowResource.getInstanceId());
-
-		if (specification == null) {
-			preparedStatement.setNull(4, Types.VARCHAR);
-		} else {
-			preparedStatement.setString(4, specification);
-		}
+		return new PendingWrite(INSERT_FOGBOW_RESOURCE_SQL, fogbowResource.getId(),
+				fogbowResource.getComputeOrderId(), fogbowResource.getInstanceId(), specification);
 	}
 
 	private void dealWithSQLException(Connection connection, String errorMessage, Exception e) {
@@ -296,12 +383,28 @@ public class FogbowResourceDatastore {
 		return fogbowResource;
 	}
 
-	private boolean hasBatchExecutionError(int[] executeBatch) {
-		for (int i : executeBatch) {
-			if (i == PreparedStatement.EXECUTE_FAILED) {
-				return true;
+	/**
+	 * A queued statement with the values it had when the change was made.
+	 */
+	private static class PendingWrite {
+
+		private final String sql;
+		private final String[] values;
+
+		private PendingWrite(String sql, String... values) {
+			this.sql = sql;
+			this.values = values;
+		}
+
+		private void execute(PreparedStatement statement) throws SQLException {
+			for (int i = 0; i < this.values.length; i++) {
+				if (this.values[i] == null) {
+					statement.setNull(i + 1, Types.VARCHAR);
+				} else {
+					statement.setString(i + 1, this.values[i]);
+				}
 			}
+			statement.executeUpdate();
 		}
-		return false;
 	}
 }
@@ -0,0 +1,578 @@
+package org.fogbowcloud.blowout.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Append-only journal of the tasks of the pool, from which the pool is
+ * recovered after a restart.
+ * <p>
+ * Each change of a task is a record with its CRC32, appended to the current
+ * log file without waiting. A single writer thread writes the queued records
+ * and forces them to disk once for all of them, so the more records are
+ * appended at the same time, the fewer syncs per record. Every snapshot
+ * records, the writer starts a new log file and writes a snapshot of the
+ * tasks of the pool; the logs before it are then deleted. Recovery loads the
+ * last snapshot and replays the logs after it, stopping at the first record
+ * whose checksum does not match, as left by a crash in the middle of a
+ * write.
+ */
+public class TaskJournal {
+
+	private static final Logger LOGGER = Logger.getLogger(TaskJournal.class);
+
+	protected static final int DEFAULT_SNAPSHOT_RECORDS = 100000;
+
+	protected static final String LOG_PREFIX = "tasks-";
+	protected static final String LOG_SUFFIX = ".log";
+	protected static final String SNAPSHOT_PREFIX = "snapshot-";
+	protected static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+	private static final int MAGIC = 0x424c574a;
+	private static final int VERSION = 1;
+
+	private static final byte SUBMITTED = 1;
+	private static final byte STATE_CHANGED = 2;
+	private static final byte REMOVED = 3;
+
+	private static final int NO_STATE = -1;
+	private static final long WRITER_POLL_PERIOD = 100;
+
+	private final File directory;
+	private final int snapshotRecords;
+	private final BlockingQueue<byte[]> pendingRecords;
+	private final AtomicLong appendedRecords;
+	private final Object durableLock;
+
+	private long durableRecords;
+	private long generation;
+	private FileOutputStream logFile;
+	private DataOutputStream log;
+	private long recordsSinceSnapshot;
+	private volatile boolean snapshotRequested;
+	private volatile Supplier<Collection<Task>> snapshotSource;
+	private volatile Thread writer;
+	private volatile boolean closed;
+
+	public TaskJournal(File directory, int snapshotRecords) {
+		if (snapshotRecords <= 0) {
+			throw new IllegalArgumentException("Task journal snapshot records must be positive.");
+		}
+		this.directory = directory;
+		this.snapshotRecords = snapshotRecords;
+		this.pendingRecords = new LinkedBlockingQueue<>();
+		this.appendedRecords = new AtomicLong();
+		this.durableLock = new Object();
+	}
+
+	/**
+	 * @return the journal set by the properties, or null if tasks are not
+	 *         journaled.
+	 */
+	public static TaskJournal create(Properties properties) {
+		String directory = properties.getProperty(AppPropertiesConstants.TASK_JOURNAL_DIR);
+		if (directory == null || directory.trim().isEmpty()) {
+			return null;
+		}
+		int snapshotRecords = Integer.parseInt(properties.getProperty(
+				AppPropertiesConstants.TASK_JOURNAL_SNAPSHOT_RECORDS, String.valueOf(DEFAULT_SNAPSHOT_RECORDS)));
+		return new TaskJournal(new File(directory.trim()), snapshotRecords);
+	}
+
+	/**
+	 * Replays the journal and opens it for new records. Must be called once,
+	 * before any record is appended.
+	 *
+	 * @return the tasks recorded, in the order they were submitted. Tasks not
+	 *         finished are ready to run again.
+	 */
+	public synchronized List<Task> recover() throws IOException {
+		if (this.writer != null) {
+			throw new IllegalStateException("Task journal was already recovered.");
+		}
+		if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+			throw new IOException("Could not create the task journal directory " + this.directory + ".");
+		}
+
+		long startedAt = System.currentTimeMillis();
+		TreeMap<Long, File> snapshots = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+		TreeMap<Long, File> logs = listFiles(LOG_PREFIX, LOG_SUFFIX);
+
+		Map<String, Task> tasks = new LinkedHashMap<>();
+		long snapshotGeneration = 0;
+		if (!snapshots.isEmpty()) {
+			snapshotGeneration = snapshots.lastKey();
+			replay(snapshots.lastEntry().getValue(), tasks);
+		}
+		long records = 0;
+		for (Map.Entry<Long, File> log : logs.tailMap(snapshotGeneration, true).entrySet()) {
+			records += replay(log.getValue(), tasks);
+		}
+		for (Task task : tasks.values()) {
+			if (!task.isFinished()) {
+				task.setState(TaskState.READY);
+			}
+		}
+		LOGGER.info("Recovered " + tasks.size() + " tasks from the task journal, replaying " + records
+				+ " records in " + (System.currentTimeMillis() - startedAt) + " ms.");
+
+		long lastGeneration = Math.max(snapshotGeneration, logs.isEmpty() ? 0 : logs.lastKey());
+		this.generation = lastGeneration + 1;
+		openLog();
+		this.recordsSinceSnapshot = records;
+		this.snapshotRequested = records > 0;
+
+		Thread writerThread = new Thread(this::writeLoop, "blowout-task-journal");
+		writerThread.setDaemon(true);
+		this.writer = writerThread;
+		writerThread.start();
+		return new ArrayList<>(tasks.values());
+	}
+
+	/**
+	 * Sets where the tasks written to snapshots are taken from, usually the
+	 * pool. Without it the journal is never compacted. The source is called
+	 * on the writer thread and must not return before every task whose
+	 * records were appended so far is in what it returns, as the logs holding
+	 * those records are deleted after the snapshot.
+	 */
+	public void setSnapshotSource(Supplier<Collection<Task>> snapshotSource) {
+		this.snapshotSource = snapshotSource;
+	}
+
+	public void submitted(Task task) {
+		JSONObject json = task.toJSON();
+		if (json == null) {
+			LOGGER.error("Could not journal task " + task.getId() + ".");
+			return;
+		}
+		append(SUBMITTED, json.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	public void submitted(Collection<Task> tasks) {
+		for (Task task : tasks) {
+			submitted(task);
+		}
+	}
+
+	/**
+	 * Records the new state of a task, with its retries and its finished and
+	 * failed flags.
+	 */
+	public void stateChanged(Task task, TaskState state) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(task.getId().length() + 16);
+		DataOutputStream payload = new DataOutputStream(bytes);
+		try {
+			payload.writeUTF(task.getId());
+			payload.writeByte(state == null ? NO_STATE : state.ordinal());
+			payload.writeInt(task.getRetries());
+			payload.writeBoolean(task.isFinished());
+			payload.writeBoolean(task.isFailed());
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		append(STATE_CHANGED, bytes.toByteArray());
+	}
+
+	public void removed(Task task) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(task.getId().length() + 2);
+		try {
+			new DataOutputStream(bytes).writeUTF(task.getId());
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		append(REMOVED, bytes.toByteArray());
+	}
+
+	/**
+	 * Waits until every record appended so far is on disk.
+	 */
+	public void sync() throws InterruptedException {
+		long target = this.appendedRecords.get();
+		synchronized (this.durableLock) {
+			while (this.durableRecords < target && this.writer != null && this.writer.isAlive()) {
+				this.durableLock.wait(WRITER_POLL_PERIOD);
+			}
+		}
+	}
+
+	/**
+	 * Writes a snapshot on the writer thread as soon as possible.
+	 */
+	public void requestSnapshot() {
+		this.snapshotRequested = true;
+	}
+
+	/**
+	 * Writes the queued records and closes the journal.
+	 */
+	public void close() {
+		this.closed = true;
+		Thread writerThread = this.writer;
+		if (writerThread != null) {
+			try {
+				writerThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	public long getAppendedRecords() {
+		return this.appendedRecords.get();
+	}
+
+	protected long getGeneration() {
+		return this.generation;
+	}
+
+	private void append(byte type, byte[] payload) {
+		if (this.closed || this.writer == null) {
+			LOGGER.error("Task journal is not open, the change of the task will not be recorded.");
+			return;
+		}
+		this.appendedRecords.incrementAndGet();
+		this.pendingRecords.add(encode(type, payload));
+	}
+
+	private static byte[] encode(byte type, byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(type);
+		crc.update(payload, 0, payload.length);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 9);
+		DataOutputStream record = new DataOutputStream(bytes);
+		try {
+			record.writeInt(payload.length + 1);
+			record.writeInt((int) crc.getValue());
+			record.writeByte(type);
+			record.write(payload);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Writes the queued records a batch at a time. A batch that could not be
+	 * written is kept and written again, so no record is lost while the disk
+	 * fails, unless the journal is closed meanwhile.
+	 */
+	private void writeLoop() {
+		List<byte[]> batch = new ArrayList<>();
+		while (true) {
+			try {
+				if (batch.isEmpty()) {
+					byte[] first = this.pendingRecords.poll(WRITER_POLL_PERIOD, TimeUnit.MILLISECONDS);
+					if (first != null) {
+						batch.add(first);
+						this.pendingRecords.drainTo(batch);
+					} else if (this.closed) {
+						break;
+					}
+				}
+				if (!batch.isEmpty()) {
+					writeBatch(batch);
+					batch.clear();
+				}
+				if (this.snapshotRequested || this.recordsSinceSnapshot >= this.snapshotRecords) {
+					snapshot();
+				}
+			} catch (InterruptedException e) {
+				break;
+			} catch (IOException e) {
+				if (this.closed) {
+					LOGGER.error("Error while writing the task journal, " + batch.size()
+							+ " records were not written.", e);
+					break;
+				}
+				LOGGER.error("Error while writing the task journal, retrying.", e);
+				try {
+					Thread.sleep(WRITER_POLL_PERIOD);
+				} catch (InterruptedException interrupted) {
+					break;
+				}
+			}
+		}
+		closeLog();
+	}
+
+	/**
+	 * Writes the records and forces them to disk; they are counted as durable
+	 * only then. When the write fails, the log may end with part of the batch,
+	 * so a new log is started for the batch to be written again whole.
+	 * Replaying the records written twice gives the same tasks.
+	 */
+	private void writeBatch(List<byte[]> batch) throws IOException {
+		try {
+			for (byte[] record : batch) {
+				this.log.write(record);
+			}
+			this.log.flush();
+			this.logFile.getChannel().force(false);
+		} catch (IOException e) {
+			try {
+				startNextLog();
+			} catch (IOException nextLogError) {
+				e.addSuppressed(nextLogError);
+			}
+			throw e;
+		}
+		this.recordsSinceSnapshot += batch.size();
+		synchronized (this.durableLock) {
+			this.durableRecords += batch.size();
+			this.durableLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Starts a new log, then writes the tasks of the snapshot source. The
+	 * source waits for the tasks whose records are in the previous logs to be
+	 * in the pool, and replaying the records of the new log on top of the
+	 * snapshot gives the same tasks, so the previous logs can go.
+	 */
+	private void snapshot() throws IOException {
+		Supplier<Collection<Task>> source = this.snapshotSource;
+		if (source == null) {
+			return;
+		}
+		this.snapshotRequested = false;
+		long startedAt = System.currentTimeMillis();
+		startNextLog();
+		this.recordsSinceSnapshot = 0;
+
+		Collection<Task> tasks = source.get();
+		File snapshotFile = new File(this.directory, SNAPSHOT_PREFIX + this.generation + SNAPSHOT_SUFFIX);
+		File temporaryFile = new File(this.directory, snapshotFile.getName() + ".tmp");
+		try (FileOutputStream file = new FileOutputStream(temporaryFile)) {
+			DataOutputStream snapshot = new DataOutputStream(new BufferedOutputStream(file));
+			writeHeader(snapshot);
+			for (Task task : tasks) {
+				JSONObject json = task.toJSON();
+				if (json != null) {
+					snapshot.write(encode(SUBMITTED, json.toString().getBytes(StandardCharsets.UTF_8)));
+				}
+			}
+			snapshot.flush();
+			file.getChannel().force(true);
+		}
+		Files.move(temporaryFile.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+		for (File oldLog : listFiles(LOG_PREFIX, LOG_SUFFIX).headMap(this.generation).values()) {
+			Files.deleteIfExists(oldLog.toPath());
+		}
+		for (File oldSnapshot : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(this.generation).values()) {
+			Files.deleteIfExists(oldSnapshot.toPath());
+		}
+		LOGGER.info("Task journal snapshot of " + tasks.size() + " tasks written in "
+				+ (System.currentTimeMillis() - startedAt) + " ms.");
+	}
+
+	/**
+	 * Moves to the log of the next generation. The current log is kept until
+	 * the new one is open, so a failure leaves the journal writing to it.
+	 */
+	private void startNextLog() throws IOException {
+		this.generation++;
+		try {
+			openLog();
+		} catch (IOException e) {
+			this.generation--;
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens the log of the current generation, then closes the previous log,
+	 * if any.
+	 */
+	private void openLog() throws IOException {
+		File file = new File(this.directory, LOG_PREFIX + this.generation + LOG_SUFFIX);
+		FileOutputStream newLogFile = new FileOutputStream(file, true);
+		DataOutputStream newLog = new DataOutputStream(new BufferedOutputStream(newLogFile, 64 * 1024));
+		try {
+			if (file.length() == 0) {
+				writeHeader(newLog);
+				newLog.flush();
+			}
+		} catch (IOException e) {
+			newLogFile.close();
+			throw e;
+		}
+		closeLog();
+		this.logFile = newLogFile;
+		this.log = newLog;
+	}
+
+	private void closeLog() {
+		if (this.log == null) {
+			return;
+		}
+		try {
+			this.log.flush();
+			this.logFile.getChannel().force(false);
+		} catch (IOException e) {
+			LOGGER.error("Error while closing the task journal log.", e);
+		}
+		try {
+			this.log.close();
+		} catch (IOException e) {
+			LOGGER.error("Error while closing the task journal log.", e);
+		}
+		this.log = null;
+		this.logFile = null;
+	}
+
+	private static void writeHeader(DataOutputStream output) throws IOException {
+		output.writeInt(MAGIC);
+		output.writeInt(VERSION);
+	}
+
+	/**
+	 * Applies the records of a file to the tasks.
+	 *
+	 * @return the number of records applied.
+	 */
+	private static long replay(File file, Map<String, Task> tasks) throws IOException {
+		long records = 0;
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file),
+				64 * 1024))) {
+			if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+				LOGGER.warn("Ignoring " + file + ", it is not a task journal.");
+				return 0;
+			}
+			while (true) {
+				int length = input.readInt();
+				int checksum = input.readInt();
+				if (length <= 0 || length > file.length()) {
+					LOGGER.warn("Corrupt record in " + file + ", ignoring the rest of it.");
+					break;
+				}
+				byte[] record = new byte[length];
+				input.readFully(record);
+				CRC32 crc = new CRC32();
+				crc.update(record, 0, length);
+				if ((int) crc.getValue() != checksum) {
+					LOGGER.warn("Checksum mismatch in " + file + ", ignoring the rest of it.");
+					break;
+				}
+				apply(record, tasks);
+				records++;
+			}
+		} catch (EOFException e) {
+			// End of the file, or a record cut short by a crash.
+		}
+		return records;
+	}
+
+	private static void apply(byte[] record, Map<String, Task> tasks) throws IOException {
+		DataInputStream payload = new DataInputStream(new ByteArrayInputStream(record, 1, record.length - 1));
+		switch (record[0]) {
+		case SUBMITTED:
+			applySubmitted(new String(record, 1, record.length - 1, StandardCharsets.UTF_8), tasks);
+			break;
+		case STATE_CHANGED:
+			applyStateChanged(payload, tasks);
+			break;
+		case REMOVED:
+			tasks.remove(payload.readUTF());
+			break;
+		default:
+			LOGGER.warn("Ignoring a task journal record of unknown type " + record[0] + ".");
+		}
+	}
+
+	private static void applySubmitted(String taskJSON, Map<String, Task> tasks) {
+		try {
+			JSONObject json = new JSONObject(taskJSON);
+			Task task = TaskImpl.fromJSON(json);
+			TaskState state = TaskState.getTaskStateFromDesc(json.optString("state"));
+			if (state != null) {
+				task.setState(state);
+			}
+			tasks.put(task.getId(), task);
+		} catch (JSONException e) {
+			LOGGER.warn("Ignoring a task journal record that is not a task: " + e.getMessage());
+		}
+	}
+
+	private static void applyStateChanged(DataInputStream payload, Map<String, Task> tasks) throws IOException {
+		Task task = tasks.get(payload.readUTF());
+		int state = payload.readByte();
+		int retries = payload.readInt();
+		boolean finished = payload.readBoolean();
+		boolean failed = payload.readBoolean();
+		if (task == null) {
+			return;
+		}
+		if (finished && !task.isFinished()) {
+			task.finish();
+		}
+		if (failed && !task.isFailed()) {
+			task.fail();
+		}
+		task.setRetries(retries);
+		task.setState(state == NO_STATE ? null : TaskState.values()[state]);
+	}
+
+	private TreeMap<Long, File> listFiles(String prefix, String suffix) {
+		TreeMap<Long, File> files = new TreeMap<>();
+		File[] candidates = this.directory.listFiles();
+		if (candidates == null) {
+			return files;
+		}
+		for (File file : candidates) {
+			String name = file.getName();
+			if (name.startsWith(prefix) && name.endsWith(suffix)) {
+				try {
+					files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), file);
+				} catch (NumberFormatException e) {
+					LOGGER.debug("Ignoring " + file + " in the task journal directory.");
+				}
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * @return the files of the journal, for tests.
+	 */
+	protected List<File> getFiles() {
+		List<File> files = new ArrayList<>(listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).values());
+		files.addAll(listFiles(LOG_PREFIX, LOG_SUFFIX).values());
+		return Collections.unmodifiableList(files);
+	}
+}
@@ -0,0 +1,127 @@
+package org.fogbowcloud.blowout.infrastructure.http;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fogbowcloud.blowout.core.constants.FogbowConstants;
+
+/**
+ * Request latency counters of the {@link HttpWrapper}, broken down by the
+ * Fogbow endpoint a request was sent to.
+ */
+public class HttpRequestMetrics {
+
+	public static final String ENDPOINT_COMPUTE = "compute";
+	public static final String ENDPOINT_PUBLIC_IPS = "publicIps";
+	public static final String ENDPOINT_IMAGES = "images";
+	public static final String ENDPOINT_PUBLIC_KEY = "publicKey";
+	public static final String ENDPOINT_TOKENS = "tokens";
+	public static final String ENDPOINT_OTHER = "other";
+
+	private final Map<String, EndpointStats> statsByEndpoint = new ConcurrentHashMap<>();
+
+	public void record(String url, long elapsedNanos, boolean failed) {
+		String endpoint = endpointOf(url);
+		EndpointStats stats = statsByEndpoint.computeIfAbsent(endpoint, key -> new EndpointStats());
+		stats.record(elapsedNanos, failed);
+	}
+
+	public EndpointStats getStats(String endpoint) {
+		EndpointStats stats = statsByEndpoint.get(endpoint);
+		return stats == null ? new EndpointStats() : stats;
+	}
+
+	public Map<String, EndpointStats> getAllStats() {
+		return new TreeMap<>(statsByEndpoint);
+	}
+
+	public void reset() {
+		statsByEndpoint.clear();
+	}
+
+	/**
+	 * Maps a request url to the endpoint it is accounted under, looking at the
+	 * path segments so that base urls with their own path are handled too.
+	 */
+	protected static String endpointOf(String url) {
+		if (url == null) {
+			return ENDPOINT_OTHER;
+		}
+		String path = url;
+		int queryStart = path.indexOf('?');
+		if (queryStart >= 0) {
+			path = path.substring(0, queryStart);
+		}
+		int schemeEnd = path.indexOf("://");
+		if (schemeEnd >= 0) {
+			int pathStart = path.indexOf('/', schemeEnd + 3);
+			path = pathStart >= 0 ? path.substring(pathStart) : "";
+		}
+
+		for (String segment : path.split("/")) {
+			if (segment.equals(FogbowConstants.RAS_ENDPOINT_COMPUTE)) {
+				return ENDPOINT_COMPUTE;
+			} else if (segment.equals(FogbowConstants.RAS_ENDPOINT_PUBLIC_IP)) {
+				return ENDPOINT_PUBLIC_IPS;
+			} else if (segment.equals(FogbowConstants.RAS_ENDPOINT_IMAGES)) {
+				return ENDPOINT_IMAGES;
+			} else if (segment.equals(FogbowConstants.RAS_ENDPOINT_PUBLIC_KEY)) {
+				return ENDPOINT_PUBLIC_KEY;
+			} else if (segment.equals(FogbowConstants.AS_ENDPOINT_TOKEN)) {
+				return ENDPOINT_TOKENS;
+			}
+		}
+		return ENDPOINT_OTHER;
+	}
+
+	@Override
+	public String toString() {
+		return "HttpRequestMetrics " + getAllStats();
+	}
+
+	public static class EndpointStats {
+
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong failures = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		private void record(long elapsedNanos, boolean failed) {
+			count.incrementAndGet();
+			if (failed) {
+				failures.incrementAndGet();
+			}
+			totalNanos.addAndGet(elapsedNanos);
+			long max = maxNanos.get();
+			while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+				max = maxNanos.get();
+			}
+		}
+
+		public long getCount() {
+			return count.get();
+		}
+
+		public long getFailures() {
+			return failures.get();
+		}
+
+		public long getMeanMillis() {
+			long requests = count.get();
+			return requests == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.get() / requests);
+		}
+
+		public long getMaxMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+		}
+
+		@Override
+		public String toString() {
+			return "[count=" + getCount() + ", failures=" + getFailures() + ", meanMillis=" + getMeanMillis()
+					+ ", maxMillis=" + getMaxMillis() + "]";
+		}
+	}
+}
@@ -1,22 +1,33 @@
 package org.fogbowcloud.blowout.infrastructure.http;
 
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
-import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
 
 public class HttpWrapper {
 
+    private static final Logger LOGGER = Logger.getLogger(HttpWrapper.class);
+
     private static final int SERVER_SIDE_ERRO_MAX = 505;
 	private static final int CLIENT_SIDE_CODE_ERRO_INIT = 400;
 
@@ -27,9 +38,101 @@ public class HttpWrapper {
 	public static final String HTTP_METHOD_GET = HttpGet.METHOD_NAME;
 	public static final String HTTP_METHOD_DELETE = HttpDelete.METHOD_NAME;
 
-    private static HttpClient createHttpClient() {
-		return HttpClients.createMinimal();
-    }
+	private static final HttpRequestMetrics METRICS = new HttpRequestMetrics();
+
+	private static ClientSettings settings;
+	private static SharedClient sharedClient;
+
+	public HttpWrapper() {
+	}
+
+	/**
+	 * Creates a wrapper and applies the HTTP client settings found in the
+	 * given properties to the shared connection pool.
+	 */
+	public HttpWrapper(Properties properties) {
+		configure(properties);
+	}
+
+	/**
+	 * Rebuilds the shared client if the settings in the given properties differ
+	 * from the ones in use. The replaced client is closed once the requests
+	 * running on it end.
+	 */
+	public static synchronized void configure(Properties properties) {
+		ClientSettings newSettings = new ClientSettings(properties);
+		if (!newSettings.equals(settings)) {
+			shutdown();
+			settings = newSettings;
+		}
+	}
+
+	/**
+	 * Retires the shared client, closing it and its pooled connections once
+	 * the requests running on it end. The next request builds a new client
+	 * with the last configured settings.
+	 */
+	public static synchronized void shutdown() {
+		if (sharedClient != null) {
+			sharedClient.retired = true;
+			if (sharedClient.inFlight == 0) {
+				sharedClient.close();
+			}
+			sharedClient = null;
+		}
+	}
+
+	public static HttpRequestMetrics getMetrics() {
+		return METRICS;
+	}
+
+	/**
+	 * @return the shared client, built on first use, counted as used by one
+	 *         more request until {@link #releaseClient(SharedClient)}.
+	 */
+	private static synchronized SharedClient acquireClient() {
+		if (sharedClient == null) {
+			if (settings == null) {
+				settings = new ClientSettings(new Properties());
+			}
+			PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+			sharedClient = new SharedClient(createHttpClient(connectionManager, settings), connectionManager);
+		}
+		sharedClient.inFlight++;
+		return sharedClient;
+	}
+
+	private static synchronized void releaseClient(SharedClient client) {
+		client.inFlight--;
+		if (client.retired && client.inFlight == 0) {
+			client.close();
+		}
+	}
+
+	private static CloseableHttpClient createHttpClient(PoolingHttpClientConnectionManager connectionManager,
+			final ClientSettings clientSettings) {
+		connectionManager.setMaxTotal(clientSettings.maxConnections);
+		connectionManager.setDefaultMaxPerRoute(clientSettings.maxConnectionsPerRoute);
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(clientSettings.connectTimeout)
+				.setSocketTimeout(clientSettings.readTimeout)
+				.setConnectionRequestTimeout(clientSettings.connectionRequestTimeout)
+				.build();
+
+		ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+			long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return keepAlive > 0 ? keepAlive : clientSettings.keepAlive;
+		};
+
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy(keepAliveStrategy)
+				.evictExpiredConnections()
+				.evictIdleConnections(clientSettings.idleTimeout, TimeUnit.MILLISECONDS)
+				.build();
+	}
 
     public String doRequest(String method, String endpoint, List<Header> additionalHeaders, StringEntity body) throws Exception {
         return doRequest(method, endpoint, null, additionalHeaders, body);
@@ -59,32 +162,144 @@ public class HttpWrapper {
             request.addHeader(header);
         }
 
-        HttpResponse response = createHttpClient().execute(request);
+        final long startTime = System.nanoTime();
+        boolean failed = true;
+        HttpResponse response = null;
         HttpEntity entity = null;
-        
+        SharedClient client = acquireClient();
+
         try {
-        	
+            response = client.httpClient.execute(request);
             entity = response.getEntity();
             
             int statusCode = response.getStatusLine().getStatusCode();
             
             if (statusCode == HttpStatus.SC_OK || statusCode == HttpStatus.SC_CREATED) {
-                return EntityUtils.toString(response.getEntity());
+                String responseBody = entity == null ? null : EntityUtils.toString(entity, "UTF-8");
+                failed = false;
+                return responseBody;
                 
             } else if(statusCode >= CLIENT_SIDE_CODE_ERRO_INIT && statusCode <= SERVER_SIDE_ERRO_MAX) {
             	throw new Exception("Erro on request - Method ["+method+"] " +
                         "Endpoint: ["+endpoint+"] - Status: "+statusCode+" -  " +
                         "Msg: "+response.getStatusLine().toString());
             } else {
+                failed = false;
                 return response.getStatusLine().toString();
             }
             
         } finally {
-            try {
-                if (entity != null) {
-                	EntityUtils.toString(entity);
-                }
-            } catch (Exception e) {}
+            // fully reading the entity releases the connection back to the pool
+            EntityUtils.consumeQuietly(entity);
+            if (response instanceof CloseableHttpResponse) {
+                try {
+                    ((CloseableHttpResponse) response).close();
+                } catch (Exception e) {}
+            }
+            releaseClient(client);
+            METRICS.record(endpoint, System.nanoTime() - startTime, failed);
         }
     }
-}
\ No newline at end of file
+
+	/**
+	 * A client and its connection pool, with the number of requests running
+	 * on it, so a replaced client is only closed once they end.
+	 */
+	private static class SharedClient {
+
+		private final CloseableHttpClient httpClient;
+		private final PoolingHttpClientConnectionManager connectionManager;
+		private int inFlight;
+		private boolean retired;
+
+		private SharedClient(CloseableHttpClient httpClient, PoolingHttpClientConnectionManager connectionManager) {
+			this.httpClient = httpClient;
+			this.connectionManager = connectionManager;
+		}
+
+		private void close() {
+			try {
+				this.httpClient.close();
+			} catch (Exception e) {
+				LOGGER.warn("Error while closing the HTTP client.", e);
+			}
+			this.connectionManager.shutdown();
+		}
+	}
+
+	private static class ClientSettings {
+
+		private static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+		private static final int DEFAULT_READ_TIMEOUT = 60000;
+		private static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT = 10000;
+		private static final int DEFAULT_MAX_CONNECTIONS = 50;
+		private static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+		private static final long DEFAULT_KEEP_ALIVE = 30000;
+		private static final long DEFAULT_IDLE_TIMEOUT = 60000;
+
+		private final int connectTimeout;
+		private final int readTimeout;
+		private final int connectionRequestTimeout;
+		private final int maxConnections;
+		private final int maxConnectionsPerRoute;
+		private final long keepAlive;
+		private final long idleTimeout;
+
+		private ClientSettings(Properties properties) {
+			this.connectTimeout = (int) getLong(properties, AppPropertiesConstants.HTTP_CONNECT_TIMEOUT,
+					DEFAULT_CONNECT_TIMEOUT);
+			this.readTimeout = (int) getLong(properties, AppPropertiesConstants.HTTP_READ_TIMEOUT,
+					DEFAULT_READ_TIMEOUT);
+			this.connectionRequestTimeout = (int) getLong(properties,
+					AppPropertiesConstants.HTTP_CONNECTION_REQUEST_TIMEOUT, DEFAULT_CONNECTION_REQUEST_TIMEOUT);
+			this.maxConnections = (int) getLong(properties, AppPropertiesConstants.HTTP_MAX_CONNECTIONS,
+					DEFAULT_MAX_CONNECTIONS);
+			this.maxConnectionsPerRoute = (int) getLong(properties,
+					AppPropertiesConstants.HTTP_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+			this.keepAlive = getLong(properties, AppPropertiesConstants.HTTP_KEEP_ALIVE, DEFAULT_KEEP_ALIVE);
+			this.idleTimeout = getLong(properties, AppPropertiesConstants.HTTP_IDLE_CONNECTION_TIMEOUT,
+					DEFAULT_IDLE_TIMEOUT);
+		}
+
+		private static long getLong(Properties properties, String key, long defaultValue) {
+			String value = properties == null ? null : properties.getProperty(key);
+			if (value == null || value.trim().isEmpty()) {
+				return defaultValue;
+			}
+			try {
+				return Long.parseLong(value.trim());
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid value [" + value + "] for property " + key + ", using " + defaultValue);
+				return defaultValue;
+			}
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof ClientSettings)) {
+				return false;
+			}
+			ClientSettings other = (ClientSettings) o;
+			return connectTimeout == other.connectTimeout && readTimeout == other.readTimeout
+					&& connectionRequestTimeout == other.connectionRequestTimeout
+					&& maxConnections == other.maxConnections
+					&& maxConnectionsPerRoute == other.maxConnectionsPerRoute && keepAlive == other.keepAlive
+					&& idleTimeout == other.idleTimeout;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = connectTimeout;
+			result = 31 * result + readTimeout;
+			result = 31 * result + connectionRequestTimeout;
+			result = 31 * result + maxConnections;
+			result = 31 * result + maxConnectionsPerRoute;
+			result = 31 * result + (int) (keepAlive ^ (keepAlive >>> 32));
+			result = 31 * result + (int) (idleTimeout ^ (idleTimeout >>> 32));
+			return result;
+		}
+	}
+}
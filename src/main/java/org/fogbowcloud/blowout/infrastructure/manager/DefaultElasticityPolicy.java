@@ -0,0 +1,116 @@
+package org.fogbowcloud.blowout.infrastructure.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.core.model.resource.ResourceState;
+
+/**
+ * Requests the missing resources right away, up to a maximum number of
+ * resources, and releases a resource once it has had no task for its idle
+ * lifetime. The two thresholds are kept apart: resources of a
+ * specification are not released while its last scale up is recent, and
+ * the warm pool size of each specification is never released, so that a
+ * burst of tasks after a quiet period does not wait for new resources.
+ */
+public class DefaultElasticityPolicy implements ElasticityPolicy {
+
+	private static final Logger LOGGER = Logger.getLogger(DefaultElasticityPolicy.class);
+
+	protected static final long DEFAULT_IDLE_LIFETIME = 120000;
+	protected static final long DEFAULT_SCALE_DOWN_DELAY = 60000;
+
+	private final boolean elastic;
+	private final long idleLifetime;
+	private final long scaleDownDelay;
+	private final int warmPoolSize;
+	private final int maxResources;
+	private final Map<String, Long> idleSince;
+	private final Map<Specification, Long> lastScaleUpAt;
+
+	public DefaultElasticityPolicy(Properties properties) {
+		this.elastic = Boolean.parseBoolean(properties.getProperty(AppPropertiesConstants.INFRA_IS_ELASTIC, "true"));
+		this.idleLifetime = Long.parseLong(properties.getProperty(AppPropertiesConstants.INFRA_RESOURCE_IDLE_LIFETIME,
+				String.valueOf(DEFAULT_IDLE_LIFETIME)));
+		this.scaleDownDelay = Long.parseLong(properties.getProperty(AppPropertiesConstants.INFRA_SCALE_DOWN_DELAY,
+				String.valueOf(DEFAULT_SCALE_DOWN_DELAY)));
+		this.warmPoolSize = Integer.parseInt(properties.getProperty(AppPropertiesConstants.INFRA_WARM_POOL_SIZE, "0"));
+		this.maxResources = Integer.parseInt(properties.getProperty(AppPropertiesConstants.INFRA_MAX_RESOURCES, "0"));
+		this.idleSince = new ConcurrentHashMap<>();
+		this.lastScaleUpAt = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public Map<Specification, Integer> scaleUp(Map<Specification, Integer> missingResources, int provisionedResources,
+			long now) {
+		Map<Specification, Integer> requests = new LinkedHashMap<>();
+		int budget = this.maxResources > 0 ? Math.max(0, this.maxResources - provisionedResources) : Integer.MAX_VALUE;
+		for (Entry<Specification, Integer> missing : missingResources.entrySet()) {
+			int count = Math.min(missing.getValue(), budget);
+			if (count < missing.getValue()) {
+				LOGGER.info("Maximum of " + this.maxResources + " resources reached, " + (missing.getValue() - count)
+						+ " resources of specification " + missing.getKey() + " will not be requested now.");
+			}
+			if (count > 0) {
+				requests.put(missing.getKey(), count);
+				this.lastScaleUpAt.put(missing.getKey(), now);
+				budget -= count;
+			}
+		}
+		return requests;
+	}
+
+	@Override
+	public List<AbstractResource> scaleDown(List<AbstractResource> resources, long now) {
+		List<AbstractResource> releasedResources = new ArrayList<>();
+		Map<Specification, Integer> liveResources = new HashMap<>();
+		Set<String> resourceIds = new HashSet<>();
+		for (AbstractResource resource : resources) {
+			resourceIds.add(resource.getId());
+			if (isLive(resource)) {
+				liveResources.merge(resource.getRequestedSpec(), 1, Integer::sum);
+			}
+		}
+		this.idleSince.keySet().retainAll(resourceIds);
+
+		for (AbstractResource resource : resources) {
+			if (!ResourceState.IDLE.equals(resource.getState()) || resource.getUsedSlots() > 0) {
+				this.idleSince.remove(resource.getId());
+				continue;
+			}
+			long idleTime = now - this.idleSince.computeIfAbsent(resource.getId(), key -> now);
+			Specification spec = resource.getRequestedSpec();
+			if (this.elastic && idleTime >= this.idleLifetime && !isScalingUp(spec, now)
+					&& liveResources.get(spec) > this.warmPoolSize) {
+				LOGGER.info("Resource " + resource.getId() + " was idle for " + idleTime + " ms, releasing it.");
+				releasedResources.add(resource);
+				liveResources.merge(spec, -1, Integer::sum);
+				this.idleSince.remove(resource.getId());
+			}
+		}
+		return releasedResources;
+	}
+
+	private boolean isScalingUp(Specification spec, long now) {
+		Long scaleUpAt = spec == null ? null : this.lastScaleUpAt.get(spec);
+		return scaleUpAt != null && now - scaleUpAt < this.scaleDownDelay;
+	}
+
+	private static boolean isLive(AbstractResource resource) {
+		ResourceState state = resource.getState();
+		return ResourceState.IDLE.equals(state) || ResourceState.BUSY.equals(state)
+				|| ResourceState.FAILED.equals(state);
+	}
+}
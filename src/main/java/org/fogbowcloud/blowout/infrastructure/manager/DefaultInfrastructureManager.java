@@ -2,15 +2,27 @@ package org.fogbowcloud.blowout.infrastructure.manager;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.core.model.task.Task;
 import org.fogbowcloud.blowout.core.model.task.TaskState;
-import org.fogbowcloud.blowout.infrastructure.exception.RequestResourceException;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
 import org.fogbowcloud.blowout.infrastructure.monitor.ResourceMonitor;
 import org.fogbowcloud.blowout.infrastructure.provider.InfrastructureProvider;
@@ -19,12 +31,29 @@ import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
 public class DefaultInfrastructureManager implements InfrastructureManager {
     private static final Logger LOGGER = Logger.getLogger(DefaultInfrastructureManager.class);
 
+    private static final int DEFAULT_PROVISIONING_PARALLELISM = 8;
+    private static final long PROVISIONING_THREAD_KEEP_ALIVE = 60;
+
     private final InfrastructureProvider infraProvider;
     private final ResourceMonitor resourceMonitor;
+    private final Executor provisioningExecutor;
+    private final Map<Specification, AtomicInteger> inFlightRequests;
+    private final Map<String, Map<Specification, Boolean>> matchCache;
+    private final ElasticityPolicy elasticityPolicy;
 
     public DefaultInfrastructureManager(InfrastructureProvider infraProvider, ResourceMonitor resourceMonitor) {
+        this(infraProvider, resourceMonitor, createProvisioningExecutor(DEFAULT_PROVISIONING_PARALLELISM));
+    }
+
+    public DefaultInfrastructureManager(InfrastructureProvider infraProvider, ResourceMonitor resourceMonitor,
+                                        Executor provisioningExecutor) {
         this.infraProvider = infraProvider;
         this.resourceMonitor = resourceMonitor;
+        this.provisioningExecutor = provisioningExecutor;
+        this.inFlightRequests = new ConcurrentHashMap<>();
+        this.matchCache = new ConcurrentHashMap<>();
+        ElasticityPolicy monitorPolicy = resourceMonitor.getElasticityPolicy();
+        this.elasticityPolicy = monitorPolicy != null ? monitorPolicy : new DefaultElasticityPolicy(new Properties());
     }
 
     @Override
@@ -32,39 +61,124 @@ public class DefaultInfrastructureManager implements InfrastructureManager {
         LOGGER.debug("Calling act from the Thread " + Thread.currentThread().getId() +
                 " of entity: " + Thread.currentThread().getName());
         Map<Specification, Integer> specsDemand = generateDemandBySpec(tasks, resources);
-        requestResources(specsDemand);
+        requestResources(specsDemand, resources);
+    }
+
+    /**
+     * Requests a resource on the provisioning executor, so that act does not
+     * wait for the provider. The request counts against the demand of its
+     * specification until the resource is handed to the resource monitor.
+     *
+     * @return a future completed with the id of the requested resource.
+     */
+    public CompletableFuture<String> requestResourceAsync(Specification spec) {
+        final CompletableFuture<String> futureResourceId = new CompletableFuture<>();
+        final AtomicInteger inFlight = this.inFlightRequests.computeIfAbsent(spec, key -> new AtomicInteger());
+        inFlight.incrementAndGet();
+
+        try {
+            this.provisioningExecutor.execute(() -> {
+                try {
+                    String resourceId = this.infraProvider.requestResource(spec);
+                    this.resourceMonitor.addPendingResource(resourceId, spec);
+                    futureResourceId.complete(resourceId);
+                } catch (Throwable e) {
+                    LOGGER.error("Error while requesting resource with specification " + spec, e);
+                    futureResourceId.completeExceptionally(e);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            futureResourceId.completeExceptionally(e);
+        }
+        return futureResourceId;
+    }
+
+    public int getInFlightRequests(Specification spec) {
+        AtomicInteger inFlight = this.inFlightRequests.get(spec);
+        return inFlight == null ? 0 : inFlight.get();
     }
 
-    private void requestResources(Map<Specification, Integer> specsDemand) throws RequestResourceException {
+    /**
+     * Requests the resources missing to each specification, in a single batch
+     * limited by the elasticity policy.
+     */
+    private void requestResources(Map<Specification, Integer> specsDemand, List<AbstractResource> resources) {
 
         LOGGER.debug("amount of specs: " + specsDemand.size());
 
+        Map<Specification, Integer> pendingRequests = this.resourceMonitor.getPendingRequests();
+        int provisionedResources = filterResourcesByState(resources,
+                ResourceState.IDLE,
+                ResourceState.BUSY,
+                ResourceState.FAILED
+        ).size();
+        for (Integer pending : pendingRequests.values()) {
+            provisionedResources += pending;
+        }
+        for (AtomicInteger inFlight : this.inFlightRequests.values()) {
+            provisionedResources += inFlight.get();
+        }
+
+        Map<Specification, Integer> missingResources = new LinkedHashMap<>();
         for (Entry<Specification, Integer> entry : specsDemand.entrySet()) {
 
             Specification spec = entry.getKey();
 
-            Integer requested = this.resourceMonitor.getPendingRequests().get(
-                    spec);
+            Integer requested = pendingRequests.get(spec);
 
             LOGGER.debug("amount requested: " + requested);
 
             if (requested == null)
                 requested = 0;
-            int requiredResources = entry.getValue() - requested;
+            int requiredResources = entry.getValue() - requested - getInFlightRequests(spec);
 
-            LOGGER.debug("amount required: " + requested);
+            LOGGER.debug("amount required: " + requiredResources);
 
-            for (int count = 0; count < requiredResources; count++) {
-
-                String resourceId = infraProvider.requestResource(spec);
-                resourceMonitor.addPendingResource(resourceId, spec);
+            if (requiredResources > 0) {
+                missingResources.put(spec, requiredResources);
             }
+        }
 
+        Map<Specification, Integer> requests = this.elasticityPolicy.scaleUp(missingResources,
+                provisionedResources, System.currentTimeMillis());
+        for (Entry<Specification, Integer> request : requests.entrySet()) {
+            for (int count = 0; count < request.getValue(); count++) {
+                requestResourceAsync(request.getKey());
+            }
         }
     }
 
+    private static ExecutorService createProvisioningExecutor(int parallelism) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+                PROVISIONING_THREAD_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "blowout-provisioning-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Computes how many resources of each specification are missing to run
+     * the unfinished tasks, in time linear in the number of tasks and
+     * resources. Demand is counted in slots, one per unfinished task, from
+     * which the slots of the matching live resources are subtracted; a
+     * resource gives its slots to its own specification first, then to the
+     * other specifications it matches. The missing slots of each
+     * specification are then turned into resources of that specification.
+     */
     private Map<Specification, Integer> generateDemandBySpec(List<Task> tasks, List<AbstractResource> resources) {
-        Map<Specification, Integer> specsDemand = new HashMap<>();
+        Map<Specification, Integer> slotsDemand = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            if (!task.isFinished()) {
+                slotsDemand.merge(task.getSpecification(), 1, Integer::sum);
+            }
+        }
 
         //FIXME: it seems to me we need to filter IDLE only
         List<AbstractResource> currentResources = filterResourcesByState(resources,
@@ -72,48 +186,76 @@ public class DefaultInfrastructureManager implements InfrastructureManager {
                 ResourceState.BUSY,
                 ResourceState.FAILED
         );
+        evictMatchesOfGoneResources(resources);
 
-        for (Task task : tasks) {
-
-            //FIXME it seems we should run bellow code for
-            if (!task.isFinished()) {
-
-                LOGGER.debug("task <" + task.getId() + " is on state <" + task.getState() + ">");
-
-                boolean resourceResolved = false;
-
-                for (AbstractResource resource : currentResources) {
-                    if (resource.match(task.getSpecification())) {
-                        resourceResolved = true;
-                        currentResources.remove(resource);
-
-                        LOGGER.debug("task <" + task.getId() + " was matched with resource <" + resource.getId() + ">");
-
-                        break;
-                    }
+        for (AbstractResource resource : currentResources) {
+            int freeSlots = resource.getSlots();
+            Specification ownSpec = resource.getRequestedSpec();
+            if (ownSpec != null && slotsDemand.containsKey(ownSpec)) {
+                freeSlots = assignSlots(resource, ownSpec, freeSlots, slotsDemand);
+            }
+            for (Entry<Specification, Integer> demand : slotsDemand.entrySet()) {
+                if (freeSlots <= 0) {
+                    break;
                 }
-                if (!resourceResolved) {
-
-                    LOGGER.debug("task <" + task.getId() + " was unable to match");
-
-                    incrementDecrementDemand(specsDemand,
-                            task.getSpecification(), true);
+                if (!demand.getKey().equals(ownSpec)) {
+                    freeSlots = assignSlots(resource, demand.getKey(), freeSlots, slotsDemand);
                 }
             }
         }
+
+        Map<Specification, Integer> specsDemand = new HashMap<>();
+        for (Entry<Specification, Integer> entry : slotsDemand.entrySet()) {
+            if (entry.getValue() > 0) {
+                LOGGER.debug("specification <" + entry.getKey() + "> is missing " + entry.getValue() + " slots");
+                int slotsPerResource = Math.max(1, entry.getKey().getSlotsPerResource());
+                specsDemand.put(entry.getKey(), (entry.getValue() + slotsPerResource - 1) / slotsPerResource);
+            }
+        }
         return specsDemand;
     }
 
-    private void incrementDecrementDemand(
-            Map<Specification, Integer> specsDemand, Specification spec,
-            boolean increment) {
-        Integer zero = 0;
-        Integer demand = specsDemand.get(spec);
-        if (demand == null) {
-            demand = zero;
+    /**
+     * Takes up to the given free slots of a resource for the missing slots of
+     * a specification it matches.
+     *
+     * @return the slots of the resource still free.
+     */
+    private int assignSlots(AbstractResource resource, Specification spec, int freeSlots,
+                            Map<Specification, Integer> slotsDemand) {
+        int missingSlots = slotsDemand.get(spec);
+        if (missingSlots <= 0 || !matches(resource, spec)) {
+            return freeSlots;
+        }
+        int assigned = Math.min(missingSlots, freeSlots);
+        slotsDemand.put(spec, missingSlots - assigned);
+        return freeSlots - assigned;
+    }
+
+    /**
+     * Memoized {@link AbstractResource#match(Specification)}, which parses
+     * the requirements of the specification on every call.
+     */
+    protected boolean matches(AbstractResource resource, Specification spec) {
+        if (resource.getId() == null) {
+            return resource.match(spec);
+        }
+        Map<Specification, Boolean> resourceMatches = this.matchCache.computeIfAbsent(resource.getId(),
+                key -> new ConcurrentHashMap<>());
+        Boolean match = resourceMatches.get(spec);
+        if (match == null) {
+            match = resource.match(spec);
+            resourceMatches.put(spec, match);
+        }
+        return match;
+    }
+
+    private void evictMatchesOfGoneResources(List<AbstractResource> resources) {
+        Set<String> resourceIds = new HashSet<>();
+        for (AbstractResource resource : resources) {
+            resourceIds.add(resource.getId());
         }
-        demand = demand + (increment ? 1 : -1);
-        specsDemand.put(spec, zero.compareTo(demand) > 0 ? zero : demand);
+        this.matchCache.keySet().retainAll(resourceIds);
     }
 
     private List<AbstractResource> filterResourcesByState(
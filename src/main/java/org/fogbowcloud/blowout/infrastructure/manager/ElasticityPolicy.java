@@ -0,0 +1,34 @@
+package org.fogbowcloud.blowout.infrastructure.manager;
+
+import java.util.List;
+import java.util.Map;
+
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+
+/**
+ * Decides when the infrastructure grows and shrinks. Implementations are
+ * set with the elasticity policy plugin property and must have a constructor
+ * taking the Blowout properties.
+ */
+public interface ElasticityPolicy {
+
+	/**
+	 * @param missingResources
+	 *            resources of each specification missing to run the
+	 *            unfinished tasks, not counting the ones already requested.
+	 * @param provisionedResources
+	 *            live resources plus the requests not ready yet.
+	 * @return how many resources of each specification to request now.
+	 */
+	Map<Specification, Integer> scaleUp(Map<Specification, Integer> missingResources, int provisionedResources,
+			long now);
+
+	/**
+	 * Called on every sweep of the resource monitor with all the resources
+	 * of the pool.
+	 *
+	 * @return the resources to release now.
+	 */
+	List<AbstractResource> scaleDown(List<AbstractResource> resources, long now);
+}
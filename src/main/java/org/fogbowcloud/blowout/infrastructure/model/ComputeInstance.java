@@ -0,0 +1,86 @@
+package org.fogbowcloud.blowout.infrastructure.model;
+
+/**
+ * Compute instance of a RAS compute order, as returned by the
+ * {@code computes/{orderId}} endpoint.
+ */
+public class ComputeInstance {
+
+    public static final String STATE_READY = "READY";
+
+    private final String id;
+    private final String name;
+    private final String state;
+    private final String cloudName;
+    private final String provider;
+    private final String imageId;
+    private final String publicKey;
+    private final Integer vCPU;
+    private final Integer memory;
+    private final Integer disk;
+
+    public ComputeInstance(String id, String name, String state, String cloudName, String provider,
+                           String imageId, String publicKey, Integer vCPU, Integer memory, Integer disk) {
+        this.id = id;
+        this.name = name;
+        this.state = state;
+        this.cloudName = cloudName;
+        this.provider = provider;
+        this.imageId = imageId;
+        this.publicKey = publicKey;
+        this.vCPU = vCPU;
+        this.memory = memory;
+        this.disk = disk;
+    }
+
+    public boolean isReady() {
+        return STATE_READY.equals(this.state);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getCloudName() {
+        return cloudName;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getImageId() {
+        return imageId;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public Integer getvCPU() {
+        return vCPU;
+    }
+
+    public Integer getMemory() {
+        return memory;
+    }
+
+    public Integer getDisk() {
+        return disk;
+    }
+
+    @Override
+    public String toString() {
+        return "ComputeInstance [id=" + id + ", name=" + name + ", state=" + state + ", cloudName=" + cloudName
+                + ", provider=" + provider + ", imageId=" + imageId + ", vCPU=" + vCPU + ", memory=" + memory
+                + ", disk=" + disk + "]";
+    }
+}
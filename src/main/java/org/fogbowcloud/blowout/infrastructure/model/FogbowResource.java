@@ -1,6 +1,6 @@
 package org.fogbowcloud.blowout.infrastructure.model;
 
-import java.util.Scanner;
+import java.net.InetSocketAddress;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.constants.AppMessagesConstants;
@@ -8,15 +8,19 @@ import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.constants.FogbowConstants;
 import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.infrastructure.monitor.ConnectivityProber;
 import org.fogbowcloud.blowout.infrastructure.provider.fogbow.FogbowRequirementsHelper;
 
 public class FogbowResource extends AbstractResource {
 
 	public final Logger LOGGER = Logger.getLogger(FogbowResource.class);
 
+	private static final ConnectivityProber CONNECTIVITY_PROBER = new ConnectivityProber(
+			ConnectivityProber.DEFAULT_TIMEOUT);
+
 	private final String computeOrderId;
 	private String instanceId;
-	private String publicIpOrderId;
+	private volatile String publicIpOrderId;
 
 	public FogbowResource(String id, String computeOrderId, Specification spec) {
 		super(id, spec);
@@ -47,48 +51,27 @@ public class FogbowResource extends AbstractResource {
     }
 
 	protected boolean internalCheckConnectivity() {
-		final String publicIp = super.getMetadataValue(BlowoutConstants.METADATA_PUBLIC_IP);
-
-		LOGGER.debug("Checking resource connectivity [host: " + publicIp + "].");
-
-		Runtime run;
-		Process p = null;
-		Scanner scanner = null;
-
-		try {
-			run = Runtime.getRuntime();
-			p = run.exec(new String[] { "/bin/bash", "-c",
-					"echo quit | telnet " + publicIp + " 2>/dev/null | grep Connected" });
-			p.waitFor();
-
-			LOGGER.info("Running command: /bin/bash -c echo quit | telnet " + publicIp + " 2>/dev/null | grep Connected");
-
-			scanner = new Scanner(p.getInputStream());
-			if (scanner.hasNext()) {
-				String result = scanner.nextLine();
-
-				LOGGER.info("Command result: " + result);
+		final InetSocketAddress address = getConnectivityAddress();
+		if (address == null) {
+			LOGGER.debug("Resource " + getId() + " has no public IP to check connectivity.");
+			return false;
+		}
 
-				if (result != null && !result.isEmpty()) {
+		LOGGER.debug("Checking resource connectivity [host: " + address + "].");
 
-					LOGGER.info("Resource is alive!");
-					return true;
-				}
-			}
-		} catch (Exception e) {
-			LOGGER.error(AppMessagesConstants.RESOURCE_CONNECT_FAILED);
-			return false;
-		} finally {
-			if (p != null) {
-				p.destroy();
-			}
-			if (scanner != null) {
-				scanner.close();
-			}
+		if (CONNECTIVITY_PROBER.probe(address)) {
+			LOGGER.info("Resource is alive!");
+			return true;
 		}
+		LOGGER.error(AppMessagesConstants.RESOURCE_CONNECT_FAILED);
 		return false;
 	}
 
+	@Override
+	public InetSocketAddress getConnectivityAddress() {
+		return ConnectivityProber.sshAddressOf(super.getMetadataValue(BlowoutConstants.METADATA_PUBLIC_IP));
+	}
+
 	public String getInstanceId() {
 		return this.instanceId;
 	}
@@ -102,4 +85,8 @@ public class FogbowResource extends AbstractResource {
 	}
 
 	public String getPublicIpOrderId() { return this.publicIpOrderId; }
+
+	public void setPublicIpOrderId(String publicIpOrderId) {
+		this.publicIpOrderId = publicIpOrderId;
+	}
 }
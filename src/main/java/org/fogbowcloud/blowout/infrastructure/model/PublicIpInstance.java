@@ -0,0 +1,61 @@
+package org.fogbowcloud.blowout.infrastructure.model;
+
+/**
+ * Public IP instance of a RAS public IP order, as returned by the
+ * {@code publicIps/{orderId}} endpoint.
+ */
+public class PublicIpInstance {
+
+    private final String id;
+    private final String state;
+    private final String ip;
+    private final String computeId;
+    private final String computeName;
+    private final String cloudName;
+    private final String provider;
+
+    public PublicIpInstance(String id, String state, String ip, String computeId, String computeName,
+                            String cloudName, String provider) {
+        this.id = id;
+        this.state = state;
+        this.ip = ip;
+        this.computeId = computeId;
+        this.computeName = computeName;
+        this.cloudName = cloudName;
+        this.provider = provider;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public String getComputeId() {
+        return computeId;
+    }
+
+    public String getComputeName() {
+        return computeName;
+    }
+
+    public String getCloudName() {
+        return cloudName;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    @Override
+    public String toString() {
+        return "PublicIpInstance [id=" + id + ", state=" + state + ", ip=" + ip + ", computeId=" + computeId
+                + ", cloudName=" + cloudName + ", provider=" + provider + "]";
+    }
+}
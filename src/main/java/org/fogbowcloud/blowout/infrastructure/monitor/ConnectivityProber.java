@@ -0,0 +1,230 @@
+package org.fogbowcloud.blowout.infrastructure.monitor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.model.resource.ConnectivityProbe;
+
+/**
+ * Checks whether resources accept TCP connections, usually on their SSH port.
+ * All probes of a batch are non-blocking connects multiplexed on a single
+ * {@link Selector} of the calling thread, each one failing after its own
+ * timeout, so checking hundreds of resources takes about as long as the
+ * slowest of them.
+ */
+public class ConnectivityProber implements ConnectivityProbe {
+
+	private static final Logger LOGGER = Logger.getLogger(ConnectivityProber.class);
+
+	public static final int DEFAULT_SSH_PORT = 22;
+	public static final long DEFAULT_TIMEOUT = 20000;
+	protected static final int DEFAULT_MAX_OPEN_PROBES = 256;
+
+	private final long timeoutNanos;
+	private final int maxOpenProbes;
+
+	public ConnectivityProber(long timeoutMillis) {
+		this(timeoutMillis, DEFAULT_MAX_OPEN_PROBES);
+	}
+
+	public ConnectivityProber(long timeoutMillis, int maxOpenProbes) {
+		if (timeoutMillis <= 0 || maxOpenProbes <= 0) {
+			throw new IllegalArgumentException("Probe timeout and max open probes must be positive.");
+		}
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		this.maxOpenProbes = maxOpenProbes;
+	}
+
+	@Override
+	public boolean probe(InetSocketAddress address) {
+		return Boolean.TRUE.equals(probeAll(Collections.singletonMap(address, address)).get(address));
+	}
+
+	/**
+	 * Probes all targets, keeping at most the max open probes connecting at
+	 * the same time.
+	 *
+	 * @return whether each target accepted a connection before its timeout.
+	 */
+	public <K> Map<K, Boolean> probeAll(Map<K, InetSocketAddress> targets) {
+		Map<K, Boolean> results = new HashMap<>();
+		if (targets.isEmpty()) {
+			return results;
+		}
+
+		Iterator<Entry<K, InetSocketAddress>> waiting = targets.entrySet().iterator();
+		Selector selector = null;
+		try {
+			selector = Selector.open();
+			int openProbes = 0;
+			while (waiting.hasNext() || openProbes > 0) {
+				while (openProbes < this.maxOpenProbes && waiting.hasNext()) {
+					Entry<K, InetSocketAddress> target = waiting.next();
+					if (startProbe(selector, target.getKey(), target.getValue(), results)) {
+						openProbes++;
+					}
+				}
+				if (openProbes == 0) {
+					continue;
+				}
+
+				selector.select(millisUntil(nextDeadline(selector)));
+
+				Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+				while (selectedKeys.hasNext()) {
+					SelectionKey key = selectedKeys.next();
+					selectedKeys.remove();
+					if (key.isValid() && finishProbe(key, results)) {
+						openProbes--;
+					}
+				}
+
+				long now = System.nanoTime();
+				for (SelectionKey key : selector.keys()) {
+					if (key.isValid() && ((Probe<?>) key.attachment()).deadline - now <= 0) {
+						completeProbe(key, false, results);
+						openProbes--;
+					}
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.error("Error while probing the connectivity of resources.", e);
+		} finally {
+			if (selector != null) {
+				for (SelectionKey key : selector.keys()) {
+					closeQuietly(key.channel());
+				}
+				closeQuietly(selector);
+			}
+		}
+
+		for (K target : targets.keySet()) {
+			results.putIfAbsent(target, false);
+		}
+		return results;
+	}
+
+	/**
+	 * @return the address of the SSH port of a host given as "host" or
+	 *         "host:port", or null if there is no host.
+	 */
+	public static InetSocketAddress sshAddressOf(String host) {
+		if (host == null || host.trim().isEmpty() || "null".equals(host)) {
+			return null;
+		}
+		String hostName = host.trim();
+		int port = DEFAULT_SSH_PORT;
+		int portSeparator = hostName.lastIndexOf(':');
+		if (portSeparator > 0 && portSeparator == hostName.indexOf(':')) {
+			try {
+				port = Integer.parseInt(hostName.substring(portSeparator + 1));
+				hostName = hostName.substring(0, portSeparator);
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid port in host " + host + ", using port " + DEFAULT_SSH_PORT + ".");
+			}
+		}
+		return new InetSocketAddress(hostName, port);
+	}
+
+	/**
+	 * @return true if the probe is left connecting on the selector.
+	 */
+	private <K> boolean startProbe(Selector selector, K target, InetSocketAddress address, Map<K, Boolean> results) {
+		if (address == null || address.isUnresolved()) {
+			results.put(target, false);
+			return false;
+		}
+		SocketChannel channel = null;
+		try {
+			channel = SocketChannel.open();
+			channel.configureBlocking(false);
+			if (channel.connect(address)) {
+				results.put(target, true);
+				closeQuietly(channel);
+				return false;
+			}
+			channel.register(selector, SelectionKey.OP_CONNECT, new Probe<>(target, System.nanoTime() + this.timeoutNanos));
+			return true;
+		} catch (IOException | RuntimeException e) {
+			LOGGER.debug("Could not connect to " + address + ": " + e.getMessage());
+			results.put(target, false);
+			closeQuietly(channel);
+			return false;
+		}
+	}
+
+	/**
+	 * @return true if the probe is complete, false if it is still connecting.
+	 */
+	private <K> boolean finishProbe(SelectionKey key, Map<K, Boolean> results) {
+		try {
+			if (!((SocketChannel) key.channel()).finishConnect()) {
+				return false;
+			}
+			completeProbe(key, true, results);
+		} catch (IOException e) {
+			completeProbe(key, false, results);
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <K> void completeProbe(SelectionKey key, boolean connected, Map<K, Boolean> results) {
+		Probe<K> probe = (Probe<K>) key.attachment();
+		results.put(probe.target, connected);
+		key.cancel();
+		closeQuietly(key.channel());
+	}
+
+	private static long nextDeadline(Selector selector) {
+		long nextDeadline = Long.MAX_VALUE;
+		boolean first = true;
+		for (SelectionKey key : selector.keys()) {
+			if (key.isValid()) {
+				long deadline = ((Probe<?>) key.attachment()).deadline;
+				if (first || deadline - nextDeadline < 0) {
+					nextDeadline = deadline;
+					first = false;
+				}
+			}
+		}
+		return nextDeadline;
+	}
+
+	private static long millisUntil(long deadline) {
+		// select(0) would block without a timeout
+		return Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				LOGGER.debug("Error while closing a connectivity probe.", e);
+			}
+		}
+	}
+
+	private static class Probe<K> {
+
+		private final K target;
+		private final long deadline;
+
+		private Probe(K target, long deadline) {
+			this.target = target;
+			this.deadline = deadline;
+		}
+	}
+}
@@ -1,8 +1,8 @@
 package org.fogbowcloud.blowout.infrastructure.monitor;
 
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
+import java.net.InetSocketAddress;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,7 +13,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
+import org.fogbowcloud.blowout.core.ssh.SshConnectionPool;
+import org.fogbowcloud.blowout.infrastructure.manager.ElasticityPolicy;
 import org.fogbowcloud.blowout.infrastructure.provider.InfrastructureProvider;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
 import org.fogbowcloud.blowout.pool.BlowoutPool;
@@ -24,35 +27,41 @@ public class ResourceMonitor {
 
 	private InfrastructureProvider infraProvider;
 	private BlowoutPool blowoutPool;
-	private Map<String, Long> idleResources;
 	private Map<String, Specification> pendingResources;
+	private Map<String, PendingPoll> pendingPolls;
 
 	private Thread monitoringServiceRunner;
 	private MonitoringService monitoringService;
 	private long sleepPeriod;
-	private Long idleLifeTime;
+	private long pendingMinPeriod;
 	private int maxConnectionTries;
 	private int maxReuse;
+	private ConnectivityProber connectivityProber;
+	private ElasticityPolicy elasticityPolicy;
 	
 	public ResourceMonitor(InfrastructureProvider infraProvider, BlowoutPool blowoutPool, Properties properties) {
-		this.idleResources = new ConcurrentHashMap<>();
 		this.pendingResources = new ConcurrentHashMap<>();
+		this.pendingPolls = new ConcurrentHashMap<>();
 		this.infraProvider = infraProvider;
 		this.blowoutPool = blowoutPool;
 
 		final String defaultInfraMonitorPeriod = "30000";
-		final String defaultIdleLifeTime = "120000";
+		final String defaultPendingMinPeriod = "2000";
 		final String defaultMaxConnectTries = "1";
 		final String defaultMaxReuse = "1";
+		final String defaultConnectionTimeout = String.valueOf(ConnectivityProber.DEFAULT_TIMEOUT);
 
 		this.sleepPeriod = Long.parseLong(properties.getProperty(
 				AppPropertiesConstants.RESOURCE_MONITOR_SLEEP_PERIOD, defaultInfraMonitorPeriod));
-		this.idleLifeTime = Long.parseLong(properties.getProperty(
-				AppPropertiesConstants.INFRA_RESOURCE_IDLE_LIFETIME, defaultIdleLifeTime));
+		this.pendingMinPeriod = Math.min(this.sleepPeriod, Long.parseLong(properties.getProperty(
+				AppPropertiesConstants.RESOURCE_MONITOR_PENDING_MIN_PERIOD, defaultPendingMinPeriod)));
 		this.maxConnectionTries = Integer.parseInt(properties.getProperty(
 				AppPropertiesConstants.INFRA_RESOURCE_CONNECTION_RETRY, defaultMaxConnectTries));
 		this.maxReuse = Integer.parseInt(properties
 				.getProperty(AppPropertiesConstants.INFRA_RESOURCE_REUSE_TIMES, defaultMaxReuse));
+		this.connectivityProber = new ConnectivityProber(Long.parseLong(properties.getProperty(
+				AppPropertiesConstants.INFRA_RESOURCE_CONNECTION_TIMEOUT, defaultConnectionTimeout)));
+		this.elasticityPolicy = createElasticityPolicy(properties);
 
 		this.monitoringService = new MonitoringService();
 		this.monitoringServiceRunner = new Thread(this.monitoringService, this.monitoringService.toString());
@@ -62,15 +71,50 @@ public class ResourceMonitor {
 		}
 	}
 
+	private static ElasticityPolicy createElasticityPolicy(Properties properties) {
+		String policyClassName = properties.getProperty(AppPropertiesConstants.ELASTICITY_POLICY_PLUGIN,
+				BlowoutConstants.DEFAULT_IMPLEMENTATION_ELASTICITY_POLICY);
+		try {
+			Class<?> policyClass = Class.forName(policyClassName);
+			return (ElasticityPolicy) policyClass.getConstructor(Properties.class).newInstance(properties);
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			throw new IllegalArgumentException("Could not create the elasticity policy " + policyClassName + ".", e);
+		}
+	}
+
 	public void start() {
 		monitoringServiceRunner.start();
 		LOGGER.warn("Resource Monitor started.");
 	}
 
 	public void addPendingResource(String resourceId, Specification spec){
+		long now = System.currentTimeMillis();
+		pendingPolls.put(resourceId, new PendingPoll(now, now + pendingMinPeriod));
 		pendingResources.put(resourceId, spec);
 		if(monitoringService.isPaused()){
 			monitoringService.resume();
+		} else {
+			monitoringService.wakeUp();
+		}
+	}
+
+	/**
+	 * Time to wait before polling a pending resource again. Young orders are
+	 * polled often, since they may become ready at any moment; older ones back
+	 * off with their age, up to the period of the monitor.
+	 */
+	protected long pendingPollPeriod(long orderAge) {
+		return Math.max(pendingMinPeriod, Math.min(sleepPeriod, orderAge / 4));
+	}
+
+	private static class PendingPoll {
+
+		private final long requestedAt;
+		private volatile long nextPollAt;
+
+		private PendingPoll(long requestedAt, long nextPollAt) {
+			this.requestedAt = requestedAt;
+			this.nextPollAt = nextPollAt;
 		}
 	}
 
@@ -84,13 +128,30 @@ public class ResourceMonitor {
 			this.isActive = true;
 		}
 
+		/**
+		 * Sweeps all resources every sleep period and, between sweeps, polls
+		 * the pending resources whose poll is due.
+		 */
 		@Override
 		public void run() {
+			long nextSweepAt = System.currentTimeMillis() + sleepPeriod;
 			while (isActive) {
 				try {
-					LOGGER.info("Resource monitor is waiting.");
-					Thread.sleep(sleepPeriod);
-					monitorProcess();
+					long now = System.currentTimeMillis();
+					long wakeUpAt = Math.min(nextSweepAt, nextPendingPollAt());
+					if (wakeUpAt > now) {
+						LOGGER.debug("Resource monitor is waiting.");
+						synchronized (this) {
+							wait(wakeUpAt - now);
+						}
+						continue;
+					}
+					if (now >= nextSweepAt) {
+						monitorProcess();
+						nextSweepAt = System.currentTimeMillis() + sleepPeriod;
+					} else {
+						monitorPendingProcess(now);
+					}
 				} catch (InterruptedException e) {
 					LOGGER.error("Error while executing MonitoringService.");
 				}
@@ -99,20 +160,76 @@ public class ResourceMonitor {
 
 		protected void monitorProcess() throws InterruptedException {
 
-			List<AbstractResource> resources = blowoutPool.getAllResources();
-			monitoringPendingResources();
+			List<AbstractResource> resources = new ArrayList<>(blowoutPool.getAllResources());
+			releaseIdleResources(resources, System.currentTimeMillis());
+			monitoringPendingResources(pendingResources.keySet(), System.currentTimeMillis());
 			monitoringResources(resources);
 		}
 
-		private void monitoringPendingResources() {
-			LOGGER.info("Monitoring pending resources.");
+		/**
+		 * Removes, all in this sweep, the resources that the elasticity policy
+		 * releases, and takes them out of the resources left to monitor. Each
+		 * resource is claimed from the pool first, so the ones a task was
+		 * started on since the policy saw them idle are kept.
+		 */
+		private void releaseIdleResources(List<AbstractResource> resources, long now) {
+			List<AbstractResource> releasedResources = elasticityPolicy.scaleDown(resources, now);
+			if (releasedResources.isEmpty()) {
+				return;
+			}
+			LOGGER.info("Releasing " + releasedResources.size() + " idle resources.");
+			for (AbstractResource resource : releasedResources) {
+				if (blowoutPool.claimIdleResource(resource)) {
+					removeResource(resource);
+					resources.remove(resource);
+				} else {
+					LOGGER.debug("Resource " + resource.getId() + " is no longer idle, keeping it.");
+				}
+			}
+		}
+
+		/**
+		 * Polls only the pending resources whose poll is due at the given time.
+		 */
+		protected void monitorPendingProcess(long now) {
+			List<String> dueResourceIds = new ArrayList<>();
+			for (Entry<String, PendingPoll> pendingPoll : pendingPolls.entrySet()) {
+				if (pendingPoll.getValue().nextPollAt <= now) {
+					dueResourceIds.add(pendingPoll.getKey());
+				}
+			}
+			if (!dueResourceIds.isEmpty()) {
+				monitoringPendingResources(dueResourceIds, now);
+			}
+		}
+
+		private long nextPendingPollAt() {
+			long nextPollAt = Long.MAX_VALUE;
+			for (PendingPoll pendingPoll : pendingPolls.values()) {
+				nextPollAt = Math.min(nextPollAt, pendingPoll.nextPollAt);
+			}
+			return nextPollAt;
+		}
 
-			for (String resourceId : pendingResources.keySet()) {
-				AbstractResource resource = infraProvider.getResource(resourceId);
+		private void monitoringPendingResources(Collection<String> resourceIds, long now) {
+			LOGGER.info("Monitoring " + resourceIds.size() + " pending resources.");
+			if (resourceIds.isEmpty()) {
+				return;
+			}
+
+			Map<String, AbstractResource> readyResources = infraProvider.getResources(new ArrayList<>(resourceIds));
+			for (String resourceId : resourceIds) {
+				AbstractResource resource = readyResources == null ? null : readyResources.get(resourceId);
 				if (resource != null) {
 					LOGGER.info("Monitoring resource with id " + resource.getId() + " and state " + resource.getState() + ".");
 					pendingResources.remove(resourceId);
+					pendingPolls.remove(resourceId);
 					blowoutPool.addResource(resource);
+				} else {
+					PendingPoll pendingPoll = pendingPolls.get(resourceId);
+					if (pendingPoll != null) {
+						pendingPoll.nextPollAt = now + pendingPollPeriod(now - pendingPoll.requestedAt);
+					}
 				}
 			}
 		}
@@ -121,32 +238,38 @@ public class ResourceMonitor {
 
 			LOGGER.info("Monitoring resources.");
 
+			List<AbstractResource> failedResources = new ArrayList<>();
 			for (AbstractResource resource : resources) {
 
                 LOGGER.info("Monitoring resource with id " + resource.getId() + " and state " + resource.getState() + ".");
 
-				if (ResourceState.BUSY.equals(resource.getState())) {
-					idleResources.remove(resource.getId());
-				} else if (ResourceState.FAILED.equals(resource.getState())) {
-					idleResources.remove(resource.getId());
-					boolean isAlive = this.checkResourceConnectivity(resource);
-					if(isAlive){
-						if(moveResourceToIdle(resource)){
-							blowoutPool.updateResource(resource, ResourceState.IDLE);
-						}
-					}
+				if (ResourceState.FAILED.equals(resource.getState())) {
+					failedResources.add(resource);
 				} else if (ResourceState.TO_REMOVE.equals(resource.getState())) {
-					try {
-						idleResources.remove(resource.getId());
-						infraProvider.deleteResource(resource.getId());
-						blowoutPool.removeResource(resource);
-					} catch (Exception e) {
-						LOGGER.error("Error while tring to remove resource "+resource.getId()+" - "+e.getMessage() + ".");
+					removeResource(resource);
+				}
+			}
+
+			Map<AbstractResource, Boolean> connectivity = this.checkResourcesConnectivity(failedResources);
+			for (AbstractResource resource : failedResources) {
+				if (Boolean.TRUE.equals(connectivity.get(resource))) {
+					if(moveResourceToIdle(resource)){
+						blowoutPool.updateResource(resource, ResourceState.IDLE);
 					}
 				}
 			}
 		}
 
+		private void removeResource(AbstractResource resource) {
+			try {
+				infraProvider.deleteResource(resource.getId());
+				blowoutPool.removeResource(resource);
+				SshConnectionPool.getInstance().close(resource.getId());
+			} catch (Exception e) {
+				LOGGER.error("Error while tring to remove resource "+resource.getId()+" - "+e.getMessage() + ".");
+			}
+		}
+
 		private boolean moveResourceToIdle(AbstractResource resource) {
 			// TODO: Check the following options for maxReuse problem
 			//       1. See if it's viable to only mark resource as TO_REMOVE
@@ -154,11 +277,6 @@ public class ResourceMonitor {
 			//       2. Make maxReuse indefinite by default and not one
 			//       3. Always reuse instance
 			if (resource.getReusedTimes() < maxReuse) {
-				Calendar c = Calendar.getInstance();
-				c.setTime(new Date());
-				c.add(Calendar.MILLISECOND, idleLifeTime.intValue());
-				Long expirationDate = c.getTimeInMillis();
-				idleResources.put(resource.getId(), expirationDate);
 				return true;
 			} else {
 				blowoutPool.updateResource(resource, ResourceState.TO_REMOVE);
@@ -166,16 +284,35 @@ public class ResourceMonitor {
 			}
 		}
 
-		private boolean checkResourceConnectivity(AbstractResource resource) {
-			if (!resource.checkConnectivity()) {
-				if(resource.getConnectionFailTries() >= maxConnectionTries){
-					blowoutPool.updateResource(resource, ResourceState.TO_REMOVE);
-				}else{
-					blowoutPool.updateResource(resource, ResourceState.FAILED);
+		/**
+		 * Probes the resources that expose a connectivity address all at once,
+		 * and checks the others one by one.
+		 */
+		private Map<AbstractResource, Boolean> checkResourcesConnectivity(List<AbstractResource> resources) {
+			Map<AbstractResource, InetSocketAddress> addresses = new HashMap<>();
+			for (AbstractResource resource : resources) {
+				InetSocketAddress address = resource.getConnectivityAddress();
+				if (address != null) {
+					addresses.put(resource, address);
+				}
+			}
+			Map<AbstractResource, Boolean> probes = connectivityProber.probeAll(addresses);
+
+			Map<AbstractResource, Boolean> connectivity = new HashMap<>();
+			for (AbstractResource resource : resources) {
+				boolean isAlive = probes.containsKey(resource)
+						? resource.recordConnectivity(probes.get(resource))
+						: resource.checkConnectivity(connectivityProber);
+				if (!isAlive) {
+					if(resource.getConnectionFailTries() >= maxConnectionTries){
+						blowoutPool.updateResource(resource, ResourceState.TO_REMOVE);
+					}else{
+						blowoutPool.updateResource(resource, ResourceState.FAILED);
+					}
 				}
-				return false;
+				connectivity.put(resource, isAlive);
 			}
-			return true;
+			return connectivity;
 		}
 
 		public void checkIsPaused() throws InterruptedException {
@@ -189,6 +326,7 @@ public class ResourceMonitor {
 		public synchronized void stop() {
 			if(isPaused){ resume(); }
 			this.isActive = false;
+			notifyAll();
 		}
 
 		public synchronized void pause() {
@@ -200,6 +338,10 @@ public class ResourceMonitor {
 			notify();
 		}
 
+		public synchronized void wakeUp() {
+			notifyAll();
+		}
+
 		public boolean isPaused() {
 			return isPaused;
 		}
@@ -216,6 +358,14 @@ public class ResourceMonitor {
 		this.monitoringService = monitoringService;
 	}
 
+	protected void setConnectivityProber(ConnectivityProber connectivityProber) {
+		this.connectivityProber = connectivityProber;
+	}
+
+	public ElasticityPolicy getElasticityPolicy() {
+		return elasticityPolicy;
+	}
+
 	protected MonitoringService getMonitoringService(){
 		return monitoringService;
 	}
@@ -1,6 +1,8 @@
 package org.fogbowcloud.blowout.infrastructure.provider;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.infrastructure.exception.RequestResourceException;
@@ -13,7 +15,21 @@ public interface InfrastructureProvider {
 	List<AbstractResource> getAllResources();
 	
 	AbstractResource getResource(String resourceId);
+
+	/**
+	 * Polls several resources at once.
+	 *
+	 * @return the resources that are ready, by id; resources that are not
+	 *         ready yet, or could not be polled, are left out.
+	 */
+	Map<String, AbstractResource> getResources(Collection<String> resourceIds);
 	
 	void deleteResource(String resourceId) throws Exception;
-	
+
+	/**
+	 * Releases what the provider holds once no more resources are requested
+	 * or deleted through it, storing the pending changes first.
+	 */
+	default void stop() {
+	}
 }
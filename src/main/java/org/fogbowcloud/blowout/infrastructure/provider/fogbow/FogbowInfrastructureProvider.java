@@ -2,12 +2,23 @@ package org.fogbowcloud.blowout.infrastructure.provider.fogbow;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.http.entity.StringEntity;
 import org.apache.log4j.Logger;
@@ -22,7 +33,9 @@ import org.fogbowcloud.blowout.database.FogbowResourceDatastore;
 import org.fogbowcloud.blowout.infrastructure.exception.InfrastructureException;
 import org.fogbowcloud.blowout.infrastructure.exception.RequestResourceException;
 import org.fogbowcloud.blowout.infrastructure.http.HttpWrapper;
+import org.fogbowcloud.blowout.infrastructure.model.ComputeInstance;
 import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
+import org.fogbowcloud.blowout.infrastructure.model.PublicIpInstance;
 import org.fogbowcloud.blowout.infrastructure.model.Token;
 import org.fogbowcloud.blowout.infrastructure.provider.InfrastructureProvider;
 import org.fogbowcloud.blowout.infrastructure.token.AbstractTokenUpdatePlugin;
@@ -36,11 +49,15 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
 
 	private static final Logger LOGGER = Logger.getLogger(FogbowInfrastructureProvider.class);
 
+	private static final String DEFAULT_POLL_THREADS = "10";
+	private static final long POLL_THREAD_KEEP_ALIVE = 60;
+
 	private final RASRequestsHelper requestsHelper;
 	private final Properties properties;
 	private final AbstractTokenUpdatePlugin tokenUpdatePlugin;
 	private FogbowResourceDatastore frDatastore;
 	private Map<String, FogbowResource> resourcesMap;
+	private Executor pollExecutor;
 
 	public FogbowInfrastructureProvider(Properties properties, ScheduledExecutorService handleTokeUpdateExecutor,
 										AbstractTokenUpdatePlugin tokenUpdatePlugin) {
@@ -49,6 +66,8 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
 		this.frDatastore = new FogbowResourceDatastore(properties);
 		this.tokenUpdatePlugin =  tokenUpdatePlugin;
 		this.requestsHelper = new RASRequestsHelper(this.properties, this.tokenUpdatePlugin);
+		this.pollExecutor = createPollExecutor(Integer.parseInt(properties.getProperty(
+				AppPropertiesConstants.INFRA_RESOURCE_POLL_THREADS, DEFAULT_POLL_THREADS)));
 		this.handleTokenUpdate(handleTokeUpdateExecutor);
 	}
 
@@ -67,17 +86,11 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
 		LOGGER.info("Requesting resource on Fogbow with specifications: " + specification.toString());
 		this.validateSpecification(specification);
 
+		// the public IP is attached once the compute order is READY, see getFogbowResource
 		final String computeOrderId = this.requestsHelper.createCompute(specification);
-		String publicIpId = null;
-
-		try {
-			publicIpId = this.requestsHelper.createPublicIp(computeOrderId);
-		} catch (InterruptedException e) {
-			LOGGER.error("Error while requesting Public IP.");
-		}
 
 		String resourceId = generateIdentifier();
-		FogbowResource fogbowResource = new FogbowResource(resourceId, computeOrderId, specification, publicIpId);
+		FogbowResource fogbowResource = new FogbowResource(resourceId, computeOrderId, specification);
 		this.putMetadata(fogbowResource, specification);
 		this.resourcesMap.put(resourceId, fogbowResource);
 		this.frDatastore.addFogbowResource(fogbowResource);
@@ -92,6 +105,10 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
 		LOGGER.info("Getting resource from request id: [" + resourceId + "]");
 		try {
 			FogbowResource resource = getFogbowResource(resourceId);
+			if (resource == null) {
+				LOGGER.debug("Resource [" + resourceId + "] is not ready yet.");
+				return null;
+			}
 			LOGGER.info("Returning Resource from Resource id: [" + resourceId + "] - Instance ID : ["
 					+ resource.getInstanceId() + "]");
 			return resource;
@@ -101,6 +118,38 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
 		}
 	}
 
+	/**
+	 * Polls the resources concurrently on the poll executor, so that a sweep
+	 * over many pending orders takes about as long as its slowest poll.
+	 */
+	@Override
+	public Map<String, AbstractResource> getResources(Collection<String> resourceIds) {
+		Map<String, CompletableFuture<AbstractResource>> polls = new LinkedHashMap<>();
+		for (String resourceId : resourceIds) {
+			CompletableFuture<AbstractResource> poll;
+			try {
+				poll = CompletableFuture.supplyAsync(() -> getResource(resourceId), this.pollExecutor);
+			} catch (RejectedExecutionException e) {
+				LOGGER.warn("Poll of resource [" + resourceId + "] was rejected, polling it on the caller thread.");
+				poll = CompletableFuture.completedFuture(getResource(resourceId));
+			}
+			polls.put(resourceId, poll);
+		}
+
+		Map<String, AbstractResource> resources = new HashMap<>();
+		for (Map.Entry<String, CompletableFuture<AbstractResource>> poll : polls.entrySet()) {
+			try {
+				AbstractResource resource = poll.getValue().join();
+				if (resource != null) {
+					resources.put(poll.getKey(), resource);
+				}
+			} catch (Exception e) {
+				LOGGER.error("Error while polling resource with id: [" + poll.getKey() + "]", e);
+			}
+		}
+		return resources;
+	}
+
 	@Override
 	public void deleteResource(String resourceId) throws InfrastructureException {
 		FogbowResource fogbowResource = resourcesMap.get(resourceId);
@@ -122,6 +171,19 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
 		}
 	}
 
+	/**
+	 * Writes the queued changes of the resources, such as the deletions made
+	 * while stopping, and stops polling.
+	 */
+	@Override
+	public void stop() {
+		LOGGER.info("Stopping the Fogbow infrastructure provider.");
+		this.frDatastore.close();
+		if (this.pollExecutor instanceof ExecutorService) {
+			((ExecutorService) this.pollExecutor).shutdown();
+		}
+	}
+
 	@Override
 	public List<AbstractResource> getAllResources(){
 		return new ArrayList<>(resourcesMap.values());
@@ -131,34 +193,38 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
         LOGGER.info("Initiating Resource Instantiation - Resource id: [" + resourceId + "]");
 
         String instanceId;
-        Map<String, Object> instanceAttributes;
+        ComputeInstance computeInstance;
         FogbowResource fogbowResource = this.resourcesMap.get(resourceId);
         validateFogbowResource(fogbowResource);
 
         try {
             LOGGER.info("Getting request attributes - Retrieve Instance ID.");
 
-            instanceAttributes = this.requestsHelper.getComputeInstance(fogbowResource.getComputeOrderId());
-            instanceId = String.valueOf(instanceAttributes.get(FogbowConstants.INSTANCE_ATTRIBUTE_NAME));
-			String instanceState = String.valueOf(instanceAttributes.get(FogbowConstants.INSTANCE_ATTRIBUTE_STATE));
+            computeInstance = this.requestsHelper.getComputeInstance(fogbowResource.getComputeOrderId());
+            instanceId = computeInstance.getName();
 
-            Map<String, Object> sshInfo = getPublicIpInstance(fogbowResource.getPublicIpOrderId());
+			if (computeInstance.isReady()) {
+                final String publicIpOrderId = this.attachPublicIp(fogbowResource);
+                if (publicIpOrderId == null) {
+                    LOGGER.debug("Public IP not yet requested for resource: [" + resourceId + "]");
+                    return null;
+                }
 
-            this.populateInstanceAttributes(instanceAttributes, sshInfo);
+                PublicIpInstance publicIpInstance = getPublicIpInstance(publicIpOrderId);
 
-			if (instanceState != null && !instanceState.isEmpty() && instanceState.equals("READY")) {
                 LOGGER.debug("Instance ID returned: " + instanceId);
 
                 fogbowResource.setInstanceId(instanceId);
 
-                if (this.validateInstanceAttributes(instanceAttributes)) {
-                    LOGGER.debug("Getting Instance attributes.");
-                    putMetadata(fogbowResource, instanceAttributes);
-                    LOGGER.debug("New Fogbow Resource created - Instance ID: [" + instanceId + "]");
-                    frDatastore.updateFogbowResource(fogbowResource);
-                } else {
+                if (!this.validateInstanceAttributes(computeInstance, publicIpInstance)) {
+                    // kept pending until its public IP is ready, so it is polled again
                     LOGGER.debug("Instance attributes not yet ready for instance: [" + instanceId + "]");
+                    return null;
                 }
+                LOGGER.debug("Getting Instance attributes.");
+                putMetadata(fogbowResource, computeInstance, publicIpInstance);
+                LOGGER.debug("New Fogbow Resource created - Instance ID: [" + instanceId + "]");
+                frDatastore.updateFogbowResource(fogbowResource);
                 return fogbowResource;
             }
 
@@ -168,6 +234,26 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
         return null;
     }
 
+    /**
+     * Requests the public IP of a resource whose compute order is READY, unless
+     * it was already requested.
+     *
+     * @return the public IP order id, or null if the request failed.
+     */
+    private String attachPublicIp(FogbowResource fogbowResource) {
+        synchronized (fogbowResource) {
+            if (fogbowResource.getPublicIpOrderId() == null) {
+                final String publicIpOrderId = this.requestsHelper.createPublicIp(fogbowResource.getComputeOrderId());
+                if (publicIpOrderId != null) {
+                    fogbowResource.setPublicIpOrderId(publicIpOrderId);
+                    LOGGER.info("Public IP order [" + publicIpOrderId + "] attached to resource ["
+                            + fogbowResource.getId() + "]");
+                }
+            }
+            return fogbowResource.getPublicIpOrderId();
+        }
+    }
+
     private void validateFogbowResource(AbstractResource fogbowResource) throws InfrastructureException {
         if (fogbowResource == null) {
             LOGGER.error(AppMessagesConstants.RESOURCE_NOT_VALID);
@@ -175,38 +261,15 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
         }
     }
 
-    private void populateInstanceAttributes(Map<String, Object> instanceAttributes, Map<String, Object> sshInfo) {
-        for (Map.Entry<String, Object> entry : sshInfo.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
-            instanceAttributes.putIfAbsent(key, value);
-        }
-    }
-
-    private boolean validateInstanceAttributes(Map<String, Object> instanceAttributes) {
+    private boolean validateInstanceAttributes(ComputeInstance computeInstance, PublicIpInstance publicIpInstance) {
         LOGGER.info(AppMessagesConstants.VALIDATING_ATTRIBUTES);
 
-        boolean isValid = true;
-
-        if (instanceAttributes != null && !instanceAttributes.isEmpty()) {
-
-            String sshInformation = String.valueOf(instanceAttributes.get(
-                    FogbowConstants.JSON_KEY_FOGBOW_PUBLIC_IP));
-            String vCPU = String.valueOf(instanceAttributes.get(
-                    FogbowConstants.INSTANCE_ATTRIBUTE_VCPU));
-            String memorySize = String.valueOf(instanceAttributes.get(
-                    FogbowConstants.INSTANCE_ATTRIBUTE_MEMORY_SIZE));
-
-            isValid = !isStringEmpty(sshInformation, vCPU, memorySize);
-            if (!isValid) {
-                LOGGER.error(AppMessagesConstants.ATTRIBUTES_INVALIDS);
-                return false;
-            }
-        } else {
+        if (publicIpInstance == null || isStringEmpty(publicIpInstance.getIp())
+                || computeInstance.getvCPU() == null || computeInstance.getMemory() == null) {
             LOGGER.error(AppMessagesConstants.ATTRIBUTES_INVALIDS);
-            isValid = false;
+            return false;
         }
-        return isValid;
+        return true;
     }
 
     private void putMetadata(AbstractResource fogbowResource, Specification specification) {
@@ -217,25 +280,22 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
         fogbowResource.putMetadata(BlowoutConstants.METADATA_PUBLIC_KEY, specification.getPublicKey());
     }
 
-    private void putMetadata(AbstractResource fogbowResource, Map<String, Object> instanceAttributes) {
+    private void putMetadata(AbstractResource fogbowResource, ComputeInstance computeInstance,
+                             PublicIpInstance publicIpInstance) {
 
-        fogbowResource.putMetadata(BlowoutConstants.METADATA_PUBLIC_IP,
-                instanceAttributes.get(FogbowConstants.JSON_KEY_FOGBOW_PUBLIC_IP));
+        fogbowResource.putMetadata(BlowoutConstants.METADATA_PUBLIC_IP, publicIpInstance.getIp());
 
         fogbowResource.putMetadata(BlowoutConstants.METADATA_SSH_USERNAME_ATT,
                 FogbowConstants.INSTANCE_ATTRIBUTE_DEFAULT_SHH_USERNAME);
 
-        fogbowResource.putMetadata(BlowoutConstants.METADATA_VCPU,
-                instanceAttributes.get(FogbowConstants.INSTANCE_ATTRIBUTE_VCPU));
+        fogbowResource.putMetadata(BlowoutConstants.METADATA_VCPU, computeInstance.getvCPU());
 
-        fogbowResource.putMetadata(BlowoutConstants.METADATA_MEM_SIZE,
-                instanceAttributes.get(FogbowConstants.INSTANCE_ATTRIBUTE_MEMORY_SIZE));
+        fogbowResource.putMetadata(BlowoutConstants.METADATA_MEM_SIZE, computeInstance.getMemory());
 
-        fogbowResource.putMetadata(BlowoutConstants.METADATA_DISK_SIZE,
-                instanceAttributes.get(FogbowConstants.INSTANCE_ATTRIBUTE_DISK_SIZE));
+        fogbowResource.putMetadata(BlowoutConstants.METADATA_DISK_SIZE, computeInstance.getDisk());
     }
 
-	protected Map<String, Object> getPublicIpInstance(String publicIpOrderId) throws InterruptedException {
+	protected PublicIpInstance getPublicIpInstance(String publicIpOrderId) {
         return this.requestsHelper.getPublicIpInstance(publicIpOrderId);
 
 	}
@@ -275,6 +335,10 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
 		this.frDatastore = frDatastore;
 	}
 
+	protected void setPollExecutor(Executor pollExecutor) {
+		this.pollExecutor = pollExecutor;
+	}
+
 	protected StringEntity makeJsonBody(Specification spec) throws UnsupportedEncodingException, BlowoutException {
         return requestsHelper.makeJsonBody(spec);
 	}
@@ -302,6 +366,18 @@ public class FogbowInfrastructureProvider implements InfrastructureProvider {
 				tokenUpdatePlugin.getUpdateTimeUnits());
 	}
 
+	private static Executor createPollExecutor(int pollThreads) {
+		final AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(pollThreads, pollThreads,
+				POLL_THREAD_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "blowout-resource-poll-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
 	private static AbstractTokenUpdatePlugin createTokenUpdatePlugin(Properties properties) throws Exception {
 
 		String providerClassName = properties.getProperty(AppPropertiesConstants.TOKEN_UPDATE_PLUGIN);
@@ -1,7 +1,11 @@
 package org.fogbowcloud.blowout.infrastructure.provider.fogbow;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
@@ -19,6 +23,16 @@ public class FogbowRequirementsHelper {
 	private static final Logger LOGGER = Logger.getLogger(FogbowRequirementsHelper.class);
 	
 	private static final String ZERO = "0";
+	private static final int MAX_CACHED_ENTRIES = 1024;
+
+	private static final List<String> MATCHABLE_ATTRIBUTES = Arrays.asList(
+			FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2vCPU,
+			FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2RAM,
+			FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2disk,
+			FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_1Glue2CloudComputeManagerID);
+
+	private static final Map<String, CompiledRequirements> COMPILED_REQUIREMENTS = new ConcurrentHashMap<>();
+	private static final Map<String, RecordExpr> RESOLVED_ATTRIBUTES = new ConcurrentHashMap<>();
 
 	// TODO: delete this method
 	public static boolean validateFogbowRequirementsSyntax(String requirementsString) {
@@ -50,70 +64,151 @@ public class FogbowRequirementsHelper {
 		LOGGER.debug("Matching Fogbow Requirements [" + requirements + "] with Resource [id: "
 				+ resource.getId() + "]");
 		
-		List<String> providedAttributes = new ArrayList<>();
-		List<String> foundedAttributes = new ArrayList<>();
-		
+		if (requirements == null  || requirements.trim().isEmpty()) {
+			return true;
+		}
 		try {
-			if (requirements == null  || requirements.trim().isEmpty()) {
+			CompiledRequirements compiledRequirements = compile(requirements);
+			if (!compiledRequirements.isValid()) {
+				return false;
+			}
+			if (compiledRequirements.getReferencedAttributes().isEmpty()) {
 				return true;
 			}
-			
-			ClassAdParser classAdParser = new ClassAdParser(requirements);
-			Op expr = (Op) classAdParser.parse();
-			
-			foundedAttributes.add(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2vCPU);
-			foundedAttributes.add(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2RAM);
-			foundedAttributes.add(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2disk);
-			foundedAttributes.add(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_1Glue2CloudComputeManagerID);
-			
-			Env env = new Env();
-			String attributeValue = null;
-			for (String attribute : foundedAttributes) {
-				
-				List<ValueAndOperator> findValuesInRequirements = findValuesInRequirements(expr, attribute);
-				
-				if (findValuesInRequirements.size() > 0) {
-
-					// TODO: Check if you need to refact this
-					if (attribute.equals(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2vCPU)) {
-						providedAttributes.add(attribute);
-						attributeValue = resource.getMetadataValue(BlowoutConstants.METADATA_VCPU);
-					} 
-					else if (attribute.equals(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2RAM)) {
-						providedAttributes.add(attribute);
-						attributeValue = resource.getMetadataValue(BlowoutConstants.METADATA_MEM_SIZE);
-					} 
-					else if (attribute.equals(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2disk)) {
-						attributeValue = resource.getMetadataValue(BlowoutConstants.METADATA_DISK_SIZE);
-						if (attributeValue != null && !attributeValue.equals(ZERO) ) {
-							providedAttributes.add(attribute);
-						}
-					} 
-					else if (attribute.equals(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_1Glue2CloudComputeManagerID)) {
-						providedAttributes.add(attribute);
-						attributeValue = resource.getMetadataValue(BlowoutConstants.METADATA_LOCATION);
-					}
-					
-					env.push((RecordExpr) new ClassAdParser("[" + attribute + " = " + attributeValue + "]").parse());
-					LOGGER.debug("Matching Requirement [" + attribute + " = " + attributeValue + "]");
+
+			List<String> providedAttributes = new ArrayList<>();
+			StringBuilder resolvedAttributes = new StringBuilder("[");
+			for (String attribute : compiledRequirements.getReferencedAttributes()) {
+				String attributeValue = resolveAttribute(resource, attribute);
+				if (!attribute.equals(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2disk)
+						|| (attributeValue != null && !attributeValue.equals(ZERO))) {
+					providedAttributes.add(attribute);
 				}
-			}					
-			
+				if (resolvedAttributes.length() > 1) {
+					resolvedAttributes.append("; ");
+				}
+				resolvedAttributes.append(attribute).append(" = ").append(attributeValue);
+				LOGGER.debug("Matching Requirement [" + attribute + " = " + attributeValue + "]");
+			}
+			resolvedAttributes.append("]");
+
 			if (providedAttributes.isEmpty()) {
 				return true;
 			}
-			expr = extractVariablesExpression(expr, providedAttributes);
-			
+			Op expr = compiledRequirements.getExpression(providedAttributes);
+			if (expr == null) {
+				return false;
+			}
+			Env env = new Env();
+			env.push(parseAttributes(resolvedAttributes.toString()));
 			return expr.eval(env).isTrue();
 		} catch (Exception e) {
 			LOGGER.error("Matching Fogbow Requirements ["+requirements+"] with Resource [id: "+resource.getId()+"] FAILED", e);
 			return false;
-		}finally {
-			providedAttributes.clear();
-			foundedAttributes.clear();
 		}
 	}
-	
+
+	private static String resolveAttribute(FogbowResource resource, String attribute) {
+		if (attribute.equals(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2vCPU)) {
+			return resource.getMetadataValue(BlowoutConstants.METADATA_VCPU);
+		} else if (attribute.equals(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2RAM)) {
+			return resource.getMetadataValue(BlowoutConstants.METADATA_MEM_SIZE);
+		} else if (attribute.equals(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS_Glue2disk)) {
+			return resource.getMetadataValue(BlowoutConstants.METADATA_DISK_SIZE);
+		} else {
+			return resource.getMetadataValue(BlowoutConstants.METADATA_LOCATION);
+		}
+	}
+
+	/**
+	 * Parses the requirements once; later calls with the same string reuse the
+	 * parsed expression and the attributes it references.
+	 */
+	protected static CompiledRequirements compile(String requirements) {
+		CompiledRequirements compiledRequirements = COMPILED_REQUIREMENTS.get(requirements);
+		if (compiledRequirements == null) {
+			compiledRequirements = new CompiledRequirements(requirements);
+			if (COMPILED_REQUIREMENTS.size() >= MAX_CACHED_ENTRIES) {
+				COMPILED_REQUIREMENTS.clear();
+			}
+			CompiledRequirements previous = COMPILED_REQUIREMENTS.putIfAbsent(requirements, compiledRequirements);
+			if (previous != null) {
+				compiledRequirements = previous;
+			}
+		}
+		return compiledRequirements;
+	}
+
+	/**
+	 * Resources with the same resolved attribute values share the same parsed
+	 * record, so matching a resource again does not parse anything.
+	 */
+	private static RecordExpr parseAttributes(String resolvedAttributes) {
+		RecordExpr record = RESOLVED_ATTRIBUTES.get(resolvedAttributes);
+		if (record == null) {
+			record = (RecordExpr) new ClassAdParser(resolvedAttributes).parse();
+			if (RESOLVED_ATTRIBUTES.size() >= MAX_CACHED_ENTRIES) {
+				RESOLVED_ATTRIBUTES.clear();
+			}
+			RESOLVED_ATTRIBUTES.put(resolvedAttributes, record);
+		}
+		return record;
+	}
+
+	protected static void clearCaches() {
+		COMPILED_REQUIREMENTS.clear();
+		RESOLVED_ATTRIBUTES.clear();
+	}
+
+	protected static class CompiledRequirements {
+
+		private final Op expression;
+		private final List<String> referencedAttributes;
+		private final Map<List<String>, Op> extractedExpressions;
+
+		protected CompiledRequirements(String requirements) {
+			Op parsedExpression = null;
+			List<String> attributes = new ArrayList<>();
+			try {
+				parsedExpression = (Op) new ClassAdParser(requirements).parse();
+				for (String attribute : MATCHABLE_ATTRIBUTES) {
+					if (!findValuesInRequirements(parsedExpression, attribute).isEmpty()) {
+						attributes.add(attribute);
+					}
+				}
+			} catch (Exception e) {
+				LOGGER.error("Fogbow Requirements [" + requirements + "] could not be compiled", e);
+				parsedExpression = null;
+			}
+			this.expression = parsedExpression;
+			this.referencedAttributes = Collections.unmodifiableList(attributes);
+			this.extractedExpressions = new ConcurrentHashMap<>();
+		}
+
+		protected boolean isValid() {
+			return expression != null;
+		}
+
+		protected List<String> getReferencedAttributes() {
+			return referencedAttributes;
+		}
+
+		/**
+		 * @return the part of the expression over the provided attributes, or
+		 * null when none of it can be evaluated.
+		 */
+		protected Op getExpression(List<String> providedAttributes) {
+			Op extracted = extractedExpressions.get(providedAttributes);
+			if (extracted == null) {
+				extracted = extractVariablesExpression(expression, providedAttributes);
+				if (extracted != null) {
+					extractedExpressions.put(new ArrayList<>(providedAttributes), extracted);
+				}
+			}
+			return extracted;
+		}
+	}
+
 	private static Op extractVariablesExpression(Op expr, List<String> listAttName) {
 		if (expr.arg1 instanceof AttrRef) {
 			AttrRef attr = (AttrRef) expr.arg1;
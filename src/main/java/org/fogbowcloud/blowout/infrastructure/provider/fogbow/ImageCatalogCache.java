@@ -0,0 +1,186 @@
+package org.fogbowcloud.blowout.infrastructure.provider.fogbow;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Image catalogs of the RAS, cached by member and cloud name. Each catalog
+ * keeps a reverse index from image name to image id. A catalog older than half
+ * of its time to live is refreshed in the background while it is still served;
+ * an expired catalog, or a lookup of an unknown image name, refreshes it before
+ * answering. Concurrent refreshes of the same catalog share a single request.
+ */
+public class ImageCatalogCache {
+
+	private static final Logger LOGGER = Logger.getLogger(ImageCatalogCache.class);
+
+	/**
+	 * Downloads the catalog of a member and cloud, as a map from image id to
+	 * image name.
+	 */
+	public interface CatalogLoader {
+		Map<String, String> load(String memberId, String cloudName) throws Exception;
+	}
+
+	private final CatalogLoader loader;
+	private final long timeToLive;
+	private final Executor refreshExecutor;
+	private final Map<String, Catalog> catalogs;
+	private final Map<String, CompletableFuture<Catalog>> refreshes;
+
+	public ImageCatalogCache(CatalogLoader loader, long timeToLive) {
+		this(loader, timeToLive, createRefreshExecutor());
+	}
+
+	public ImageCatalogCache(CatalogLoader loader, long timeToLive, Executor refreshExecutor) {
+		this.loader = loader;
+		this.timeToLive = timeToLive;
+		this.refreshExecutor = refreshExecutor;
+		this.catalogs = new ConcurrentHashMap<>();
+		this.refreshes = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * @return the id of an image with the given name, or null if the catalog
+	 *         has no such image even after a refresh.
+	 * @throws Exception if the catalog is not cached and could not be loaded.
+	 */
+	public String getImageId(String memberId, String cloudName, String imageName) throws Exception {
+		final String key = keyOf(memberId, cloudName);
+		Catalog catalog = this.catalogs.get(key);
+		boolean refreshed = false;
+
+		if (catalog == null || isExpired(catalog)) {
+			catalog = refresh(key, memberId, cloudName, catalog);
+			refreshed = true;
+		} else if (shouldRefreshAhead(catalog)) {
+			refreshInBackground(key, memberId, cloudName);
+		}
+
+		String imageId = catalog.imageIdsByName.get(imageName);
+		if (imageId == null && !refreshed) {
+			LOGGER.debug("Image " + imageName + " not found in the catalog of " + key + ", refreshing it.");
+			catalog = refresh(key, memberId, cloudName, catalog);
+			imageId = catalog.imageIdsByName.get(imageName);
+		}
+		return imageId;
+	}
+
+	public void invalidate(String memberId, String cloudName) {
+		this.catalogs.remove(keyOf(memberId, cloudName));
+	}
+
+	public void invalidateAll() {
+		this.catalogs.clear();
+	}
+
+	protected long now() {
+		return System.currentTimeMillis();
+	}
+
+	private boolean isExpired(Catalog catalog) {
+		return now() - catalog.loadedAt >= this.timeToLive;
+	}
+
+	private boolean shouldRefreshAhead(Catalog catalog) {
+		return now() - catalog.loadedAt >= this.timeToLive / 2;
+	}
+
+	/**
+	 * Waits for a refresh of the catalog, starting one unless another thread
+	 * already did. Falls back to the stale catalog when the refresh fails.
+	 */
+	private Catalog refresh(String key, String memberId, String cloudName, Catalog staleCatalog) throws Exception {
+		try {
+			return startRefresh(key, memberId, cloudName, null).join();
+		} catch (CompletionException e) {
+			if (staleCatalog != null) {
+				LOGGER.warn("Could not refresh the image catalog of " + key + ", using the cached one.", e.getCause());
+				return staleCatalog;
+			}
+			Throwable cause = e.getCause();
+			throw cause instanceof Exception ? (Exception) cause : e;
+		}
+	}
+
+	private void refreshInBackground(String key, String memberId, String cloudName) {
+		try {
+			startRefresh(key, memberId, cloudName, this.refreshExecutor);
+		} catch (RejectedExecutionException e) {
+			LOGGER.warn("Background refresh of the image catalog of " + key + " was rejected.");
+		}
+	}
+
+	private CompletableFuture<Catalog> startRefresh(String key, String memberId, String cloudName,
+			Executor executor) {
+		CompletableFuture<Catalog> newRefresh = new CompletableFuture<>();
+		CompletableFuture<Catalog> currentRefresh = this.refreshes.putIfAbsent(key, newRefresh);
+		if (currentRefresh != null) {
+			return currentRefresh;
+		}
+
+		Runnable load = () -> {
+			try {
+				Catalog catalog = new Catalog(this.loader.load(memberId, cloudName), now());
+				this.catalogs.put(key, catalog);
+				newRefresh.complete(catalog);
+			} catch (Throwable e) {
+				newRefresh.completeExceptionally(e);
+			} finally {
+				this.refreshes.remove(key, newRefresh);
+			}
+		};
+
+		if (executor == null) {
+			load.run();
+		} else {
+			try {
+				executor.execute(load);
+			} catch (RejectedExecutionException e) {
+				this.refreshes.remove(key, newRefresh);
+				newRefresh.completeExceptionally(e);
+				throw e;
+			}
+		}
+		return newRefresh;
+	}
+
+	private static String keyOf(String memberId, String cloudName) {
+		return memberId + "/" + cloudName;
+	}
+
+	private static ExecutorService createRefreshExecutor() {
+		return Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "blowout-image-catalog-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private static class Catalog {
+
+		private final Map<String, String> imageIdsByName;
+		private final long loadedAt;
+
+		private Catalog(Map<String, String> imageNamesById, long loadedAt) {
+			Map<String, String> imageIdsByName = new HashMap<>();
+			if (imageNamesById != null) {
+				for (Map.Entry<String, String> image : imageNamesById.entrySet()) {
+					imageIdsByName.putIfAbsent(image.getValue(), image.getKey());
+				}
+			}
+			this.imageIdsByName = Collections.unmodifiableMap(imageIdsByName);
+			this.loadedAt = loadedAt;
+		}
+	}
+}
@@ -13,19 +13,17 @@ import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.core.util.AppUtil;
 import org.fogbowcloud.blowout.infrastructure.exception.RequestResourceException;
 import org.fogbowcloud.blowout.infrastructure.http.HttpWrapper;
+import org.fogbowcloud.blowout.infrastructure.model.ComputeInstance;
 import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
+import org.fogbowcloud.blowout.infrastructure.model.PublicIpInstance;
 import org.fogbowcloud.blowout.infrastructure.model.Token;
 import org.fogbowcloud.blowout.infrastructure.token.AbstractTokenUpdatePlugin;
 import org.json.JSONObject;
 
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 import java.io.UnsupportedEncodingException;
 import java.util.*;
 
-import static java.lang.Thread.sleep;
-import static org.fogbowcloud.blowout.core.util.AppUtil.*;
+import static org.fogbowcloud.blowout.core.util.AppUtil.makeBodyField;
 
 public class RASRequestsHelper {
     private final Logger LOGGER = Logger.getLogger(RASRequestsHelper.class);
@@ -33,12 +31,18 @@ public class RASRequestsHelper {
     private String RAS_BASE_URL;
     private HttpWrapper http;
     private Token token;
+    private final long imageCacheTimeToLive;
+    private ImageCatalogCache imageCatalogCache;
 
     public RASRequestsHelper(Properties properties, AbstractTokenUpdatePlugin tokenUpdatePlugin) {
-        this.http = new HttpWrapper();
+        this.http = new HttpWrapper(properties);
         this.properties = properties;
         this.token = tokenUpdatePlugin.generateToken();
         this.RAS_BASE_URL = this.properties.getProperty(AppPropertiesConstants.RAS_BASE_URL);
+
+        final String defaultImageCacheTimeToLive = "600000";
+        this.imageCacheTimeToLive = Long.parseLong(this.properties.getProperty(
+                AppPropertiesConstants.RAS_IMAGE_CACHE_TIME_TO_LIVE, defaultImageCacheTimeToLive));
     }
 
     public String createCompute(Specification specification) throws RequestResourceException {
@@ -68,10 +72,7 @@ public class RASRequestsHelper {
         return computeOrderId;
     }
 
-    public String createPublicIp(String computeOrderId) throws InterruptedException {
-        final long sleepTimeInMillis = 5000;
-
-        sleep(sleepTimeInMillis);
+    public String createPublicIp(String computeOrderId) {
         String publicIpId = null;
         final String cloudName = this.properties.getProperty(AppPropertiesConstants.DEFAULT_CLOUD_NAME);
         final String provider = this.properties.getProperty(AppPropertiesConstants.RAS_MEMBER_ID);
@@ -95,15 +96,15 @@ public class RASRequestsHelper {
         return publicIpId;
     }
 
-    public Map<String, Object> getPublicIpInstance(String publicIpOrderId) {
+    public PublicIpInstance getPublicIpInstance(String publicIpOrderId) {
         String response;
-        Map<String, Object> publicIpInstance = new HashMap<>();
+        PublicIpInstance publicIpInstance = null;
         final String requestUrl = RAS_BASE_URL + "/" + FogbowConstants.RAS_ENDPOINT_PUBLIC_IP + "/" + publicIpOrderId;
         final String errorMessage = AppMessagesConstants.ERROR_WHILE_GET_PUBLIC_IP_INSTANCE + publicIpOrderId;
 
         try {
             response = this.doRequest(HttpWrapper.HTTP_METHOD_GET, requestUrl, new LinkedList<>());
-            publicIpInstance = parseJSONStringToMap(response);
+            publicIpInstance = RASResponseParser.parsePublicIpInstance(response);
             LOGGER.debug("Getting Public Ip instance.");
 
             LOGGER.debug(publicIpInstance);
@@ -113,11 +114,11 @@ public class RASRequestsHelper {
         return publicIpInstance;
     }
 
-    public Map<String, Object> getComputeInstance(String computeOrderId) throws Exception {
+    public ComputeInstance getComputeInstance(String computeOrderId) throws Exception {
         final String requestUrl = RAS_BASE_URL + "/" + FogbowConstants.RAS_ENDPOINT_COMPUTE + "/" + computeOrderId;
         final String instanceInformation = this.doRequest(HttpWrapper.HTTP_METHOD_GET, requestUrl, new ArrayList<>());
 
-        return parseJSONStringToMap(instanceInformation);
+        return RASResponseParser.parseComputeInstance(instanceInformation);
     }
 
     public void deleteFogbowResource(FogbowResource fogbowResource) throws Exception {
@@ -125,11 +126,13 @@ public class RASRequestsHelper {
                 "/" + fogbowResource.getComputeOrderId();
         final String publicIpEndpoint = RAS_BASE_URL + "/" + FogbowConstants.RAS_ENDPOINT_PUBLIC_IP +
                 "/" + fogbowResource.getPublicIpOrderId();
-        try {
-            this.doRequest(HttpWrapper.HTTP_METHOD_DELETE, publicIpEndpoint, new ArrayList<>());
-            LOGGER.info("Public IP was deleted successfully.");
-        } catch (Exception e){
-            LOGGER.error("Error while trying to delete the Public IP.");
+        if (fogbowResource.getPublicIpOrderId() != null) {
+            try {
+                this.doRequest(HttpWrapper.HTTP_METHOD_DELETE, publicIpEndpoint, new ArrayList<>());
+                LOGGER.info("Public IP was deleted successfully.");
+            } catch (Exception e){
+                LOGGER.error("Error while trying to delete the Public IP.");
+            }
         }
 
         try {
@@ -167,7 +170,7 @@ public class RASRequestsHelper {
         final String iguassuComputeName = userName;
 
         String imageName = specification.getImageName();
-        String imageId = getImageId(imageName);
+        String imageId = getImageId(specification.getCloudName(), imageName);
         LOGGER.info("Using the image " + imageName + ":" + imageId + " in compute request");
 
         makeBodyField(json, FogbowConstants.JSON_KEY_RAS_CLOUD_NAME, specification.getCloudName());
@@ -181,45 +184,37 @@ public class RASRequestsHelper {
         return new StringEntity(json.toString());
     }
 
-    private String getImageId(String imageName) throws BlowoutException {
-        String imageId;
-        List<String> images = this.getImagesByName(imageName);
-        if(images.isEmpty()){
+    private String getImageId(String cloudName, String imageName) throws BlowoutException {
+        if (cloudName == null || cloudName.trim().isEmpty()) {
+            cloudName = this.properties.getProperty(AppPropertiesConstants.DEFAULT_CLOUD_NAME);
+        }
+        final String memberId = this.properties.getProperty(AppPropertiesConstants.RAS_MEMBER_ID);
+
+        String imageId = null;
+        try {
+            imageId = this.getImageCatalogCache().getImageId(memberId, cloudName, imageName);
+        } catch (Exception e) {
+            LOGGER.error("Error while getting info about images of member with id :" + memberId, e);
+        }
+        if (imageId == null) {
             throw new BlowoutException("No images found with the name " + imageName);
         }
-        imageId = images.get(0);
         return imageId;
     }
 
-    private List<String> getImagesByName(String imageName){
-        List<String> images = new ArrayList<>();
-
-        Map<String, Object> imagesMap = getAllImages();
-        for(String imageId : imagesMap.keySet()){
-            String currentImageName = imagesMap.get(imageId).toString();
-            if(currentImageName.equals(imageName)){
-                images.add(imageId);
-            }
+    private synchronized ImageCatalogCache getImageCatalogCache() {
+        if (this.imageCatalogCache == null) {
+            this.imageCatalogCache = new ImageCatalogCache(this::getAllImages, this.imageCacheTimeToLive);
         }
-        return images;
+        return this.imageCatalogCache;
     }
 
-
-    private Map<String, Object> getAllImages(){
-        final String cloudName = "cloud4";
-        final String memberId = this.properties.getProperty(AppPropertiesConstants.RAS_MEMBER_ID);
-        Map<String, Object> imagesMap = new HashMap<>();
+    private Map<String, String> getAllImages(String memberId, String cloudName) throws Exception {
         final String requestUrl = RAS_BASE_URL + "/" + FogbowConstants.RAS_ENDPOINT_IMAGES + "/"
                 + memberId + "/" + cloudName;
-        final String errorMessage = "Error while getting info about images of member with id :" + memberId;
 
-        try {
-            final String response = this.doRequest(HttpWrapper.HTTP_METHOD_GET, requestUrl, new LinkedList<>());
-            imagesMap = parseJSONStringToMap(response);
-        } catch (Exception e) {
-            LOGGER.error(errorMessage, e);
-        }
-        return imagesMap;
+        final String response = this.doRequest(HttpWrapper.HTTP_METHOD_GET, requestUrl, new LinkedList<>());
+        return RASResponseParser.parseImages(response);
     }
 
     private StringEntity makeRequestBodyJson(Map<String, String> bodyRequestAttrs) throws UnsupportedEncodingException {
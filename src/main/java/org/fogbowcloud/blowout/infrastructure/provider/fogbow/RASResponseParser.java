@@ -0,0 +1,191 @@
+package org.fogbowcloud.blowout.infrastructure.provider.fogbow;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fogbowcloud.blowout.core.constants.FogbowConstants;
+import org.fogbowcloud.blowout.infrastructure.model.ComputeInstance;
+import org.fogbowcloud.blowout.infrastructure.model.PublicIpInstance;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Decodes the RAS responses with a streaming JSON reader, binding the fields
+ * Blowout uses straight into typed instances. Unknown fields are skipped.
+ */
+public class RASResponseParser {
+
+	private static final String JSON_KEY_ID = "id";
+	private static final String JSON_KEY_STATE = "state";
+	private static final String JSON_KEY_COMPUTE_NAME = "computeName";
+
+	private RASResponseParser() {
+	}
+
+	public static ComputeInstance parseComputeInstance(String response) throws IOException {
+		String id = null;
+		String name = null;
+		String state = null;
+		String cloudName = null;
+		String provider = null;
+		String imageId = null;
+		String publicKey = null;
+		Integer vCPU = null;
+		Integer memory = null;
+		Integer disk = null;
+
+		try (JsonReader reader = createReader(response)) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+					case JSON_KEY_ID:
+						id = nextString(reader);
+						break;
+					case FogbowConstants.INSTANCE_ATTRIBUTE_NAME:
+						name = nextString(reader);
+						break;
+					case FogbowConstants.INSTANCE_ATTRIBUTE_STATE:
+						state = nextString(reader);
+						break;
+					case FogbowConstants.JSON_KEY_RAS_CLOUD_NAME:
+						cloudName = nextString(reader);
+						break;
+					case FogbowConstants.JSON_KEY_FOGBOW_PROVIDER:
+						provider = nextString(reader);
+						break;
+					case FogbowConstants.JSON_KEY_RAS_IMAGE_ID:
+						imageId = nextString(reader);
+						break;
+					case FogbowConstants.JSON_KEY_RAS_PUBLIC_KEY:
+						publicKey = nextString(reader);
+						break;
+					case FogbowConstants.INSTANCE_ATTRIBUTE_VCPU:
+						vCPU = nextInteger(reader);
+						break;
+					case FogbowConstants.INSTANCE_ATTRIBUTE_MEMORY_SIZE:
+						memory = nextInteger(reader);
+						break;
+					case FogbowConstants.INSTANCE_ATTRIBUTE_DISK_SIZE:
+						disk = nextInteger(reader);
+						break;
+					default:
+						reader.skipValue();
+				}
+			}
+			reader.endObject();
+		} catch (IllegalStateException | NumberFormatException e) {
+			throw new IOException("Invalid compute instance response: " + response, e);
+		}
+		return new ComputeInstance(id, name, state, cloudName, provider, imageId, publicKey, vCPU, memory, disk);
+	}
+
+	public static PublicIpInstance parsePublicIpInstance(String response) throws IOException {
+		String id = null;
+		String state = null;
+		String ip = null;
+		String computeId = null;
+		String computeName = null;
+		String cloudName = null;
+		String provider = null;
+
+		try (JsonReader reader = createReader(response)) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+					case JSON_KEY_ID:
+						id = nextString(reader);
+						break;
+					case JSON_KEY_STATE:
+						state = nextString(reader);
+						break;
+					case FogbowConstants.JSON_KEY_FOGBOW_PUBLIC_IP:
+						ip = nextString(reader);
+						break;
+					case FogbowConstants.JSON_KEY_RAS_COMPUTE_ID:
+						computeId = nextString(reader);
+						break;
+					case JSON_KEY_COMPUTE_NAME:
+						computeName = nextString(reader);
+						break;
+					case FogbowConstants.JSON_KEY_RAS_CLOUD_NAME:
+						cloudName = nextString(reader);
+						break;
+					case FogbowConstants.JSON_KEY_FOGBOW_PROVIDER:
+						provider = nextString(reader);
+						break;
+					default:
+						reader.skipValue();
+				}
+			}
+			reader.endObject();
+		} catch (IllegalStateException e) {
+			throw new IOException("Invalid public IP instance response: " + response, e);
+		}
+		return new PublicIpInstance(id, state, ip, computeId, computeName, cloudName, provider);
+	}
+
+	/**
+	 * @return the image catalog of a member, as a map from image id to image
+	 *         name.
+	 */
+	public static Map<String, String> parseImages(String response) throws IOException {
+		Map<String, String> images = new HashMap<>();
+		try (JsonReader reader = createReader(response)) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String imageId = reader.nextName();
+				String imageName = nextString(reader);
+				if (imageName != null) {
+					images.put(imageId, imageName);
+				}
+			}
+			reader.endObject();
+		} catch (IllegalStateException e) {
+			throw new IOException("Invalid images response: " + response, e);
+		}
+		return images;
+	}
+
+	private static JsonReader createReader(String response) throws IOException {
+		if (response == null) {
+			throw new IOException("Empty RAS response");
+		}
+		return new JsonReader(new StringReader(response));
+	}
+
+	/**
+	 * Reads a scalar as text, keeping numbers as they were written. Nested
+	 * values are skipped and read as null.
+	 */
+	private static String nextString(JsonReader reader) throws IOException {
+		JsonToken token = reader.peek();
+		switch (token) {
+			case NULL:
+				reader.nextNull();
+				return null;
+			case BOOLEAN:
+				return String.valueOf(reader.nextBoolean());
+			case STRING:
+			case NUMBER:
+				return reader.nextString();
+			default:
+				reader.skipValue();
+				return null;
+		}
+	}
+
+	private static Integer nextInteger(JsonReader reader) throws IOException {
+		String value = nextString(reader);
+		if (value == null || value.isEmpty()) {
+			return null;
+		}
+		try {
+			return Integer.valueOf(value);
+		} catch (NumberFormatException e) {
+			return (int) Double.parseDouble(value);
+		}
+	}
+}
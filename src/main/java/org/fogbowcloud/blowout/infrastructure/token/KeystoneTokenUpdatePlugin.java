@@ -1,14 +1,8 @@
 package org.fogbowcloud.blowout.infrastructure.token;
 
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.protocol.HTTP;
-import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
 import org.fogbowcloud.blowout.core.constants.FogbowConstants;
@@ -45,6 +39,7 @@ public class KeystoneTokenUpdatePlugin extends AbstractTokenUpdatePlugin {
     private final String password;
     private final String projectName;
     private final String domain;
+    private final HttpWrapper httpWrapper;
 
     public KeystoneTokenUpdatePlugin(Properties properties) {
         super(properties);
@@ -53,6 +48,7 @@ public class KeystoneTokenUpdatePlugin extends AbstractTokenUpdatePlugin {
         this.projectName = super.properties.getProperty(FOGBOW_PROJECT_NAME);
         this.domain = super.properties.getProperty(FOGBOW_DOMAIN);
         this.asBaseUrl =  super.properties.getProperty(AS_BASE_URL);
+        this.httpWrapper = new HttpWrapper(super.properties);
     }
 
     @Override
@@ -75,14 +71,12 @@ public class KeystoneTokenUpdatePlugin extends AbstractTokenUpdatePlugin {
     }
 
     private Token createToken() throws Exception {
-        HttpWrapper httpWrapper = new HttpWrapper();
-
         final String requestUrl = this.asBaseUrl + "/" + FogbowConstants.AS_ENDPOINT_TOKEN;
         final String publicKeyRAS = getPublicKeyRAS();
         final StringEntity body = makeBodyJson(publicKeyRAS);
         body.setContentType(new BasicHeader(HTTP.CONTENT_TYPE, HttpWrapper.HTTP_CONTENT_JSON));
 
-        final String accessTokenJson = httpWrapper.doRequest(HttpWrapper.HTTP_METHOD_POST, requestUrl, new LinkedList<>(), body);
+        final String accessTokenJson = this.httpWrapper.doRequest(HttpWrapper.HTTP_METHOD_POST, requestUrl, new LinkedList<>(), body);
         final String accessToken = getValueFromJsonStr("token", accessTokenJson);
         final String userId = AppUtil.generateIdentifier();
         User user = new User(userId, this.userName, this.password);
@@ -93,10 +87,8 @@ public class KeystoneTokenUpdatePlugin extends AbstractTokenUpdatePlugin {
 
     private String getPublicKeyRAS() throws Exception{
         final String requestUrl = this.properties.getProperty(AppPropertiesConstants.RAS_BASE_URL) + "/" + FogbowConstants.RAS_ENDPOINT_PUBLIC_KEY;
-        HttpUriRequest request = new HttpGet(requestUrl);
-        HttpResponse response = HttpClients.createMinimal().execute(request);
-        HttpEntity entity = response.getEntity();
-        String responseString = EntityUtils.toString(entity, "UTF-8");
+        final String responseString = this.httpWrapper.doRequest(HttpWrapper.HTTP_METHOD_GET, requestUrl, null,
+                new LinkedList<>());
         return getValueFromJsonStr(FogbowConstants.JSON_KEY_RAS_PUBLIC_KEY, responseString);
     }
 
@@ -3,7 +3,10 @@ package org.fogbowcloud.blowout.pool;
 import java.util.List;
 
 import org.fogbowcloud.blowout.scheduler.Scheduler;
+import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskGenerator;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
 import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
@@ -11,6 +14,8 @@ import org.fogbowcloud.blowout.core.model.resource.ResourceState;
 public interface BlowoutPool {
 	
 	void start(InfrastructureManager infraManager, Scheduler scheduler);
+
+	void stop();
 	
 	void addResource(AbstractResource resource);
 	
@@ -23,16 +28,66 @@ public interface BlowoutPool {
 	AbstractResource getResourceById(String resourceId);
 	
 	void removeResource(AbstractResource resource);
+
+	/**
+	 * Marks an idle resource with no task running on it TO_REMOVE, so no task
+	 * can be started on it afterwards.
+	 *
+	 * @return false if the resource is not in the pool, not idle or runs a
+	 *         task, in which case it must not be removed.
+	 */
+	boolean claimIdleResource(AbstractResource resource);
+
+	/**
+	 * Makes the scheduler act again on the idle resources, once the task
+	 * executor that held tasks back from them has room again.
+	 */
+	void resumeScheduling();
 	
 	void addTask(Task task);
 	
 	void addTasks(List<Task> tasks);
 	
+	/**
+	 * Adds the tasks of a generator, keeping at most window of them as tasks of
+	 * the pool at a time; the others are generated as these finish.
+	 */
+	void addTaskGenerator(TaskGenerator generator, int window);
+
+	/**
+	 * @return COMPLETED for a generated task that finished and left the pool,
+	 * READY for one not generated yet, or null if no generator has the task.
+	 */
+	TaskState getGeneratedTaskState(String taskId);
+	
 	List<Task> getAllTasks();
+
+	/**
+	 * @return the number of tasks in the pool, without copying them.
+	 */
+	int getTaskCount();
+
+	/**
+	 * @return the number of tasks of the pool that are ready or running,
+	 * without copying them.
+	 */
+	int getUnfinishedTaskCount();
 	
 	Task getTaskById(String taskId);
 	
 	void removeTask(Task task);
 
     void removeTasks(List<Task> tasks);
+
+	/**
+	 * Takes the oldest ready task of the given specification and marks it as
+	 * running, or returns null when there is none.
+	 */
+	Task pollReadyTask(Specification specification);
+
+	/**
+	 * Gives back a task taken by {@link #pollReadyTask(Specification)}. The task
+	 * becomes ready again unless it is already finished.
+	 */
+	void releaseTask(Task task);
 }
\ No newline at end of file
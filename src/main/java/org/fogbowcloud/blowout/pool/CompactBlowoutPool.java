@@ -0,0 +1,109 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.fogbowcloud.blowout.core.model.task.Task;
+
+/**
+ * Blowout pool that keeps its tasks in a memory-mapped {@link CompactTaskStore}
+ * and works on flyweight views of them, so a bag of millions of tasks takes
+ * tens of megabytes of heap. The tasks given to the pool are copied into the
+ * store: changes made to them after they were added are not seen by the pool,
+ * the tasks returned by it must be used instead.
+ */
+public class CompactBlowoutPool extends DefaultBlowoutPool {
+
+	private CompactTaskStore taskStore;
+
+	public CompactBlowoutPool() {
+		this(null);
+	}
+
+	public CompactBlowoutPool(ExecutorService actExecutor) {
+		super(actExecutor);
+		this.taskStore = new CompactTaskStore();
+	}
+
+	@Override
+	public void stop() {
+		super.stop();
+		this.taskStore.close();
+	}
+
+	@Override
+	public void removeTask(Task task) {
+		super.removeTask(storedTask(task));
+	}
+
+	@Override
+	public void removeTasks(List<Task> tasks) {
+		List<Task> storedTasks = new ArrayList<>(tasks.size());
+		for (Task task : tasks) {
+			storedTasks.add(storedTask(task));
+		}
+		super.removeTasks(storedTasks);
+	}
+
+	/**
+	 * @return the view of the stored task with the id of the given one, so it
+	 *         can be found in the ready queues and by the scheduler.
+	 */
+	private Task storedTask(Task task) {
+		Task storedTask = taskStore.get(task.getId());
+		return storedTask == null ? task : storedTask;
+	}
+
+	@Override
+	protected void resetTaskStorage() {
+		this.taskStore.close();
+		this.taskStore = new CompactTaskStore();
+	}
+
+	@Override
+	protected Collection<Task> storeTasks(Collection<Task> tasks) {
+		return taskStore.addAll(tasks);
+	}
+
+	@Override
+	protected void discardTasks(Collection<Task> tasks) {
+		taskStore.removeAll(tasks);
+	}
+
+	@Override
+	protected Task findTask(String taskId) {
+		return taskStore.get(taskId);
+	}
+
+	@Override
+	protected int countTasks() {
+		return taskStore.size();
+	}
+
+	@Override
+	protected List<Task> snapshotTasks() {
+		return taskStore.snapshot();
+	}
+
+	@Override
+	protected List<Task> liveTasks() {
+		return taskStore.view();
+	}
+
+	@Override
+	protected List<Task> getTaskPool() {
+		return taskStore.view();
+	}
+
+	@Override
+	protected void setTaskPool(List<Task> taskPool) {
+		resetTaskStorage();
+		resetReadyTasks(storeTasks(taskPool));
+	}
+
+	protected CompactTaskStore getTaskStore() {
+		return taskStore;
+	}
+}
@@ -0,0 +1,990 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.model.Command;
+import org.fogbowcloud.blowout.core.model.Command.Type;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.core.model.task.TaskTimestamps;
+import org.fogbowcloud.blowout.core.util.AppUtil;
+import org.json.JSONObject;
+
+/**
+ * Task store that keeps the tasks out of the heap, in a memory-mapped
+ * temporary file, and hands out flyweight {@link Task} views of them.
+ * <p>
+ * The commands, metadata and specification of a task are written once, when
+ * it is added, to an append-only record: commands and metadata keys are
+ * interned in a dictionary shared by all tasks, specifications are stored
+ * once and referenced by index, and the id and metadata values are written
+ * inline. The state, retries, start time and timestamps of each task live in
+ * a fixed size slot of another mapped region, updated in place. The heap only
+ * holds the dictionaries, an open addressing index from ids to slots, and the
+ * few changes made to a task after it was added, such as commands added to
+ * it later. Views are two fields wide and equal when they point to the same
+ * slot, so they can be created on every lookup.
+ * <p>
+ * Removing a task frees its slot in the index but not its record; the file
+ * is deleted when the store is closed.
+ */
+public class CompactTaskStore implements Iterable<Task> {
+
+	private static final Logger LOGGER = Logger.getLogger(CompactTaskStore.class);
+
+	protected static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+	protected static final int DEFAULT_DICTIONARY_SIZE = 1 << 16;
+
+	private static final int SLOT_SIZE = 64;
+	private static final int SLOT_RECORD = 0;
+	private static final int SLOT_STATE = 8;
+	private static final int SLOT_FLAGS = 9;
+	private static final int SLOT_RETRIES = 12;
+	private static final int SLOT_STARTED_RUNNING_AT = 16;
+	private static final int SLOT_TIMESTAMPS = 24;
+
+	private static final byte FLAG_FINISHED = 1;
+	private static final byte FLAG_FAILED = 2;
+	private static final byte FLAG_REMOVED = 4;
+	private static final byte NO_STATE = -1;
+
+	private final MappedRegion records;
+	private final MappedRegion slots;
+	private final StringDictionary dictionary;
+	private final List<Specification> specifications;
+	private final Map<Specification, Integer> specificationIndexes;
+	private final ReadWriteLock lock;
+
+	private final Map<Integer, List<Command>> addedCommands;
+	private final Map<Integer, Map<String, String>> addedMetadata;
+	private final Map<Integer, List<String>> processIds;
+
+	private int[] indexSlots;
+	private int[] indexHashes;
+	private int indexUsed;
+	private int nextSlot;
+	private int size;
+
+	public CompactTaskStore() {
+		this(new File(System.getProperty("java.io.tmpdir")), DEFAULT_CHUNK_SIZE, DEFAULT_DICTIONARY_SIZE);
+	}
+
+	/**
+	 * @param directory
+	 *            where the mapped files are created.
+	 * @param chunkSize
+	 *            bytes mapped at a time; a task record must fit in a chunk.
+	 * @param dictionarySize
+	 *            maximum number of interned strings, the ones seen after it
+	 *            is full are written inline.
+	 */
+	public CompactTaskStore(File directory, int chunkSize, int dictionarySize) {
+		if (chunkSize < SLOT_SIZE || chunkSize % SLOT_SIZE != 0) {
+			throw new IllegalArgumentException("Chunk size must be a multiple of " + SLOT_SIZE + ": " + chunkSize);
+		}
+		this.records = new MappedRegion(directory, "blowout-task-records", chunkSize);
+		this.slots = new MappedRegion(directory, "blowout-task-slots", chunkSize);
+		this.dictionary = new StringDictionary(dictionarySize);
+		this.specifications = new CopyOnWriteArrayList<>();
+		this.specificationIndexes = new HashMap<>();
+		this.lock = new ReentrantReadWriteLock();
+		this.addedCommands = new ConcurrentHashMap<>();
+		this.addedMetadata = new ConcurrentHashMap<>();
+		this.processIds = new ConcurrentHashMap<>();
+		this.indexSlots = new int[1024];
+		this.indexHashes = new int[1024];
+	}
+
+	/**
+	 * Stores a task, replacing the one with the same id if any.
+	 *
+	 * @return the view of the stored task.
+	 */
+	public Task add(Task task) {
+		byte[] record = encode(task);
+		this.lock.writeLock().lock();
+		try {
+			removeLocked(task.getId());
+			long recordOffset = this.records.allocate(record.length);
+			this.records.put(recordOffset, record);
+
+			int slot = this.nextSlot++;
+			long slotOffset = this.slots.allocate(SLOT_SIZE);
+			this.slots.putLong(slotOffset + SLOT_RECORD, recordOffset);
+			this.slots.put(slotOffset + SLOT_STATE,
+					task.getState() == null ? NO_STATE : (byte) task.getState().ordinal());
+			this.slots.put(slotOffset + SLOT_FLAGS,
+					(byte) ((task.isFinished() ? FLAG_FINISHED : 0) | (task.isFailed() ? FLAG_FAILED : 0)));
+			this.slots.putInt(slotOffset + SLOT_RETRIES, task.getRetries());
+			this.slots.putLong(slotOffset + SLOT_STARTED_RUNNING_AT, Long.MAX_VALUE);
+			TaskTimestamps timestamps = task.getTimestamps();
+			for (TaskTimestamps.Event event : TaskTimestamps.Event.values()) {
+				this.slots.putLong(slotOffset + SLOT_TIMESTAMPS + 8 * event.ordinal(),
+						timestamps == null ? 0 : timestamps.get(event));
+			}
+			if (!task.getProcessId().isEmpty()) {
+				this.processIds.put(slot, new CopyOnWriteArrayList<>(task.getProcessId()));
+			}
+
+			indexPut(task.getId(), slot);
+			this.size++;
+			return new TaskView(this, slot);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	public List<Task> addAll(Collection<? extends Task> tasks) {
+		List<Task> views = new ArrayList<>(tasks.size());
+		for (Task task : tasks) {
+			views.add(add(task));
+		}
+		return views;
+	}
+
+	public Task get(String taskId) {
+		this.lock.readLock().lock();
+		try {
+			int slot = indexGet(taskId);
+			return slot < 0 ? null : new TaskView(this, slot);
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	public boolean remove(Task task) {
+		this.lock.writeLock().lock();
+		try {
+			return removeLocked(task.getId());
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	public void removeAll(Collection<? extends Task> tasks) {
+		this.lock.writeLock().lock();
+		try {
+			for (Task task : tasks) {
+				removeLocked(task.getId());
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.size;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return views of the stored tasks, in insertion order.
+	 */
+	public List<Task> snapshot() {
+		this.lock.readLock().lock();
+		try {
+			List<Task> tasks = new ArrayList<>(this.size);
+			for (int slot = 0; slot < this.nextSlot; slot++) {
+				if ((flags(slot) & FLAG_REMOVED) == 0) {
+					tasks.add(new TaskView(this, slot));
+				}
+			}
+			return tasks;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return a read only list over the stored tasks that copies nothing: a
+	 *         view is created only for each task read from it.
+	 */
+	public List<Task> view() {
+		return new TaskListView(this, this::size);
+	}
+
+	/**
+	 * @return an iterator over views of the stored tasks, in insertion order,
+	 *         reading each slot when the next task is asked for.
+	 */
+	@Override
+	public Iterator<Task> iterator() {
+		return new SlotIterator();
+	}
+
+	/**
+	 * Deletes the mapped files. The views handed out must not be used after.
+	 */
+	public void close() {
+		this.lock.writeLock().lock();
+		try {
+			this.records.close();
+			this.slots.close();
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return bytes written to the mapped files.
+	 */
+	public long getMappedBytes() {
+		return this.records.getAllocated() + this.slots.getAllocated();
+	}
+
+	protected int getDictionarySize() {
+		return this.dictionary.size();
+	}
+
+	private boolean removeLocked(String taskId) {
+		int slot = indexRemove(taskId);
+		if (slot < 0) {
+			return false;
+		}
+		long slotOffset = slotOffset(slot);
+		this.slots.put(slotOffset + SLOT_FLAGS, (byte) (this.slots.get(slotOffset + SLOT_FLAGS) | FLAG_REMOVED));
+		this.addedCommands.remove(slot);
+		this.addedMetadata.remove(slot);
+		this.processIds.remove(slot);
+		this.size--;
+		return true;
+	}
+
+	/*
+	 * Records.
+	 */
+
+	private byte[] encode(Task task) {
+		RecordWriter writer = new RecordWriter();
+		writer.writeInline(task.getId());
+		writer.writeString(task.getUUID());
+		writer.writeInt(specificationIndex(task.getSpecification()));
+		List<Command> commands = task.getAllCommands();
+		writer.writeInt(commands.size());
+		for (Command command : commands) {
+			writer.writeByte(command.getType().ordinal());
+			writer.writeByte(command.getState() == null ? NO_STATE : command.getState().ordinal());
+			writer.writeString(command.getCommand());
+		}
+		Map<String, String> metadata = task.getAllMetadata();
+		writer.writeInt(metadata.size());
+		for (Entry<String, String> entry : metadata.entrySet()) {
+			writer.writeString(entry.getKey());
+			writer.writeInline(entry.getValue());
+		}
+		return writer.toByteArray();
+	}
+
+	private synchronized int specificationIndex(Specification specification) {
+		Integer index = this.specificationIndexes.get(specification);
+		if (index == null) {
+			index = this.specifications.size();
+			this.specifications.add(specification);
+			this.specificationIndexes.put(specification, index);
+		}
+		return index;
+	}
+
+	private RecordReader reader(int slot) {
+		return new RecordReader(this.records.read(this.slots.getLong(slotOffset(slot) + SLOT_RECORD)));
+	}
+
+	private class RecordWriter {
+
+		private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+		private void ensure(int bytes) {
+			if (this.buffer.remaining() < bytes) {
+				ByteBuffer larger = ByteBuffer.allocate(Math.max(this.buffer.capacity() * 2,
+						this.buffer.position() + bytes));
+				this.buffer.flip();
+				larger.put(this.buffer);
+				this.buffer = larger;
+			}
+		}
+
+		private void writeByte(int value) {
+			ensure(1);
+			this.buffer.put((byte) value);
+		}
+
+		private void writeInt(int value) {
+			ensure(4);
+			this.buffer.putInt(value);
+		}
+
+		/**
+		 * Writes the index of an interned string, or the string itself when
+		 * the dictionary is full.
+		 */
+		private void writeString(String value) {
+			int index = value == null ? -1 : dictionary.intern(value);
+			if (index >= 0) {
+				writeInt(index);
+			} else {
+				writeInline(value);
+			}
+		}
+
+		/**
+		 * Writes a string as minus its length minus two, followed by its
+		 * bytes; minus one is null.
+		 */
+		private void writeInline(String value) {
+			if (value == null) {
+				writeInt(-1);
+				return;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeInt(-bytes.length - 2);
+			ensure(bytes.length);
+			this.buffer.put(bytes);
+		}
+
+		private byte[] toByteArray() {
+			byte[] record = new byte[this.buffer.position()];
+			this.buffer.flip();
+			this.buffer.get(record);
+			return record;
+		}
+	}
+
+	private class RecordReader {
+
+		private final ByteBuffer buffer;
+
+		private RecordReader(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		private byte readByte() {
+			return this.buffer.get();
+		}
+
+		private int readInt() {
+			return this.buffer.getInt();
+		}
+
+		private String readString() {
+			int reference = this.buffer.getInt();
+			if (reference >= 0) {
+				return dictionary.get(reference);
+			}
+			if (reference == -1) {
+				return null;
+			}
+			byte[] bytes = new byte[-reference - 2];
+			this.buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		private void skipString() {
+			int reference = this.buffer.getInt();
+			if (reference < -1) {
+				this.buffer.position(this.buffer.position() - reference - 2);
+			}
+		}
+	}
+
+	/*
+	 * Slots, read and written by the views.
+	 */
+
+	private static long slotOffset(int slot) {
+		return (long) slot * SLOT_SIZE;
+	}
+
+	private byte flags(int slot) {
+		return this.slots.get(slotOffset(slot) + SLOT_FLAGS);
+	}
+
+	private void setFlag(int slot, byte flag) {
+		long offset = slotOffset(slot) + SLOT_FLAGS;
+		this.slots.put(offset, (byte) (this.slots.get(offset) | flag));
+	}
+
+	private TaskState state(int slot) {
+		byte state = this.slots.get(slotOffset(slot) + SLOT_STATE);
+		return state == NO_STATE ? null : TaskState.values()[state];
+	}
+
+	private void setState(int slot, TaskState state) {
+		this.slots.put(slotOffset(slot) + SLOT_STATE, state == null ? NO_STATE : (byte) state.ordinal());
+	}
+
+	/*
+	 * Open addressing index from task ids to slots, with linear probing.
+	 * Entries hold the slot plus one; zero is free and minus one is deleted.
+	 */
+
+	private static int hash(String taskId) {
+		int hash = taskId.hashCode();
+		return hash ^ (hash >>> 16);
+	}
+
+	private int indexGet(String taskId) {
+		int hash = hash(taskId);
+		int mask = this.indexSlots.length - 1;
+		for (int i = hash & mask; this.indexSlots[i] != 0; i = (i + 1) & mask) {
+			int entry = this.indexSlots[i];
+			if (entry > 0 && this.indexHashes[i] == hash && taskId.equals(idOf(entry - 1))) {
+				return entry - 1;
+			}
+		}
+		return -1;
+	}
+
+	private void indexPut(String taskId, int slot) {
+		if ((this.indexUsed + 1) * 2 > this.indexSlots.length) {
+			rehash(this.size + 1 > this.indexSlots.length / 4 ? this.indexSlots.length * 2 : this.indexSlots.length);
+		}
+		int hash = hash(taskId);
+		int mask = this.indexSlots.length - 1;
+		int i = hash & mask;
+		while (this.indexSlots[i] != 0) {
+			i = (i + 1) & mask;
+		}
+		this.indexSlots[i] = slot + 1;
+		this.indexHashes[i] = hash;
+		this.indexUsed++;
+	}
+
+	private int indexRemove(String taskId) {
+		int hash = hash(taskId);
+		int mask = this.indexSlots.length - 1;
+		for (int i = hash & mask; this.indexSlots[i] != 0; i = (i + 1) & mask) {
+			int entry = this.indexSlots[i];
+			if (entry > 0 && this.indexHashes[i] == hash && taskId.equals(idOf(entry - 1))) {
+				this.indexSlots[i] = -1;
+				return entry - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Rebuilds the index without its deleted entries.
+	 */
+	private void rehash(int capacity) {
+		int[] oldSlots = this.indexSlots;
+		int[] oldHashes = this.indexHashes;
+		this.indexSlots = new int[capacity];
+		this.indexHashes = new int[capacity];
+		this.indexUsed = 0;
+		int mask = capacity - 1;
+		for (int j = 0; j < oldSlots.length; j++) {
+			if (oldSlots[j] > 0) {
+				int i = oldHashes[j] & mask;
+				while (this.indexSlots[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				this.indexSlots[i] = oldSlots[j];
+				this.indexHashes[i] = oldHashes[j];
+				this.indexUsed++;
+			}
+		}
+	}
+
+	private String idOf(int slot) {
+		return reader(slot).readString();
+	}
+
+	private class SlotIterator implements Iterator<Task> {
+
+		private int slot;
+		private Task next;
+
+		@Override
+		public boolean hasNext() {
+			if (this.next != null) {
+				return true;
+			}
+			lock.readLock().lock();
+			try {
+				while (this.next == null && this.slot < nextSlot) {
+					if ((flags(this.slot) & FLAG_REMOVED) == 0) {
+						this.next = new TaskView(CompactTaskStore.this, this.slot);
+					}
+					this.slot++;
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+			return this.next != null;
+		}
+
+		@Override
+		public Task next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Task task = this.next;
+			this.next = null;
+			return task;
+		}
+	}
+
+	/**
+	 * Flyweight view of a stored task.
+	 */
+	private static final class TaskView implements Task {
+
+		private static final long serialVersionUID = 4632208746187164367L;
+
+		private final transient CompactTaskStore store;
+		private final int slot;
+
+		private TaskView(CompactTaskStore store, int slot) {
+			this.store = store;
+			this.slot = slot;
+		}
+
+		private long offset(int field) {
+			return slotOffset(this.slot) + field;
+		}
+
+		@Override
+		public String getId() {
+			return this.store.idOf(this.slot);
+		}
+
+		@Override
+		public String getUUID() {
+			RecordReader reader = this.store.reader(this.slot);
+			reader.skipString();
+			return reader.readString();
+		}
+
+		@Override
+		public Specification getSpecification() {
+			RecordReader reader = this.store.reader(this.slot);
+			reader.skipString();
+			reader.skipString();
+			return this.store.specifications.get(reader.readInt());
+		}
+
+		@Override
+		public List<Command> getAllCommands() {
+			RecordReader reader = this.store.reader(this.slot);
+			reader.skipString();
+			reader.skipString();
+			reader.readInt();
+			int count = reader.readInt();
+			List<Command> commands = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				Type type = Type.values()[reader.readByte()];
+				byte state = reader.readByte();
+				String command = reader.readString();
+				commands.add(new Command(command, type, state == NO_STATE ? null : Command.State.values()[state]));
+			}
+			List<Command> added = this.store.addedCommands.get(this.slot);
+			if (added != null) {
+				commands.addAll(added);
+			}
+			return commands;
+		}
+
+		@Override
+		public Map<String, String> getAllMetadata() {
+			RecordReader reader = this.store.reader(this.slot);
+			reader.skipString();
+			reader.skipString();
+			reader.readInt();
+			int commands = reader.readInt();
+			for (int i = 0; i < commands; i++) {
+				reader.readByte();
+				reader.readByte();
+				reader.skipString();
+			}
+			int count = reader.readInt();
+			Map<String, String> metadata = new LinkedHashMap<>();
+			for (int i = 0; i < count; i++) {
+				metadata.put(reader.readString(), reader.readString());
+			}
+			Map<String, String> added = this.store.addedMetadata.get(this.slot);
+			if (added != null) {
+				metadata.putAll(added);
+			}
+			return metadata;
+		}
+
+		@Override
+		public String getMetadata(String attributeName) {
+			return getAllMetadata().get(attributeName);
+		}
+
+		@Override
+		public void putMetadata(String attributeName, String value) {
+			this.store.addedMetadata.computeIfAbsent(this.slot, key -> new ConcurrentHashMap<>())
+					.put(attributeName, value);
+		}
+
+		@Override
+		public void addCommand(Command command) {
+			this.store.addedCommands.computeIfAbsent(this.slot, key -> new CopyOnWriteArrayList<>()).add(command);
+		}
+
+		@Override
+		public List<Command> getCommandsByType(Type commandType) {
+			List<Command> commands = new ArrayList<>();
+			for (Command command : getAllCommands()) {
+				if (command.getType().equals(commandType)) {
+					commands.add(command);
+				}
+			}
+			return commands;
+		}
+
+		@Override
+		public int getNumberOfCommands() {
+			return getAllCommands().size();
+		}
+
+		@Override
+		public void finish() {
+			this.store.setFlag(this.slot, FLAG_FINISHED);
+			this.store.setState(this.slot, TaskState.COMPLETED);
+		}
+
+		@Override
+		public void fail() {
+			this.store.setFlag(this.slot, FLAG_FAILED);
+		}
+
+		@Override
+		public boolean isFinished() {
+			return (this.store.flags(this.slot) & FLAG_FINISHED) != 0;
+		}
+
+		@Override
+		public boolean isFailed() {
+			return (this.store.flags(this.slot) & FLAG_FAILED) != 0;
+		}
+
+		@Override
+		public TaskState getState() {
+			return this.store.state(this.slot);
+		}
+
+		@Override
+		public void setState(TaskState state) {
+			this.store.setState(this.slot, state);
+		}
+
+		@Override
+		public boolean checkTimeOuted() {
+			String timeOutRaw = getMetadata(TaskImpl.METADATA_TASK_TIMEOUT);
+			if (timeOutRaw == null || timeOutRaw.trim().isEmpty()) {
+				return false;
+			}
+			long timeOut;
+			try {
+				timeOut = Long.parseLong(timeOutRaw);
+			} catch (NumberFormatException e) {
+				LOGGER.error("Timeout badly formated, ignoring it: ", e);
+				return false;
+			}
+			return System.currentTimeMillis() - this.store.slots.getLong(offset(SLOT_STARTED_RUNNING_AT)) > timeOut;
+		}
+
+		@Override
+		public void startedRunning() {
+			this.store.slots.putLong(offset(SLOT_STARTED_RUNNING_AT), System.currentTimeMillis());
+			setRetries(getRetries() + 1);
+		}
+
+		@Override
+		public void recordEvent(TaskTimestamps.Event event) {
+			this.store.slots.putLong(offset(SLOT_TIMESTAMPS + 8 * event.ordinal()), System.currentTimeMillis());
+		}
+
+		/**
+		 * @return a copy of the timestamps of the task.
+		 */
+		@Override
+		public TaskTimestamps getTimestamps() {
+			TaskTimestamps timestamps = new TaskTimestamps();
+			for (TaskTimestamps.Event event : TaskTimestamps.Event.values()) {
+				timestamps.record(event, this.store.slots.getLong(offset(SLOT_TIMESTAMPS + 8 * event.ordinal())));
+			}
+			return timestamps;
+		}
+
+		@Override
+		public boolean mayRetry() {
+			String maxRetries = getMetadata(TaskImpl.METADATA_MAX_RESOURCE_CONN_RETRIES);
+			if (maxRetries != null) {
+				return getRetries() <= Integer.parseInt(maxRetries);
+			}
+			return false;
+		}
+
+		@Override
+		public int getRetries() {
+			return this.store.slots.getInt(offset(SLOT_RETRIES));
+		}
+
+		@Override
+		public void setRetries(int retries) {
+			this.store.slots.putInt(offset(SLOT_RETRIES), retries);
+		}
+
+		@Override
+		public void addProcessId(String procId) {
+			this.store.processIds.computeIfAbsent(this.slot, key -> new CopyOnWriteArrayList<>()).add(procId);
+		}
+
+		@Override
+		public List<String> getProcessId() {
+			List<String> processIds = this.store.processIds.get(this.slot);
+			return processIds == null ? Collections.<String>emptyList() : processIds;
+		}
+
+		@Override
+		public Task clone() {
+			Task taskClone = new TaskImpl(AppUtil.generateIdentifier() + "_clonedFrom_" + getId(),
+					getSpecification(), getUUID());
+			for (Entry<String, String> metadata : getAllMetadata().entrySet()) {
+				taskClone.putMetadata(metadata.getKey(), metadata.getValue());
+			}
+			for (Command command : getAllCommands()) {
+				taskClone.addCommand(command);
+			}
+			return taskClone;
+		}
+
+		@Override
+		public JSONObject toJSON() {
+			Task task = new TaskImpl(getId(), getSpecification(), getUUID());
+			for (Entry<String, String> metadata : getAllMetadata().entrySet()) {
+				task.putMetadata(metadata.getKey(), metadata.getValue());
+			}
+			for (Command command : getAllCommands()) {
+				task.addCommand(command);
+			}
+			task.setRetries(getRetries());
+			if (isFinished()) {
+				task.finish();
+			}
+			if (isFailed()) {
+				task.fail();
+			}
+			task.setState(getState() == null ? TaskState.READY : getState());
+			return task.toJSON();
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(this.store) + this.slot;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof TaskView)) {
+				return false;
+			}
+			TaskView other = (TaskView) obj;
+			return this.store == other.store && this.slot == other.slot;
+		}
+
+		@Override
+		public String toString() {
+			return "CompactTask [id=" + getId() + ", slot=" + this.slot + "]";
+		}
+	}
+
+	/**
+	 * Interned strings, looked up by index without locking.
+	 */
+	private static class StringDictionary {
+
+		private final int maxSize;
+		private final Map<String, Integer> indexes;
+		private volatile String[] strings;
+		private int size;
+
+		private StringDictionary(int maxSize) {
+			this.maxSize = maxSize;
+			this.indexes = new HashMap<>();
+			this.strings = new String[Math.min(maxSize, 256)];
+		}
+
+		/**
+		 * @return the index of the string, or -1 if the dictionary is full.
+		 */
+		private synchronized int intern(String value) {
+			Integer index = this.indexes.get(value);
+			if (index != null) {
+				return index;
+			}
+			if (this.size >= this.maxSize) {
+				return -1;
+			}
+			String[] current = this.strings;
+			if (this.size == current.length) {
+				String[] larger = new String[Math.min(this.maxSize, current.length * 2)];
+				System.arraycopy(current, 0, larger, 0, current.length);
+				current = larger;
+			}
+			current[this.size] = value;
+			this.strings = current;
+			this.indexes.put(value, this.size);
+			return this.size++;
+		}
+
+		private String get(int index) {
+			return this.strings[index];
+		}
+
+		private synchronized int size() {
+			return this.size;
+		}
+	}
+
+	/**
+	 * Append-only region of a temporary file, mapped a chunk at a time. An
+	 * allocation never crosses a chunk.
+	 */
+	private static class MappedRegion {
+
+		private final File file;
+		private final RandomAccessFile randomAccessFile;
+		private final FileChannel channel;
+		private final int chunkSize;
+		private final List<MappedByteBuffer> chunks;
+		private long allocated;
+
+		private MappedRegion(File directory, String prefix, int chunkSize) {
+			this.chunkSize = chunkSize;
+			this.chunks = new CopyOnWriteArrayList<>();
+			try {
+				this.file = File.createTempFile(prefix, ".bin", directory);
+				this.file.deleteOnExit();
+				this.randomAccessFile = new RandomAccessFile(this.file, "rw");
+				this.channel = this.randomAccessFile.getChannel();
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not create the task store file in " + directory + ".", e);
+			}
+		}
+
+		private long allocate(int length) {
+			if (length > this.chunkSize) {
+				throw new IllegalArgumentException("Task record of " + length + " bytes is larger than a chunk.");
+			}
+			long offset = this.allocated;
+			long chunkEnd = (offset / this.chunkSize + 1) * this.chunkSize;
+			if (offset + length > chunkEnd) {
+				offset = chunkEnd;
+			}
+			this.allocated = offset + length;
+			int chunkIndex = (int) ((this.allocated - 1) / this.chunkSize);
+			while (this.chunks.size() <= chunkIndex) {
+				mapChunk(this.chunks.size());
+			}
+			return offset;
+		}
+
+		private void mapChunk(int index) {
+			try {
+				this.chunks.add(this.channel.map(FileChannel.MapMode.READ_WRITE, (long) index * this.chunkSize,
+						this.chunkSize));
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not map the task store file " + this.file + ".", e);
+			}
+		}
+
+		private MappedByteBuffer chunk(long offset) {
+			return this.chunks.get((int) (offset / this.chunkSize));
+		}
+
+		private int position(long offset) {
+			return (int) (offset % this.chunkSize);
+		}
+
+		private void put(long offset, byte[] bytes) {
+			ByteBuffer chunk = chunk(offset).duplicate();
+			chunk.position(position(offset));
+			chunk.put(bytes);
+		}
+
+		/**
+		 * @return a buffer positioned at the given offset.
+		 */
+		private ByteBuffer read(long offset) {
+			ByteBuffer chunk = chunk(offset).duplicate();
+			chunk.position(position(offset));
+			return chunk;
+		}
+
+		private byte get(long offset) {
+			return chunk(offset).get(position(offset));
+		}
+
+		private void put(long offset, byte value) {
+			chunk(offset).put(position(offset), value);
+		}
+
+		private int getInt(long offset) {
+			return chunk(offset).getInt(position(offset));
+		}
+
+		private void putInt(long offset, int value) {
+			chunk(offset).putInt(position(offset), value);
+		}
+
+		private long getLong(long offset) {
+			return chunk(offset).getLong(position(offset));
+		}
+
+		private void putLong(long offset, long value) {
+			chunk(offset).putLong(position(offset), value);
+		}
+
+		private long getAllocated() {
+			return this.allocated;
+		}
+
+		private void close() {
+			this.chunks.clear();
+			try {
+				this.channel.close();
+				this.randomAccessFile.close();
+			} catch (IOException e) {
+				LOGGER.warn("Could not close the task store file " + this.file + ".");
+			}
+			if (!this.file.delete()) {
+				LOGGER.debug("Task store file " + this.file + " will be deleted on exit.");
+			}
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.fogbowcloud.blowout.core.model.task.Task;
+
+/**
+ * Task store with constant time add, remove and lookup by id. Tasks are
+ * appended to fixed size segments in insertion order and indexed by id; a
+ * removal only clears the slot of the task, and a segment is dropped once all
+ * of its slots were written and cleared. Iteration walks the segments without
+ * locking and is weakly consistent, like the iterators of the concurrent
+ * collections.
+ */
+public class ConcurrentTaskStore implements Iterable<Task> {
+
+	protected static final int DEFAULT_SEGMENT_SIZE = 1024;
+
+	private final int segmentSize;
+	private final AtomicLong nextPosition;
+	private final AtomicInteger size;
+	private final Map<String, Long> positionsById;
+	private final ConcurrentNavigableMap<Long, Segment> segments;
+
+	public ConcurrentTaskStore() {
+		this(DEFAULT_SEGMENT_SIZE);
+	}
+
+	public ConcurrentTaskStore(int segmentSize) {
+		if (segmentSize <= 0) {
+			throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+		}
+		this.segmentSize = segmentSize;
+		this.nextPosition = new AtomicLong();
+		this.size = new AtomicInteger();
+		this.positionsById = new ConcurrentHashMap<>();
+		this.segments = new ConcurrentSkipListMap<>();
+	}
+
+	public void add(Task task) {
+		long position = nextPosition.getAndIncrement();
+		Segment segment = segments.computeIfAbsent(position / segmentSize, index -> new Segment(segmentSize));
+		segment.slots.set((int) (position % segmentSize), task);
+		size.incrementAndGet();
+
+		Long previousPosition = positionsById.put(task.getId(), position);
+		if (previousPosition != null) {
+			clear(previousPosition);
+		}
+	}
+
+	public void addAll(Collection<? extends Task> tasks) {
+		for (Task task : tasks) {
+			add(task);
+		}
+	}
+
+	public boolean remove(Task task) {
+		return remove(task.getId()) != null;
+	}
+
+	public Task remove(String taskId) {
+		Long position = positionsById.remove(taskId);
+		if (position == null) {
+			return null;
+		}
+		return clear(position);
+	}
+
+	public void removeAll(Collection<? extends Task> tasks) {
+		for (Task task : tasks) {
+			remove(task);
+		}
+	}
+
+	public Task get(String taskId) {
+		Long position = positionsById.get(taskId);
+		if (position == null) {
+			return null;
+		}
+		Segment segment = segments.get(position / segmentSize);
+		return segment == null ? null : segment.slots.get((int) (position % segmentSize));
+	}
+
+	public int size() {
+		return size.get();
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public void clear() {
+		positionsById.clear();
+		segments.clear();
+		size.set(0);
+	}
+
+	/**
+	 * @return a copy of the stored tasks, in insertion order.
+	 */
+	public List<Task> snapshot() {
+		List<Task> tasks = new ArrayList<>(size());
+		for (Task task : this) {
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	/**
+	 * @return a read only list over the stored tasks that copies nothing and
+	 *         follows the changes made to the store.
+	 */
+	public List<Task> view() {
+		return new TaskListView(this, this::size);
+	}
+
+	@Override
+	public Iterator<Task> iterator() {
+		return new SegmentIterator(segments.values().iterator());
+	}
+
+	protected int getSegmentCount() {
+		return segments.size();
+	}
+
+	private Task clear(long position) {
+		long segmentIndex = position / segmentSize;
+		Segment segment = segments.get(segmentIndex);
+		if (segment == null) {
+			return null;
+		}
+		Task task = segment.slots.getAndSet((int) (position % segmentSize), null);
+		if (task != null) {
+			size.decrementAndGet();
+			if (segment.cleared.incrementAndGet() == segmentSize) {
+				segments.remove(segmentIndex, segment);
+			}
+		}
+		return task;
+	}
+
+	private static class Segment {
+
+		private final AtomicReferenceArray<Task> slots;
+		private final AtomicInteger cleared;
+
+		private Segment(int size) {
+			this.slots = new AtomicReferenceArray<>(size);
+			this.cleared = new AtomicInteger();
+		}
+	}
+
+	/**
+	 * Weakly consistent iterator over the slots of the segments. A slot is
+	 * only read when the next task is asked for, so a task removed before
+	 * that is not returned.
+	 */
+	private static class SegmentIterator implements Iterator<Task> {
+
+		private final Iterator<Segment> segments;
+		private Segment current;
+		private int slot;
+		private Task next;
+
+		private SegmentIterator(Iterator<Segment> segments) {
+			this.segments = segments;
+		}
+
+		private void advance() {
+			while (next == null) {
+				if (current == null || slot >= current.slots.length()) {
+					if (!segments.hasNext()) {
+						return;
+					}
+					current = segments.next();
+					slot = 0;
+				}
+				next = current.slots.get(slot++);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			// slots are read lazily so that removals before this call are seen
+			advance();
+			return next != null;
+		}
+
+		@Override
+		public Task next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Task task = next;
+			next = null;
+			return task;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrentTaskStore [size=" + size() + ", segments=" + getSegmentCount() + "]";
+	}
+}
@@ -1,58 +1,200 @@
 package org.fogbowcloud.blowout.pool;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.scheduler.Scheduler;
+import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskGenerator;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.core.model.task.TaskTimestamps;
 import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
 
 public class DefaultBlowoutPool implements BlowoutPool {
-	
+
 	private static final Logger LOGGER = Logger.getLogger(DefaultBlowoutPool.class);
 
+	private static final String ACT_THREAD_NAME = "blowout-pool-act";
+
+	private final Queue<PoolEvent> pendingEvents;
+	private final AtomicBoolean actScheduled;
+	private final boolean createsActExecutor;
+	private ExecutorService actExecutor;
+
 	private Map<String, AbstractResource> resourcePool;
-	private List<Task> taskPool;
+	private ConcurrentTaskStore taskStore;
+	private Map<Specification, ReadyQueue> readyTasks;
+	private final AtomicInteger readyTaskCount;
+	private Set<String> runningTaskIds;
+	private Map<String, GeneratedTasks> taskGenerators;
 	private InfrastructureManager infraManager;
 	private Scheduler scheduler;
 
+	public DefaultBlowoutPool() {
+		this(null);
+	}
+
+	/**
+	 * @param actExecutor executor that runs the scheduling loop. It must run one
+	 *                    submission at a time, a single thread executor is created
+	 *                    on each start when none is given. A given executor is
+	 *                    shut down on stop, so the pool cannot be started again.
+	 */
+	public DefaultBlowoutPool(ExecutorService actExecutor) {
+		this.pendingEvents = new ConcurrentLinkedQueue<>();
+		this.actScheduled = new AtomicBoolean(false);
+		this.createsActExecutor = actExecutor == null;
+		this.actExecutor = actExecutor;
+		this.taskStore = new ConcurrentTaskStore();
+		this.readyTasks = new ConcurrentHashMap<>();
+		this.readyTaskCount = new AtomicInteger();
+		this.runningTaskIds = ConcurrentHashMap.newKeySet();
+		this.taskGenerators = new ConcurrentHashMap<>();
+	}
+
 	@Override
 	public void start(InfrastructureManager infraManager, Scheduler scheduler) {
 		this.resourcePool = new ConcurrentHashMap<>();
-		this.taskPool = new CopyOnWriteArrayList<>();
+		resetTaskStorage();
+		this.readyTasks.clear();
+		this.readyTaskCount.set(0);
+		this.runningTaskIds.clear();
+		this.taskGenerators.clear();
 		this.infraManager = infraManager;
 		this.scheduler = scheduler;
+		// a run dropped when the pool was stopped must not hold the next ones back
+		this.actScheduled.set(false);
+		if (this.createsActExecutor && this.actExecutor == null) {
+			this.actExecutor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread actThread = new Thread(runnable, ACT_THREAD_NAME);
+				actThread.setDaemon(true);
+				return actThread;
+			});
+		}
+		if (!this.pendingEvents.isEmpty()) {
+			scheduleAct();
+		}
+	}
+
+	@Override
+	public void stop() {
+		LOGGER.info("Stopping the scheduling loop of the pool.");
+		if (this.actExecutor != null) {
+			this.actExecutor.shutdownNow();
+		}
+		if (this.createsActExecutor) {
+			this.actExecutor = null;
+		}
 	}
 
 	@Override
 	public void addResource(AbstractResource resource) {
 		resource.setState(ResourceState.IDLE);
 		resourcePool.put(resource.getId(), resource);
-		callAct();
+		publish(PoolEvent.Type.RESOURCES_CHANGED, resource);
 	}
-	
+
 	@Override
 	public void addResourceList(List<AbstractResource> resources) {
 		for (AbstractResource resource : resources) {
 			resource.setState(ResourceState.IDLE);
 			resourcePool.put(resource.getId(), resource);
 		}
-		callAct();
+		publish(PoolEvent.Type.RESOURCES_CHANGED, null);
 	}
 
 	@Override
 	public void updateResource(AbstractResource resource, ResourceState state) {
 		AbstractResource currentResource = resourcePool.get(resource.getId());
 		if (currentResource != null) {
+			ResourceState previousState = currentResource.getState();
 			currentResource.setState(state);
 			resourcePool.put(resource.getId(), currentResource);
+
+			if (isLive(previousState) == isLive(state)) {
+				publish(PoolEvent.Type.RESOURCE_STATE_CHANGED, currentResource);
+			} else {
+				publish(PoolEvent.Type.RESOURCES_CHANGED, currentResource);
+			}
+		}
+	}
+
+	/**
+	 * Live resources are the ones taken into account when the infrastructure
+	 * demand is computed, so moving a resource in or out of this set is the only
+	 * state change that requires the infrastructure manager to act again.
+	 */
+	private boolean isLive(ResourceState state) {
+		return ResourceState.IDLE.equals(state) || ResourceState.BUSY.equals(state)
+				|| ResourceState.FAILED.equals(state);
+	}
+
+	private void publish(PoolEvent.Type type, AbstractResource resource) {
+		pendingEvents.add(new PoolEvent(type, resource));
+		scheduleAct();
+	}
+
+	private void scheduleAct() {
+		if (actExecutor == null || scheduler == null) {
+			return;
+		}
+		if (actScheduled.compareAndSet(false, true)) {
+			try {
+				actExecutor.execute(this::processEvents);
+			} catch (RejectedExecutionException e) {
+				actScheduled.set(false);
+				LOGGER.warn("Scheduling loop is not running, the pool events will not be processed.");
+			}
+		}
+	}
+
+	/**
+	 * Drains every event published since the last run. Events are coalesced, so
+	 * a burst of mutations triggers a single act: a full one when tasks or the set
+	 * of live resources changed, otherwise the scheduler only acts on the
+	 * resources whose state changed.
+	 */
+	protected void processEvents() {
+		actScheduled.set(false);
+
+		boolean fullActRequired = false;
+		Map<String, AbstractResource> changedResources = new LinkedHashMap<>();
+		PoolEvent event;
+		while ((event = pendingEvents.poll()) != null) {
+			if (PoolEvent.Type.RESOURCE_STATE_CHANGED.equals(event.getType())) {
+				changedResources.put(event.getResource().getId(), event.getResource());
+			} else {
+				fullActRequired = true;
+			}
+		}
+
+		if (fullActRequired) {
 			callAct();
+		} else if (!changedResources.isEmpty()) {
+			List<AbstractResource> resources = new ArrayList<>();
+			for (AbstractResource resource : changedResources.values()) {
+				if (resourcePool.containsKey(resource.getId())) {
+					resources.add(resource);
+				}
+			}
+			callActOnResources(resources);
 		}
 	}
 
@@ -60,13 +202,25 @@ public class DefaultBlowoutPool implements BlowoutPool {
 		try {
 			LOGGER.debug("Calling act from the Thread " + Thread.currentThread().getId() +
 					" of entity: " + Thread.currentThread().getName());
-			infraManager.act(getAllResources(), getAllTasks());
-			scheduler.act(getAllTasks(), getAllResources());
+			List<AbstractResource> resources = getAllResources();
+			List<Task> tasks = liveTasks();
+			infraManager.act(resources, tasks);
+			scheduler.act(tasks, resources);
 		} catch (Exception e) {
 			LOGGER.error("Error while calling act", e);
 		}
 	}
 
+	protected synchronized void callActOnResources(List<AbstractResource> resources) {
+		try {
+			LOGGER.debug("Calling act on " + resources.size() + " changed resources from the Thread "
+					+ Thread.currentThread().getId() + " of entity: " + Thread.currentThread().getName());
+			scheduler.actOnResources(liveTasks(), resources);
+		} catch (Exception e) {
+			LOGGER.error("Error while calling act on changed resources", e);
+		}
+	}
+
 	@Override
 	public List<AbstractResource> getAllResources() {
 		return new ArrayList<>(resourcePool.values());
@@ -82,54 +236,263 @@ public class DefaultBlowoutPool implements BlowoutPool {
 		resourcePool.remove(resource.getId());
 	}
 
+	@Override
+	public boolean claimIdleResource(AbstractResource resource) {
+		AbstractResource currentResource = resourcePool.get(resource.getId());
+		if (currentResource == null || !currentResource.markToRemoveIfIdle()) {
+			return false;
+		}
+		publish(PoolEvent.Type.RESOURCES_CHANGED, currentResource);
+		return true;
+	}
+
+	@Override
+	public void resumeScheduling() {
+		for (AbstractResource resource : resourcePool.values()) {
+			if (ResourceState.IDLE.equals(resource.getState())) {
+				publish(PoolEvent.Type.RESOURCE_STATE_CHANGED, resource);
+			}
+		}
+	}
+
 	@Override
 	public void addTask(Task task) {
 
-		taskPool.add(task);
-		callAct();
+		task.recordEvent(TaskTimestamps.Event.SUBMITTED);
+		for (Task storedTask : storeTasks(Collections.singletonList(task))) {
+			enqueueReadyTask(storedTask, false);
+		}
+		publish(PoolEvent.Type.TASKS_CHANGED, null);
 	}
 
 	@Override
 	public void addTasks(List<Task> tasks) {
-		taskPool.addAll(tasks);
+		for (Task task : tasks) {
+			task.recordEvent(TaskTimestamps.Event.SUBMITTED);
+		}
+		for (Task storedTask : storeTasks(tasks)) {
+			enqueueReadyTask(storedTask, false);
+		}
 		LOGGER.info("The tasks that references the job " + Thread.currentThread().getName() +
 				" was added to the Pool.");
-		callAct();
+		publish(PoolEvent.Type.TASKS_CHANGED, null);
 	}
 
+	/**
+	 * Only a window of the tasks of a generator are in the pool at a time. A
+	 * generated task leaves the pool when it finishes, giving its place to the
+	 * next task of the generator.
+	 */
 	@Override
-	public List<Task> getAllTasks() {
-		return new ArrayList<>(taskPool);
+	public void addTaskGenerator(TaskGenerator generator, int window) {
+		GeneratedTasks generatedTasks = new GeneratedTasks(generator, window);
+		taskGenerators.put(generator.getId(), generatedTasks);
+		LOGGER.info("Task generator " + generator.getId() + " with " + generator.size()
+				+ " tasks was added to the Pool.");
+		addGeneratedTasks(generatedTasks);
 	}
 
 	@Override
-	public Task getTaskById(String taskId) {
-		for(int i = 0; i <= taskPool.size(); i++) {
-			if(taskPool.get(i).getId().equals(taskId)) {
-				return taskPool.get(i);
+	public TaskState getGeneratedTaskState(String taskId) {
+		for (GeneratedTasks generatedTasks : taskGenerators.values()) {
+			TaskState state = generatedTasks.getState(taskId);
+			if (state != null) {
+				return state;
 			}
 		}
 		return null;
 	}
 
+	private void addGeneratedTasks(GeneratedTasks generatedTasks) {
+		List<Task> tasks = generatedTasks.materialize();
+		if (tasks.isEmpty()) {
+			return;
+		}
+		for (Task task : tasks) {
+			task.recordEvent(TaskTimestamps.Event.SUBMITTED);
+		}
+		for (Task storedTask : storeTasks(tasks)) {
+			enqueueReadyTask(storedTask, false);
+		}
+		publish(PoolEvent.Type.TASKS_CHANGED, null);
+	}
+
+	private void completeGeneratedTask(Task task) {
+		for (GeneratedTasks generatedTasks : taskGenerators.values()) {
+			if (generatedTasks.complete(task.getId())) {
+				discardTasks(Collections.singletonList(task));
+				addGeneratedTasks(generatedTasks);
+				return;
+			}
+		}
+	}
+
+	private void discardGeneratedTasks(Collection<Task> tasks) {
+		if (taskGenerators.isEmpty()) {
+			return;
+		}
+		for (Task task : tasks) {
+			for (GeneratedTasks generatedTasks : taskGenerators.values()) {
+				if (generatedTasks.discard(task.getId())) {
+					addGeneratedTasks(generatedTasks);
+					break;
+				}
+			}
+		}
+	}
+
+	@Override
+	public List<Task> getAllTasks() {
+		return snapshotTasks();
+	}
+
+	@Override
+	public int getTaskCount() {
+		return countTasks();
+	}
+
+	/**
+	 * Counts the entries of the ready queues and the tasks taken from them
+	 * and not released yet, so finished tasks waiting to be cleaned are not
+	 * counted.
+	 */
+	@Override
+	public int getUnfinishedTaskCount() {
+		return readyTaskCount.get() + runningTaskIds.size();
+	}
+
+	@Override
+	public Task getTaskById(String taskId) {
+		return findTask(taskId);
+	}
+
 	@Override
 	public void removeTask(Task task) {
-		taskPool.remove(task);
-		callAct();
+		discardTasks(Collections.singletonList(task));
+		dequeueTask(task);
+		discardGeneratedTasks(Collections.singletonList(task));
+		publish(PoolEvent.Type.TASKS_CHANGED, null);
 	}
 
 	@Override
 	public void removeTasks(List<Task> tasks){
 		LOGGER.info("Removing list of tasks");
+		discardTasks(tasks);
 		for(Task taskToRemove : tasks){
-			for(Task task : taskPool){
-				if(task.getId().equals(taskToRemove.getId())){
-					taskPool.remove(task);
-				}
-			}
+			dequeueTask(taskToRemove);
 		}
+		discardGeneratedTasks(tasks);
 		scheduler.stopTasks(tasks);
-		callAct();
+		publish(PoolEvent.Type.TASKS_CHANGED, null);
+	}
+
+	@Override
+	public Task pollReadyTask(Specification specification) {
+		ReadyQueue queue = readyTasks.get(specification);
+		if (queue == null) {
+			return null;
+		}
+		Task task;
+		while ((task = queue.poll()) != null) {
+			readyTaskCount.decrementAndGet();
+			if (task.isFinished()) {
+				// a generated task that finished gives its place to the next one
+				releaseTask(task);
+			} else if (runningTaskIds.add(task.getId())) {
+				return task;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void releaseTask(Task task) {
+		if (runningTaskIds.remove(task.getId()) && !task.isFinished()) {
+			LOGGER.debug("Task " + task.getId() + " was released and is ready to run again.");
+			enqueueReadyTask(task, true);
+			return;
+		}
+		ReadyQueue queue = readyTasks.get(task.getSpecification());
+		if (queue != null) {
+			queue.forget(task);
+		}
+		if (task.isFinished() && !taskGenerators.isEmpty()) {
+			completeGeneratedTask(task);
+		}
+	}
+
+	/**
+	 * Ready tasks are kept in one queue per specification, so matching an idle
+	 * resource to a task is a poll on the queue of the specification the
+	 * resource was requested with. The scheduler sets the order of the queues,
+	 * {@link FifoReadyQueue} when it has none. Released tasks take back the
+	 * place they had in their queue.
+	 */
+	private void enqueueReadyTask(Task task, boolean released) {
+		if (task.isFinished()) {
+			return;
+		}
+		ReadyQueue queue = readyTasks.computeIfAbsent(task.getSpecification(), spec -> newReadyQueue());
+		readyTaskCount.incrementAndGet();
+		queue.add(task, released);
+	}
+
+	private ReadyQueue newReadyQueue() {
+		ReadyQueue queue = scheduler != null ? scheduler.newReadyQueue() : null;
+		return queue != null ? queue : new FifoReadyQueue();
+	}
+
+	private void dequeueTask(Task task) {
+		runningTaskIds.remove(task.getId());
+		ReadyQueue queue = readyTasks.get(task.getSpecification());
+		if (queue != null && queue.remove(task)) {
+			readyTaskCount.decrementAndGet();
+		}
+	}
+
+	/*
+	 * Task storage hooks. The tasks are kept in a ConcurrentTaskStore, so adding
+	 * a chunk of tasks appends it instead of copying the whole pool. Subclasses
+	 * may keep the tasks in a different structure by overriding all of them;
+	 * the ready queues and the scheduling loop do not depend on how the tasks
+	 * are stored.
+	 */
+
+	protected void resetTaskStorage() {
+		this.taskStore = new ConcurrentTaskStore();
+	}
+
+	/**
+	 * @return the tasks as they were stored, which are the ones put in the
+	 * ready queues.
+	 */
+	protected Collection<Task> storeTasks(Collection<Task> tasks) {
+		taskStore.addAll(tasks);
+		return tasks;
+	}
+
+	protected void discardTasks(Collection<Task> tasks) {
+		taskStore.removeAll(tasks);
+	}
+
+	protected Task findTask(String taskId) {
+		return taskStore.get(taskId);
+	}
+
+	protected int countTasks() {
+		return taskStore.size();
+	}
+
+	protected List<Task> snapshotTasks() {
+		return taskStore.snapshot();
+	}
+
+	/**
+	 * @return a read only view of the tasks, used when acting; it does not
+	 * need to be a copy.
+	 */
+	protected List<Task> liveTasks() {
+		return taskStore.view();
 	}
 
 	protected InfrastructureManager getInfraManager() {
@@ -157,10 +520,45 @@ public class DefaultBlowoutPool implements BlowoutPool {
 	}
 
 	protected List<Task> getTaskPool() {
-		return taskPool;
+		return taskStore.view();
 	}
 
 	protected void setTaskPool(List<Task> taskPool) {
-		this.taskPool = taskPool;
+		resetTaskStorage();
+		storeTasks(taskPool);
+		resetReadyTasks(taskPool);
+	}
+
+
+	protected void resetReadyTasks(Collection<Task> tasks) {
+		this.readyTasks.clear();
+		this.readyTaskCount.set(0);
+		this.runningTaskIds.clear();
+		for (Task task : tasks) {
+			enqueueReadyTask(task, false);
+		}
+	}
+
+	protected static class PoolEvent {
+
+		protected enum Type {
+			TASKS_CHANGED, RESOURCES_CHANGED, RESOURCE_STATE_CHANGED
+		}
+
+		private final Type type;
+		private final AbstractResource resource;
+
+		protected PoolEvent(Type type, AbstractResource resource) {
+			this.type = type;
+			this.resource = resource;
+		}
+
+		protected Type getType() {
+			return type;
+		}
+
+		protected AbstractResource getResource() {
+			return resource;
+		}
 	}
 }
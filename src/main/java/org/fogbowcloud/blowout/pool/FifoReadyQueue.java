@@ -0,0 +1,43 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import org.fogbowcloud.blowout.core.model.task.Task;
+
+/**
+ * Ready tasks in the order they were added, so matching an idle resource to a
+ * task is a single poll. Released tasks go back to the head of the queue to
+ * keep their original order.
+ */
+public class FifoReadyQueue implements ReadyQueue {
+
+	private final Deque<Task> tasks;
+
+	public FifoReadyQueue() {
+		this.tasks = new ConcurrentLinkedDeque<>();
+	}
+
+	@Override
+	public void add(Task task, boolean released) {
+		if (released) {
+			this.tasks.offerFirst(task);
+		} else {
+			this.tasks.offerLast(task);
+		}
+	}
+
+	@Override
+	public Task poll() {
+		return this.tasks.pollFirst();
+	}
+
+	@Override
+	public boolean remove(Task task) {
+		return this.tasks.remove(task);
+	}
+
+	@Override
+	public void forget(Task task) {
+	}
+}
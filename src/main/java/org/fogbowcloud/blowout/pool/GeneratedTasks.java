@@ -0,0 +1,99 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskGenerator;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+
+/**
+ * Progress of a {@link TaskGenerator} in the pool: the index of the next task
+ * to generate, the generated tasks not finished yet, at most a window of them,
+ * and one bit per task telling whether it finished.
+ */
+class GeneratedTasks {
+
+	private final TaskGenerator generator;
+	private final int window;
+	private final BitSet completed;
+	private final Map<String, Integer> outstanding;
+	private int next;
+	private int completedCount;
+
+	GeneratedTasks(TaskGenerator generator, int window) {
+		this.generator = generator;
+		this.window = Math.max(1, window);
+		this.completed = new BitSet(generator.size());
+		this.outstanding = new HashMap<>();
+	}
+
+	/**
+	 * @return the next tasks of the generator, as many as fit in the window.
+	 */
+	synchronized List<Task> materialize() {
+		List<Task> tasks = new ArrayList<>();
+		int size = this.generator.size();
+		while (this.outstanding.size() < this.window && this.next < size) {
+			Task task = this.generator.generate(this.next);
+			this.outstanding.put(task.getId(), this.next);
+			this.next++;
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	/**
+	 * Marks a generated task as finished, freeing its place in the window.
+	 *
+	 * @return false if the task is not an outstanding task of the generator.
+	 */
+	synchronized boolean complete(String taskId) {
+		Integer index = this.outstanding.remove(taskId);
+		if (index == null) {
+			return false;
+		}
+		this.completed.set(index);
+		this.completedCount++;
+		return true;
+	}
+
+	/**
+	 * Frees the place in the window of a generated task removed from the pool.
+	 */
+	synchronized boolean discard(String taskId) {
+		return this.outstanding.remove(taskId) != null;
+	}
+
+	/**
+	 * @return the state of a task of the generator given its id, or null if
+	 *         the generator does not have it.
+	 */
+	synchronized TaskState getState(String taskId) {
+		String prefix = this.generator.getId() + "-";
+		if (!taskId.startsWith(prefix)) {
+			return null;
+		}
+		int index;
+		try {
+			index = Integer.parseInt(taskId.substring(prefix.length()));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		if (index < 0 || index >= this.generator.size()) {
+			return null;
+		}
+		return this.completed.get(index) ? TaskState.COMPLETED : TaskState.READY;
+	}
+
+	synchronized int getCompletedCount() {
+		return this.completedCount;
+	}
+
+	TaskGenerator getGenerator() {
+		return this.generator;
+	}
+}
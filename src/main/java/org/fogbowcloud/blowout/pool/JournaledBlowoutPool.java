@@ -0,0 +1,211 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.core.model.resource.ResourceState;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskGenerator;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.database.TaskJournal;
+import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
+import org.fogbowcloud.blowout.scheduler.Scheduler;
+
+/**
+ * Records the task changes of another pool in a {@link TaskJournal}. On start
+ * the tasks recovered from the journal are given back to the pool, which
+ * then becomes the source of the journal snapshots. A snapshot waits for the
+ * tasks being submitted to reach the pool, so it never misses a task whose
+ * records it compacts.
+ */
+public class JournaledBlowoutPool implements BlowoutPool {
+
+	private static final Logger LOGGER = Logger.getLogger(JournaledBlowoutPool.class);
+
+	private final BlowoutPool pool;
+	private final TaskJournal taskJournal;
+	private final List<Task> recoveredTasks;
+	private final ReadWriteLock submissionLock;
+
+	public JournaledBlowoutPool(BlowoutPool pool, TaskJournal taskJournal, List<Task> recoveredTasks) {
+		this.pool = pool;
+		this.taskJournal = taskJournal;
+		this.recoveredTasks = new ArrayList<>(recoveredTasks);
+		this.submissionLock = new ReentrantReadWriteLock();
+	}
+
+	@Override
+	public void start(InfrastructureManager infraManager, Scheduler scheduler) {
+		this.pool.start(infraManager, scheduler);
+		if (!this.recoveredTasks.isEmpty()) {
+			LOGGER.info("Adding " + this.recoveredTasks.size() + " tasks recovered from the task journal.");
+			this.pool.addTasks(this.recoveredTasks);
+			this.recoveredTasks.clear();
+		}
+		this.taskJournal.setSnapshotSource(this::snapshotTasks);
+	}
+
+	/**
+	 * @return the tasks of the pool once no submission is in flight, so every
+	 *         task journaled before the snapshot is in it. The tasks of a
+	 *         generator are left out, as they are generated again when the
+	 *         generator is added again.
+	 */
+	private List<Task> snapshotTasks() {
+		List<Task> tasks;
+		this.submissionLock.writeLock().lock();
+		try {
+			tasks = this.pool.getAllTasks();
+		} finally {
+			this.submissionLock.writeLock().unlock();
+		}
+		List<Task> journaledTasks = new ArrayList<>(tasks.size());
+		for (Task task : tasks) {
+			if (this.pool.getGeneratedTaskState(task.getId()) == null) {
+				journaledTasks.add(task);
+			}
+		}
+		return journaledTasks;
+	}
+
+	@Override
+	public void stop() {
+		this.pool.stop();
+	}
+
+	@Override
+	public void addResource(AbstractResource resource) {
+		this.pool.addResource(resource);
+	}
+
+	@Override
+	public void addResourceList(List<AbstractResource> resources) {
+		this.pool.addResourceList(resources);
+	}
+
+	@Override
+	public void updateResource(AbstractResource resource, ResourceState state) {
+		this.pool.updateResource(resource, state);
+	}
+
+	@Override
+	public List<AbstractResource> getAllResources() {
+		return this.pool.getAllResources();
+	}
+
+	@Override
+	public AbstractResource getResourceById(String resourceId) {
+		return this.pool.getResourceById(resourceId);
+	}
+
+	@Override
+	public void removeResource(AbstractResource resource) {
+		this.pool.removeResource(resource);
+	}
+
+	@Override
+	public boolean claimIdleResource(AbstractResource resource) {
+		return this.pool.claimIdleResource(resource);
+	}
+
+	@Override
+	public void resumeScheduling() {
+		this.pool.resumeScheduling();
+	}
+
+	@Override
+	public void addTask(Task task) {
+		this.submissionLock.readLock().lock();
+		try {
+			this.taskJournal.submitted(task);
+			this.pool.addTask(task);
+		} finally {
+			this.submissionLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void addTasks(List<Task> tasks) {
+		this.submissionLock.readLock().lock();
+		try {
+			this.taskJournal.submitted(tasks);
+			this.pool.addTasks(tasks);
+		} finally {
+			this.submissionLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The tasks of a generator are neither journaled nor kept in snapshots,
+	 * they are generated again when the generator is added again.
+	 */
+	@Override
+	public void addTaskGenerator(TaskGenerator generator, int window) {
+		this.pool.addTaskGenerator(generator, window);
+	}
+
+	@Override
+	public TaskState getGeneratedTaskState(String taskId) {
+		return this.pool.getGeneratedTaskState(taskId);
+	}
+
+	@Override
+	public List<Task> getAllTasks() {
+		return this.pool.getAllTasks();
+	}
+
+	@Override
+	public int getTaskCount() {
+		return this.pool.getTaskCount();
+	}
+
+	@Override
+	public int getUnfinishedTaskCount() {
+		return this.pool.getUnfinishedTaskCount();
+	}
+
+	@Override
+	public Task getTaskById(String taskId) {
+		return this.pool.getTaskById(taskId);
+	}
+
+	@Override
+	public void removeTask(Task task) {
+		this.pool.removeTask(task);
+		this.taskJournal.removed(task);
+	}
+
+	@Override
+	public void removeTasks(List<Task> tasks) {
+		this.pool.removeTasks(tasks);
+		for (Task task : tasks) {
+			this.taskJournal.removed(task);
+		}
+	}
+
+	@Override
+	public Task pollReadyTask(Specification specification) {
+		return this.pool.pollReadyTask(specification);
+	}
+
+	@Override
+	public void releaseTask(Task task) {
+		this.pool.releaseTask(task);
+		if (!task.isFinished()) {
+			this.taskJournal.stateChanged(task, TaskState.READY);
+		}
+	}
+
+	public BlowoutPool getPool() {
+		return this.pool;
+	}
+
+	public TaskJournal getTaskJournal() {
+		return this.taskJournal;
+	}
+}
@@ -0,0 +1,37 @@
+package org.fogbowcloud.blowout.pool;
+
+import org.fogbowcloud.blowout.core.model.task.Task;
+
+/**
+ * Ready tasks of a specification, in the order the pool hands them to the
+ * scheduler. The pool keeps one per specification and owns which tasks are
+ * ready or running; the queue only decides which ready task comes next.
+ * Implementations must be thread safe, tasks are added while the scheduler
+ * polls them.
+ */
+public interface ReadyQueue {
+
+	/**
+	 * Adds a ready task. A released task was polled before and is given back
+	 * to run again, so it takes back the place it had.
+	 */
+	void add(Task task, boolean released);
+
+	/**
+	 * @return the next ready task, which is removed from the queue, or null
+	 *         when there is none.
+	 */
+	Task poll();
+
+	/**
+	 * Removes a task that left the pool.
+	 *
+	 * @return true if the task was in the queue.
+	 */
+	boolean remove(Task task);
+
+	/**
+	 * Forgets a polled task that will not be given back, as it finished.
+	 */
+	void forget(Task task);
+}
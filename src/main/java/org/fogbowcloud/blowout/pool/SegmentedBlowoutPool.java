@@ -0,0 +1,20 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Blowout pool that keeps its tasks in a {@link ConcurrentTaskStore}, so adding
+ * or removing a task does not copy the whole pool. The {@link DefaultBlowoutPool}
+ * stores its tasks the same way; this class is kept for the configurations
+ * that name it.
+ */
+public class SegmentedBlowoutPool extends DefaultBlowoutPool {
+
+	public SegmentedBlowoutPool() {
+		this(null);
+	}
+
+	public SegmentedBlowoutPool(ExecutorService actExecutor) {
+		super(actExecutor);
+	}
+}
@@ -0,0 +1,47 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.function.IntSupplier;
+
+import org.fogbowcloud.blowout.core.model.task.Task;
+
+/**
+ * Read only list over the tasks of a store that copies nothing: it iterates
+ * the store each time it is read, so it sees the tasks added or removed since
+ * it was created. Iterating is weakly consistent, as the store iterator is,
+ * and getting a task by index walks the store up to it.
+ */
+class TaskListView extends AbstractList<Task> {
+
+	private final Iterable<Task> tasks;
+	private final IntSupplier size;
+
+	TaskListView(Iterable<Task> tasks, IntSupplier size) {
+		this.tasks = tasks;
+		this.size = size;
+	}
+
+	@Override
+	public Iterator<Task> iterator() {
+		return this.tasks.iterator();
+	}
+
+	@Override
+	public Task get(int index) {
+		if (index >= 0) {
+			int position = 0;
+			for (Task task : this.tasks) {
+				if (position++ == index) {
+					return task;
+				}
+			}
+		}
+		throw new IndexOutOfBoundsException("Index: " + index);
+	}
+
+	@Override
+	public int size() {
+		return this.size.getAsInt();
+	}
+}
@@ -0,0 +1,140 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+import org.fogbowcloud.blowout.core.model.task.Task;
+
+/**
+ * Adds a stream of tasks to a pool in chunks, each added at once so it costs
+ * a single act of the pool. Before each chunk it waits while the pool holds
+ * too many unfinished tasks or the heap is too full, so a producer faster
+ * than the scheduler does not take all the memory. Finished tasks do not
+ * hold the submission back, so a client does not need to clean them while
+ * it submits.
+ */
+public class TaskStreamSubmitter {
+
+	private static final Logger LOGGER = Logger.getLogger(TaskStreamSubmitter.class);
+
+	protected static final int DEFAULT_CHUNK_SIZE = 1000;
+	protected static final int DEFAULT_MAX_UNFINISHED_TASKS = 100000;
+	protected static final double DEFAULT_MAX_HEAP_USAGE = 0.8;
+	protected static final long WAIT_PERIOD = 50;
+
+	private final BlowoutPool blowoutPool;
+	private final int chunkSize;
+	private final int maxUnfinishedTasks;
+	private final double maxHeapUsage;
+
+	public TaskStreamSubmitter(BlowoutPool blowoutPool, Properties properties) {
+		this(blowoutPool,
+				Integer.parseInt(properties.getProperty(AppPropertiesConstants.TASK_SUBMISSION_CHUNK_SIZE,
+						String.valueOf(DEFAULT_CHUNK_SIZE))),
+				Integer.parseInt(properties.getProperty(AppPropertiesConstants.TASK_SUBMISSION_MAX_UNFINISHED_TASKS,
+						String.valueOf(DEFAULT_MAX_UNFINISHED_TASKS))),
+				Double.parseDouble(properties.getProperty(AppPropertiesConstants.TASK_SUBMISSION_MAX_HEAP_USAGE,
+						String.valueOf(DEFAULT_MAX_HEAP_USAGE))));
+	}
+
+	/**
+	 * @param maxUnfinishedTasks
+	 *            ready and running tasks in the pool from which submission
+	 *            waits, 0 for no limit; a chunk may take the pool over it.
+	 * @param maxHeapUsage
+	 *            fraction of the maximum heap still in use after the last
+	 *            garbage collection above which submission waits, 0 for no
+	 *            limit.
+	 */
+	public TaskStreamSubmitter(BlowoutPool blowoutPool, int chunkSize, int maxUnfinishedTasks,
+			double maxHeapUsage) {
+		this.blowoutPool = blowoutPool;
+		this.chunkSize = Math.max(1, chunkSize);
+		this.maxUnfinishedTasks = maxUnfinishedTasks;
+		this.maxHeapUsage = maxHeapUsage;
+	}
+
+	/**
+	 * Adds every task of the iterator to the pool, reading it a chunk at a
+	 * time.
+	 *
+	 * @return the number of tasks added.
+	 */
+	public long submit(Iterator<? extends Task> tasks) throws InterruptedException {
+		long submitted = 0;
+		List<Task> chunk = new ArrayList<>(this.chunkSize);
+		while (tasks.hasNext()) {
+			waitForRoom();
+			while (chunk.size() < this.chunkSize && tasks.hasNext()) {
+				chunk.add(tasks.next());
+			}
+			this.blowoutPool.addTasks(chunk);
+			submitted += chunk.size();
+			chunk = new ArrayList<>(this.chunkSize);
+		}
+		LOGGER.debug(submitted + " tasks of a stream were added to the pool.");
+		return submitted;
+	}
+
+	private void waitForRoom() throws InterruptedException {
+		boolean waited = false;
+		while (isPoolFull() || isHeapFull()) {
+			if (!waited) {
+				LOGGER.debug("Waiting for room in the pool to submit more tasks.");
+				waited = true;
+			}
+			Thread.sleep(WAIT_PERIOD);
+		}
+	}
+
+	protected boolean isPoolFull() {
+		return this.maxUnfinishedTasks > 0 && this.blowoutPool.getUnfinishedTaskCount() >= this.maxUnfinishedTasks;
+	}
+
+	/**
+	 * Compares the heap in use after the last garbage collection, not the
+	 * heap in use now, which holds garbage until it is collected. The heap is
+	 * full again only once a collection finds it so, and a submission waiting
+	 * for room goes on after the first collection that brings it under the
+	 * limit.
+	 */
+	protected boolean isHeapFull() {
+		if (this.maxHeapUsage <= 0) {
+			return false;
+		}
+		return heapUsedAfterCollection() > this.maxHeapUsage * Runtime.getRuntime().maxMemory();
+	}
+
+	/**
+	 * @return the heap in use after the last collection of each heap pool,
+	 *         or the heap in use now if the JVM does not report it.
+	 */
+	protected static long heapUsedAfterCollection() {
+		long used = 0;
+		boolean reported = false;
+		for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage usage = MemoryType.HEAP.equals(memoryPool.getType()) ? memoryPool.getCollectionUsage() : null;
+			if (usage != null) {
+				used += usage.getUsed();
+				reported = true;
+			}
+		}
+		if (!reported) {
+			Runtime runtime = Runtime.getRuntime();
+			used = runtime.totalMemory() - runtime.freeMemory();
+		}
+		return used;
+	}
+
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+}
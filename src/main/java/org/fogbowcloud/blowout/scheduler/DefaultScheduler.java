@@ -1,26 +1,34 @@
 package org.fogbowcloud.blowout.scheduler;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.blowout.core.model.task.Task;
 import org.fogbowcloud.blowout.core.model.task.TaskProcess;
 import org.fogbowcloud.blowout.core.model.task.TaskProcessImpl;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
 import org.fogbowcloud.blowout.core.monitor.TaskMonitor;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.pool.BlowoutPool;
 
 public class DefaultScheduler implements Scheduler {
 	private static final Logger LOGGER = Logger.getLogger(DefaultScheduler.class);
 
-	private Map<AbstractResource, Task> runningTasks;
+	private Map<Task, AbstractResource> runningTasks;
+	private Map<AbstractResource, Set<Task>> tasksByResource;
 	private TaskMonitor taskMonitor;
 
 	public DefaultScheduler(TaskMonitor taskMonitor) {
 		this.runningTasks = new ConcurrentHashMap<>();
+		this.tasksByResource = new ConcurrentHashMap<>();
 		this.taskMonitor = taskMonitor;
 	}
 
@@ -28,21 +36,46 @@ public class DefaultScheduler implements Scheduler {
 	public void act(List<Task> tasksPool, List<AbstractResource> resourcesPool) {
 		LOGGER.debug("Calling act from the Thread " + Thread.currentThread().getId() +
 				" of entity: " + Thread.currentThread().getName());
-		LOGGER.debug("Task Pool in Scheduler Act: " + toStringTasks(tasksPool));
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Task Pool in Scheduler Act: " + toStringTasks(tasksPool));
+		}
 		removeUselessTasks(tasksPool);
 		for (AbstractResource resource : resourcesPool) {
 			actOnResource(resource, tasksPool);
 		}
-		for (AbstractResource resourceInUse : this.runningTasks.keySet()) {
-			if (!resourcesPool.contains(resourceInUse)) {
-				stopTask(getTaskRunningInResource(resourceInUse));
+		Set<AbstractResource> resources = new HashSet<>(resourcesPool);
+		for (Entry<Task, AbstractResource> runningTask : this.runningTasks.entrySet()) {
+			if (!resources.contains(runningTask.getValue())) {
+				stopTask(runningTask.getKey());
 			}
 		}
 	}
 
+	@Override
+	public void actOnResources(List<Task> tasksPool, List<AbstractResource> resources) {
+		for (AbstractResource resource : resources) {
+			actOnResource(resource, tasksPool);
+		}
+	}
+
+	/**
+	 * Stops the running tasks that left the pool, looking them up by id in
+	 * the pool, or else in the given tasks, instead of scanning the list for
+	 * each running task.
+	 */
 	private void removeUselessTasks(List<Task> tasksPool){
-		for (Task runningTask : this.runningTasks.values()) {
-			if (!tasksPool.contains(runningTask)) {
+		BlowoutPool blowoutPool = this.taskMonitor.getBlowoutPool();
+		Set<String> taskIds = null;
+		if (blowoutPool == null) {
+			taskIds = new HashSet<>();
+			for (Task task : tasksPool) {
+				taskIds.add(task.getId());
+			}
+		}
+		for (Task runningTask : this.runningTasks.keySet()) {
+			boolean pooled = blowoutPool != null ? blowoutPool.getTaskById(runningTask.getId()) != null
+					: taskIds.contains(runningTask.getId());
+			if (!pooled) {
 				stopTask(runningTask);
 			}
 		}
@@ -57,31 +90,73 @@ public class DefaultScheduler implements Scheduler {
 	}
 
 
-	private Task getTaskRunningInResource(AbstractResource resource) {
-		return this.runningTasks.get(resource);
+	private Set<Task> getTasksRunningInResource(AbstractResource resource) {
+		Set<Task> tasks = this.tasksByResource.get(resource);
+		return tasks == null ? Collections.<Task>emptySet() : new HashSet<>(tasks);
 	}
 
+	/**
+	 * Fills the free slots of an idle resource with ready tasks, one task
+	 * per slot. A resource claimed for removal or drained meanwhile refuses
+	 * the tasks, which are then given back to the pool. No task is taken while
+	 * the task executor is saturated; the task monitor resumes scheduling once
+	 * it has room again.
+	 */
 	protected void actOnResource(AbstractResource resource, List<Task> tasks) {
 		if (resource.getState().equals(ResourceState.IDLE)) {
-			Task task = chooseTaskForRunning(resource, tasks);
-			if (task != null) {
+			releaseEndedTasks(resource);
+			int freeSlots = resource.getFreeSlots();
+			int startedTasks = 0;
+			while (startedTasks < freeSlots && ResourceState.IDLE.equals(resource.getState())) {
+				if (this.taskMonitor.isSaturated()) {
+					LOGGER.debug("Task executor is saturated, holding tasks back from resource "
+							+ resource.getId());
+					return;
+				}
+				Task task = chooseTaskForRunning(resource, tasks);
+				if (task == null) {
+					break;
+				}
 				LOGGER.info("Found task " + task.getId() + "for resource " + resource.getId());
 				runTask(task, resource);
-			} else {
+				startedTasks++;
+			}
+			if (startedTasks == 0) {
 				LOGGER.info("Not found task for resource " + resource.getId());
 			}
 		}
 		
 		if (resource.getState().equals(ResourceState.TO_REMOVE)) {
-			this.runningTasks.remove(resource);
+			for (Task task : getTasksRunningInResource(resource)) {
+				removeRunningTask(task);
+				releaseTask(task);
+			}
+		}
+	}
+
+	/**
+	 * Forgets the tasks of a resource that are no longer running on the task
+	 * monitor, giving the unfinished ones back to the pool to be retried.
+	 */
+	private void releaseEndedTasks(AbstractResource resource) {
+		for (Task task : getTasksRunningInResource(resource)) {
+			TaskState state = this.taskMonitor.getTaskState(task);
+			if (task.isFinished() || TaskState.READY.equals(state) || TaskState.COMPLETED.equals(state)) {
+				removeRunningTask(task);
+				releaseTask(task);
+			}
 		}
 	}
 
 	protected Task chooseTaskForRunning(AbstractResource resource, List<Task> tasks) {
 		LOGGER.debug("Choosing task for resource " + resource.getId());
+		BlowoutPool blowoutPool = this.taskMonitor.getBlowoutPool();
+		if (blowoutPool != null) {
+			return blowoutPool.pollReadyTask(resource.getRequestedSpec());
+		}
 		for (Task task : tasks) {
 			boolean isSameSpecification = resource.getRequestedSpec().equals(task.getSpecification());
-			if (!task.isFinished() && !this.runningTasks.containsValue(task) && isSameSpecification) {
+			if (!task.isFinished() && !this.runningTasks.containsKey(task) && isSameSpecification) {
 
 				return task;
 			}
@@ -98,10 +173,9 @@ public class DefaultScheduler implements Scheduler {
 
 	private void removeTasksOfRunningTasks(List<Task> tasksToRemove){
 		for(Task taskToRemove : tasksToRemove){
-			for (AbstractResource resource : this.runningTasks.keySet()) {
-				Task task = runningTasks.get(resource);
+			for (Task task : this.runningTasks.keySet()) {
 				if (task.getId().equals(taskToRemove.getId())) {
-					this.runningTasks.remove(resource);
+					removeRunningTask(task);
 				}
 			}
 		}
@@ -110,12 +184,28 @@ public class DefaultScheduler implements Scheduler {
 	@Override
 	public void stopTask(Task task) {
 		// TODO: Find out how to stop the execution of the process
-		for (AbstractResource resource : this.runningTasks.keySet()) {
-			if (this.runningTasks.get(resource).equals(task)) {
-				LOGGER.debug("Stopping task with id: " + task.getId());
-				this.taskMonitor.stopTask(task);
-				this.runningTasks.remove(resource);
-			}
+		if (this.runningTasks.containsKey(task)) {
+			LOGGER.debug("Stopping task with id: " + task.getId());
+			this.taskMonitor.stopTask(task);
+			removeRunningTask(task);
+			releaseTask(task);
+		}
+	}
+
+	private void removeRunningTask(Task task) {
+		AbstractResource resource = this.runningTasks.remove(task);
+		if (resource != null) {
+			this.tasksByResource.computeIfPresent(resource, (key, tasks) -> {
+				tasks.remove(task);
+				return tasks.isEmpty() ? null : tasks;
+			});
+		}
+	}
+
+	private void releaseTask(Task task) {
+		BlowoutPool blowoutPool = this.taskMonitor.getBlowoutPool();
+		if (task != null && blowoutPool != null) {
+			blowoutPool.releaseTask(task);
 		}
 	}
 
@@ -124,7 +214,9 @@ public class DefaultScheduler implements Scheduler {
 		task.setRetries(task.getRetries() + 1);
 		LOGGER.debug("Submitting task " + task.getId() + " to Task Monitor with " + task.getRetries() +
 				" retries.");
-		this.runningTasks.put(resource, task);
+		removeRunningTask(task);
+		this.runningTasks.put(task, resource);
+		addToResource(task, resource);
 
 		submitToMonitor(task, resource);
 	}
@@ -139,10 +231,22 @@ public class DefaultScheduler implements Scheduler {
 
 	@Override
 	public List<Task> getRunningTasks() {
-		return new ArrayList<>(runningTasks.values());
+		return new ArrayList<>(runningTasks.keySet());
 	}
 	
-	protected void setRunningTasks(Map<AbstractResource, Task> runningTasks) {
+	protected void setRunningTasks(Map<Task, AbstractResource> runningTasks) {
 		this.runningTasks = runningTasks;
+		this.tasksByResource.clear();
+		for (Entry<Task, AbstractResource> runningTask : runningTasks.entrySet()) {
+			addToResource(runningTask.getKey(), runningTask.getValue());
+		}
+	}
+
+	private void addToResource(Task task, AbstractResource resource) {
+		this.tasksByResource.compute(resource, (key, tasks) -> {
+			Set<Task> resourceTasks = tasks == null ? ConcurrentHashMap.<Task>newKeySet() : tasks;
+			resourceTasks.add(task);
+			return resourceTasks;
+		});
 	}
 }
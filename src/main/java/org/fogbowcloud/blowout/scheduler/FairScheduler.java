@@ -0,0 +1,237 @@
+package org.fogbowcloud.blowout.scheduler;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.apache.log4j.Logger;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.core.model.task.TaskTimestamps;
+import org.fogbowcloud.blowout.core.monitor.TaskMonitor;
+import org.fogbowcloud.blowout.pool.ReadyQueue;
+
+/**
+ * Scheduler that shares the resources of each specification among jobs
+ * instead of running the ready tasks in the order they were added, so a large
+ * bag does not starve the jobs submitted after it.
+ * <p>
+ * The job of a task is its {@link TaskImpl#METADATA_JOB_ID} metadata, or its
+ * UUID when not set. Jobs get resources by weighted fair queuing: each
+ * resource slot goes to the job that received the least service relative to
+ * its {@link TaskImpl#METADATA_JOB_WEIGHT}, 1 by default, among the jobs with
+ * ready tasks. Within a job, tasks with a higher
+ * {@link TaskImpl#METADATA_TASK_PRIORITY} run first, then the ones with the
+ * earliest deadline, a task with a {@link TaskImpl#METADATA_TASK_TIMEOUT}
+ * being due its timeout after it was submitted, then the oldest ones.
+ * <p>
+ * The pool keeps the ready tasks of each specification in a {@link FairQueue}
+ * and still owns which tasks are ready or running. The queue keeps them in
+ * heaps, so choosing a task costs a logarithmic time in the number of jobs
+ * and of ready tasks of the job.
+ */
+public class FairScheduler extends DefaultScheduler {
+
+	private static final Logger LOGGER = Logger.getLogger(FairScheduler.class);
+
+	protected static final double DEFAULT_JOB_WEIGHT = 1;
+	protected static final int DEFAULT_TASK_PRIORITY = 0;
+
+	public FairScheduler(TaskMonitor taskMonitor) {
+		super(taskMonitor);
+	}
+
+	@Override
+	public ReadyQueue newReadyQueue() {
+		return new FairQueue();
+	}
+
+	/**
+	 * Ready tasks of a specification, by job in start time fair queuing order.
+	 * A task added again, after it was removed from the pool and added back
+	 * with the same id, replaces the entry it had, so it is polled once. A
+	 * polled task given back to run again keeps its place in its job.
+	 */
+	static class FairQueue implements ReadyQueue {
+
+		private final PriorityQueue<JobQueue> jobs;
+		private final Map<String, JobQueue> jobsById;
+		private final Map<String, QueuedTask> queuedTasks;
+		private final Map<String, QueuedTask> polledTasks;
+		private double virtualTime;
+		private long sequence;
+
+		FairQueue() {
+			this.jobs = new PriorityQueue<>(Comparator.comparingDouble((JobQueue job) -> job.startTag)
+					.thenComparingLong(job -> job.sequence));
+			this.jobsById = new HashMap<>();
+			this.queuedTasks = new HashMap<>();
+			this.polledTasks = new HashMap<>();
+		}
+
+		void add(Task task) {
+			add(task, false);
+		}
+
+		/**
+		 * Adds a task to the queue of its job. A job with no ready tasks
+		 * starts again from the current virtual time, so it cannot save up
+		 * service while idle.
+		 */
+		@Override
+		public synchronized void add(Task task, boolean released) {
+			String jobId = jobIdOf(task);
+			JobQueue job = this.jobsById.get(jobId);
+			if (job == null) {
+				job = new JobQueue(jobId, weightOf(task), this.virtualTime, this.sequence++);
+				this.jobsById.put(jobId, job);
+				this.jobs.add(job);
+			}
+			QueuedTask polledTask = this.polledTasks.remove(task.getId());
+			QueuedTask queuedTask = released && polledTask != null
+					? new QueuedTask(task, polledTask.priority, polledTask.deadline, polledTask.sequence)
+					: new QueuedTask(task, priorityOf(task), deadlineOf(task), this.sequence++);
+			if (this.queuedTasks.put(task.getId(), queuedTask) != null) {
+				LOGGER.debug("Task " + task.getId() + " was queued again, dropping its previous entry.");
+			}
+			job.tasks.add(queuedTask);
+		}
+
+		/**
+		 * @return the next task of the job with the smallest start tag,
+		 *         charging the job for one slot. Replaced entries are dropped
+		 *         without charging their job.
+		 */
+		@Override
+		public synchronized Task poll() {
+			JobQueue job;
+			while ((job = this.jobs.poll()) != null) {
+				QueuedTask next = job.tasks.poll();
+				boolean current = this.queuedTasks.remove(next.task.getId(), next);
+				if (current) {
+					this.virtualTime = job.startTag;
+					job.startTag += 1 / job.weight;
+				}
+				if (job.tasks.isEmpty()) {
+					this.jobsById.remove(job.id);
+				} else {
+					this.jobs.add(job);
+				}
+				if (current) {
+					this.polledTasks.put(next.task.getId(), next);
+					return next.task;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Drops the entry of the task, which stays in the heap of its job
+		 * until polled, where it is skipped.
+		 */
+		@Override
+		public synchronized boolean remove(Task task) {
+			this.polledTasks.remove(task.getId());
+			return this.queuedTasks.remove(task.getId()) != null;
+		}
+
+		@Override
+		public synchronized void forget(Task task) {
+			this.polledTasks.remove(task.getId());
+		}
+
+		synchronized int size() {
+			return this.queuedTasks.size();
+		}
+	}
+
+	private static class JobQueue {
+
+		private final String id;
+		private final PriorityQueue<QueuedTask> tasks;
+		private final double weight;
+		private final long sequence;
+		private double startTag;
+
+		private JobQueue(String id, double weight, double startTag, long sequence) {
+			this.id = id;
+			this.tasks = new PriorityQueue<>(Comparator.comparingInt((QueuedTask task) -> task.priority).reversed()
+					.thenComparingLong(task -> task.deadline).thenComparingLong(task -> task.sequence));
+			this.weight = weight;
+			this.startTag = startTag;
+			this.sequence = sequence;
+		}
+	}
+
+	private static class QueuedTask {
+
+		private final Task task;
+		private final int priority;
+		private final long deadline;
+		private final long sequence;
+
+		private QueuedTask(Task task, int priority, long deadline, long sequence) {
+			this.task = task;
+			this.priority = priority;
+			this.deadline = deadline;
+			this.sequence = sequence;
+		}
+	}
+
+	protected static String jobIdOf(Task task) {
+		String jobId = task.getMetadata(TaskImpl.METADATA_JOB_ID);
+		if (jobId == null) {
+			jobId = task.getUUID();
+		}
+		return jobId == null ? "" : jobId;
+	}
+
+	protected static double weightOf(Task task) {
+		String weight = task.getMetadata(TaskImpl.METADATA_JOB_WEIGHT);
+		if (weight != null) {
+			double value;
+			try {
+				value = Double.parseDouble(weight.trim());
+			} catch (NumberFormatException e) {
+				value = 0;
+			}
+			if (value > 0) {
+				return value;
+			}
+			LOGGER.warn("Ignoring invalid job weight [" + weight + "] of task " + task.getId() + ".");
+		}
+		return DEFAULT_JOB_WEIGHT;
+	}
+
+	protected static int priorityOf(Task task) {
+		String priority = task.getMetadata(TaskImpl.METADATA_TASK_PRIORITY);
+		if (priority != null) {
+			try {
+				return Integer.parseInt(priority.trim());
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Ignoring invalid priority [" + priority + "] of task " + task.getId() + ".");
+			}
+		}
+		return DEFAULT_TASK_PRIORITY;
+	}
+
+	/**
+	 * @return when the task is due, or Long.MAX_VALUE if it has no timeout.
+	 */
+	protected static long deadlineOf(Task task) {
+		String timeout = task.getMetadata(TaskImpl.METADATA_TASK_TIMEOUT);
+		if (timeout == null || timeout.trim().isEmpty()) {
+			return Long.MAX_VALUE;
+		}
+		try {
+			long submitted = task.getTimestamps().get(TaskTimestamps.Event.SUBMITTED);
+			if (submitted == 0) {
+				submitted = System.currentTimeMillis();
+			}
+			return submitted + Long.parseLong(timeout.trim());
+		} catch (NumberFormatException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+}
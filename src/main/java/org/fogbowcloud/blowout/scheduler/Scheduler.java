@@ -4,10 +4,18 @@ import java.util.List;
 
 import org.fogbowcloud.blowout.core.model.task.Task;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.pool.FifoReadyQueue;
+import org.fogbowcloud.blowout.pool.ReadyQueue;
 
 public interface Scheduler {
 
 	void act(List<Task> tasks, List<AbstractResource> resources);
+
+	/**
+	 * Acts only on the given resources, used when just their states changed and
+	 * the rest of the pool does not need to be revisited.
+	 */
+	void actOnResources(List<Task> tasks, List<AbstractResource> resources);
 	
 	void runTask(Task task, AbstractResource resource);
 
@@ -16,4 +24,12 @@ public interface Scheduler {
 	void stopTasks(List<Task> tasks);
 
 	List<Task> getRunningTasks();
+
+	/**
+	 * @return a queue for the ready tasks of a specification, setting the
+	 *         order in which the pool hands them to this scheduler.
+	 */
+	default ReadyQueue newReadyQueue() {
+		return new FifoReadyQueue();
+	}
 }
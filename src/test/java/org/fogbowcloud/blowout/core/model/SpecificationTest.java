@@ -3,6 +3,7 @@ package org.fogbowcloud.blowout.core.model;
 import static org.junit.Assert.*;
 import static org.fogbowcloud.blowout.helpers.Constants.*;
 
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.constants.FogbowConstants;
 
 import org.fogbowcloud.blowout.helpers.Constants;
@@ -122,4 +123,15 @@ public class SpecificationTest {
     public void testGetFogbowRequirementValueWhenNoParam() {
         assertNull(this.spec.getvCPU());
     }
+
+    @Test
+    public void testGetSlotsPerResource() {
+        assertEquals(1, this.spec.getSlotsPerResource());
+
+        this.spec.addRequirement(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS, "Glue2vCPU >= 4 && Glue2RAM >= 1024");
+        assertEquals(4, this.spec.getSlotsPerResource());
+
+        this.spec.addRequirement(BlowoutConstants.REQUIREMENT_SLOTS, "2");
+        assertEquals(2, this.spec.getSlotsPerResource());
+    }
 }
@@ -44,4 +44,16 @@ public class TaskExecutionResultTest {
 		assertEquals(this.taskExecutionResult.getExitValue(), SUCCESS_EXIT_VALUE);
 
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testFinishWithOutputs() {
+		assertNull(this.taskExecutionResult.getOutput());
+		assertNull(this.taskExecutionResult.getErrorOutput());
+
+		this.taskExecutionResult.finish(SUCCESS_EXIT_VALUE, "output", "error");
+
+		assertTrue(this.taskExecutionResult.isExecutionFinished());
+		assertEquals("output", this.taskExecutionResult.getOutput());
+		assertEquals("error", this.taskExecutionResult.getErrorOutput());
+	}
+}
@@ -11,6 +11,7 @@ import static org.fogbowcloud.blowout.helpers.Constants.*;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.model.*;
 import org.fogbowcloud.blowout.helpers.Constants;
 import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
@@ -145,5 +146,20 @@ public class TaskProcessImplTest {
 		assertEquals(tp.getTaskState(), TaskState.FAILED);
 	}
 
-
+	@Test
+	public void testLocalCommandCapturesExitValueAndStreams() {
+		Specification spec = new Specification(Constants.FakeData.CLOUD_NAME, Constants.FakeData.COMPUTE_IMAGE_FLAVOR_NAME,
+				Constants.FakeData.FOGBOW_USER_NAME, Constants.FakeData.PUBLIC_KEY, Constants.FakeData.PRIVATE_KEY_FILE_PATH);
+		FogbowResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, spec);
+		resource.putMetadata(BlowoutConstants.METADATA_PUBLIC_IP, Constants.FakeData.PUBLIC_IP_FAKE);
+		TaskProcessImpl tp = new TaskProcessImpl(Constants.FakeData.TASK_ID, new ArrayList<Command>(), spec,
+				Constants.FakeData.UUID);
+
+		TaskExecutionResult result = tp.executeCommandString("echo out; echo err >&2; exit 2", Command.Type.LOCAL,
+				resource);
+
+		assertEquals(2, result.getExitValue());
+		assertEquals("out\n", result.getOutput());
+		assertEquals("err\n", result.getErrorOutput());
+	}
 }
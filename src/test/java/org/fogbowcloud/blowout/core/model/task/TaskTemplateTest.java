@@ -0,0 +1,78 @@
+package org.fogbowcloud.blowout.core.model.task;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fogbowcloud.blowout.core.model.Command;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskTemplateTest {
+
+	private static final String FAKE_UUID = "1234";
+
+	private Specification specification;
+
+	@Before
+	public void setUp() {
+		this.specification = new Specification("fakeimage", "fakeusername", "fakepublickey", "fakekeypath");
+	}
+
+	@Test
+	public void testGeneratesTaskOfIndex() {
+		ParameterRanges parameters = new ParameterRanges().addRange("x", 0, 9, 3).addValues("y", "a", "b");
+		TaskTemplate template = new TaskTemplate("sweep", this.specification, FAKE_UUID, parameters);
+		template.addCommand(new Command("run --x=${x} --y=${y} > out-${index}", Command.Type.REMOTE));
+		template.putMetadata(TaskImpl.METADATA_SANDBOX, "/tmp/${y}");
+
+		Task task = template.generate(5);
+
+		assertEquals(8, template.size());
+		assertEquals("sweep-5", task.getId());
+		assertEquals(this.specification, task.getSpecification());
+		assertEquals(FAKE_UUID, task.getUUID());
+		assertEquals("run --x=6 --y=b > out-5", task.getAllCommands().get(0).getCommand());
+		assertEquals(Command.Type.REMOTE, task.getAllCommands().get(0).getType());
+		assertEquals("/tmp/b", task.getMetadata(TaskImpl.METADATA_SANDBOX));
+		assertEquals(TaskState.READY, task.getState());
+	}
+
+	@Test
+	public void testFillKeepsUnknownPlaceholders() {
+		Map<String, String> values = new HashMap<>();
+		values.put("known", "1");
+
+		assertEquals("1 ${unknown} ${", TaskTemplate.fill("${known} ${unknown} ${", values));
+		assertEquals("no placeholder", TaskTemplate.fill("no placeholder", Collections.<String, String>emptyMap()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRangesLargerThanIntegersAreRejected() {
+		new ParameterRanges().addRange("x", 0, 99999).addRange("y", 0, 99999);
+	}
+
+	@Test
+	public void testCsvParametersReadLinesOnDemand() throws Exception {
+		File csv = File.createTempFile("parameters", ".csv");
+		try {
+			Files.write(csv.toPath(), "input, output\nin-0,out-0\n\n in-1 ,out-1\r\nin-2,out-2".getBytes(
+					StandardCharsets.UTF_8));
+			try (CsvParameters parameters = new CsvParameters(csv)) {
+				assertEquals(3, parameters.size());
+				assertEquals("out-2", parameters.get(2).get("output"));
+				assertEquals("in-1", parameters.get(1).get("input"));
+				assertEquals("out-1", parameters.get(1).get("output"));
+				assertEquals("in-0", parameters.get(0).get("input"));
+			}
+		} finally {
+			csv.delete();
+		}
+	}
+}
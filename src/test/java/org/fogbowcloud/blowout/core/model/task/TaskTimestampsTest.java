@@ -0,0 +1,51 @@
+package org.fogbowcloud.blowout.core.model.task;
+
+import static org.junit.Assert.*;
+
+import org.fogbowcloud.blowout.core.model.task.TaskTimestamps.Event;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskTimestampsTest {
+
+	private TaskTimestamps timestamps;
+
+	@Before
+	public void setUp() {
+		this.timestamps = new TaskTimestamps();
+	}
+
+	@Test
+	public void testEventsNotReached() {
+		for (Event event : Event.values()) {
+			assertEquals(0, this.timestamps.get(event));
+		}
+		assertEquals(-1, this.timestamps.getQueueingLatency());
+		assertEquals(-1, this.timestamps.getDispatchLatency());
+		assertEquals(-1, this.timestamps.getExecutionTime());
+	}
+
+	@Test
+	public void testLatencies() {
+		this.timestamps.record(Event.SUBMITTED, 1000);
+		this.timestamps.record(Event.ASSIGNED, 1500);
+		this.timestamps.record(Event.DISPATCHED, 1510);
+		this.timestamps.record(Event.STARTED, 1600);
+		this.timestamps.record(Event.FINISHED, 4600);
+
+		assertEquals(500, this.timestamps.getQueueingLatency());
+		assertEquals(100, this.timestamps.getDispatchLatency());
+		assertEquals(3000, this.timestamps.getExecutionTime());
+		assertEquals(10, this.timestamps.between(Event.ASSIGNED, Event.DISPATCHED));
+	}
+
+	@Test
+	public void testTaskRecordsEvents() {
+		Task task = new TaskImpl("taskId", null, "uuid");
+
+		task.recordEvent(Event.SUBMITTED);
+
+		assertTrue(task.getTimestamps().get(Event.SUBMITTED) > 0);
+		assertEquals(0, task.getTimestamps().get(Event.ASSIGNED));
+	}
+}
@@ -0,0 +1,63 @@
+package org.fogbowcloud.blowout.core.monitor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
+import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.helpers.Constants;
+import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResourceConcurrencyLimiterTest {
+
+	private ResourceConcurrencyLimiter limiter;
+	private AbstractResource resource;
+
+	@Before
+	public void setUp() {
+		this.limiter = new ResourceConcurrencyLimiter();
+		this.resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, null);
+	}
+
+	@Test
+	public void testLimitComesFromVcpus() {
+		Assert.assertEquals(1, this.limiter.limitOf(this.resource));
+
+		this.resource.putMetadata(BlowoutConstants.METADATA_VCPU, "4");
+		Assert.assertEquals(4, this.limiter.limitOf(this.resource));
+
+		this.resource.putMetadata(BlowoutConstants.METADATA_VCPU, "not a number");
+		Assert.assertEquals(1, this.limiter.limitOf(this.resource));
+	}
+
+	@Test
+	public void testAcquireWaitsForAFreeVcpu() throws Exception {
+		this.resource.putMetadata(BlowoutConstants.METADATA_VCPU, "2");
+		this.limiter.acquire(this.resource);
+		this.limiter.acquire(this.resource);
+		Assert.assertEquals(2, this.limiter.getRunningCount(Constants.FakeData.RESOURCE_ID));
+
+		final CountDownLatch acquired = new CountDownLatch(1);
+		Thread waiting = new Thread(() -> {
+			try {
+				this.limiter.acquire(this.resource);
+				acquired.countDown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		waiting.start();
+
+		Assert.assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+		this.limiter.release(this.resource);
+		Assert.assertTrue(acquired.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals(2, this.limiter.getRunningCount(Constants.FakeData.RESOURCE_ID));
+
+		this.limiter.release(this.resource);
+		this.limiter.release(this.resource);
+		Assert.assertEquals(0, this.limiter.getRunningCount(Constants.FakeData.RESOURCE_ID));
+	}
+}
@@ -0,0 +1,77 @@
+package org.fogbowcloud.blowout.core.monitor;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskExecutorsTest {
+
+	@Test
+	public void testCreateBoundedExecutorFromProperties() {
+		Properties properties = new Properties();
+		properties.setProperty(AppPropertiesConstants.TASK_EXECUTOR, TaskExecutors.TYPE_BOUNDED);
+		properties.setProperty(AppPropertiesConstants.TASK_EXECUTOR_MAX_THREADS, "3");
+
+		ExecutorService executor = TaskExecutors.create(properties);
+		try {
+			Assert.assertTrue(executor instanceof ThreadPoolExecutor);
+			Assert.assertEquals(3, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testVirtualExecutorFallsBackWhenNotAvailable() {
+		Properties properties = new Properties();
+		properties.setProperty(AppPropertiesConstants.TASK_EXECUTOR, TaskExecutors.TYPE_VIRTUAL);
+
+		ExecutorService executor = TaskExecutors.create(properties);
+		try {
+			Assert.assertNotNull(executor);
+			if (TaskExecutors.newVirtualThreadExecutor() == null) {
+				Assert.assertTrue(executor instanceof ThreadPoolExecutor);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testSubmitWaitsWhileBoundedQueueIsFull() throws Exception {
+		final ThreadPoolExecutor executor = TaskExecutors.newBoundedExecutor(1, 1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch thirdSubmitted = new CountDownLatch(1);
+		try {
+			executor.submit(() -> awaitQuietly(release));
+			executor.submit(() -> awaitQuietly(release));
+
+			Thread submitter = new Thread(() -> {
+				executor.submit(() -> awaitQuietly(release));
+				thirdSubmitted.countDown();
+			});
+			submitter.start();
+
+			Assert.assertFalse(thirdSubmitted.await(200, TimeUnit.MILLISECONDS));
+			release.countDown();
+			Assert.assertTrue(thirdSubmitted.await(5, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
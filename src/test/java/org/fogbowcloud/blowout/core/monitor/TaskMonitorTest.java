@@ -6,15 +6,21 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.fogbowcloud.blowout.helpers.Constants.*;
 
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.fogbowcloud.blowout.helpers.Constants;
 import org.fogbowcloud.blowout.scheduler.DefaultScheduler;
@@ -25,6 +31,9 @@ import org.fogbowcloud.blowout.core.model.task.TaskImpl;
 import org.fogbowcloud.blowout.core.model.task.TaskProcess;
 import org.fogbowcloud.blowout.core.model.task.TaskProcessImpl;
 import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.core.model.task.TaskTimestamps;
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
+import org.fogbowcloud.blowout.infrastructure.monitor.ConnectivityProber;
 import org.fogbowcloud.blowout.infrastructure.manager.DefaultInfrastructureManager;
 import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
@@ -159,6 +168,24 @@ public class TaskMonitorTest {
 		Assert.assertTrue(taskOne.isFinished());
 	}
 	
+	@Test
+	public void testGetTaskById() {
+		// set up
+		TaskImpl taskImpl = new TaskImpl(Constants.FakeData.TASK_ID, this.spec, Constants.FakeData.UUID);
+		Map<Task, TaskProcess> runningTasks = new HashMap<>();
+		runningTasks.put(taskImpl, mock(TaskProcess.class));
+
+		TaskMonitor taskMon = new TaskMonitor(this.pool, 3000);
+		taskMon.setRunningTasks(runningTasks);
+
+		// exercise and expect
+		Assert.assertEquals(taskImpl, taskMon.getTaskById(Constants.FakeData.TASK_ID));
+		Assert.assertNull(taskMon.getTaskById("unknown-task-id"));
+
+		taskMon.stopTask(taskImpl);
+		Assert.assertNull(taskMon.getTaskById(Constants.FakeData.TASK_ID));
+	}
+
 	@Test
 	public void testProcMonNothingHappens() {
 		TaskProcess fakeProcess = mock(TaskProcess.class);
@@ -180,6 +207,7 @@ public class TaskMonitorTest {
 		TaskProcess fakeProcess = mock(TaskProcess.class);
 		doReturn(TaskState.FAILED).when(fakeProcess).getTaskState();
 		AbstractResource fakeResource = mock(AbstractResource.class);
+		doReturn(true).when(fakeResource).freeSlot(true);
 		doReturn(Constants.FakeData.TASK_ID).when(fakeTask).getId();
 		doReturn(Constants.FakeData.TASK_ID).when(fakeProcess).getTaskId();
 		doReturn(fakeTask).when(this.taskMon).getTaskById(Constants.FakeData.TASK_ID);
@@ -240,6 +268,186 @@ public class TaskMonitorTest {
 		
 		this.taskMon.runTask(fakeTask, fakeResource);
 		
+		Assert.assertEquals(1, this.taskMon.getExecutorMetrics().getQueueDepth());
+		Assert.assertEquals(0, this.taskMon.getExecutorMetrics().getActiveCount());
+	}
+
+	@Test
+	public void testSaturatedExecutorResumesSchedulingWhenQueuedTaskStarts() throws Exception {
+		// set up
+		ThreadPoolExecutor executor = TaskExecutors.newBoundedExecutor(1, 1);
+		TaskMonitor taskMon = spy(new TaskMonitor(this.pool, 0, executor));
+		AbstractResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
+		Task task = new TaskImpl(Constants.FakeData.TASK_ID, this.spec, Constants.FakeData.UUID);
+		TaskProcess process = mock(TaskProcess.class);
+		doReturn(process).when(taskMon).createProcess(task);
+		doNothing().when(taskMon).dispatch(task, process, resource);
+		final CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		Assert.assertFalse(taskMon.isSaturated());
+
+		// exercise
+		taskMon.runTask(task, resource);
+		boolean saturated = taskMon.isSaturated();
+		release.countDown();
+		executor.shutdown();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+
+		// expect
+		Assert.assertTrue(saturated);
+		verify(this.pool).resumeScheduling();
+	}
+
+	@Test
+	public void testRunTaskSetsResourceBusyWhenItsSlotsAreFull() {
+		ExecutorService execServ = mock(ExecutorService.class);
+		doReturn(execServ).when(this.taskMon).getExecutorService();
+		AbstractResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
+		resource.putMetadata(BlowoutConstants.METADATA_VCPU, "2");
+		Task firstTask = new TaskImpl(Constants.FakeData.TASK_ID, this.spec, Constants.FakeData.UUID);
+		Task secondTask = new TaskImpl(Constants.FakeData.TASK_ID + "2", this.spec, Constants.FakeData.UUID);
+		doReturn(mock(TaskProcess.class)).when(this.taskMon).createProcess(any(Task.class));
+
+		this.taskMon.runTask(firstTask, resource);
+		verify(this.pool, never()).updateResource(resource, ResourceState.BUSY);
+
+		this.taskMon.runTask(secondTask, resource);
+		verify(this.pool).updateResource(resource, ResourceState.BUSY);
+		Assert.assertEquals(0, resource.getFreeSlots());
+	}
+
+	@Test
+	public void testFailedTaskDrainsResourceBeforeFailingIt() {
+		ExecutorService execServ = mock(ExecutorService.class);
+		doReturn(execServ).when(this.taskMon).getExecutorService();
+		AbstractResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
+		resource.putMetadata(BlowoutConstants.METADATA_VCPU, "2");
+		Task failedTask = new TaskImpl(Constants.FakeData.TASK_ID, this.spec, Constants.FakeData.UUID);
+		Task runningTask = new TaskImpl(Constants.FakeData.TASK_ID + "2", this.spec, Constants.FakeData.UUID);
+		TaskProcess failedProcess = mock(TaskProcess.class);
+		TaskProcess runningProcess = mock(TaskProcess.class);
+		doReturn(failedProcess).when(this.taskMon).createProcess(failedTask);
+		doReturn(runningProcess).when(this.taskMon).createProcess(runningTask);
+		this.taskMon.runTask(failedTask, resource);
+		this.taskMon.runTask(runningTask, resource);
+
+		this.taskMon.completeTask(failedTask, failedProcess, resource, TaskState.FAILED);
+
+		verify(this.pool, never()).updateResource(resource, ResourceState.FAILED);
+		Assert.assertTrue(resource.isDraining());
+		Assert.assertEquals(-1, resource.occupySlot());
+		Assert.assertEquals(runningProcess, this.taskMon.getRunningTasks().get(runningTask));
+
+		this.taskMon.completeTask(runningTask, runningProcess, resource, TaskState.FINISHED);
+
+		verify(this.pool).updateResource(resource, ResourceState.FAILED);
+		verify(this.pool, never()).updateResource(resource, ResourceState.IDLE);
+		Assert.assertFalse(resource.isDraining());
+	}
+
+	@Test
+	public void testDispatchRunsTaskOnReachableResource() throws Exception {
+		ServerSocket sshSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		try {
+			Task task = new TaskImpl(Constants.FakeData.TASK_ID, this.spec, Constants.FakeData.UUID);
+			TaskProcess fakeProcess = mock(TaskProcess.class);
+			AbstractResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
+			resource.putMetadata(BlowoutConstants.METADATA_PUBLIC_IP, "127.0.0.1:" + sshSocket.getLocalPort());
+
+			this.taskMon.dispatch(task, fakeProcess, resource);
+
+			verify(fakeProcess).executeTask(resource);
+			verify(this.pool, never()).updateResource(resource, ResourceState.FAILED);
+			Assert.assertTrue(task.getTimestamps().get(TaskTimestamps.Event.STARTED) > 0);
+		} finally {
+			sshSocket.close();
+		}
+	}
+
+	@Test
+	public void testDispatchFailsOnUnreachableResource() throws Exception {
+		ServerSocket closedSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		int closedPort = closedSocket.getLocalPort();
+		closedSocket.close();
+
+		Task task = new TaskImpl(Constants.FakeData.TASK_ID, this.spec, Constants.FakeData.UUID);
+		TaskProcess fakeProcess = mock(TaskProcess.class);
+		AbstractResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
+		resource.putMetadata(BlowoutConstants.METADATA_PUBLIC_IP, "127.0.0.1:" + closedPort);
+		this.taskMon.setReadinessProbe(new ConnectivityProber(1000), 100);
+		Map<Task, TaskProcess> runningTasks = new HashMap<>();
+		runningTasks.put(task, fakeProcess);
+		this.taskMon.setRunningTasks(runningTasks);
+
+		this.taskMon.dispatch(task, fakeProcess, resource);
+
+		verify(fakeProcess, never()).executeTask(resource);
+		verify(fakeProcess).setTaskState(TaskState.FAILED);
+		verify(this.pool).updateResource(resource, ResourceState.FAILED);
+		Assert.assertEquals(0, task.getTimestamps().get(TaskTimestamps.Event.STARTED));
+		Assert.assertNull(this.taskMon.getTaskById(Constants.FakeData.TASK_ID));
+	}
+
+	@Test
+	public void testDispatchFailsOnResourceWithoutAddress() {
+		Task task = new TaskImpl(Constants.FakeData.TASK_ID, this.spec, Constants.FakeData.UUID);
+		TaskProcess fakeProcess = mock(TaskProcess.class);
+		AbstractResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
+		Map<Task, TaskProcess> runningTasks = new HashMap<>();
+		runningTasks.put(task, fakeProcess);
+		this.taskMon.setRunningTasks(runningTasks);
+
+		this.taskMon.dispatch(task, fakeProcess, resource);
+
+		verify(fakeProcess, never()).executeTask(resource);
+		verify(fakeProcess).setTaskState(TaskState.FAILED);
+	}
+
+	@Test
+	public void testDispatchReleasesResourceWhenTaskEnds() {
+		Task task = new TaskImpl(Constants.FakeData.TASK_ID, this.spec, Constants.FakeData.UUID);
+		TaskProcess fakeProcess = mock(TaskProcess.class);
+		doReturn(Constants.FakeData.TASK_ID).when(fakeProcess).getTaskId();
+		doReturn(TaskState.FINISHED).when(fakeProcess).getTaskState();
+		AbstractResource fakeResource = mock(AbstractResource.class);
+		doReturn(true).when(fakeResource).checkConnectivity();
+		doReturn(fakeResource).when(fakeProcess).getResource();
+		Map<Task, TaskProcess> runningTasks = new HashMap<>();
+		runningTasks.put(task, fakeProcess);
+		this.taskMon.setRunningTasks(runningTasks);
+
+		this.taskMon.dispatch(task, fakeProcess, fakeResource);
+
+		verify(this.pool).updateResource(fakeResource, ResourceState.IDLE);
+		Assert.assertTrue(task.isFinished());
+		Assert.assertTrue(this.taskMon.getRunningTasks().isEmpty());
+		Assert.assertTrue(task.getTimestamps().get(TaskTimestamps.Event.FINISHED) > 0);
+
+		// the monitor pass does not complete the task again
+		this.taskMon.processMonitor();
+		verify(this.pool, times(1)).updateResource(fakeResource, ResourceState.IDLE);
+	}
+
+	@Test
+	public void testStoppedTaskIsNotCompletedWhenItEnds() {
+		Task task = new TaskImpl(Constants.FakeData.TASK_ID, this.spec, Constants.FakeData.UUID);
+		TaskProcess fakeProcess = mock(TaskProcess.class);
+		doReturn(TaskState.FAILED).when(fakeProcess).getTaskState();
+		AbstractResource fakeResource = mock(AbstractResource.class);
+		Map<Task, TaskProcess> runningTasks = new HashMap<>();
+		runningTasks.put(task, fakeProcess);
+		this.taskMon.setRunningTasks(runningTasks);
+		this.taskMon.stopTask(task);
+
+		this.taskMon.dispatch(task, fakeProcess, fakeResource);
+
+		verify(this.pool, never()).updateResource(fakeResource, ResourceState.FAILED);
+		Assert.assertFalse(task.isFinished());
 	}
-	
 }
@@ -0,0 +1,129 @@
+package org.fogbowcloud.blowout.core.ssh;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.fogbowcloud.blowout.core.util.StreamCapture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs the pool against a stand-in of the ssh client that logs its arguments,
+ * keeps a marker file while its "master connection" is open, and runs the
+ * remote command locally.
+ */
+public class SshConnectionPoolTest {
+
+	private static final String RESOURCE_ID = "resourceId";
+	private static final String USER = "user";
+	private static final String HOST = "10.0.0.1";
+	private static final String PRIVATE_KEY_FILE = "/tmp/fakeKey";
+
+	private File workDirectory;
+	private File sshLog;
+	private SshConnectionPool sshConnectionPool;
+
+	@Before
+	public void setUp() throws Exception {
+		this.workDirectory = Files.createTempDirectory("ssh-pool-test").toFile();
+		this.sshLog = new File(this.workDirectory, "ssh.log");
+		File marker = new File(this.workDirectory, "master");
+		File fakeSsh = new File(this.workDirectory, "fake-ssh");
+
+		String script = "#!/bin/bash\n"
+				+ "echo \"$*\" >> " + this.sshLog.getAbsolutePath() + "\n"
+				+ "args=(\"$@\")\n"
+				+ "for ((i = 0; i < $#; i++)); do\n"
+				+ "  case \"${args[$i]}\" in\n"
+				+ "    -M) touch " + marker.getAbsolutePath() + "; exit 0;;\n"
+				+ "    -O) control=\"${args[$((i + 1))]}\";;\n"
+				+ "  esac\n"
+				+ "done\n"
+				+ "if [ \"$control\" = check ]; then [ -f " + marker.getAbsolutePath() + " ]; exit $?; fi\n"
+				+ "if [ \"$control\" = exit ]; then rm -f " + marker.getAbsolutePath() + "; exit 0; fi\n"
+				+ "while [ $# -gt 0 ]; do\n"
+				+ "  case \"$1\" in\n"
+				+ "    -o|-i) shift 2;;\n"
+				+ "    *@*) shift; break;;\n"
+				+ "    *) shift;;\n"
+				+ "  esac\n"
+				+ "done\n"
+				+ "exec /bin/bash -c \"$*\"\n";
+		Files.write(fakeSsh.toPath(), script.getBytes(StandardCharsets.UTF_8));
+		assertTrue(fakeSsh.setExecutable(true));
+
+		this.sshConnectionPool = new SshConnectionPool(fakeSsh.getAbsolutePath(), 60, this.workDirectory);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.sshConnectionPool.closeAll();
+		for (File file : this.workDirectory.listFiles()) {
+			file.delete();
+		}
+		this.workDirectory.delete();
+	}
+
+	@Test
+	public void testCommandsShareOneMasterConnection() throws Exception {
+		assertEquals("first\n", run("'echo first'", 0));
+		assertEquals("second\n", run("'echo second'", 0));
+
+		assertEquals(1, countLogLines("-M"));
+		assertEquals(2, countLogLines("ControlMaster=no"));
+		assertTrue(this.sshConnectionPool.hasConnection(RESOURCE_ID));
+	}
+
+	@Test
+	public void testExitValueOfRemoteCommand() throws Exception {
+		assertEquals("failing\n", run("'echo failing; exit 3'", 3));
+	}
+
+	@Test
+	public void testCloseExitsMasterConnection() throws Exception {
+		run("'echo first'", 0);
+
+		this.sshConnectionPool.close(RESOURCE_ID);
+
+		assertEquals(1, countLogLines("-O exit"));
+		assertFalse(this.sshConnectionPool.hasConnection(RESOURCE_ID));
+
+		run("'echo again'", 0);
+		assertEquals(2, countLogLines("-M"));
+	}
+
+	@Test
+	public void testNewHostOfResourceOpensNewMaster() throws Exception {
+		run("'echo first'", 0);
+
+		Process process = this.sshConnectionPool.start(RESOURCE_ID, USER, "10.0.0.2", PRIVATE_KEY_FILE, "true");
+		assertEquals(0, process.waitFor());
+
+		assertEquals(1, countLogLines("-O exit"));
+		assertEquals(2, countLogLines("-M"));
+	}
+
+	private String run(String command, int expectedExitValue) throws Exception {
+		Process process = this.sshConnectionPool.start(RESOURCE_ID, USER, HOST, PRIVATE_KEY_FILE, command);
+		StreamCapture output = new StreamCapture(process.getInputStream(), StreamCapture.DEFAULT_MAX_BYTES);
+		output.run();
+		assertEquals(expectedExitValue, process.waitFor());
+		return output.getOutput();
+	}
+
+	private int countLogLines(String argument) throws Exception {
+		List<String> lines = Files.readAllLines(this.sshLog.toPath(), StandardCharsets.UTF_8);
+		int count = 0;
+		for (String line : lines) {
+			if (line.contains(argument)) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,37 @@
+package org.fogbowcloud.blowout.core.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class StreamCaptureTest {
+
+	@Test
+	public void testCaptureWholeStream() throws Exception {
+		StreamCapture capture = StreamCapture.start(stream("some output\n"), "capture-test");
+
+		assertEquals("some output\n", capture.await(5000));
+		assertEquals(12, capture.getTotalBytes());
+	}
+
+	@Test
+	public void testCaptureKeepsLastBytes() {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			content.append(i % 10);
+		}
+		StreamCapture capture = new StreamCapture(stream(content.toString()), 16);
+
+		capture.run();
+
+		assertEquals(content.substring(content.length() - 16), capture.getOutput());
+		assertEquals(1000, capture.getTotalBytes());
+	}
+
+	private static ByteArrayInputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
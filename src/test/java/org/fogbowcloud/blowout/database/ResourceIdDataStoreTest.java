@@ -1,12 +1,15 @@
 package org.fogbowcloud.blowout.database;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.spy;
 
 import java.io.File;
 import java.io.IOException;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -51,6 +54,7 @@ public class ResourceIdDataStoreTest {
 
 	@After
 	public void tearDown() throws IOException{
+		db.close();
 		FileUtils.cleanDirectory(new File (DATASTORE_PATH));
 	}
 	
@@ -173,6 +177,82 @@ public class ResourceIdDataStoreTest {
 		
 		assertEquals(0, returnedFogbowResources.size());
 	}
-	
-	
+
+	@Test
+	public void testChangesAreCommittedByFlushBatch() throws InterruptedException {
+		properties.setProperty(AppPropertiesConstants.DB_DATASTORE_FLUSH_PERIOD, "600000");
+		properties.setProperty(AppPropertiesConstants.DB_DATASTORE_FLUSH_BATCH, "2");
+		FogbowResourceDatastore writer = new FogbowResourceDatastore(properties);
+		try {
+			writer.addFogbowResource(new FogbowResource(FAKE_RESOURCE_ID1, FAKE_ORDER_ID1, spec));
+			writer.addFogbowResource(new FogbowResource(FAKE_RESOURCE_ID2, FAKE_ORDER_ID2, spec));
+
+			long deadline = System.currentTimeMillis() + 10000;
+			while (db.getAllFogbowResources().size() < 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			assertEquals(2, db.getAllFogbowResources().size());
+		} finally {
+			writer.close();
+		}
+	}
+
+	@Test
+	public void testFailedChangeDoesNotDiscardOthers() {
+		FogbowResource resourceA = new FogbowResource(FAKE_RESOURCE_ID1, FAKE_ORDER_ID1, spec);
+		FogbowResource resourceB = new FogbowResource(FAKE_RESOURCE_ID2, FAKE_ORDER_ID2, spec);
+
+		db.addFogbowResource(resourceA);
+		db.addFogbowResource(resourceA);
+		db.addFogbowResource(resourceB);
+
+		assertEquals(2, db.getAllFogbowResources().size());
+	}
+
+	@Test
+	public void testChangesThatCannotBeCommittedStayQueued() {
+		properties.setProperty(AppPropertiesConstants.DB_DATASTORE_FLUSH_PERIOD, "600000");
+		UnavailableDatastore writer = new UnavailableDatastore(properties);
+		try {
+			writer.unavailable = true;
+			writer.addFogbowResource(new FogbowResource(FAKE_RESOURCE_ID1, FAKE_ORDER_ID1, spec));
+
+			assertFalse(writer.flush());
+			writer.unavailable = false;
+			assertTrue(writer.flush());
+			assertEquals(1, db.getAllFogbowResources().size());
+		} finally {
+			writer.close();
+		}
+	}
+
+	@Test
+	public void testChangesAreStoredOnClose() {
+		FogbowResourceDatastore writer = new FogbowResourceDatastore(properties);
+		writer.addFogbowResource(new FogbowResource(FAKE_RESOURCE_ID1, FAKE_ORDER_ID1, spec));
+		writer.close();
+
+		assertEquals(1, db.getAllFogbowResources().size());
+		assertFalse(writer.addFogbowResource(new FogbowResource(FAKE_RESOURCE_ID2, FAKE_ORDER_ID2, spec)));
+	}
+
+	/**
+	 * Datastore whose connection cannot be opened while it is unavailable.
+	 */
+	private static class UnavailableDatastore extends FogbowResourceDatastore {
+
+		private volatile boolean unavailable;
+
+		private UnavailableDatastore(Properties properties) {
+			super(properties);
+		}
+
+		@Override
+		protected Connection getConnection() throws SQLException {
+			if (this.unavailable) {
+				throw new SQLException("Datastore is unavailable.");
+			}
+			return super.getConnection();
+		}
+	}
 }
@@ -0,0 +1,170 @@
+package org.fogbowcloud.blowout.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fogbowcloud.blowout.core.model.Command;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskJournalTest {
+
+	private static final int SNAPSHOT_RECORDS = 1000;
+
+	private File journalDirectory;
+	private Specification spec;
+	private TaskJournal taskJournal;
+
+	@Before
+	public void setUp() throws Exception {
+		this.journalDirectory = Files.createTempDirectory("task-journal-test").toFile();
+		this.spec = new Specification("imageA", "userA", "publicKey", "filePath");
+		this.taskJournal = new TaskJournal(this.journalDirectory, SNAPSHOT_RECORDS);
+	}
+
+	@After
+	public void tearDown() {
+		this.taskJournal.close();
+		for (File file : this.journalDirectory.listFiles()) {
+			file.delete();
+		}
+		this.journalDirectory.delete();
+	}
+
+	@Test
+	public void testRecoverReplaysTaskChanges() throws Exception {
+		assertTrue(this.taskJournal.recover().isEmpty());
+		List<Task> tasks = createTasks(3);
+		this.taskJournal.submitted(tasks);
+		Task finishedTask = tasks.get(0);
+		finishedTask.startedRunning();
+		this.taskJournal.stateChanged(finishedTask, TaskState.RUNNING);
+		finishedTask.finish();
+		this.taskJournal.stateChanged(finishedTask, TaskState.COMPLETED);
+		this.taskJournal.removed(tasks.get(1));
+		Task runningTask = tasks.get(2);
+		runningTask.startedRunning();
+		this.taskJournal.stateChanged(runningTask, TaskState.RUNNING);
+		this.taskJournal.close();
+
+		List<Task> recoveredTasks = reopen().recover();
+
+		assertEquals(2, recoveredTasks.size());
+		assertEquals(finishedTask.getId(), recoveredTasks.get(0).getId());
+		assertTrue(recoveredTasks.get(0).isFinished());
+		assertEquals(TaskState.COMPLETED, recoveredTasks.get(0).getState());
+		assertEquals(runningTask.getId(), recoveredTasks.get(1).getId());
+		assertFalse(recoveredTasks.get(1).isFinished());
+		assertEquals(TaskState.READY, recoveredTasks.get(1).getState());
+		assertEquals(0, recoveredTasks.get(1).getRetries());
+		assertEquals(1, recoveredTasks.get(1).getAllCommands().size());
+	}
+
+	@Test
+	public void testRecoverIgnoresRecordCutShort() throws Exception {
+		this.taskJournal.recover();
+		this.taskJournal.submitted(createTasks(2));
+		this.taskJournal.close();
+		File log = new File(this.journalDirectory, TaskJournal.LOG_PREFIX + this.taskJournal.getGeneration()
+				+ TaskJournal.LOG_SUFFIX);
+		try (FileOutputStream output = new FileOutputStream(log, true)) {
+			output.write(new byte[] { 0, 0, 1, 0, 42, 42 });
+		}
+
+		assertEquals(2, reopen().recover().size());
+	}
+
+	@Test
+	public void testRecoverIgnoresRecordWithWrongChecksum() throws Exception {
+		this.taskJournal.recover();
+		this.taskJournal.submitted(createTasks(1));
+		this.taskJournal.close();
+		File log = new File(this.journalDirectory, TaskJournal.LOG_PREFIX + this.taskJournal.getGeneration()
+				+ TaskJournal.LOG_SUFFIX);
+		byte[] bytes = Files.readAllBytes(log.toPath());
+		bytes[bytes.length - 2] ^= 0xff;
+		Files.write(log.toPath(), bytes);
+
+		assertTrue(reopen().recover().isEmpty());
+	}
+
+	@Test
+	public void testSnapshotCompactsJournal() throws Exception {
+		this.taskJournal.recover();
+		final List<Task> pool = createTasks(5);
+		this.taskJournal.setSnapshotSource(() -> pool);
+		this.taskJournal.submitted(pool);
+		this.taskJournal.removed(pool.remove(4));
+		this.taskJournal.sync();
+		long logsBefore = this.taskJournal.getGeneration();
+
+		this.taskJournal.requestSnapshot();
+		long deadline = System.currentTimeMillis() + 10000;
+		while (this.taskJournal.getGeneration() == logsBefore && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		pool.get(0).finish();
+		this.taskJournal.stateChanged(pool.get(0), TaskState.COMPLETED);
+		this.taskJournal.close();
+
+		assertEquals(2, this.taskJournal.getFiles().size());
+		List<Task> recoveredTasks = reopen().recover();
+		assertEquals(4, recoveredTasks.size());
+		assertTrue(recoveredTasks.get(0).isFinished());
+	}
+
+	@Test
+	public void testSnapshotThatCannotStartLogKeepsWriting() throws Exception {
+		this.taskJournal.recover();
+		final List<Task> pool = createTasks(2);
+		this.taskJournal.setSnapshotSource(() -> pool);
+		long generation = this.taskJournal.getGeneration();
+		File nextLog = new File(this.journalDirectory, TaskJournal.LOG_PREFIX + (generation + 1)
+				+ TaskJournal.LOG_SUFFIX);
+		assertTrue(nextLog.mkdir());
+
+		this.taskJournal.requestSnapshot();
+		Thread.sleep(500);
+		this.taskJournal.submitted(pool);
+		this.taskJournal.sync();
+		this.taskJournal.close();
+
+		assertEquals(generation, this.taskJournal.getGeneration());
+		assertTrue(nextLog.delete());
+		assertEquals(2, reopen().recover().size());
+	}
+
+	@Test
+	public void testChangesBeforeRecoverAreNotRecorded() throws Exception {
+		this.taskJournal.submitted(createTasks(1));
+
+		assertEquals(0, this.taskJournal.getAppendedRecords());
+	}
+
+	private TaskJournal reopen() {
+		this.taskJournal = new TaskJournal(this.journalDirectory, SNAPSHOT_RECORDS);
+		return this.taskJournal;
+	}
+
+	private List<Task> createTasks(int amount) {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < amount; i++) {
+			Task task = new TaskImpl("task-" + i, this.spec, "uuid");
+			task.addCommand(new Command("echo " + i, Command.Type.REMOTE));
+			tasks.add(task);
+		}
+		return tasks;
+	}
+}
@@ -108,6 +108,15 @@ public class Constants {
                     "\"type\": \"REMOTE\"" +
                     "}";
 
+            public static final String PUBLIC_IP_INSTANCE_NO_IP_RESPONSE = "{" +
+                    "\"cloudName\": \"string\"," +
+                    "\"computeId\": \"string\"," +
+                    "\"computeName\": \"string\"," +
+                    "\"id\": \"string\"," +
+                    "\"provider\": \"string\"," +
+                    "\"state\": \"OPEN\"" +
+                    "}";
+
             public static final String PUBLIC_IP_INSTANCE_RESPONSE = "{" +
                     "\"cloudName\": \"string\"," +
                     "\"computeId\": \"string\"," +
@@ -0,0 +1,62 @@
+package org.fogbowcloud.blowout.infrastructure.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class HttpRequestMetricsTest {
+
+	private static final String RAS_BASE_URL = "https://fogbow.example.org/ras";
+
+	private HttpRequestMetrics metrics;
+
+	@Before
+	public void setUp() {
+		this.metrics = new HttpRequestMetrics();
+	}
+
+	@Test
+	public void testEndpointOf() {
+		assertEquals(HttpRequestMetrics.ENDPOINT_COMPUTE, HttpRequestMetrics.endpointOf(RAS_BASE_URL + "/computes"));
+		assertEquals(HttpRequestMetrics.ENDPOINT_COMPUTE,
+				HttpRequestMetrics.endpointOf(RAS_BASE_URL + "/computes/order-id"));
+		assertEquals(HttpRequestMetrics.ENDPOINT_PUBLIC_IPS,
+				HttpRequestMetrics.endpointOf(RAS_BASE_URL + "/publicIps/order-id"));
+		assertEquals(HttpRequestMetrics.ENDPOINT_IMAGES,
+				HttpRequestMetrics.endpointOf(RAS_BASE_URL + "/images/member/cloud?all=true"));
+		assertEquals(HttpRequestMetrics.ENDPOINT_PUBLIC_KEY, HttpRequestMetrics.endpointOf(RAS_BASE_URL + "/publicKey"));
+		assertEquals(HttpRequestMetrics.ENDPOINT_TOKENS, HttpRequestMetrics.endpointOf("http://as:8080/tokens"));
+		assertEquals(HttpRequestMetrics.ENDPOINT_OTHER, HttpRequestMetrics.endpointOf("http://computes/version"));
+		assertEquals(HttpRequestMetrics.ENDPOINT_OTHER, HttpRequestMetrics.endpointOf(null));
+	}
+
+	@Test
+	public void testRecordByEndpoint() {
+		metrics.record(RAS_BASE_URL + "/computes", TimeUnit.MILLISECONDS.toNanos(10), false);
+		metrics.record(RAS_BASE_URL + "/computes/order-id", TimeUnit.MILLISECONDS.toNanos(30), true);
+		metrics.record(RAS_BASE_URL + "/publicIps/order-id", TimeUnit.MILLISECONDS.toNanos(5), false);
+
+		HttpRequestMetrics.EndpointStats computeStats = metrics.getStats(HttpRequestMetrics.ENDPOINT_COMPUTE);
+		assertEquals(2, computeStats.getCount());
+		assertEquals(1, computeStats.getFailures());
+		assertEquals(20, computeStats.getMeanMillis());
+		assertEquals(30, computeStats.getMaxMillis());
+
+		assertEquals(1, metrics.getStats(HttpRequestMetrics.ENDPOINT_PUBLIC_IPS).getCount());
+		assertEquals(0, metrics.getStats(HttpRequestMetrics.ENDPOINT_IMAGES).getCount());
+		assertFalse(metrics.getAllStats().containsKey(HttpRequestMetrics.ENDPOINT_IMAGES));
+	}
+
+	@Test
+	public void testReset() {
+		metrics.record(RAS_BASE_URL + "/images", 1, false);
+		metrics.reset();
+
+		assertEquals(0, metrics.getStats(HttpRequestMetrics.ENDPOINT_IMAGES).getCount());
+		assertEquals(0, metrics.getAllStats().size());
+	}
+}
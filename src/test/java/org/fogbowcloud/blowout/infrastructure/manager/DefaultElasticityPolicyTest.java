@@ -0,0 +1,133 @@
+package org.fogbowcloud.blowout.infrastructure.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.core.model.resource.ResourceState;
+import org.fogbowcloud.blowout.helpers.Constants.FakeData;
+import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefaultElasticityPolicyTest {
+
+	private static final long IDLE_LIFETIME = 1000;
+	private static final long SCALE_DOWN_DELAY = 5000;
+
+	private Properties properties;
+	private Specification spec;
+
+	@Before
+	public void setUp() {
+		this.properties = new Properties();
+		this.properties.setProperty(AppPropertiesConstants.INFRA_RESOURCE_IDLE_LIFETIME, String.valueOf(IDLE_LIFETIME));
+		this.properties.setProperty(AppPropertiesConstants.INFRA_SCALE_DOWN_DELAY, String.valueOf(SCALE_DOWN_DELAY));
+		this.spec = new Specification(FakeData.CLOUD_NAME, FakeData.COMPUTE_IMAGE_FLAVOR_NAME,
+				FakeData.FOGBOW_USER_NAME, FakeData.PUBLIC_KEY, FakeData.PRIVATE_KEY_FILE_PATH);
+	}
+
+	@Test
+	public void testScaleDownReleasesResourceIdleForItsLifetime() {
+		ElasticityPolicy policy = new DefaultElasticityPolicy(this.properties);
+		AbstractResource idleResource = newResource("idle", ResourceState.IDLE);
+		AbstractResource busyResource = newResource("busy", ResourceState.BUSY);
+		List<AbstractResource> resources = Arrays.asList(idleResource, busyResource);
+
+		assertTrue(policy.scaleDown(resources, 0).isEmpty());
+		assertTrue(policy.scaleDown(resources, IDLE_LIFETIME - 1).isEmpty());
+		assertEquals(Collections.singletonList(idleResource), policy.scaleDown(resources, IDLE_LIFETIME));
+	}
+
+	@Test
+	public void testScaleDownRestartsIdleTimeOfReusedResource() {
+		ElasticityPolicy policy = new DefaultElasticityPolicy(this.properties);
+		AbstractResource resource = newResource("resource", ResourceState.IDLE);
+		List<AbstractResource> resources = Collections.singletonList(resource);
+
+		policy.scaleDown(resources, 0);
+		resource.setState(ResourceState.BUSY);
+		policy.scaleDown(resources, IDLE_LIFETIME / 2);
+		resource.setState(ResourceState.IDLE);
+		policy.scaleDown(resources, IDLE_LIFETIME);
+
+		assertTrue(policy.scaleDown(resources, IDLE_LIFETIME + IDLE_LIFETIME / 2).isEmpty());
+		assertEquals(resources, policy.scaleDown(resources, 2 * IDLE_LIFETIME));
+	}
+
+	@Test
+	public void testScaleDownKeepsWarmPool() {
+		this.properties.setProperty(AppPropertiesConstants.INFRA_WARM_POOL_SIZE, "1");
+		ElasticityPolicy policy = new DefaultElasticityPolicy(this.properties);
+		List<AbstractResource> resources = Arrays.asList(newResource("a", ResourceState.IDLE),
+				newResource("b", ResourceState.IDLE));
+
+		policy.scaleDown(resources, 0);
+
+		assertEquals(1, policy.scaleDown(resources, IDLE_LIFETIME).size());
+	}
+
+	@Test
+	public void testScaleDownWaitsAfterScaleUp() {
+		ElasticityPolicy policy = new DefaultElasticityPolicy(this.properties);
+		List<AbstractResource> resources = Collections.singletonList(newResource("a", ResourceState.IDLE));
+
+		policy.scaleDown(resources, 0);
+		policy.scaleUp(Collections.singletonMap(this.spec, 1), 1, IDLE_LIFETIME);
+
+		assertTrue(policy.scaleDown(resources, IDLE_LIFETIME + SCALE_DOWN_DELAY - 1).isEmpty());
+		assertEquals(resources, policy.scaleDown(resources, IDLE_LIFETIME + SCALE_DOWN_DELAY));
+	}
+
+	@Test
+	public void testScaleDownDisabledWhenInfrastructureIsNotElastic() {
+		this.properties.setProperty(AppPropertiesConstants.INFRA_IS_ELASTIC, "false");
+		ElasticityPolicy policy = new DefaultElasticityPolicy(this.properties);
+		List<AbstractResource> resources = Collections.singletonList(newResource("a", ResourceState.IDLE));
+
+		policy.scaleDown(resources, 0);
+
+		assertTrue(policy.scaleDown(resources, 10 * IDLE_LIFETIME).isEmpty());
+	}
+
+	@Test
+	public void testScaleUpRespectsMaxResources() {
+		this.properties.setProperty(AppPropertiesConstants.INFRA_MAX_RESOURCES, "5");
+		ElasticityPolicy policy = new DefaultElasticityPolicy(this.properties);
+		Specification otherSpec = new Specification(FakeData.CLOUD_NAME, "other-image", FakeData.FOGBOW_USER_NAME,
+				FakeData.PUBLIC_KEY, FakeData.PRIVATE_KEY_FILE_PATH);
+		Map<Specification, Integer> missingResources = new LinkedHashMap<>();
+		missingResources.put(this.spec, 2);
+		missingResources.put(otherSpec, 2);
+
+		Map<Specification, Integer> requests = policy.scaleUp(missingResources, 2, 0);
+
+		assertEquals(Integer.valueOf(2), requests.get(this.spec));
+		assertEquals(Integer.valueOf(1), requests.get(otherSpec));
+		assertTrue(policy.scaleUp(missingResources, 5, 0).isEmpty());
+	}
+
+	@Test
+	public void testScaleUpWithoutMaxResourcesRequestsEverything() {
+		ElasticityPolicy policy = new DefaultElasticityPolicy(new Properties());
+
+		Map<Specification, Integer> requests = policy.scaleUp(Collections.singletonMap(this.spec, 100), 1000, 0);
+
+		assertEquals(Integer.valueOf(100), requests.get(this.spec));
+	}
+
+	private AbstractResource newResource(String id, ResourceState state) {
+		AbstractResource resource = new FogbowResource(id, id + "-order", this.spec);
+		resource.setState(state);
+		return resource;
+	}
+}
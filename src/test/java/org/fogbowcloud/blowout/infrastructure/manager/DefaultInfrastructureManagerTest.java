@@ -1,7 +1,10 @@
 package org.fogbowcloud.blowout.infrastructure.manager;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.fogbowcloud.blowout.helpers.Constants.*;
@@ -13,16 +16,20 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.constants.FogbowConstants;
 import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.core.model.task.Task;
 import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.infrastructure.exception.RequestResourceException;
 import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
 import org.fogbowcloud.blowout.infrastructure.monitor.ResourceMonitor;
 import org.fogbowcloud.blowout.infrastructure.provider.InfrastructureProvider;
+import org.fogbowcloud.blowout.infrastructure.provider.fogbow.ScheduledCurrentThreadExecutorService;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
 import org.fogbowcloud.blowout.pool.ResourceStateHelper;
 import org.junit.Before;
@@ -40,7 +47,8 @@ public class DefaultInfrastructureManagerTest {
 	public void setUp() throws Exception {
 		this.infraProvider = Mockito.mock(InfrastructureProvider.class);
 		this.resourceMonitor = Mockito.mock(ResourceMonitor.class);
-		this.defaultInfrastructureManager = Mockito.spy(new DefaultInfrastructureManager(infraProvider, resourceMonitor));
+		this.defaultInfrastructureManager = Mockito.spy(new DefaultInfrastructureManager(infraProvider, resourceMonitor,
+				new ScheduledCurrentThreadExecutorService()));
 		this.spec = new Specification(FakeData.CLOUD_NAME, FakeData.COMPUTE_IMAGE_FLAVOR_NAME, FakeData.FOGBOW_USER_NAME,
 				FakeData.PUBLIC_KEY, FakeData.PRIVATE_KEY_FILE_PATH);
 	}
@@ -202,6 +210,44 @@ public class DefaultInfrastructureManagerTest {
 				.addPendingResource(Mockito.any(String.class), Mockito.any(Specification.class));
 	}
 	
+	@Test
+	public void testActRequestsResourcesBySlots() throws Exception {
+		spec.addRequirement(BlowoutConstants.REQUIREMENT_SLOTS, "4");
+
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			tasks.add(new TaskImpl(FakeData.TASK_ID + i, spec, FakeData.UUID));
+		}
+		doReturn(FakeData.RESOURCE_ID).when(this.infraProvider).requestResource(this.spec);
+		doReturn(new ArrayList<AbstractResource>()).when(resourceMonitor).getPendingResources();
+
+		defaultInfrastructureManager.act(new ArrayList<AbstractResource>(), tasks);
+
+		verify(infraProvider, times(3)).requestResource(spec);
+	}
+
+	@Test
+	public void testActMatchesEachResourceOncePerSpec() throws Exception {
+		Specification specB = new Specification(FakeData.CLOUD_NAME+POSTFIX_B,
+				FakeData.COMPUTE_IMAGE_FLAVOR_NAME +POSTFIX_B, FakeData.FOGBOW_USER_NAME+POSTFIX_B,
+				FakeData.PUBLIC_KEY+POSTFIX_B, FakeData.PRIVATE_KEY_FILE_PATH+POSTFIX_B);
+		AbstractResource idleResource = Mockito.spy(new FogbowResource(FakeData.RESOURCE_ID, FakeData.ORDER_ID, specB));
+		ResourceStateHelper.changeResourceToState(idleResource, ResourceState.IDLE);
+		List<AbstractResource> resources = new ArrayList<>();
+		resources.add(idleResource);
+
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			tasks.add(new TaskImpl(FakeData.TASK_ID + i, spec, FakeData.UUID));
+		}
+		doReturn(new ArrayList<AbstractResource>()).when(resourceMonitor).getPendingResources();
+
+		defaultInfrastructureManager.act(resources, tasks);
+		defaultInfrastructureManager.act(resources, tasks);
+
+		verify(idleResource, times(1)).match(spec);
+	}
+
 	@Test
 	public void testActOnReadyTasksOneIdleResourceDiffSpec() throws Exception {
 
@@ -226,4 +272,47 @@ public class DefaultInfrastructureManagerTest {
 		verify(resourceMonitor, times(1))
 				.addPendingResource(Mockito.any(String.class), Mockito.any(Specification.class));
 	}
+
+	@Test
+	public void testActCountsInFlightRequests() throws Exception {
+		final Queue<Runnable> provisioningQueue = new LinkedList<>();
+		Executor provisioningExecutor = Mockito.mock(Executor.class);
+		doAnswer(invocation -> provisioningQueue.add((Runnable) invocation.getArguments()[0]))
+				.when(provisioningExecutor).execute(Mockito.any(Runnable.class));
+		DefaultInfrastructureManager infrastructureManager = new DefaultInfrastructureManager(infraProvider,
+				resourceMonitor, provisioningExecutor);
+
+		Task task = new TaskImpl(FakeData.TASK_ID, this.spec, FakeData.UUID);
+		List<Task> tasks = new ArrayList<>();
+		tasks.add(task);
+		List<AbstractResource> resources = new ArrayList<>();
+		doReturn(FakeData.RESOURCE_ID).when(this.infraProvider).requestResource(this.spec);
+
+		infrastructureManager.act(resources, tasks);
+		infrastructureManager.act(resources, tasks);
+
+		assertEquals(1, provisioningQueue.size());
+		assertEquals(1, infrastructureManager.getInFlightRequests(spec));
+		verify(infraProvider, times(0)).requestResource(spec);
+
+		provisioningQueue.poll().run();
+
+		assertEquals(0, infrastructureManager.getInFlightRequests(spec));
+		verify(infraProvider, times(1)).requestResource(spec);
+		verify(resourceMonitor, times(1)).addPendingResource(FakeData.RESOURCE_ID, spec);
+	}
+
+	@Test
+	public void testRequestResourceAsyncFail() throws Exception {
+		doThrow(new RequestResourceException("Request failed")).when(this.infraProvider).requestResource(this.spec);
+		DefaultInfrastructureManager infrastructureManager = new DefaultInfrastructureManager(infraProvider,
+				resourceMonitor, new ScheduledCurrentThreadExecutorService());
+
+		CompletableFuture<String> futureResourceId = infrastructureManager.requestResourceAsync(spec);
+
+		assertTrue(futureResourceId.isCompletedExceptionally());
+		assertEquals(0, infrastructureManager.getInFlightRequests(spec));
+		verify(resourceMonitor, times(0))
+				.addPendingResource(Mockito.any(String.class), Mockito.any(Specification.class));
+	}
 }
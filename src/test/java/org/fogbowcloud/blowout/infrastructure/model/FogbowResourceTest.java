@@ -4,10 +4,13 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.spy;
 import static org.fogbowcloud.blowout.helpers.Constants.*;
 
+import java.net.ServerSocket;
+
 import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.constants.FogbowConstants;
 import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.helpers.Constants;
+import org.fogbowcloud.blowout.infrastructure.monitor.ConnectivityProber;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -90,6 +93,26 @@ public class FogbowResourceTest {
 		specB.getAllRequirements().clear();
 	}
 	
+	@Test
+	public void slotsTest() {
+		assertEquals(1, this.fogbowResource.getSlots());
+
+		this.fogbowResource.putMetadata(BlowoutConstants.METADATA_VCPU, "4");
+		assertEquals(4, this.fogbowResource.getSlots());
+		assertEquals(3, this.fogbowResource.occupySlot());
+		assertEquals(2, this.fogbowResource.occupySlot());
+		assertEquals(2, this.fogbowResource.getUsedSlots());
+
+		this.fogbowResource.freeSlot();
+		assertEquals(3, this.fogbowResource.getFreeSlots());
+
+		this.spec.addRequirement(BlowoutConstants.REQUIREMENT_SLOTS, "2");
+		assertEquals(2, this.fogbowResource.getSlots());
+		assertEquals(1, this.fogbowResource.getFreeSlots());
+
+		this.spec.getAllRequirements().clear();
+	}
+
 	@Test
 	public void matchTestPublicKeyNotMatch() {
 		this.spec.setUserDataType(Constants.FakeData.USER_DATA_TYPE);
@@ -109,4 +132,15 @@ public class FogbowResourceTest {
 		this.spec.getAllRequirements().clear();
 		this.spec = null;
 	}
+
+	@Test
+	public void checkConnectivityUsesGivenProber() throws Exception {
+		try (ServerSocket server = new ServerSocket(0)) {
+			this.fogbowResource.putMetadata(BlowoutConstants.METADATA_PUBLIC_IP,
+					"127.0.0.1:" + server.getLocalPort());
+
+			assertTrue(this.fogbowResource.checkConnectivity(new ConnectivityProber(1000)));
+			assertEquals(0, this.fogbowResource.getConnectionFailTries());
+		}
+	}
 }
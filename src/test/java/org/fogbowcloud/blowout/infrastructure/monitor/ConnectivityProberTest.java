@@ -0,0 +1,83 @@
+package org.fogbowcloud.blowout.infrastructure.monitor;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConnectivityProberTest {
+
+	private ServerSocket listeningSocket;
+	private int closedPort;
+
+	@Before
+	public void setUp() throws Exception {
+		this.listeningSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		ServerSocket closedSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		this.closedPort = closedSocket.getLocalPort();
+		closedSocket.close();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.listeningSocket.close();
+	}
+
+	@Test
+	public void testProbeListeningPort() {
+		ConnectivityProber prober = new ConnectivityProber(5000);
+
+		assertTrue(prober.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+				this.listeningSocket.getLocalPort())));
+	}
+
+	@Test
+	public void testProbeClosedPort() {
+		ConnectivityProber prober = new ConnectivityProber(5000);
+
+		assertFalse(prober.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), this.closedPort)));
+	}
+
+	@Test
+	public void testProbeAllWithFewerOpenProbesThanTargets() {
+		ConnectivityProber prober = new ConnectivityProber(5000, 2);
+		Map<String, InetSocketAddress> targets = new HashMap<>();
+		for (int i = 0; i < 5; i++) {
+			targets.put("alive-" + i, new InetSocketAddress(InetAddress.getLoopbackAddress(),
+					this.listeningSocket.getLocalPort()));
+		}
+		targets.put("dead", new InetSocketAddress(InetAddress.getLoopbackAddress(), this.closedPort));
+		targets.put("unresolved", InetSocketAddress.createUnresolved("unresolved.invalid", 22));
+
+		Map<String, Boolean> results = prober.probeAll(targets);
+
+		assertEquals(targets.size(), results.size());
+		for (int i = 0; i < 5; i++) {
+			assertTrue(results.get("alive-" + i));
+		}
+		assertFalse(results.get("dead"));
+		assertFalse(results.get("unresolved"));
+	}
+
+	@Test
+	public void testSshAddressOf() {
+		assertNull(ConnectivityProber.sshAddressOf(null));
+		assertNull(ConnectivityProber.sshAddressOf("null"));
+		assertNull(ConnectivityProber.sshAddressOf(""));
+
+		InetSocketAddress address = ConnectivityProber.sshAddressOf("127.0.0.1");
+		assertEquals("127.0.0.1", address.getHostString());
+		assertEquals(ConnectivityProber.DEFAULT_SSH_PORT, address.getPort());
+
+		address = ConnectivityProber.sshAddressOf("127.0.0.1:2222");
+		assertEquals("127.0.0.1", address.getHostString());
+		assertEquals(2222, address.getPort());
+	}
+}
@@ -1,16 +1,25 @@
 package org.fogbowcloud.blowout.infrastructure.monitor;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyCollection;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.fogbowcloud.blowout.helpers.Constants.*;
 
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.resource.ResourceState;
 import org.fogbowcloud.blowout.core.constants.AppPropertiesConstants;
 import org.fogbowcloud.blowout.helpers.Constants;
 import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
@@ -53,7 +62,8 @@ public class ResourceMonitorTest {
 		AbstractResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
 		
 		doReturn(resources).when(resourcePool).getAllResources();
-		doReturn(resource).when(infraProvider).getResource(Constants.FakeData.RESOURCE_ID);
+		doReturn(Collections.singletonMap(Constants.FakeData.RESOURCE_ID, resource)).when(infraProvider)
+				.getResources(anyCollection());
 		
 		resourceMonitor.addPendingResource(Constants.FakeData.RESOURCE_ID, this.spec);
 		resourceMonitor.getMonitoringService().monitorProcess();
@@ -77,8 +87,9 @@ public class ResourceMonitorTest {
 		AbstractResource resource = new FogbowResource(resourceIdA, orderIdA, spec);
 		
 		doReturn(resources).when(resourcePool).getAllResources();
-		doReturn(resource).when(infraProvider).getResource(resourceIdA);
-		doReturn(null).when(infraProvider).getResource(resourceIdB);
+		Map<String, AbstractResource> readyResources = new HashMap<>();
+		readyResources.put(resourceIdA, resource);
+		doReturn(readyResources).when(infraProvider).getResources(anyCollection());
 		
 		resourceMonitor.addPendingResource(resourceIdA, spec);
 		resourceMonitor.addPendingResource(resourceIdB, spec);
@@ -88,4 +99,80 @@ public class ResourceMonitorTest {
 		assertEquals(1, resourceMonitor.getPendingResources().size());
 
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testPendingResourceIsNotPolledBeforeDue() throws Exception {
+		AbstractResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
+		doReturn(Collections.singletonMap(Constants.FakeData.RESOURCE_ID, resource)).when(infraProvider)
+				.getResources(anyCollection());
+
+		long requestedAt = System.currentTimeMillis();
+		resourceMonitor.addPendingResource(Constants.FakeData.RESOURCE_ID, this.spec);
+		resourceMonitor.getMonitoringService().monitorPendingProcess(requestedAt - 1);
+
+		verify(infraProvider, never()).getResources(anyCollection());
+		assertEquals(1, resourceMonitor.getPendingResources().size());
+
+		resourceMonitor.getMonitoringService().monitorPendingProcess(requestedAt + 60000);
+
+		verify(resourcePool, times(1)).addResource(resource);
+		assertTrue(resourceMonitor.getPendingResources().isEmpty());
+	}
+
+	@Test
+	public void testPendingPollPeriodBacksOffWithOrderAge() {
+		Properties properties = new Properties();
+		properties.setProperty(AppPropertiesConstants.RESOURCE_MONITOR_SLEEP_PERIOD, "30000");
+		properties.setProperty(AppPropertiesConstants.RESOURCE_MONITOR_PENDING_MIN_PERIOD, "2000");
+		ResourceMonitor monitor = new ResourceMonitor(this.infraProvider, this.resourcePool, properties);
+
+		assertEquals(2000, monitor.pendingPollPeriod(0));
+		assertEquals(2000, monitor.pendingPollPeriod(4000));
+		assertEquals(10000, monitor.pendingPollPeriod(40000));
+		assertEquals(30000, monitor.pendingPollPeriod(600000));
+	}
+
+	@Test
+	public void testFailedResourcesAreProbedInBatch() throws Exception {
+		ServerSocket sshSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		try {
+			AbstractResource resource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
+			resource.putMetadata(BlowoutConstants.METADATA_PUBLIC_IP, "127.0.0.1:" + sshSocket.getLocalPort());
+			resource.setState(ResourceState.FAILED);
+			List<AbstractResource> resources = new ArrayList<>();
+			resources.add(resource);
+			doReturn(resources).when(resourcePool).getAllResources();
+
+			resourceMonitor.getMonitoringService().monitorProcess();
+
+			verify(resourcePool, times(1)).updateResource(resource, ResourceState.IDLE);
+			assertEquals(0, resource.getConnectionFailTries());
+		} finally {
+			sshSocket.close();
+		}
+	}
+
+	@Test
+	public void testIdleResourcesAreReleasedByElasticityPolicy() throws Exception {
+		Properties properties = new Properties();
+		properties.setProperty(AppPropertiesConstants.INFRA_RESOURCE_IDLE_LIFETIME, "0");
+		properties.setProperty(AppPropertiesConstants.INFRA_SCALE_DOWN_DELAY, "0");
+		ResourceMonitor monitor = new ResourceMonitor(this.infraProvider, this.resourcePool, properties);
+		AbstractResource idleResource = new FogbowResource(Constants.FakeData.RESOURCE_ID, Constants.FakeData.ORDER_ID, this.spec);
+		idleResource.setState(ResourceState.IDLE);
+		AbstractResource busyResource = new FogbowResource("busy-resource", "busy-order", this.spec);
+		busyResource.setState(ResourceState.BUSY);
+		List<AbstractResource> resources = new ArrayList<>();
+		resources.add(idleResource);
+		resources.add(busyResource);
+		doReturn(resources).when(resourcePool).getAllResources();
+		doReturn(true).when(resourcePool).claimIdleResource(idleResource);
+
+		monitor.getMonitoringService().monitorProcess();
+
+		verify(resourcePool, times(1)).claimIdleResource(idleResource);
+		verify(infraProvider, times(1)).deleteResource(Constants.FakeData.RESOURCE_ID);
+		verify(resourcePool, times(1)).removeResource(idleResource);
+		verify(infraProvider, never()).deleteResource("busy-resource");
+	}
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.FileInputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -90,6 +91,13 @@ public class FogbowInfrastructureProviderTest {
 		verify(fogbowInfrastructureProvider).handleTokenUpdate(exec);
 	}
 
+	@Test
+	public void testStopClosesDatastore() {
+		fogbowInfrastructureProvider.stop();
+
+		verify(fogbowResourceDsMock).close();
+	}
+
 	@Test
 	public void testMakeBodyJsonToComputeRequest() throws Exception {
 		createResponse(Constants.ENDPOINT.getAllImagesEndpoint, Constants.JSON.Body.IMAGES_RESPONSE);
@@ -125,6 +133,22 @@ public class FogbowInfrastructureProviderTest {
 		}
 	}
 
+	@Test
+	public void requestResourceWithoutPublicIp() throws Exception {
+		createResponse(Constants.ENDPOINT.getAllImagesEndpoint, Constants.JSON.Body.IMAGES_RESPONSE);
+		createResponse(Constants.ENDPOINT.createComputeEndpoint, Constants.JSON.Body.COMPUTE_ORDER_ID);
+		createResponse(Constants.ENDPOINT.getComputeInstanceEndpoint, Constants.JSON.Body.COMPUTE_NOT_READY);
+		fogbowInfrastructureProvider.setHttpWrapper(httpWrapperMock);
+
+		String resourceId = fogbowInfrastructureProvider.requestResource(spec);
+		assertNull(fogbowInfrastructureProvider.getResource(resourceId));
+
+		FogbowResource fogbowResource = (FogbowResource) fogbowInfrastructureProvider.getAllResources().get(0);
+		assertNull(fogbowResource.getPublicIpOrderId());
+		verify(httpWrapperMock, never()).doRequest(eq(HttpPost.METHOD_NAME),
+				eq(Constants.ENDPOINT.createPublicIPEndpoint), anyString(), anyList(), any(StringEntity.class));
+	}
+
 	@Test
 	public void getResourceTestSuccess() throws Exception{
 
@@ -145,6 +169,30 @@ public class FogbowInfrastructureProviderTest {
 
 	}
 
+	@Test
+	public void getResourcesTestSuccess() throws Exception{
+
+		createResponse(Constants.ENDPOINT.getComputeInstanceEndpoint, Constants.JSON.Body.COMPUTE);
+		createResponse(Constants.ENDPOINT.getPublicIpInstanceEndpoint, Constants.JSON.Body.PUBLIC_IP_INSTANCE_RESPONSE);
+		fogbowInfrastructureProvider.setHttpWrapper(httpWrapperMock);
+		fogbowInfrastructureProvider.setPollExecutor(exec);
+
+		FogbowResource fogbowResource = new FogbowResource(Constants.FakeData.RESOURCE_ID,
+				Constants.FakeData.COMPUTE_ORDER_ID, spec, Constants.FakeData.PUBLIC_IP_ORDER_ID);
+		Map<String, FogbowResource> resourcesMap = new ConcurrentHashMap<>();
+		resourcesMap.put(Constants.FakeData.RESOURCE_ID, fogbowResource);
+		fogbowInfrastructureProvider.setResourcesMap(resourcesMap);
+
+		String unknownResourceId = "unknownResourceId";
+		Map<String, AbstractResource> resources = fogbowInfrastructureProvider.getResources(
+				Arrays.asList(Constants.FakeData.RESOURCE_ID, unknownResourceId));
+
+		assertEquals(1, resources.size());
+		assertEquals(Constants.FakeData.PUBLIC_IP_FAKE,
+				resources.get(Constants.FakeData.RESOURCE_ID).getMetadataValue(BlowoutConstants.METADATA_PUBLIC_IP));
+		assertFalse(resources.containsKey(unknownResourceId));
+	}
+
 	@Test
 	public void getFogbowResourceTestSuccess() throws Exception{
 
@@ -169,6 +217,28 @@ public class FogbowInfrastructureProviderTest {
 
 	}
 
+	@Test
+	public void getFogbowResourceWaitsForPublicIp() throws Exception{
+
+		createResponse(Constants.ENDPOINT.getComputeInstanceEndpoint, Constants.JSON.Body.COMPUTE);
+		createResponse(Constants.ENDPOINT.getPublicIpInstanceEndpoint, Constants.JSON.Body.PUBLIC_IP_INSTANCE_NO_IP_RESPONSE);
+		fogbowInfrastructureProvider.setHttpWrapper(httpWrapperMock);
+
+		FogbowResource fogbowResource = new FogbowResource(Constants.FakeData.RESOURCE_ID,
+				Constants.FakeData.COMPUTE_ORDER_ID, spec, Constants.FakeData.PUBLIC_IP_ORDER_ID);
+		Map<String, FogbowResource> resourcesMap = new ConcurrentHashMap<>();
+		resourcesMap.put(Constants.FakeData.RESOURCE_ID, fogbowResource);
+		fogbowInfrastructureProvider.setResourcesMap(resourcesMap);
+
+		assertNull(fogbowInfrastructureProvider.getFogbowResource(Constants.FakeData.RESOURCE_ID));
+		assertEquals(Constants.FakeData.PUBLIC_IP_ORDER_ID, fogbowResource.getPublicIpOrderId());
+
+		createResponse(Constants.ENDPOINT.getPublicIpInstanceEndpoint, Constants.JSON.Body.PUBLIC_IP_INSTANCE_RESPONSE);
+
+		FogbowResource readyResource = fogbowInfrastructureProvider.getFogbowResource(Constants.FakeData.RESOURCE_ID);
+		assertEquals(Constants.FakeData.PUBLIC_IP_FAKE, readyResource.getMetadataValue(BlowoutConstants.METADATA_PUBLIC_IP));
+	}
+
 	@Test
 	public void getResourceTestInvalid(){
 		String resourceId = Constants.FakeData.RESOURCE_ID;
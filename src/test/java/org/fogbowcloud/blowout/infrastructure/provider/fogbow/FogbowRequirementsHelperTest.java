@@ -1,6 +1,7 @@
 package org.fogbowcloud.blowout.infrastructure.provider.fogbow;
 
 import static junit.framework.TestCase.assertFalse;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -100,6 +101,36 @@ public class FogbowRequirementsHelperTest {
 		assertTrue(FogbowRequirementsHelper.matches(suitableResource, Constants.FOGBOW_REQUIREMENT_A));
 	}
 
+	@Test
+	public void compileRequirementsIsCached() {
+		FogbowRequirementsHelper.clearCaches();
+
+		FogbowRequirementsHelper.CompiledRequirements compiled = FogbowRequirementsHelper
+				.compile(Constants.FOGBOW_REQUIREMENT_B);
+
+		assertTrue(compiled.isValid());
+		assertTrue(compiled == FogbowRequirementsHelper.compile(Constants.FOGBOW_REQUIREMENT_B));
+		assertEquals(3, compiled.getReferencedAttributes().size());
+		assertTrue(compiled.getReferencedAttributes().contains("Glue2disk"));
+	}
+
+	@Test
+	public void compileInvalidRequirements() {
+		assertFalse(FogbowRequirementsHelper.compile("Glue2vCPU >=").isValid());
+	}
+
+	@Test
+	public void matchesResourceRepeatedly() {
+		Map<String, String> resourceMetadata = ResourceHelperTest.generateResourceMetadata("100.10.1.1", "9898",
+				"user", "", spec.getImageName(), spec.getPublicKey(), "1", "1024", "30", "servers.your.domain");
+		suitableResource = ResourceHelperTest.generateMockResource("FakeRequestID1", resourceMetadata, true);
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(FogbowRequirementsHelper.matches(suitableResource, Constants.FOGBOW_REQUIREMENT_A));
+			assertFalse(FogbowRequirementsHelper.matches(suitableResource, "Glue2vCPU >= 4"));
+		}
+	}
+
 	@Test
 	public void matchesResourceSuccessB() {
 
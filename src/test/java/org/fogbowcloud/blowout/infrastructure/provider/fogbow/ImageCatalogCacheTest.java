@@ -0,0 +1,135 @@
+package org.fogbowcloud.blowout.infrastructure.provider.fogbow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ImageCatalogCacheTest {
+
+	private static final String MEMBER_ID = "member";
+	private static final String CLOUD_NAME = "cloud";
+	private static final String IMAGE_ID = "image-id";
+	private static final String IMAGE_NAME = "image-name";
+	private static final long TIME_TO_LIVE = 1000;
+
+	private AtomicInteger loads;
+	private Map<String, String> catalog;
+	private Queue<Runnable> backgroundRefreshes;
+	private long currentTime;
+	private ImageCatalogCache imageCatalogCache;
+
+	@Before
+	public void setUp() {
+		this.loads = new AtomicInteger();
+		this.catalog = new HashMap<>();
+		this.catalog.put(IMAGE_ID, IMAGE_NAME);
+		this.backgroundRefreshes = new LinkedList<>();
+		this.currentTime = 0;
+
+		ImageCatalogCache.CatalogLoader loader = (memberId, cloudName) -> {
+			loads.incrementAndGet();
+			return new HashMap<>(catalog);
+		};
+		this.imageCatalogCache = new ImageCatalogCache(loader, TIME_TO_LIVE, backgroundRefreshes::add) {
+			@Override
+			protected long now() {
+				return currentTime;
+			}
+		};
+	}
+
+	@Test
+	public void testCatalogIsLoadedOnce() throws Exception {
+		assertEquals(IMAGE_ID, imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME));
+		assertEquals(IMAGE_ID, imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME));
+
+		assertEquals(1, loads.get());
+		assertEquals(0, backgroundRefreshes.size());
+	}
+
+	@Test
+	public void testCatalogsAreKeyedByMemberAndCloud() throws Exception {
+		imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME);
+		imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME + "-b", IMAGE_NAME);
+		imageCatalogCache.getImageId(MEMBER_ID + "-b", CLOUD_NAME, IMAGE_NAME);
+
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void testExpiredCatalogIsReloaded() throws Exception {
+		imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME);
+		currentTime = TIME_TO_LIVE;
+
+		imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testAgingCatalogIsRefreshedInBackground() throws Exception {
+		imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME);
+		currentTime = TIME_TO_LIVE / 2;
+		catalog.put(IMAGE_ID, IMAGE_NAME + "-new");
+
+		assertEquals(IMAGE_ID, imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME));
+		imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME);
+		assertEquals(1, backgroundRefreshes.size());
+
+		backgroundRefreshes.poll().run();
+		assertEquals(2, loads.get());
+		assertEquals(IMAGE_ID, imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME + "-new"));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testMissRefreshesCatalog() throws Exception {
+		imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME);
+		catalog.put(IMAGE_ID + "-b", IMAGE_NAME + "-b");
+
+		assertEquals(IMAGE_ID + "-b", imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME + "-b"));
+		assertEquals(2, loads.get());
+
+		assertNull(imageCatalogCache.getImageId(MEMBER_ID, CLOUD_NAME, "unknown"));
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void testStaleCatalogIsUsedWhenRefreshFails() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		ImageCatalogCache.CatalogLoader failingLoader = (memberId, cloudName) -> {
+			if (calls.incrementAndGet() > 1) {
+				throw new Exception("RAS unavailable");
+			}
+			return new HashMap<>(catalog);
+		};
+		ImageCatalogCache cache = new ImageCatalogCache(failingLoader, TIME_TO_LIVE, Runnable::run) {
+			@Override
+			protected long now() {
+				return currentTime;
+			}
+		};
+
+		cache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME);
+		currentTime = TIME_TO_LIVE;
+
+		assertEquals(IMAGE_ID, cache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME));
+	}
+
+	@Test(expected = Exception.class)
+	public void testLoadFailureWithoutCatalog() throws Exception {
+		ImageCatalogCache cache = new ImageCatalogCache((memberId, cloudName) -> {
+			throw new Exception("RAS unavailable");
+		}, TIME_TO_LIVE, Runnable::run);
+
+		cache.getImageId(MEMBER_ID, CLOUD_NAME, IMAGE_NAME);
+	}
+}
@@ -9,11 +9,12 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.util.EntityUtils;
 import org.fogbowcloud.blowout.core.model.Specification;
-import org.fogbowcloud.blowout.core.util.AppUtil;
 import org.fogbowcloud.blowout.helpers.Constants;
 import org.fogbowcloud.blowout.infrastructure.exception.RequestResourceException;
 import org.fogbowcloud.blowout.infrastructure.http.HttpWrapper;
+import org.fogbowcloud.blowout.infrastructure.model.ComputeInstance;
 import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
+import org.fogbowcloud.blowout.infrastructure.model.PublicIpInstance;
 import org.fogbowcloud.blowout.infrastructure.model.Token;
 import org.fogbowcloud.blowout.infrastructure.token.KeystoneTokenUpdatePlugin;
 import org.fogbowcloud.blowout.infrastructure.token.AbstractTokenUpdatePlugin;
@@ -72,6 +73,19 @@ public class RASRequestsHelperTest {
 		assertEquals(Constants.FakeData.COMPUTE_ORDER_ID, fakeComputeOrderId);
 	}
 
+	@Test
+	public void testImageCatalogIsCached() throws Exception {
+		when(httpWrapperMock.doRequest(eq(HttpGet.METHOD_NAME), eq(Constants.ENDPOINT.getAllImagesEndpoint), eq(Constants.FakeData.FAKE_ACCESS_ID), any(List.class)))
+				.thenReturn(Constants.JSON.Body.IMAGES_RESPONSE);
+		rasRequestsHelperSpy.setHttpWrapper(httpWrapperMock);
+
+		this.rasRequestsHelperSpy.makeJsonBody(spec);
+		this.rasRequestsHelperSpy.makeJsonBody(spec);
+
+		verify(httpWrapperMock, times(1)).doRequest(eq(HttpGet.METHOD_NAME), eq(Constants.ENDPOINT.getAllImagesEndpoint),
+				eq(Constants.FakeData.FAKE_ACCESS_ID), any(List.class));
+	}
+
 	@Test(expected = RequestResourceException.class)
 	public void testCreateComputeFail() throws Exception {
 		when(httpWrapperMock.doRequest(anyString(), anyString(), anyString(), anyList()))
@@ -102,18 +116,14 @@ public class RASRequestsHelperTest {
 				.thenReturn(Constants.JSON.Body.PUBLIC_IP_INSTANCE_RESPONSE);
 		rasRequestsHelperSpy.setHttpWrapper(httpWrapperMock);
 
-		Map<String, Object> publicIpInstance = this.rasRequestsHelperSpy.getPublicIpInstance(Constants.FakeData.PUBLIC_IP_ORDER_ID);
+		PublicIpInstance publicIpInstance = this.rasRequestsHelperSpy.getPublicIpInstance(Constants.FakeData.PUBLIC_IP_ORDER_ID);
 
 		verify(rasRequestsHelperSpy, times(1)).getPublicIpInstance(Constants.FakeData.PUBLIC_IP_ORDER_ID);
 
 		assertNotNull(publicIpInstance);
-		System.out.println(publicIpInstance.toString());
-
-		final int publicIpInstancePropQuantityExpected = 7;
-		final int publicIpInstancePropQuantity = publicIpInstance.keySet().size();
-
-		assertEquals(AppUtil.parseJSONStringToMap(Constants.JSON.Body.PUBLIC_IP_INSTANCE_RESPONSE), publicIpInstance);
-		assertEquals(publicIpInstancePropQuantityExpected, publicIpInstancePropQuantity);
+		assertEquals(Constants.FakeData.PUBLIC_IP_FAKE, publicIpInstance.getIp());
+		assertEquals("DISPATCHED", publicIpInstance.getState());
+		assertEquals("string", publicIpInstance.getComputeId());
 	}
 
 	@Test
@@ -122,11 +132,15 @@ public class RASRequestsHelperTest {
 				.thenReturn(Constants.JSON.Body.COMPUTE);
 		rasRequestsHelperSpy.setHttpWrapper(httpWrapperMock);
 
-		Map<String, Object> computeInstance = rasRequestsHelperSpy.getComputeInstance(Constants.FakeData.COMPUTE_ORDER_ID);
+		ComputeInstance computeInstance = rasRequestsHelperSpy.getComputeInstance(Constants.FakeData.COMPUTE_ORDER_ID);
 
 		verify(rasRequestsHelperSpy).getComputeInstance(Constants.FakeData.COMPUTE_ORDER_ID);
 
-		assertEquals(AppUtil.parseJSONStringToMap(Constants.JSON.Body.COMPUTE), computeInstance);
+		assertTrue(computeInstance.isReady());
+		assertEquals("fake-compute-name", computeInstance.getName());
+		assertEquals(Integer.valueOf(1), computeInstance.getvCPU());
+		assertEquals(Integer.valueOf(1024), computeInstance.getMemory());
+		assertEquals(Integer.valueOf(4), computeInstance.getDisk());
 	}
 
 	@Test
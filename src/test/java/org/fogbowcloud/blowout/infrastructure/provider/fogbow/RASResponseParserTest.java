@@ -0,0 +1,83 @@
+package org.fogbowcloud.blowout.infrastructure.provider.fogbow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.fogbowcloud.blowout.helpers.Constants;
+import org.fogbowcloud.blowout.infrastructure.model.ComputeInstance;
+import org.fogbowcloud.blowout.infrastructure.model.PublicIpInstance;
+import org.junit.Test;
+
+public class RASResponseParserTest {
+
+	@Test
+	public void testParseComputeInstance() throws Exception {
+		ComputeInstance computeInstance = RASResponseParser.parseComputeInstance(Constants.JSON.Body.COMPUTE);
+
+		assertTrue(computeInstance.isReady());
+		assertEquals("fake-compute-name", computeInstance.getName());
+		assertEquals("fake-cloud-name", computeInstance.getCloudName());
+		assertEquals("fake-provider", computeInstance.getProvider());
+		assertEquals("fake-compute-image-id", computeInstance.getImageId());
+		assertEquals("fake-public-key", computeInstance.getPublicKey());
+		assertEquals(Integer.valueOf(1), computeInstance.getvCPU());
+		assertEquals(Integer.valueOf(1024), computeInstance.getMemory());
+		assertEquals(Integer.valueOf(4), computeInstance.getDisk());
+	}
+
+	@Test
+	public void testParseComputeInstanceNotReady() throws Exception {
+		ComputeInstance computeInstance = RASResponseParser.parseComputeInstance(Constants.JSON.Body.COMPUTE_NOT_READY);
+
+		assertFalse(computeInstance.isReady());
+		assertEquals("CREATING", computeInstance.getState());
+	}
+
+	@Test
+	public void testParseComputeInstanceSkipsUnknownAndNullFields() throws Exception {
+		final String response = "{\"id\": \"compute-id\", \"state\": \"READY\", \"disk\": null,"
+				+ " \"memory\": 2048.0, \"ipAddresses\": [\"10.0.0.1\", \"10.0.0.2\"],"
+				+ " \"networks\": {\"default\": {\"id\": \"network-id\"}}, \"vCPU\": 2}";
+
+		ComputeInstance computeInstance = RASResponseParser.parseComputeInstance(response);
+
+		assertEquals("compute-id", computeInstance.getId());
+		assertNull(computeInstance.getDisk());
+		assertEquals(Integer.valueOf(2048), computeInstance.getMemory());
+		assertEquals(Integer.valueOf(2), computeInstance.getvCPU());
+	}
+
+	@Test
+	public void testParsePublicIpInstance() throws Exception {
+		PublicIpInstance publicIpInstance = RASResponseParser
+				.parsePublicIpInstance(Constants.JSON.Body.PUBLIC_IP_INSTANCE_RESPONSE);
+
+		assertEquals(Constants.FakeData.PUBLIC_IP_FAKE, publicIpInstance.getIp());
+		assertEquals("DISPATCHED", publicIpInstance.getState());
+		assertEquals("string", publicIpInstance.getId());
+	}
+
+	@Test
+	public void testParseImages() throws Exception {
+		Map<String, String> images = RASResponseParser.parseImages(Constants.JSON.Body.IMAGES_RESPONSE);
+
+		assertEquals(3, images.size());
+		assertEquals("fake-compute-flavor-name", images.get("fake-compute-image-id"));
+		assertEquals("debian", images.get("f943ca3f-d9f3-407a-af26-e4c85f649af2"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testParseInvalidResponse() throws Exception {
+		RASResponseParser.parseComputeInstance("[\"not\", \"an\", \"object\"]");
+	}
+
+	@Test(expected = IOException.class)
+	public void testParseNullResponse() throws Exception {
+		RASResponseParser.parseImages(null);
+	}
+}
@@ -0,0 +1,81 @@
+package org.fogbowcloud.blowout.pool;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
+import org.fogbowcloud.blowout.infrastructure.provider.fogbow.ScheduledCurrentThreadExecutorService;
+import org.fogbowcloud.blowout.scheduler.Scheduler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompactBlowoutPoolTest {
+
+	private static final String FAKE_UUID = "1234";
+
+	private CompactBlowoutPool blowoutPool;
+	private Scheduler scheduler;
+	private Specification specification;
+
+	@Before
+	public void setUp() {
+		this.scheduler = mock(Scheduler.class);
+		this.blowoutPool = new CompactBlowoutPool(new ScheduledCurrentThreadExecutorService());
+		this.blowoutPool.start(mock(InfrastructureManager.class), scheduler);
+		this.specification = new Specification("fakeimage", "fakeusername", "fakepublickey", "fakekeypath");
+	}
+
+	@After
+	public void tearDown() {
+		this.blowoutPool.stop();
+	}
+
+	@Test
+	public void testAddAndRemoveTasks() {
+		// set up
+		List<Task> tasks = new ArrayList<Task>();
+		for (int i = 0; i < 5; i++) {
+			tasks.add(new TaskImpl("task-" + i, specification, FAKE_UUID));
+		}
+		blowoutPool.addTasks(tasks);
+		Task storedTask1 = blowoutPool.getTaskById("task-1");
+		Task storedTask3 = blowoutPool.getTaskById("task-3");
+
+		List<Task> tasksToRemove = new ArrayList<Task>();
+		tasksToRemove.add(tasks.get(1));
+		tasksToRemove.add(tasks.get(3));
+
+		// exercise
+		blowoutPool.removeTasks(tasksToRemove);
+
+		// expect
+		verify(scheduler).stopTasks(Arrays.asList(storedTask1, storedTask3));
+		Assert.assertEquals(3, blowoutPool.getAllTasks().size());
+		Assert.assertNull(blowoutPool.getTaskById("task-1"));
+		Assert.assertEquals("task-4", blowoutPool.getTaskById("task-4").getId());
+		Assert.assertEquals("task-0", blowoutPool.pollReadyTask(specification).getId());
+		Assert.assertEquals("task-2", blowoutPool.pollReadyTask(specification).getId());
+		Assert.assertEquals("task-4", blowoutPool.pollReadyTask(specification).getId());
+		Assert.assertNull(blowoutPool.pollReadyTask(specification));
+	}
+
+	@Test
+	public void testReleasedTaskIsPolledAgain() {
+		blowoutPool.addTask(new TaskImpl("task-0", specification, FAKE_UUID));
+
+		Task task = blowoutPool.pollReadyTask(specification);
+		Assert.assertNull(blowoutPool.pollReadyTask(specification));
+		blowoutPool.releaseTask(task);
+
+		Assert.assertEquals(task, blowoutPool.pollReadyTask(specification));
+	}
+}
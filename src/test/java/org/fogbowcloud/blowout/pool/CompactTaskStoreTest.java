@@ -0,0 +1,184 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fogbowcloud.blowout.core.model.Command;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.core.model.task.TaskTimestamps;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompactTaskStoreTest {
+
+	private static final String FAKE_UUID = "1234";
+	private static final int CHUNK_SIZE = 1024;
+	private static final int DICTIONARY_SIZE = 8;
+
+	private File directory;
+	private CompactTaskStore taskStore;
+	private Specification specification;
+
+	@Before
+	public void setUp() throws Exception {
+		this.directory = Files.createTempDirectory("compact-task-store-test").toFile();
+		this.taskStore = new CompactTaskStore(directory, CHUNK_SIZE, DICTIONARY_SIZE);
+		this.specification = new Specification("fakeimage", "fakeusername", "fakepublickey", "fakekeypath");
+	}
+
+	@After
+	public void tearDown() {
+		taskStore.close();
+		Assert.assertEquals(0, directory.listFiles().length);
+		directory.delete();
+	}
+
+	@Test
+	public void testViewsReadStoredTasks() {
+		Task task = new TaskImpl("task-id", specification, FAKE_UUID);
+		task.addCommand(new Command("echo 1", Command.Type.LOCAL));
+		task.addCommand(new Command("echo 2", Command.Type.REMOTE, Command.State.QUEUED));
+		task.putMetadata(TaskImpl.METADATA_SANDBOX, "/tmp/sandbox");
+		task.recordEvent(TaskTimestamps.Event.SUBMITTED);
+
+		Task view = taskStore.add(task);
+
+		Assert.assertEquals("task-id", view.getId());
+		Assert.assertEquals(FAKE_UUID, view.getUUID());
+		Assert.assertEquals(specification, view.getSpecification());
+		Assert.assertEquals(2, view.getNumberOfCommands());
+		Assert.assertEquals("echo 2", view.getCommandsByType(Command.Type.REMOTE).get(0).getCommand());
+		Assert.assertEquals(Command.State.QUEUED, view.getCommandsByType(Command.Type.REMOTE).get(0).getState());
+		Assert.assertEquals("/tmp/sandbox", view.getMetadata(TaskImpl.METADATA_SANDBOX));
+		Assert.assertEquals(TaskState.READY, view.getState());
+		Assert.assertEquals(task.getTimestamps().get(TaskTimestamps.Event.SUBMITTED),
+				view.getTimestamps().get(TaskTimestamps.Event.SUBMITTED));
+		Assert.assertEquals(view, taskStore.get("task-id"));
+	}
+
+	@Test
+	public void testChangesThroughViewsAreShared() {
+		Task task = new TaskImpl("task-id", specification, FAKE_UUID);
+		task.putMetadata(TaskImpl.METADATA_MAX_RESOURCE_CONN_RETRIES, "1");
+		Task view = taskStore.add(task);
+
+		view.startedRunning();
+		view.setState(TaskState.RUNNING);
+		view.addCommand(new Command("echo added", Command.Type.EPILOGUE));
+		view.putMetadata(TaskImpl.METADATA_RESOURCE_ID, "resource-id");
+		view.addProcessId("process-id");
+
+		Task otherView = taskStore.get("task-id");
+		Assert.assertEquals(0, otherView.getRetries());
+		Assert.assertTrue(otherView.mayRetry());
+		Assert.assertEquals(TaskState.RUNNING, otherView.getState());
+		Assert.assertEquals(1, otherView.getCommandsByType(Command.Type.EPILOGUE).size());
+		Assert.assertEquals("resource-id", otherView.getMetadata(TaskImpl.METADATA_RESOURCE_ID));
+		Assert.assertEquals("process-id", otherView.getProcessId().get(0));
+
+		otherView.finish();
+		Assert.assertTrue(view.isFinished());
+		Assert.assertFalse(view.isFailed());
+		Assert.assertEquals(TaskState.COMPLETED, view.getState());
+	}
+
+	@Test
+	public void testKeepsInsertionOrderAcrossChunks() {
+		List<Task> tasks = createTasks(200);
+		List<Task> views = taskStore.addAll(tasks);
+
+		Assert.assertEquals(200, taskStore.size());
+		Assert.assertTrue(taskStore.getMappedBytes() > CHUNK_SIZE);
+		Assert.assertEquals(views, taskStore.snapshot());
+		for (int i = 0; i < tasks.size(); i++) {
+			Task view = taskStore.get(tasks.get(i).getId());
+			Assert.assertEquals(views.get(i), view);
+			Assert.assertEquals(tasks.get(i).getAllCommands().get(0).getCommand(),
+					view.getAllCommands().get(0).getCommand());
+		}
+	}
+
+	@Test
+	public void testStringsAreWrittenInlineWhenDictionaryIsFull() {
+		List<Task> tasks = createTasks(3 * DICTIONARY_SIZE);
+		taskStore.addAll(tasks);
+
+		Assert.assertEquals(DICTIONARY_SIZE, taskStore.getDictionarySize());
+		Task lastTask = tasks.get(tasks.size() - 1);
+		Assert.assertEquals(lastTask.getAllCommands().get(0).getCommand(),
+				taskStore.get(lastTask.getId()).getAllCommands().get(0).getCommand());
+	}
+
+	@Test
+	public void testRemoveAndGetById() {
+		List<Task> tasks = createTasks(6);
+		List<Task> views = taskStore.addAll(tasks);
+
+		Assert.assertTrue(taskStore.remove(tasks.get(2)));
+		Assert.assertFalse(taskStore.remove(tasks.get(2)));
+
+		Assert.assertNull(taskStore.get(tasks.get(2).getId()));
+		Assert.assertEquals(views.get(3), taskStore.get(tasks.get(3).getId()));
+		Assert.assertEquals(5, taskStore.size());
+
+		views.remove(2);
+		Assert.assertEquals(views, taskStore.snapshot());
+	}
+
+	@Test
+	public void testViewFollowsStore() {
+		List<Task> tasks = createTasks(6);
+		List<Task> views = new ArrayList<>(taskStore.addAll(tasks.subList(0, 3)));
+		List<Task> view = taskStore.view();
+
+		views.addAll(taskStore.addAll(tasks.subList(3, 6)));
+		taskStore.remove(tasks.get(1));
+
+		views.remove(1);
+		Assert.assertEquals(views, view);
+		Assert.assertEquals(views.get(3), view.get(3));
+		Assert.assertEquals(5, view.size());
+	}
+
+	@Test
+	public void testAddingSameIdReplacesTask() {
+		Task task = new TaskImpl("task-id", specification, FAKE_UUID);
+		Task sameIdTask = new TaskImpl("task-id", specification, "5678");
+
+		taskStore.add(task);
+		taskStore.add(sameIdTask);
+
+		Assert.assertEquals(1, taskStore.size());
+		Assert.assertEquals("5678", taskStore.get("task-id").getUUID());
+	}
+
+	@Test
+	public void testIndexSurvivesManyRemovals() {
+		List<Task> tasks = createTasks(2000);
+		taskStore.addAll(tasks);
+		taskStore.removeAll(tasks.subList(0, 1900));
+		taskStore.addAll(createTasks(100));
+
+		Assert.assertEquals(200, taskStore.size());
+		for (Task task : tasks.subList(1900, 2000)) {
+			Assert.assertNotNull(taskStore.get(task.getId()));
+		}
+	}
+
+	private List<Task> createTasks(int amount) {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < amount; i++) {
+			Task task = new TaskImpl("task-" + i + "-" + System.nanoTime(), specification, FAKE_UUID);
+			task.addCommand(new Command("echo " + i, Command.Type.REMOTE));
+			tasks.add(task);
+		}
+		return tasks;
+	}
+}
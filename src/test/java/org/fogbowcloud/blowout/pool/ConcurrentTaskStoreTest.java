@@ -0,0 +1,115 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentTaskStoreTest {
+
+	private static final String FAKE_UUID = "1234";
+	private static final int SEGMENT_SIZE = 4;
+
+	private ConcurrentTaskStore taskStore;
+	private Specification specification;
+
+	@Before
+	public void setUp() {
+		this.taskStore = new ConcurrentTaskStore(SEGMENT_SIZE);
+		this.specification = new Specification("fakeimage", "fakeusername", "fakepublickey", "fakekeypath");
+	}
+
+	@Test
+	public void testKeepsInsertionOrder() {
+		List<Task> tasks = createTasks(10);
+		taskStore.addAll(tasks);
+
+		Assert.assertEquals(10, taskStore.size());
+		Assert.assertEquals(tasks, taskStore.snapshot());
+	}
+
+	@Test
+	public void testViewFollowsStore() {
+		List<Task> tasks = createTasks(6);
+		taskStore.addAll(tasks.subList(0, 3));
+		List<Task> view = taskStore.view();
+
+		taskStore.addAll(tasks.subList(3, 6));
+		taskStore.remove(tasks.get(1));
+
+		tasks.remove(1);
+		Assert.assertEquals(tasks, view);
+		Assert.assertEquals(tasks.get(3), view.get(3));
+		Assert.assertEquals(5, view.size());
+	}
+
+	@Test
+	public void testRemoveAndGetById() {
+		List<Task> tasks = createTasks(6);
+		taskStore.addAll(tasks);
+
+		Assert.assertTrue(taskStore.remove(tasks.get(2)));
+		Assert.assertFalse(taskStore.remove(tasks.get(2)));
+
+		Assert.assertNull(taskStore.get(tasks.get(2).getId()));
+		Assert.assertEquals(tasks.get(3), taskStore.get(tasks.get(3).getId()));
+		Assert.assertEquals(5, taskStore.size());
+
+		tasks.remove(2);
+		Assert.assertEquals(tasks, taskStore.snapshot());
+	}
+
+	@Test
+	public void testDropsClearedSegments() {
+		List<Task> tasks = createTasks(3 * SEGMENT_SIZE);
+		taskStore.addAll(tasks);
+		Assert.assertEquals(3, taskStore.getSegmentCount());
+
+		taskStore.removeAll(tasks.subList(0, 2 * SEGMENT_SIZE));
+
+		Assert.assertEquals(1, taskStore.getSegmentCount());
+		Assert.assertEquals(tasks.subList(2 * SEGMENT_SIZE, 3 * SEGMENT_SIZE), taskStore.snapshot());
+	}
+
+	@Test
+	public void testAddingSameIdReplacesTask() {
+		Task task = new TaskImpl("task-id", specification, FAKE_UUID);
+		Task sameIdTask = new TaskImpl("task-id", specification, FAKE_UUID);
+
+		taskStore.add(task);
+		taskStore.add(sameIdTask);
+
+		Assert.assertEquals(1, taskStore.size());
+		Assert.assertSame(sameIdTask, taskStore.get("task-id"));
+	}
+
+	@Test
+	public void testIteratorToleratesConcurrentRemoval() {
+		List<Task> tasks = createTasks(8);
+		taskStore.addAll(tasks);
+
+		Iterator<Task> iterator = taskStore.iterator();
+		Assert.assertEquals(tasks.get(0), iterator.next());
+		taskStore.remove(tasks.get(1));
+
+		List<Task> remaining = new ArrayList<>();
+		while (iterator.hasNext()) {
+			remaining.add(iterator.next());
+		}
+		Assert.assertEquals(tasks.subList(2, 8), remaining);
+	}
+
+	private List<Task> createTasks(int amount) {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < amount; i++) {
+			tasks.add(new TaskImpl("task-" + i, specification, FAKE_UUID));
+		}
+		return tasks;
+	}
+}
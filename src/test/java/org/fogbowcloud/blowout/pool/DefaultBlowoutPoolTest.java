@@ -6,18 +6,27 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.anyList;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.fogbowcloud.blowout.scheduler.DefaultScheduler;
 import org.fogbowcloud.blowout.core.constants.FogbowConstants;
+import org.fogbowcloud.blowout.core.model.Command;
 import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.ParameterRanges;
 import org.fogbowcloud.blowout.core.model.task.Task;
 import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.core.model.task.TaskTemplate;
 import org.fogbowcloud.blowout.core.monitor.TaskMonitor;
 import org.fogbowcloud.blowout.infrastructure.manager.DefaultInfrastructureManager;
 import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
@@ -26,9 +35,11 @@ import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
 import org.fogbowcloud.blowout.infrastructure.monitor.ResourceMonitor;
 import org.fogbowcloud.blowout.infrastructure.provider.InfrastructureProvider;
+import org.fogbowcloud.blowout.infrastructure.provider.fogbow.ScheduledCurrentThreadExecutorService;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class DefaultBlowoutPoolTest {
 	
@@ -43,7 +54,7 @@ public class DefaultBlowoutPoolTest {
 	
 	@Before
 	public void setUp() {
-		defaultBlowoutPool = spy(new DefaultBlowoutPool());
+		defaultBlowoutPool = spy(new DefaultBlowoutPool(new ScheduledCurrentThreadExecutorService()));
 		specification = new Specification("fakeimage", "fakeusername", "fakepublickey", "fakekeypath");
 		specification.addRequirement(FogbowConstants.METADATA_FOGBOW_REQUIREMENTS, "fakeRequirements");
 
@@ -89,6 +100,25 @@ public class DefaultBlowoutPoolTest {
 		Assert.assertEquals(ResourceState.BUSY, resourceStateTwo);
 	}
 	
+	@Test
+	public void testRestartedPoolActsAgain() throws Exception {
+		// set up
+		DefaultBlowoutPool pool = new DefaultBlowoutPool();
+		Semaphore acts = new Semaphore(0);
+		InfrastructureManager countingManager = (resources, tasks) -> acts.release();
+		DefaultScheduler scheduler = new DefaultScheduler(new TaskMonitor(pool, 3000));
+		pool.start(countingManager, scheduler);
+		pool.stop();
+		pool.start(countingManager, scheduler);
+
+		// exercise
+		pool.addTask(new TaskImpl("task-id", specification, FAKE_UUID));
+
+		// expect
+		Assert.assertTrue(acts.tryAcquire(5, TimeUnit.SECONDS));
+		pool.stop();
+	}
+
 	@Test
 	public void testAddTask(){
 		// set up
@@ -217,8 +247,176 @@ public class DefaultBlowoutPoolTest {
 		Assert.assertEquals(ResourceState.IDLE, resource.getState());
 	}
 	
+	@Test
+	public void testMutationsAreCoalescedIntoOneAct() {
+		// set up
+		ExecutorService actExecutor = mock(ExecutorService.class);
+		DefaultBlowoutPool pool = spy(new DefaultBlowoutPool(actExecutor));
+		pool.start(infraManager, defaultScheduler);
+
+		// exercise
+		pool.addTask(new TaskImpl("task-one-id", specification, FAKE_UUID));
+		pool.addTask(new TaskImpl("task-two-id", specification, FAKE_UUID));
+		pool.addTask(new TaskImpl("task-three-id", specification, FAKE_UUID));
+
+		ArgumentCaptor<Runnable> loop = ArgumentCaptor.forClass(Runnable.class);
+		verify(actExecutor).execute(loop.capture());
+		loop.getValue().run();
+
+		// expect
+		verify(pool, times(1)).callAct();
+		Assert.assertEquals(3, pool.getAllTasks().size());
+	}
+
+	@Test
+	public void testUpdateResourceStateActsOnlyOnChangedResource() {
+		// set up
+		FogbowResource resource = spy(new FogbowResource("resource-id", "order-id", specification));
+		resource.setState(ResourceState.BUSY);
+
+		Map<String, AbstractResource> resourcePool = new ConcurrentHashMap<String, AbstractResource>();
+		resourcePool.put(resource.getId(), resource);
+		defaultBlowoutPool.setResourcePool(resourcePool);
+
+		// exercise
+		defaultBlowoutPool.updateResource(resource, ResourceState.IDLE);
+
+		// expect
+		verify(defaultBlowoutPool, never()).callAct();
+		verify(defaultBlowoutPool).callActOnResources(anyList());
+	}
+
+	@Test
+	public void testPollReadyTaskBySpecification() {
+		// set up
+		Specification otherSpecification = new Specification("otherimage", "fakeusername", "fakepublickey", "fakekeypath");
+		TaskImpl taskOne = new TaskImpl("task-one-id", specification, FAKE_UUID);
+		TaskImpl taskTwo = new TaskImpl("task-two-id", otherSpecification, FAKE_UUID);
+		TaskImpl taskThree = new TaskImpl("task-three-id", specification, FAKE_UUID);
+		List<Task> taskList = new ArrayList<Task>();
+		taskList.add(taskOne);
+		taskList.add(taskTwo);
+		taskList.add(taskThree);
+		defaultBlowoutPool.setTaskPool(taskList);
+
+		// exercise and expect
+		Assert.assertEquals(taskOne, defaultBlowoutPool.pollReadyTask(specification));
+		Assert.assertEquals(taskThree, defaultBlowoutPool.pollReadyTask(specification));
+		Assert.assertNull(defaultBlowoutPool.pollReadyTask(specification));
+		Assert.assertEquals(taskTwo, defaultBlowoutPool.pollReadyTask(otherSpecification));
+	}
+
+	@Test
+	public void testReleaseTask() {
+		// set up
+		TaskImpl unfinishedTask = new TaskImpl("task-one-id", specification, FAKE_UUID);
+		TaskImpl finishedTask = new TaskImpl("task-two-id", specification, FAKE_UUID);
+		List<Task> taskList = new ArrayList<Task>();
+		taskList.add(unfinishedTask);
+		taskList.add(finishedTask);
+		defaultBlowoutPool.setTaskPool(taskList);
+
+		Task firstPolled = defaultBlowoutPool.pollReadyTask(specification);
+		Task secondPolled = defaultBlowoutPool.pollReadyTask(specification);
+		finishedTask.finish();
+
+		// exercise
+		defaultBlowoutPool.releaseTask(secondPolled);
+		defaultBlowoutPool.releaseTask(firstPolled);
+
+		// expect
+		Assert.assertEquals(unfinishedTask, defaultBlowoutPool.pollReadyTask(specification));
+		Assert.assertNull(defaultBlowoutPool.pollReadyTask(specification));
+	}
+
+	@Test
+	public void testRemovedTaskIsNotReady() {
+		// set up
+		TaskImpl task = new TaskImpl("task-one-id", specification, FAKE_UUID);
+		List<Task> taskList = new CopyOnWriteArrayList<Task>();
+		taskList.add(task);
+		defaultBlowoutPool.setTaskPool(taskList);
+		defaultBlowoutPool.setResourcePool(new ConcurrentHashMap<String, AbstractResource>());
+
+		// exercise
+		defaultBlowoutPool.removeTask(task);
+
+		// expect
+		Assert.assertNull(defaultBlowoutPool.pollReadyTask(specification));
+	}
+
+	@Test
+	public void testGetTaskById() {
+		// set up
+		defaultBlowoutPool.setResourcePool(new ConcurrentHashMap<String, AbstractResource>());
+		TaskImpl taskOne = new TaskImpl("task-one-id", specification, FAKE_UUID);
+		TaskImpl taskTwo = new TaskImpl("task-two-id", specification, FAKE_UUID);
+		defaultBlowoutPool.addTask(taskOne);
+		defaultBlowoutPool.addTask(taskTwo);
+
+		// exercise
+		defaultBlowoutPool.removeTask(taskOne);
+
+		// expect
+		Assert.assertNull(defaultBlowoutPool.getTaskById(taskOne.getId()));
+		Assert.assertEquals(taskTwo, defaultBlowoutPool.getTaskById(taskTwo.getId()));
+		Assert.assertNull(defaultBlowoutPool.getTaskById("unknown-task-id"));
+	}
+
 	@Test
 	public void testAddResourceToList() {
 		
 	}
+
+	@Test
+	public void testClaimIdleResourceExcludesStartingTasks() {
+		// set up
+		DefaultBlowoutPool pool = new DefaultBlowoutPool(mock(ExecutorService.class));
+		pool.start(infraManager, defaultScheduler);
+		FogbowResource idleResource = new FogbowResource("idle-resource-id", "idle-order-id", specification);
+		FogbowResource usedResource = new FogbowResource("used-resource-id", "used-order-id", specification);
+		pool.addResource(idleResource);
+		pool.addResource(usedResource);
+		usedResource.occupySlot();
+
+		// exercise
+		boolean idleClaimed = pool.claimIdleResource(idleResource);
+		boolean usedClaimed = pool.claimIdleResource(usedResource);
+
+		// expect
+		Assert.assertTrue(idleClaimed);
+		Assert.assertEquals(ResourceState.TO_REMOVE, idleResource.getState());
+		Assert.assertEquals(-1, idleResource.occupySlot());
+		Assert.assertEquals(0, idleResource.getUsedSlots());
+		Assert.assertFalse(pool.claimIdleResource(idleResource));
+		Assert.assertFalse(usedClaimed);
+		Assert.assertEquals(ResourceState.IDLE, usedResource.getState());
+	}
+
+	@Test
+	public void testGeneratedTasksArePooledAWindowAtATime() {
+		// set up
+		DefaultBlowoutPool pool = new DefaultBlowoutPool(mock(ExecutorService.class));
+		pool.start(infraManager, defaultScheduler);
+		TaskTemplate template = new TaskTemplate("sweep", specification, FAKE_UUID,
+				new ParameterRanges().addRange("x", 1, 5));
+		template.addCommand(new Command("run ${x}", Command.Type.REMOTE));
+
+		// exercise
+		pool.addTaskGenerator(template, 2);
+		Task task = pool.pollReadyTask(specification);
+		task.finish();
+		pool.releaseTask(task);
+
+		// expect
+		Assert.assertEquals("sweep-0", task.getId());
+		Assert.assertEquals(2, pool.getAllTasks().size());
+		Assert.assertNull(pool.getTaskById("sweep-0"));
+		Assert.assertEquals(TaskState.COMPLETED, pool.getGeneratedTaskState("sweep-0"));
+		Assert.assertEquals(TaskState.READY, pool.getGeneratedTaskState("sweep-4"));
+		Assert.assertNull(pool.getGeneratedTaskState("sweep-5"));
+		Assert.assertEquals("run 2", pool.pollReadyTask(specification).getAllCommands().get(0).getCommand());
+		Assert.assertEquals("sweep-2", pool.pollReadyTask(specification).getId());
+		Assert.assertNull(pool.pollReadyTask(specification));
+	}
 }
@@ -0,0 +1,142 @@
+package org.fogbowcloud.blowout.pool;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fogbowcloud.blowout.core.model.Command;
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.core.model.task.TaskTemplate;
+import org.fogbowcloud.blowout.core.model.task.ParameterRanges;
+import org.fogbowcloud.blowout.database.TaskJournal;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JournaledBlowoutPoolTest {
+
+	private static final int SNAPSHOT_RECORDS = 100;
+
+	private File journalDirectory;
+	private Specification specification;
+	private TaskJournal taskJournal;
+
+	@Before
+	public void setUp() throws Exception {
+		this.journalDirectory = Files.createTempDirectory("journaled-pool-test").toFile();
+		this.specification = new Specification("fakeimage", "fakeusername", "fakepublickey", "fakekeypath");
+		this.taskJournal = new TaskJournal(this.journalDirectory, SNAPSHOT_RECORDS);
+	}
+
+	@After
+	public void tearDown() {
+		this.taskJournal.close();
+		for (File file : this.journalDirectory.listFiles()) {
+			file.delete();
+		}
+		this.journalDirectory.delete();
+	}
+
+	@Test
+	public void testSnapshotDuringSubmissionKeepsTasks() throws Exception {
+		// set up
+		JournaledBlowoutPool blowoutPool = new JournaledBlowoutPool(new SlowBlowoutPool(),
+				this.taskJournal, this.taskJournal.recover());
+		blowoutPool.start(null, null);
+		List<Task> tasks = createTasks(5 * SNAPSHOT_RECORDS);
+
+		// exercise
+		blowoutPool.addTasks(tasks);
+		this.taskJournal.close();
+		blowoutPool.stop();
+
+		// expect
+		this.taskJournal = new TaskJournal(this.journalDirectory, SNAPSHOT_RECORDS);
+		Assert.assertEquals(tasks.size(), this.taskJournal.recover().size());
+	}
+
+	@Test
+	public void testSnapshotLeavesGeneratedTasksOut() throws Exception {
+		// set up
+		JournaledBlowoutPool blowoutPool = new JournaledBlowoutPool(new DefaultBlowoutPool(),
+				this.taskJournal, this.taskJournal.recover());
+		blowoutPool.start(null, null);
+		TaskTemplate template = new TaskTemplate("sweep", specification, "uuid",
+				new ParameterRanges().addRange("x", 1, 5));
+		template.addCommand(new Command("run ${x}", Command.Type.REMOTE));
+		List<Task> tasks = createTasks(3);
+
+		// exercise
+		blowoutPool.addTasks(tasks);
+		blowoutPool.addTaskGenerator(template, 2);
+		this.taskJournal.requestSnapshot();
+		long deadline = System.currentTimeMillis() + 10000;
+		while (!hasSnapshot() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		this.taskJournal.close();
+		blowoutPool.stop();
+
+		// expect
+		this.taskJournal = new TaskJournal(this.journalDirectory, SNAPSHOT_RECORDS);
+		List<Task> recoveredTasks = this.taskJournal.recover();
+		Assert.assertEquals(tasks.size(), recoveredTasks.size());
+		for (Task task : recoveredTasks) {
+			Assert.assertTrue(task.getId().startsWith("task-"));
+		}
+	}
+
+	private boolean hasSnapshot() {
+		for (String name : journalDirectory.list()) {
+			if (name.endsWith(".snapshot")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private List<Task> createTasks(int amount) {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < amount; i++) {
+			Task task = new TaskImpl("task-" + i, specification, "uuid");
+			task.addCommand(new Command("echo " + i, Command.Type.REMOTE));
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	/**
+	 * Adds the tasks only once the journal started a new log for a snapshot,
+	 * as a large bag still being added when the snapshot is taken.
+	 */
+	private class SlowBlowoutPool extends DefaultBlowoutPool {
+
+		@Override
+		public void addTasks(List<Task> tasks) {
+			long deadline = System.currentTimeMillis() + 10000;
+			while (countLogs() < 2 && System.currentTimeMillis() < deadline) {
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			super.addTasks(tasks);
+		}
+
+		private int countLogs() {
+			int logs = 0;
+			for (String name : journalDirectory.list()) {
+				if (name.endsWith(".log")) {
+					logs++;
+				}
+			}
+			return logs;
+		}
+	}
+}
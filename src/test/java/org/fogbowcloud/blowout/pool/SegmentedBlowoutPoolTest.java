@@ -0,0 +1,59 @@
+package org.fogbowcloud.blowout.pool;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
+import org.fogbowcloud.blowout.infrastructure.provider.fogbow.ScheduledCurrentThreadExecutorService;
+import org.fogbowcloud.blowout.scheduler.Scheduler;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SegmentedBlowoutPoolTest {
+
+	private static final String FAKE_UUID = "1234";
+
+	private SegmentedBlowoutPool blowoutPool;
+	private Scheduler scheduler;
+	private Specification specification;
+
+	@Before
+	public void setUp() {
+		this.scheduler = mock(Scheduler.class);
+		this.blowoutPool = new SegmentedBlowoutPool(new ScheduledCurrentThreadExecutorService());
+		this.blowoutPool.start(mock(InfrastructureManager.class), scheduler);
+		this.specification = new Specification("fakeimage", "fakeusername", "fakepublickey", "fakekeypath");
+	}
+
+	@Test
+	public void testAddAndRemoveTasks() {
+		// set up
+		List<Task> tasks = new ArrayList<Task>();
+		for (int i = 0; i < 5; i++) {
+			tasks.add(new TaskImpl("task-" + i, specification, FAKE_UUID));
+		}
+		blowoutPool.addTasks(tasks);
+
+		List<Task> tasksToRemove = new ArrayList<Task>();
+		tasksToRemove.add(tasks.get(1));
+		tasksToRemove.add(tasks.get(3));
+
+		// exercise
+		blowoutPool.removeTasks(tasksToRemove);
+
+		// expect
+		verify(scheduler).stopTasks(tasksToRemove);
+		Assert.assertEquals(3, blowoutPool.getAllTasks().size());
+		Assert.assertNull(blowoutPool.getTaskById("task-1"));
+		Assert.assertEquals(tasks.get(4), blowoutPool.getTaskById("task-4"));
+		Assert.assertEquals(tasks.get(0), blowoutPool.pollReadyTask(specification));
+		Assert.assertEquals(tasks.get(2), blowoutPool.pollReadyTask(specification));
+	}
+}
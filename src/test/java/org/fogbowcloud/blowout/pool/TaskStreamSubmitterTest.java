@@ -0,0 +1,111 @@
+package org.fogbowcloud.blowout.pool;
+
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
+import org.fogbowcloud.blowout.scheduler.Scheduler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskStreamSubmitterTest {
+
+	private static final String FAKE_UUID = "1234";
+
+	private DefaultBlowoutPool blowoutPool;
+	private Specification specification;
+	private ExecutorService submissionExecutor;
+
+	@Before
+	public void setUp() {
+		this.blowoutPool = spy(new DefaultBlowoutPool(mock(ExecutorService.class)));
+		this.blowoutPool.start(mock(InfrastructureManager.class), mock(Scheduler.class));
+		this.specification = new Specification("fakeimage", "fakeusername", "fakepublickey", "fakekeypath");
+		this.submissionExecutor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		this.submissionExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testSubmitsInChunks() throws Exception {
+		TaskStreamSubmitter submitter = new TaskStreamSubmitter(blowoutPool, 1000, 0, 0);
+
+		long submitted = submitter.submit(createTasks(2500).iterator());
+
+		Assert.assertEquals(2500, submitted);
+		Assert.assertEquals(2500, blowoutPool.getTaskCount());
+		verify(blowoutPool, times(3)).addTasks(anyList());
+	}
+
+	@Test
+	public void testWaitsWhilePoolIsFull() throws Exception {
+		final TaskStreamSubmitter submitter = new TaskStreamSubmitter(blowoutPool, 2, 2, 0);
+		final List<Task> tasks = createTasks(4);
+
+		Future<Long> submission = submissionExecutor.submit(() -> submitter.submit(tasks.iterator()));
+		Thread.sleep(10 * TaskStreamSubmitter.WAIT_PERIOD);
+
+		Assert.assertFalse(submission.isDone());
+		Assert.assertEquals(2, blowoutPool.getTaskCount());
+
+		blowoutPool.removeTasks(new ArrayList<>(tasks.subList(0, 2)));
+
+		Assert.assertEquals(4, (long) submission.get(10, TimeUnit.SECONDS));
+		Assert.assertEquals(2, blowoutPool.getTaskCount());
+		Assert.assertNotNull(blowoutPool.getTaskById("task-3"));
+	}
+
+	@Test
+	public void testFinishedTasksDoNotHoldSubmissionBack() throws Exception {
+		final TaskStreamSubmitter submitter = new TaskStreamSubmitter(blowoutPool, 2, 2, 0);
+		final List<Task> tasks = createTasks(4);
+
+		Future<Long> submission = submissionExecutor.submit(() -> submitter.submit(tasks.iterator()));
+		Thread.sleep(10 * TaskStreamSubmitter.WAIT_PERIOD);
+		Assert.assertFalse(submission.isDone());
+
+		for (int i = 0; i < 2; i++) {
+			Task task = blowoutPool.pollReadyTask(specification);
+			task.finish();
+			blowoutPool.releaseTask(task);
+		}
+
+		Assert.assertEquals(4, (long) submission.get(10, TimeUnit.SECONDS));
+		Assert.assertEquals(4, blowoutPool.getTaskCount());
+		Assert.assertEquals(2, blowoutPool.getUnfinishedTaskCount());
+	}
+
+	@Test
+	public void testHeapLimit() {
+		System.gc();
+		Assert.assertFalse(new TaskStreamSubmitter(blowoutPool, 1, 0, 0).isHeapFull());
+		Assert.assertTrue(new TaskStreamSubmitter(blowoutPool, 1, 0, Double.MIN_VALUE).isHeapFull());
+		Assert.assertFalse(new TaskStreamSubmitter(blowoutPool, 1, 0, 1).isHeapFull());
+	}
+
+	private List<Task> createTasks(int amount) {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < amount; i++) {
+			tasks.add(new TaskImpl("task-" + i, specification, FAKE_UUID));
+		}
+		return tasks;
+	}
+}
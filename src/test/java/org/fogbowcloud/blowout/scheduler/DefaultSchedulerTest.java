@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.fogbowcloud.blowout.core.constants.BlowoutConstants;
 import org.fogbowcloud.blowout.core.model.Specification;
 import org.fogbowcloud.blowout.core.model.task.Task;
 import org.fogbowcloud.blowout.core.model.task.TaskImpl;
@@ -16,6 +17,7 @@ import org.fogbowcloud.blowout.core.monitor.TaskMonitor;
 import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
 import org.fogbowcloud.blowout.core.model.resource.ResourceState;
 import org.fogbowcloud.blowout.core.model.resource.AbstractResource;
+import org.fogbowcloud.blowout.pool.BlowoutPool;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -85,16 +87,85 @@ public class DefaultSchedulerTest {
 		AbstractResource resourceThreeSpecB = new FogbowResource("idThree", "orderIdThree", specB);
 		AbstractResource resourceFourSpecB = new FogbowResource("idFour", "orderIdFour", specB);
 		AbstractResource resourceFiveSpecB = new FogbowResource("idFive", "orderIdFIve", specB);
-		Map<AbstractResource, Task> runningTasks = new HashMap<AbstractResource, Task>();
-		runningTasks.put(resourceTwoSpecB, taskTwoRunning);
-		runningTasks.put(resourceThreeSpecB, taskThreeRunning);
-		runningTasks.put(resourceFiveSpecB, taskFiveRunning);
+		Map<Task, AbstractResource> runningTasks = new HashMap<Task, AbstractResource>();
+		runningTasks.put(taskTwoRunning, resourceTwoSpecB);
+		runningTasks.put(taskThreeRunning, resourceThreeSpecB);
+		runningTasks.put(taskFiveRunning, resourceFiveSpecB);
 		defaultScheduler.setRunningTasks(runningTasks);
 		
 		Task choosenTaskForRunning = defaultScheduler.chooseTaskForRunning(resourceFourSpecB, tasks);
 		Assert.assertEquals(taskExpected, choosenTaskForRunning);
 	}	
 	
+	@Test
+	public void testChooseTaskForRunningFromPoolReadyQueue() {
+		TaskMonitor taskMon = Mockito.mock(TaskMonitor.class);
+		BlowoutPool blowoutPool = Mockito.mock(BlowoutPool.class);
+		Mockito.when(taskMon.getBlowoutPool()).thenReturn(blowoutPool);
+		Mockito.when(blowoutPool.pollReadyTask(specB)).thenReturn(this.taskC);
+		DefaultScheduler defaultScheduler = new DefaultScheduler(taskMon);
+
+		AbstractResource resourceWithSpecB = new FogbowResource(FakeData.RESOURCE_ID, FakeData.ORDER_ID, specB);
+
+		Task chooseTaskForRunning = defaultScheduler.chooseTaskForRunning(resourceWithSpecB, new ArrayList<Task>());
+		Assert.assertEquals(this.taskC, chooseTaskForRunning);
+	}
+
+	@Test
+	public void testActHoldsTasksBackWhileExecutorIsSaturated() {
+		TaskMonitor taskMon = Mockito.mock(TaskMonitor.class);
+		BlowoutPool blowoutPool = Mockito.mock(BlowoutPool.class);
+		Mockito.when(taskMon.getBlowoutPool()).thenReturn(blowoutPool);
+		Mockito.when(taskMon.isSaturated()).thenReturn(true);
+		Mockito.when(blowoutPool.pollReadyTask(specA)).thenReturn(this.taskA);
+		DefaultScheduler defaultScheduler = new DefaultScheduler(taskMon);
+		AbstractResource resource = new FogbowResource(FakeData.RESOURCE_ID, FakeData.ORDER_ID, specA);
+		resource.setState(ResourceState.IDLE);
+
+		List<AbstractResource> resources = new ArrayList<>();
+		resources.add(resource);
+		defaultScheduler.actOnResources(new ArrayList<Task>(), resources);
+
+		Mockito.verify(blowoutPool, Mockito.never()).pollReadyTask(specA);
+		Mockito.verify(taskMon, Mockito.never()).runTask(this.taskA, resource);
+	}
+
+	@Test
+	public void testActStopsTasksRemovedFromPool() {
+		TaskMonitor taskMon = Mockito.mock(TaskMonitor.class);
+		BlowoutPool blowoutPool = Mockito.mock(BlowoutPool.class);
+		Mockito.when(taskMon.getBlowoutPool()).thenReturn(blowoutPool);
+		Mockito.when(blowoutPool.getTaskById(this.taskA.getId())).thenReturn(this.taskA);
+		DefaultScheduler defaultScheduler = new DefaultScheduler(taskMon);
+		AbstractResource resource = new FogbowResource(FakeData.RESOURCE_ID, FakeData.ORDER_ID, specA);
+		defaultScheduler.runTask(this.taskA, resource);
+		defaultScheduler.runTask(this.taskB, resource);
+
+		List<Task> tasks = new ArrayList<>();
+		tasks.add(this.taskA);
+		List<AbstractResource> resources = new ArrayList<>();
+		resources.add(resource);
+		defaultScheduler.act(tasks, resources);
+
+		Mockito.verify(taskMon).stopTask(this.taskB);
+		Mockito.verify(taskMon, Mockito.never()).stopTask(this.taskA);
+	}
+
+	@Test
+	public void testStopTaskReleasesItToPool() {
+		TaskMonitor taskMon = Mockito.mock(TaskMonitor.class);
+		BlowoutPool blowoutPool = Mockito.mock(BlowoutPool.class);
+		Mockito.when(taskMon.getBlowoutPool()).thenReturn(blowoutPool);
+		DefaultScheduler defaultScheduler = new DefaultScheduler(taskMon);
+
+		AbstractResource resource = new FogbowResource(FakeData.RESOURCE_ID, FakeData.ORDER_ID, specA);
+		defaultScheduler.runTask(this.taskA, resource);
+		defaultScheduler.stopTask(this.taskA);
+
+		Mockito.verify(blowoutPool).releaseTask(this.taskA);
+		Assert.assertTrue(defaultScheduler.getRunningTasks().isEmpty());
+	}
+
 	@Test
 	public void testAct() {
 		TaskMonitor taskMon = Mockito.mock(TaskMonitor.class);
@@ -142,6 +213,27 @@ public class DefaultSchedulerTest {
 		Assert.assertEquals(countRunningTaskBefore + addedTaskToRunning, defaultScheduler.getRunningTasks().size());
 	}
 
+	@Test
+	public void testActPacksTasksIntoFreeSlots() {
+		TaskMonitor taskMon = Mockito.mock(TaskMonitor.class);
+		DefaultScheduler defaultScheduler = new DefaultScheduler(taskMon);
+
+		List<Task> tasks = new ArrayList<Task>();
+		for (int i = 0; i < 5; i++) {
+			tasks.add(new TaskImpl("task" + i, specB, FakeData.UUID));
+		}
+		AbstractResource resource = new FogbowResource(FakeData.RESOURCE_ID, FakeData.ORDER_ID, specB);
+		resource.putMetadata(BlowoutConstants.METADATA_VCPU, "4");
+		resource.setState(ResourceState.IDLE);
+		List<AbstractResource> resources = new ArrayList<AbstractResource>();
+		resources.add(resource);
+
+		defaultScheduler.act(tasks, resources);
+
+		Assert.assertEquals(4, defaultScheduler.getRunningTasks().size());
+		Mockito.verify(taskMon, Mockito.times(4)).runTask(Mockito.any(Task.class), Mockito.eq(resource));
+	}
+
 	@Test
 	public void testActRetryTask(){
 		TaskMonitor taskMon = Mockito.mock(TaskMonitor.class);
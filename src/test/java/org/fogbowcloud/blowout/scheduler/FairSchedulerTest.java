@@ -0,0 +1,209 @@
+package org.fogbowcloud.blowout.scheduler;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.fogbowcloud.blowout.core.model.Specification;
+import org.fogbowcloud.blowout.core.model.task.ParameterRanges;
+import org.fogbowcloud.blowout.core.model.task.Task;
+import org.fogbowcloud.blowout.core.model.task.TaskImpl;
+import org.fogbowcloud.blowout.core.model.task.TaskState;
+import org.fogbowcloud.blowout.core.model.task.TaskTemplate;
+import org.fogbowcloud.blowout.core.model.task.TaskTimestamps;
+import org.fogbowcloud.blowout.core.monitor.TaskMonitor;
+import org.fogbowcloud.blowout.infrastructure.manager.InfrastructureManager;
+import org.fogbowcloud.blowout.infrastructure.model.FogbowResource;
+import org.fogbowcloud.blowout.pool.DefaultBlowoutPool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FairSchedulerTest {
+
+	private static final String FAKE_UUID = "1234";
+
+	private Specification specification;
+	private FairScheduler.FairQueue queue;
+
+	@Before
+	public void setUp() {
+		this.specification = new Specification("fakeimage", "fakeusername", "fakepublickey", "fakekeypath");
+		this.queue = new FairScheduler.FairQueue();
+	}
+
+	@Test
+	public void testJobsShareSlotsByWeight() {
+		for (Task task : createTasks("big-job", 100)) {
+			task.putMetadata(TaskImpl.METADATA_JOB_WEIGHT, "1");
+			queue.add(task);
+		}
+		for (Task task : createTasks("small-job", 10)) {
+			task.putMetadata(TaskImpl.METADATA_JOB_WEIGHT, "2");
+			queue.add(task);
+		}
+
+		Map<String, Integer> slotsByJob = new HashMap<>();
+		for (int i = 0; i < 12; i++) {
+			slotsByJob.merge(FairScheduler.jobIdOf(queue.poll()), 1, Integer::sum);
+		}
+
+		Assert.assertEquals(4, (int) slotsByJob.get("big-job"));
+		Assert.assertEquals(8, (int) slotsByJob.get("small-job"));
+		Assert.assertEquals(98, queue.size());
+	}
+
+	@Test
+	public void testIdleJobDoesNotSaveUpSlots() {
+		List<Task> bigJob = createTasks("big-job", 10);
+		for (Task task : bigJob) {
+			queue.add(task);
+		}
+		for (int i = 0; i < 6; i++) {
+			queue.poll();
+		}
+
+		for (Task task : createTasks("late-job", 10)) {
+			queue.add(task);
+		}
+
+		Assert.assertEquals("late-job", FairScheduler.jobIdOf(queue.poll()));
+		Assert.assertEquals("big-job", FairScheduler.jobIdOf(queue.poll()));
+		Assert.assertEquals("late-job", FairScheduler.jobIdOf(queue.poll()));
+	}
+
+	@Test
+	public void testPriorityThenDeadlineWithinJob() {
+		List<Task> tasks = createTasks("job", 4);
+		tasks.get(1).putMetadata(TaskImpl.METADATA_TASK_TIMEOUT, "60000");
+		tasks.get(2).putMetadata(TaskImpl.METADATA_TASK_TIMEOUT, "1000");
+		tasks.get(3).putMetadata(TaskImpl.METADATA_TASK_PRIORITY, "5");
+		for (Task task : tasks) {
+			task.recordEvent(TaskTimestamps.Event.SUBMITTED);
+			queue.add(task);
+		}
+
+		Assert.assertEquals(tasks.get(3), queue.poll());
+		Assert.assertEquals(tasks.get(2), queue.poll());
+		Assert.assertEquals(tasks.get(1), queue.poll());
+		Assert.assertEquals(tasks.get(0), queue.poll());
+		Assert.assertNull(queue.poll());
+	}
+
+	@Test
+	public void testTaskQueuedAgainIsPolledOnce() {
+		List<Task> tasks = createTasks("job", 2);
+		queue.add(tasks.get(0));
+		queue.add(tasks.get(1));
+		Task readdedTask = new TaskImpl(tasks.get(0).getId(), specification, FAKE_UUID);
+		readdedTask.putMetadata(TaskImpl.METADATA_JOB_ID, "job");
+		queue.add(readdedTask);
+
+		Assert.assertEquals(2, queue.size());
+		Assert.assertSame(tasks.get(1), queue.poll());
+		Assert.assertSame(readdedTask, queue.poll());
+		Assert.assertNull(queue.poll());
+	}
+
+	@Test
+	public void testLowestPriorityRunsLast() {
+		List<Task> tasks = createTasks("job", 2);
+		tasks.get(0).putMetadata(TaskImpl.METADATA_TASK_PRIORITY, String.valueOf(Integer.MIN_VALUE));
+		queue.add(tasks.get(0));
+		queue.add(tasks.get(1));
+
+		Assert.assertEquals(tasks.get(1), queue.poll());
+		Assert.assertEquals(tasks.get(0), queue.poll());
+	}
+
+	@Test
+	public void testJobIsUuidWhenNotSet() {
+		Task task = new TaskImpl("task-id", specification, FAKE_UUID);
+
+		Assert.assertEquals(FAKE_UUID, FairScheduler.jobIdOf(task));
+		Assert.assertEquals(FairScheduler.DEFAULT_JOB_WEIGHT, FairScheduler.weightOf(task), 0);
+		task.putMetadata(TaskImpl.METADATA_JOB_WEIGHT, "-1");
+		Assert.assertEquals(FairScheduler.DEFAULT_JOB_WEIGHT, FairScheduler.weightOf(task), 0);
+		Assert.assertEquals(Long.MAX_VALUE, FairScheduler.deadlineOf(task));
+	}
+
+	@Test
+	public void testChooseTaskSkipsTasksRemovedFromPool() {
+		// set up
+		DefaultBlowoutPool blowoutPool = new DefaultBlowoutPool(mock(ExecutorService.class));
+		FairScheduler scheduler = new FairScheduler(new TaskMonitor(blowoutPool, 3000));
+		blowoutPool.start(mock(InfrastructureManager.class), scheduler);
+		List<Task> tasks = createTasks("job", 3);
+		blowoutPool.addTasks(tasks);
+		FogbowResource resource = new FogbowResource("resource-id", "order-id", specification);
+
+		// exercise
+		Task first = scheduler.chooseTaskForRunning(resource, tasks);
+		blowoutPool.removeTask(tasks.get(1));
+
+		// expect
+		Assert.assertEquals(tasks.get(0), first);
+		Assert.assertEquals(tasks.get(2), scheduler.chooseTaskForRunning(resource, tasks));
+		Assert.assertNull(scheduler.chooseTaskForRunning(resource, tasks));
+	}
+
+	@Test
+	public void testChooseTaskReleasesFinishedTasks() {
+		// set up
+		DefaultBlowoutPool blowoutPool = new DefaultBlowoutPool(mock(ExecutorService.class));
+		FairScheduler scheduler = new FairScheduler(new TaskMonitor(blowoutPool, 3000));
+		blowoutPool.start(mock(InfrastructureManager.class), scheduler);
+		TaskTemplate template = new TaskTemplate("sweep", specification, FAKE_UUID,
+				new ParameterRanges().addRange("x", 1, 3));
+		blowoutPool.addTaskGenerator(template, 2);
+		FogbowResource resource = new FogbowResource("resource-id", "order-id", specification);
+
+		// exercise
+		Task first = scheduler.chooseTaskForRunning(resource, new ArrayList<>());
+		blowoutPool.getTaskById("sweep-1").finish();
+
+		// expect
+		Assert.assertEquals("sweep-0", first.getId());
+		Assert.assertEquals("sweep-2", scheduler.chooseTaskForRunning(resource, new ArrayList<>()).getId());
+		Assert.assertEquals(TaskState.COMPLETED, blowoutPool.getGeneratedTaskState("sweep-1"));
+		Assert.assertNull(scheduler.chooseTaskForRunning(resource, new ArrayList<>()));
+	}
+
+	@Test
+	public void testPoolKeepsReadyTasksAndReleasedTaskKeepsItsPlace() {
+		// set up
+		DefaultBlowoutPool blowoutPool = new DefaultBlowoutPool(mock(ExecutorService.class));
+		FairScheduler scheduler = new FairScheduler(new TaskMonitor(blowoutPool, 3000));
+		blowoutPool.start(mock(InfrastructureManager.class), scheduler);
+		List<Task> tasks = createTasks("job", 3);
+		blowoutPool.addTasks(tasks);
+		FogbowResource resource = new FogbowResource("resource-id", "order-id", specification);
+
+		// exercise
+		Task first = scheduler.chooseTaskForRunning(resource, tasks);
+		Task lateTask = new TaskImpl("job-late-task", specification, FAKE_UUID);
+		lateTask.putMetadata(TaskImpl.METADATA_JOB_ID, "job");
+		blowoutPool.addTask(lateTask);
+		blowoutPool.releaseTask(first);
+
+		// expect
+		Assert.assertEquals(tasks.get(0), first);
+		Assert.assertEquals(4, blowoutPool.getUnfinishedTaskCount());
+		Assert.assertEquals(tasks.get(0), blowoutPool.pollReadyTask(specification));
+		Assert.assertEquals(tasks.get(1), scheduler.chooseTaskForRunning(resource, tasks));
+	}
+
+	private List<Task> createTasks(String jobId, int amount) {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < amount; i++) {
+			Task task = new TaskImpl(jobId + "-task-" + i, specification, FAKE_UUID);
+			task.putMetadata(TaskImpl.METADATA_JOB_ID, jobId);
+			tasks.add(task);
+		}
+		return tasks;
+	}
+}